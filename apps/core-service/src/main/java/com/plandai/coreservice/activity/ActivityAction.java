@@ -0,0 +1,10 @@
+package com.plandai.coreservice.activity;
+
+/**
+ * Tipo de cambio registrado en activity_log.
+ */
+public enum ActivityAction {
+    CREATED,
+    UPDATED,
+    DELETED
+}
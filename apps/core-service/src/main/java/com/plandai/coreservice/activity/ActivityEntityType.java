@@ -0,0 +1,12 @@
+package com.plandai.coreservice.activity;
+
+/**
+ * Entidades cuyos cambios se registran en activity_log.
+ */
+public enum ActivityEntityType {
+    WORKSPACE,
+    PROJECT,
+    TASK,
+    EVENT,
+    EXPENSE
+}
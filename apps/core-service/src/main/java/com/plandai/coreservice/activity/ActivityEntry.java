@@ -0,0 +1,26 @@
+package com.plandai.coreservice.activity;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Una fila pendiente de escribir en activity_log.
+ *
+ * workspaceId puede ir vacío: el writer lo resuelve en el propio INSERT desde
+ * projectId, o desde la última entrada de la misma entidad (bajas).
+ *
+ * @param changes campos cambiados (null en las bajas)
+ */
+public record ActivityEntry(
+        UUID id,
+        LocalDateTime occurredAt,
+        UUID actorId,
+        ActivityEntityType entityType,
+        UUID entityId,
+        UUID workspaceId,
+        UUID projectId,
+        ActivityAction action,
+        Map<String, Object[]> changes
+) {
+}
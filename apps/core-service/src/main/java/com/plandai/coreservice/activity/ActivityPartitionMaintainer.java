@@ -0,0 +1,108 @@
+package com.plandai.coreservice.activity;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Mantiene las particiones mensuales de activity_log.
+ *
+ * - Crea por adelantado las de los próximos activity.partitions.months-ahead meses
+ *   (sin partición, un INSERT del writer fallaría y su lote se perdería).
+ * - Elimina las que quedan fuera de activity.partitions.retention-months con
+ *   DROP TABLE: coste constante, sin DELETE masivo ni VACUUM. 0 = no borrar nunca.
+ *
+ * Las particiones se llaman activity_log_YYYYMM; el resto se ignora.
+ */
+@Component
+@Slf4j
+public class ActivityPartitionMaintainer {
+
+    static final String PARTITION_PREFIX = "activity_log_";
+
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private static final String LIST_PARTITIONS_SQL = """
+            SELECT c.relname
+              FROM pg_inherits i
+              JOIN pg_class c ON c.oid = i.inhrelid
+              JOIN pg_class p ON p.oid = i.inhparent
+              JOIN pg_namespace n ON n.oid = p.relnamespace
+             WHERE n.nspname = 'core_schema' AND p.relname = 'activity_log'
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Clock clock;
+    private final int monthsAhead;
+    private final int retentionMonths;
+
+    @Autowired
+    public ActivityPartitionMaintainer(JdbcTemplate jdbcTemplate,
+                                       @Value("${activity.partitions.months-ahead:3}") int monthsAhead,
+                                       @Value("${activity.partitions.retention-months:24}") int retentionMonths) {
+        this(jdbcTemplate, Clock.systemDefaultZone(), monthsAhead, retentionMonths);
+    }
+
+    ActivityPartitionMaintainer(JdbcTemplate jdbcTemplate, Clock clock, int monthsAhead, int retentionMonths) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.clock = clock;
+        this.monthsAhead = monthsAhead;
+        this.retentionMonths = retentionMonths;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${activity.partitions.cron:0 15 2 * * *}")
+    public void maintain() {
+        YearMonth current = YearMonth.now(clock);
+        try {
+            for (int i = 0; i <= monthsAhead; i++) {
+                createPartition(current.plusMonths(i));
+            }
+            if (retentionMonths > 0) {
+                dropBefore(current.minusMonths(retentionMonths - 1L));
+            }
+        } catch (RuntimeException e) {
+            log.error("❌ Error manteniendo las particiones de activity_log: {}", e.getMessage());
+        }
+    }
+
+    private void createPartition(YearMonth month) {
+        LocalDate from = month.atDay(1);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS core_schema." + PARTITION_PREFIX + month.format(SUFFIX)
+                + " PARTITION OF core_schema.activity_log"
+                + " FOR VALUES FROM ('" + from + "') TO ('" + from.plusMonths(1) + "')");
+    }
+
+    private void dropBefore(YearMonth oldestKept) {
+        List<String> partitions = jdbcTemplate.queryForList(LIST_PARTITIONS_SQL, String.class);
+        for (String partition : partitions) {
+            YearMonth month = parseMonth(partition);
+            if (month != null && month.isBefore(oldestKept)) {
+                jdbcTemplate.execute("DROP TABLE IF EXISTS core_schema." + partition);
+                log.info("🗑️ Partición de actividad eliminada: {}", partition);
+            }
+        }
+    }
+
+    static YearMonth parseMonth(String partition) {
+        if (!partition.startsWith(PARTITION_PREFIX)) {
+            return null;
+        }
+        String suffix = partition.substring(PARTITION_PREFIX.length());
+        if (suffix.length() != 6 || !suffix.chars().allMatch(Character::isDigit)) {
+            return null;
+        }
+        return YearMonth.parse(suffix, SUFFIX);
+    }
+}
@@ -0,0 +1,263 @@
+package com.plandai.coreservice.activity;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.plandai.coreservice.security.AuthenticatedUserHelper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registro de actividad asíncrono.
+ *
+ * - Los servicios llaman a created/updated/deleted dentro de su transacción; la
+ *   entrada se encola solo tras el commit (un rollback no deja rastro).
+ * - La petición no espera a la BD: se encola en memoria (cola acotada) y un hilo
+ *   propio escribe en lotes de hasta activity.writer.batch-size filas, un único
+ *   batch JDBC y un commit por lote.
+ * - Si la cola está llena la entrada se descarta y se cuenta en
+ *   activity.log.dropped: el registro nunca frena ni hace fallar una petición.
+ *   Las entradas encoladas se pierden si el proceso muere antes de escribirlas.
+ */
+@Component
+@Slf4j
+public class ActivityRecorder {
+
+    /**
+     * El workspace se resuelve aquí y no en la petición: desde el proyecto
+     * (tareas, eventos) o, en las bajas, desde la última entrada de la entidad.
+     */
+    static final String INSERT_SQL = """
+            INSERT INTO core_schema.activity_log
+                (id, occurred_at, workspace_id, actor_id, entity_type, entity_id, action, changes)
+            VALUES (?, ?,
+                    COALESCE(CAST(? AS uuid),
+                             (SELECT p.workspace_id FROM core_schema.projects p WHERE p.id = CAST(? AS uuid)),
+                             (SELECT a.workspace_id FROM core_schema.activity_log a
+                               WHERE a.entity_id = CAST(? AS uuid) AND a.workspace_id IS NOT NULL
+                               ORDER BY a.occurred_at DESC LIMIT 1)),
+                    ?, ?, ?, ?, CAST(? AS jsonb))
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AuthenticatedUserHelper userHelper;
+    private final ObjectMapper objectMapper;
+    private final Clock clock;
+    private final int batchSize;
+    private final long pollTimeoutMs;
+    private final BlockingQueue<ActivityEntry> queue;
+    private final Counter written;
+    private final Counter dropped;
+
+    private volatile boolean running;
+    private Thread thread;
+
+    @Autowired
+    public ActivityRecorder(JdbcTemplate jdbcTemplate,
+                            TransactionTemplate transactionTemplate,
+                            AuthenticatedUserHelper userHelper,
+                            ObjectMapper objectMapper,
+                            MeterRegistry meterRegistry,
+                            @Value("${activity.writer.queue-capacity:10000}") int queueCapacity,
+                            @Value("${activity.writer.batch-size:500}") int batchSize,
+                            @Value("${activity.writer.poll-timeout-ms:1000}") long pollTimeoutMs) {
+        this(jdbcTemplate, transactionTemplate, userHelper, objectMapper, meterRegistry, Clock.systemDefaultZone(),
+                queueCapacity, batchSize, pollTimeoutMs);
+    }
+
+    ActivityRecorder(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                     AuthenticatedUserHelper userHelper, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                     Clock clock, int queueCapacity, int batchSize, long pollTimeoutMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.userHelper = userHelper;
+        this.objectMapper = objectMapper;
+        this.clock = clock;
+        this.batchSize = batchSize;
+        this.pollTimeoutMs = pollTimeoutMs;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.written = Counter.builder("activity.log.written")
+                .description("Entradas de actividad escritas en activity_log")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("activity.log.dropped")
+                .description("Entradas de actividad descartadas (cola llena o lote fallido)")
+                .register(meterRegistry);
+        Gauge.builder("activity.log.queue", queue, BlockingQueue::size)
+                .description("Entradas de actividad pendientes de escribir")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        running = true;
+        thread = Thread.ofPlatform().name("activity-log-writer").daemon(true).start(this::run);
+    }
+
+    /**
+     * Deja de aceptar lotes nuevos en el hilo y escribe lo que quede en la cola.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (thread != null) {
+            thread.join(pollTimeoutMs * 2);
+        }
+        flush();
+    }
+
+    public void created(ActivityEntityType type, UUID entityId, UUID workspaceId, UUID projectId, FieldDiff diff) {
+        record(type, entityId, workspaceId, projectId, ActivityAction.CREATED, diff);
+    }
+
+    /**
+     * Solo se registra si algún campo cambia de verdad.
+     */
+    public void updated(ActivityEntityType type, UUID entityId, UUID workspaceId, UUID projectId, FieldDiff diff) {
+        if (!diff.isEmpty()) {
+            record(type, entityId, workspaceId, projectId, ActivityAction.UPDATED, diff);
+        }
+    }
+
+    public void deleted(ActivityEntityType type, UUID entityId, UUID workspaceId, UUID projectId) {
+        record(type, entityId, workspaceId, projectId, ActivityAction.DELETED, null);
+    }
+
+    private void record(ActivityEntityType type, UUID entityId, UUID workspaceId, UUID projectId,
+                        ActivityAction action, FieldDiff diff) {
+        ActivityEntry entry = new ActivityEntry(UUID.randomUUID(), LocalDateTime.now(clock),
+                userHelper.getCurrentUserId(), type, entityId, workspaceId, projectId, action,
+                diff != null ? diff.changes() : null);
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            enqueue(entry);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                enqueue(entry);
+            }
+        });
+    }
+
+    private void enqueue(ActivityEntry entry) {
+        if (!queue.offer(entry)) {
+            dropped.increment();
+            log.warn("⚠️ Cola de actividad llena, entrada descartada: {} {} {}",
+                    entry.entityType(), entry.action(), entry.entityId());
+        }
+    }
+
+    private void run() {
+        List<ActivityEntry> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                ActivityEntry first = queue.poll(pollTimeoutMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Escribe de forma síncrona todo lo que haya en la cola (parada y tests).
+     */
+    void flush() {
+        List<ActivityEntry> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    private void write(List<ActivityEntry> pending) {
+        // Copia: la lista de la cola se reutiliza para el siguiente lote
+        List<ActivityEntry> batch = List.copyOf(pending);
+        try {
+            List<String> changes = new ArrayList<>(batch.size());
+            for (ActivityEntry entry : batch) {
+                changes.add(toJson(entry));
+            }
+            transactionTemplate.executeWithoutResult(status ->
+                    jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement ps, int i) throws SQLException {
+                            ActivityEntry entry = batch.get(i);
+                            ps.setObject(1, entry.id());
+                            ps.setTimestamp(2, Timestamp.valueOf(entry.occurredAt()));
+                            setUuid(ps, 3, entry.workspaceId());
+                            setUuid(ps, 4, entry.projectId());
+                            ps.setObject(5, entry.entityId());
+                            setUuid(ps, 6, entry.actorId());
+                            ps.setString(7, entry.entityType().name());
+                            ps.setObject(8, entry.entityId());
+                            ps.setString(9, entry.action().name());
+                            ps.setString(10, changes.get(i));
+                        }
+
+                        @Override
+                        public int getBatchSize() {
+                            return batch.size();
+                        }
+                    }));
+            written.increment(batch.size());
+        } catch (RuntimeException e) {
+            dropped.increment(batch.size());
+            log.error("❌ No se pudo escribir un lote de {} entradas de actividad: {}", batch.size(), e.getMessage());
+        }
+    }
+
+    private String toJson(ActivityEntry entry) {
+        if (entry.changes() == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(entry.changes());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Diff de actividad no serializable", e);
+        }
+    }
+
+    private static void setUuid(PreparedStatement ps, int index, UUID value) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.OTHER);
+        } else {
+            ps.setObject(index, value);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.plandai.coreservice.activity;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Diff compacto por campo: {"campo": [antes, después]}, solo con los campos que cambian.
+ *
+ * Si un mismo campo se anota varias veces (p. ej. dos operaciones masivas sobre la
+ * misma tarea) se conserva el valor original y el último; si vuelve al original
+ * el campo desaparece del diff.
+ *
+ * Para altas se anota cada campo con "antes" = null, así que los campos vacíos
+ * no ocupan sitio.
+ */
+public final class FieldDiff {
+
+    private final Map<String, Object[]> changes = new LinkedHashMap<>();
+
+    public static FieldDiff of() {
+        return new FieldDiff();
+    }
+
+    public FieldDiff field(String name, Object before, Object after) {
+        Object[] previous = changes.get(name);
+        Object original = previous != null ? previous[0] : before;
+        if (same(original, after)) {
+            changes.remove(name);
+        } else {
+            changes.put(name, new Object[]{original, after});
+        }
+        return this;
+    }
+
+    public boolean isEmpty() {
+        return changes.isEmpty();
+    }
+
+    public Map<String, Object[]> changes() {
+        return Collections.unmodifiableMap(changes);
+    }
+
+    // 10.0 y 10.00 son el mismo importe
+    private static boolean same(Object a, Object b) {
+        if (a instanceof BigDecimal x && b instanceof BigDecimal y) {
+            return x.compareTo(y) == 0;
+        }
+        return Objects.equals(a, b);
+    }
+}
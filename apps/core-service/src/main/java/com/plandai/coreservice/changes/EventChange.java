@@ -0,0 +1,24 @@
+package com.plandai.coreservice.changes;
+
+import com.plandai.coreservice.model.Event;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Evento de aplicación: un evento de calendario se ha creado, modificado o borrado.
+ *
+ * Lo publica EventService; los listeners lo reciben tras el commit.
+ *
+ * @param deleted true si el evento ya no existe (el resto de campos pueden ser null)
+ */
+public record EventChange(UUID eventId, boolean deleted, Event.EventType eventType, LocalDateTime startTime) {
+
+    public static EventChange saved(Event event) {
+        return new EventChange(event.getId(), false, event.getEventType(), event.getStartTime());
+    }
+
+    public static EventChange deleted(UUID eventId) {
+        return new EventChange(eventId, true, null, null);
+    }
+}
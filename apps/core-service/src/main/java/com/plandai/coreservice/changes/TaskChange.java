@@ -0,0 +1,27 @@
+package com.plandai.coreservice.changes;
+
+import com.plandai.coreservice.entities.Task;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Evento de aplicación: una tarea se ha creado, modificado o borrado.
+ *
+ * Lo publican TaskService, TaskBulkService y TaskRankService; los listeners lo reciben tras el
+ * commit (@TransactionalEventListener), nunca con datos que luego se deshagan.
+ *
+ * @param projectId proyecto actual de la tarea (null en los borrados)
+ * @param deleted   true si la tarea ya no existe (el resto de campos pueden ser null)
+ */
+public record TaskChange(UUID taskId, UUID projectId, boolean deleted, Task.TaskStatus status, LocalDate dueDate) {
+
+    public static TaskChange saved(Task task) {
+        UUID projectId = task.getProject() == null ? null : task.getProject().getId();
+        return new TaskChange(task.getId(), projectId, false, task.getStatus(), task.getDueDate());
+    }
+
+    public static TaskChange deleted(UUID taskId) {
+        return new TaskChange(taskId, null, true, null, null);
+    }
+}
@@ -0,0 +1,29 @@
+package com.plandai.coreservice.config;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.BasicType;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Registra en Hibernate las funciones JSONB que no tiene la API de Criteria.
+ *
+ * - jsonb_path_match(columna, 'jsonpath') → (columna @@ jsonpath). Se genera el OPERADOR,
+ *   no la función de PostgreSQL del mismo nombre: solo el operador usa el índice GIN
+ *   jsonb_path_ops de custom_fields (V19).
+ *
+ * Se carga por ServiceLoader (META-INF/services/org.hibernate.boot.model.FunctionContributor).
+ */
+public class JsonbFunctionContributor implements FunctionContributor {
+
+    public static final String JSONB_PATH_MATCH = "jsonb_path_match";
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        BasicType<Boolean> booleanType = functionContributions.getTypeConfiguration()
+                .getBasicTypeRegistry()
+                .resolve(StandardBasicTypes.BOOLEAN);
+        functionContributions.getFunctionRegistry()
+                .registerPattern(JSONB_PATH_MATCH, "(?1 @@ cast(?2 as jsonpath))", booleanType);
+    }
+}
@@ -0,0 +1,14 @@
+package com.plandai.coreservice.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Habilita las tareas programadas (@Scheduled) del Core Service.
+ *
+ * Ejemplo: recarga del fichero de claves JWT.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -4,6 +4,8 @@ import com.plandai.coreservice.model.Budget;
 import com.plandai.coreservice.model.ExpenseCategory;
 import com.plandai.coreservice.service.BudgetService;
 import com.plandai.coreservice.service.ExpenseCategoryService;
+import com.plandai.coreservice.security.AuthenticatedUser;
+import com.plandai.coreservice.security.CurrentUser;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
@@ -27,14 +29,17 @@ public class BudgetController {
     private final ExpenseCategoryService expenseCategoryService;
 
     @PostMapping
-    public ResponseEntity<Budget> createBudget(@Valid @RequestBody BudgetCreateDto createDto) {
+    public ResponseEntity<Budget> createBudget(
+            @CurrentUser AuthenticatedUser user,
+            @Valid @RequestBody BudgetCreateDto createDto
+    ) {
         ExpenseCategory category = expenseCategoryService.getCategoryById(createDto.getCategoryId());
         
         Budget budget = new Budget();
         budget.setCategory(category);
         budget.setMonthlyLimit(createDto.getMonthlyLimit());
         budget.setMonthYear(createDto.getMonthYear());
-        budget.setUserId(createDto.getUserId());
+        budget.setUserId(user.userId());
 
         Budget created = budgetService.createBudget(budget);
         return ResponseEntity.status(HttpStatus.CREATED).body(created);
@@ -42,15 +47,15 @@ public class BudgetController {
 
     @GetMapping
     public ResponseEntity<List<Budget>> getBudgets(
-            @RequestParam UUID userId,
+            @CurrentUser AuthenticatedUser user,
             @RequestParam(required = false) String monthYear
     ) {
         List<Budget> budgets;
 
         if (monthYear != null) {
-            budgets = budgetService.getBudgetsByUserIdAndMonth(userId, monthYear);
+            budgets = budgetService.getBudgetsByUserIdAndMonth(user.userId(), monthYear);
         } else {
-            budgets = budgetService.getAllBudgetsByUserId(userId);
+            budgets = budgetService.getAllBudgetsByUserId(user.userId());
         }
 
         return ResponseEntity.ok(budgets);
@@ -99,8 +104,6 @@ public class BudgetController {
         private BigDecimal monthlyLimit;
         @NotNull
         private String monthYear; // YYYY-MM
-        @NotNull
-        private UUID userId;
     }
 
     @Data
@@ -2,9 +2,13 @@ package com.plandai.coreservice.controller;
 
 import com.plandai.coreservice.dto.EventCreateDto;
 import com.plandai.coreservice.model.Event;
+import com.plandai.coreservice.pagination.CursorPage;
 import com.plandai.coreservice.entities.Project;
 import com.plandai.coreservice.service.EventService;
 import com.plandai.coreservice.services.ProjectService;
+import com.plandai.coreservice.services.UserDirectoryService;
+import com.plandai.coreservice.security.AuthenticatedUser;
+import com.plandai.coreservice.security.CurrentUser;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -25,9 +29,13 @@ public class EventController {
 
     private final EventService eventService;
     private final ProjectService projectService;
+    private final UserDirectoryService userDirectoryService;
 
     @PostMapping
-    public ResponseEntity<Event> createEvent(@Valid @RequestBody EventCreateDto createDto) {
+    public ResponseEntity<Event> createEvent(
+            @CurrentUser AuthenticatedUser user,
+            @Valid @RequestBody EventCreateDto createDto
+    ) {
         Event event = new Event();
         event.setTitle(createDto.getTitle());
         event.setDescription(createDto.getDescription());
@@ -36,7 +44,7 @@ public class EventController {
         event.setEventType(createDto.getEventType());
         event.setLocation(createDto.getLocation());
         event.setIsAllDay(createDto.getIsAllDay());
-        event.setUserId(createDto.getUserId());
+        event.setUserId(user.userId());
         
         if (createDto.getProjectId() != null) {
             Project project = projectService.getProjectById(createDto.getProjectId());
@@ -49,7 +57,7 @@ public class EventController {
 
     @GetMapping
     public ResponseEntity<List<Event>> getEvents(
-            @RequestParam(required = false) UUID userId,
+            @CurrentUser AuthenticatedUser user,
             @RequestParam(required = false) UUID projectId,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTime,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endTime
@@ -58,15 +66,29 @@ public class EventController {
 
         if (projectId != null) {
             events = eventService.getEventsByProjectId(projectId);
-        } else if (userId != null && startTime != null && endTime != null) {
-            events = eventService.getEventsByUserIdAndDateRange(userId, startTime, endTime);
-        } else if (userId != null) {
-            events = eventService.getEventsByUserId(userId);
+        } else if (startTime != null && endTime != null) {
+            events = eventService.getEventsByUserIdAndDateRange(user.userId(), startTime, endTime);
         } else {
-            return ResponseEntity.badRequest().build();
+            events = eventService.getEventsByUserId(user.userId());
         }
 
-        return ResponseEntity.ok(events);
+        return ResponseEntity.ok(userDirectoryService.withOwners(events));
+    }
+
+    // Paginado por cursor: se activa con "limit" y devuelve {"items": [...], "next": "cursor"}
+    @GetMapping(params = "limit")
+    public ResponseEntity<CursorPage<Event>> getEventsPage(
+            @CurrentUser AuthenticatedUser user,
+            @RequestParam(required = false) UUID projectId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTime,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endTime,
+            @RequestParam(required = false) String cursor,
+            @RequestParam Integer limit
+    ) {
+        CursorPage<Event> page = eventService.getEventsPage(
+                user.userId(), projectId, startTime, endTime, cursor, limit);
+        userDirectoryService.withOwners(page.items());
+        return ResponseEntity.ok(page);
     }
 
     @GetMapping("/{id}")
@@ -3,8 +3,11 @@ package com.plandai.coreservice.controller;
 import com.plandai.coreservice.dto.ExpenseCreateDto;
 import com.plandai.coreservice.model.Expense;
 import com.plandai.coreservice.model.ExpenseCategory;
+import com.plandai.coreservice.pagination.CursorPage;
 import com.plandai.coreservice.service.ExpenseService;
 import com.plandai.coreservice.service.ExpenseCategoryService;
+import com.plandai.coreservice.security.AuthenticatedUser;
+import com.plandai.coreservice.security.CurrentUser;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -30,13 +33,16 @@ public class ExpenseController {
     private final ExpenseCategoryService expenseCategoryService;
 
     @PostMapping
-    public ResponseEntity<Expense> createExpense(@Valid @RequestBody ExpenseCreateDto createDto) {
+    public ResponseEntity<Expense> createExpense(
+            @CurrentUser AuthenticatedUser user,
+            @Valid @RequestBody ExpenseCreateDto createDto
+    ) {
         Expense expense = new Expense();
         expense.setAmount(createDto.getAmount());
         expense.setDescription(createDto.getDescription());
         expense.setExpenseDate(createDto.getExpenseDate());
         expense.setPaymentMethod(createDto.getPaymentMethod());
-        expense.setUserId(createDto.getUserId());
+        expense.setUserId(user.userId());
         expense.setIsRecurring(createDto.getIsRecurring());
         expense.setRecurrencePeriod(createDto.getRecurrencePeriod());
 
@@ -51,11 +57,12 @@ public class ExpenseController {
 
     @GetMapping
     public ResponseEntity<List<Expense>> getExpenses(
-            @RequestParam UUID userId,
+            @CurrentUser AuthenticatedUser user,
             @RequestParam(required = false) UUID categoryId,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate
     ) {
+        UUID userId = user.userId();
         List<Expense> expenses;
 
         if (categoryId != null) {
@@ -69,13 +76,29 @@ public class ExpenseController {
         return ResponseEntity.ok(expenses);
     }
 
+    // Paginado por cursor: se activa con "limit" y devuelve {"items": [...], "next": "cursor"}
+    @GetMapping(params = "limit")
+    public ResponseEntity<CursorPage<Expense>> getExpensesPage(
+            @CurrentUser AuthenticatedUser user,
+            @RequestParam(required = false) UUID categoryId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) String cursor,
+            @RequestParam Integer limit
+    ) {
+        CursorPage<Expense> page = expenseService.getExpensesPage(
+                user.userId(), categoryId, startDate, endDate, cursor, limit);
+        return ResponseEntity.ok(page);
+    }
+
     @GetMapping("/total")
     public ResponseEntity<Map<String, Object>> getTotalExpenses(
-            @RequestParam UUID userId,
+            @CurrentUser AuthenticatedUser user,
             @RequestParam(required = false) UUID categoryId,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate
     ) {
+        UUID userId = user.userId();
         BigDecimal total;
 
         if (categoryId != null) {
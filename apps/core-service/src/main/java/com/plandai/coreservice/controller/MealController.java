@@ -2,6 +2,7 @@ package com.plandai.coreservice.controller;
 
 import com.plandai.coreservice.dto.MealCreateDto;
 import com.plandai.coreservice.model.Meal;
+import com.plandai.coreservice.pagination.CursorPage;
 import com.plandai.coreservice.service.MealService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -66,6 +67,20 @@ public class MealController {
         return ResponseEntity.ok(meals);
     }
 
+    // Paginado por cursor: se activa con "limit" y devuelve {"items": [...], "next": "cursor"}
+    @GetMapping(params = "limit")
+    public ResponseEntity<CursorPage<Meal>> getMealsPage(
+            @RequestParam(required = false) UUID userId,
+            @RequestParam(required = false) Meal.MealType mealType,
+            @RequestParam(required = false, defaultValue = "false") boolean favoritesOnly,
+            @RequestParam(required = false, defaultValue = "false") boolean publicOnly,
+            @RequestParam(required = false) String cursor,
+            @RequestParam Integer limit
+    ) {
+        CursorPage<Meal> page = mealService.getMealsPage(userId, mealType, favoritesOnly, publicOnly, cursor, limit);
+        return ResponseEntity.ok(page);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Meal> getMealById(@PathVariable UUID id) {
         Meal meal = mealService.getMealById(id);
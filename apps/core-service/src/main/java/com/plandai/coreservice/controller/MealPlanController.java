@@ -3,8 +3,11 @@ package com.plandai.coreservice.controller;
 import com.plandai.coreservice.dto.MealPlanCreateDto;
 import com.plandai.coreservice.model.Meal;
 import com.plandai.coreservice.model.MealPlan;
+import com.plandai.coreservice.pagination.CursorPage;
 import com.plandai.coreservice.service.MealPlanService;
 import com.plandai.coreservice.service.MealService;
+import com.plandai.coreservice.security.AuthenticatedUser;
+import com.plandai.coreservice.security.CurrentUser;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -27,14 +30,17 @@ public class MealPlanController {
     private final MealService mealService;
 
     @PostMapping
-    public ResponseEntity<MealPlan> createMealPlan(@Valid @RequestBody MealPlanCreateDto createDto) {
+    public ResponseEntity<MealPlan> createMealPlan(
+            @CurrentUser AuthenticatedUser user,
+            @Valid @RequestBody MealPlanCreateDto createDto
+    ) {
         Meal meal = mealService.getMealById(createDto.getMealId());
         
         MealPlan mealPlan = new MealPlan();
         mealPlan.setMealDate(createDto.getMealDate());
         mealPlan.setMealType(createDto.getMealType());
         mealPlan.setMeal(meal);
-        mealPlan.setUserId(createDto.getUserId());
+        mealPlan.setUserId(user.userId());
         mealPlan.setNotes(createDto.getNotes());
         mealPlan.setIsCompleted(createDto.getIsCompleted());
 
@@ -44,11 +50,12 @@ public class MealPlanController {
 
     @GetMapping
     public ResponseEntity<List<MealPlan>> getMealPlans(
-            @RequestParam UUID userId,
+            @CurrentUser AuthenticatedUser user,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate
     ) {
+        UUID userId = user.userId();
         List<MealPlan> mealPlans;
 
         if (date != null) {
@@ -66,6 +73,19 @@ public class MealPlanController {
         return ResponseEntity.ok(mealPlans);
     }
 
+    // Paginado por cursor: se activa con "limit" y devuelve {"items": [...], "next": "cursor"}
+    @GetMapping(params = "limit")
+    public ResponseEntity<CursorPage<MealPlan>> getMealPlansPage(
+            @CurrentUser AuthenticatedUser user,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) String cursor,
+            @RequestParam Integer limit
+    ) {
+        CursorPage<MealPlan> page = mealPlanService.getMealPlansPage(user.userId(), startDate, endDate, cursor, limit);
+        return ResponseEntity.ok(page);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<MealPlan> getMealPlanById(@PathVariable UUID id) {
         MealPlan mealPlan = mealPlanService.getMealPlanById(id);
@@ -0,0 +1,41 @@
+package com.plandai.coreservice.controllers;
+
+import com.plandai.coreservice.dto.ActivityDto;
+import com.plandai.coreservice.pagination.CursorPage;
+import com.plandai.coreservice.security.AuthenticatedUser;
+import com.plandai.coreservice.security.CurrentUser;
+import com.plandai.coreservice.services.ActivityFeedService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Controlador REST para el registro de actividad.
+ * El feed de un workspace está en GET /api/workspaces/{id}/activity.
+ */
+@RestController
+@RequestMapping("/api/activity")
+@RequiredArgsConstructor
+@Slf4j
+public class ActivityController {
+
+    private final ActivityFeedService activityFeedService;
+
+    /**
+     * GET /api/activity/me?limit=50&cursor=...
+     * Cambios hechos por el usuario autenticado, lo más reciente primero.
+     */
+    @GetMapping("/me")
+    public ResponseEntity<CursorPage<ActivityDto>> getMyActivity(
+            @CurrentUser AuthenticatedUser user,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit
+    ) {
+        log.info("📥 GET /api/activity/me - userId: {}", user.userId());
+        return ResponseEntity.ok(activityFeedService.getUserFeed(user.userId(), cursor, limit));
+    }
+}
@@ -1,7 +1,20 @@
 package com.plandai.coreservice.controllers;
 
+import com.plandai.coreservice.dto.DependencyGraphDto;
+import com.plandai.coreservice.dto.SubtaskProgressDto;
+import com.plandai.coreservice.dto.TaskBoardDto;
+import com.plandai.coreservice.dto.TaskCardDto;
+import com.plandai.coreservice.entities.CustomFieldDefinition;
 import com.plandai.coreservice.entities.Project;
+import com.plandai.coreservice.entities.ProjectTaskStats;
+import com.plandai.coreservice.entities.Task;
+import com.plandai.coreservice.pagination.CursorPage;
+import com.plandai.coreservice.services.CustomFieldService;
 import com.plandai.coreservice.services.ProjectService;
+import com.plandai.coreservice.services.ProjectTaskStatsService;
+import com.plandai.coreservice.services.TaskBoardService;
+import com.plandai.coreservice.services.TaskDependencyService;
+import com.plandai.coreservice.services.TaskHierarchyService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -24,6 +37,11 @@ import java.util.UUID;
 public class ProjectController {
 
     private final ProjectService projectService;
+    private final TaskBoardService taskBoardService;
+    private final TaskDependencyService taskDependencyService;
+    private final TaskHierarchyService taskHierarchyService;
+    private final ProjectTaskStatsService projectTaskStatsService;
+    private final CustomFieldService customFieldService;
 
     /**
      * GET /api/projects
@@ -75,6 +93,120 @@ public class ProjectController {
         return ResponseEntity.status(HttpStatus.CREATED).body(created);
     }
 
+    /**
+     * GET /api/projects/{id}/stats
+     * Progreso del proyecto: tareas por estado y prioridad, vencidas y última actividad.
+     */
+    @GetMapping("/{id}/stats")
+    public ResponseEntity<ProjectTaskStats> getProjectStats(@PathVariable UUID id) {
+        log.info("📥 GET /api/projects/{}/stats", id);
+        return ResponseEntity.ok(projectTaskStatsService.getStats(id));
+    }
+
+    /**
+     * GET /api/projects/stats?workspaceId=uuid
+     * Progreso de todos los proyectos de un workspace (para listados de proyectos).
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<List<ProjectTaskStats>> getWorkspaceProjectStats(@RequestParam UUID workspaceId) {
+        log.info("📥 GET /api/projects/stats - workspaceId: {}", workspaceId);
+        return ResponseEntity.ok(projectTaskStatsService.getStatsByWorkspace(workspaceId));
+    }
+
+    /**
+     * GET /api/projects/{id}/board
+     * Tablero Kanban: por cada estado, el total de tareas y las primeras tarjetas ligeras.
+     * 
+     * Ejemplos:
+     * - GET /api/projects/{id}/board → 20 tarjetas por columna
+     * - GET /api/projects/{id}/board?limit=50 → 50 tarjetas por columna
+     */
+    @GetMapping("/{id}/board")
+    public ResponseEntity<TaskBoardDto> getBoard(
+            @PathVariable UUID id,
+            @RequestParam(required = false) Integer limit
+    ) {
+        log.info("📥 GET /api/projects/{}/board - limit: {}", id, limit);
+        return ResponseEntity.ok(taskBoardService.getBoard(id, limit));
+    }
+
+    /**
+     * GET /api/projects/{id}/board/{status}?cursor=...
+     * Carga más tarjetas de una columna del tablero (cursor "next" de la columna).
+     */
+    @GetMapping("/{id}/board/{status}")
+    public ResponseEntity<CursorPage<TaskCardDto>> getBoardColumn(
+            @PathVariable UUID id,
+            @PathVariable Task.TaskStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit
+    ) {
+        log.info("📥 GET /api/projects/{}/board/{} - cursor: {}", id, status, cursor);
+        return ResponseEntity.ok(taskBoardService.getColumnPage(id, status, cursor, limit));
+    }
+
+    /**
+     * GET /api/projects/{id}/dependencies
+     * Grafo de dependencias del proyecto: orden topológico, tareas bloqueadas y ruta crítica.
+     * 
+     * Respuesta: {"projectId": "uuid", "topologicalOrder": [...], "blocked": {"uuid": ["uuid"]},
+     *             "criticalPath": {"taskIds": [...], "estimatedFinish": "2025-12-20", "slackDays": -2}}
+     */
+    @GetMapping("/{id}/dependencies")
+    public ResponseEntity<DependencyGraphDto> getDependencyGraph(@PathVariable UUID id) {
+        log.info("📥 GET /api/projects/{}/dependencies", id);
+        return ResponseEntity.ok(taskDependencyService.getProjectGraph(id));
+    }
+
+    /**
+     * GET /api/projects/{id}/subtask-progress
+     * Progreso acumulado de cada tarea con subtareas del proyecto, en una consulta
+     * (para pintar las barras de progreso del tablero).
+     */
+    @GetMapping("/{id}/subtask-progress")
+    public ResponseEntity<List<SubtaskProgressDto>> getSubtaskProgress(@PathVariable UUID id) {
+        log.info("📥 GET /api/projects/{}/subtask-progress", id);
+        return ResponseEntity.ok(taskHierarchyService.getProjectProgress(id));
+    }
+
+    /**
+     * GET /api/projects/{id}/custom-fields
+     * Campos personalizados definidos en el proyecto.
+     */
+    @GetMapping("/{id}/custom-fields")
+    public ResponseEntity<List<CustomFieldDefinition>> getCustomFields(@PathVariable UUID id) {
+        log.info("📥 GET /api/projects/{}/custom-fields", id);
+        return ResponseEntity.ok(customFieldService.getDefinitions(id));
+    }
+
+    /**
+     * POST /api/projects/{id}/custom-fields
+     * Define un campo personalizado.
+     *
+     * Body: {"key": "points", "label": "Story points", "type": "NUMBER"}
+     *       {"key": "client", "label": "Cliente", "type": "SELECT", "options": ["ACME", "Globex"]}
+     */
+    @PostMapping("/{id}/custom-fields")
+    public ResponseEntity<CustomFieldDefinition> createCustomField(
+            @PathVariable UUID id,
+            @Valid @RequestBody CustomFieldDefinition definition
+    ) {
+        log.info("📥 POST /api/projects/{}/custom-fields - key: {}", id, definition.getKey());
+        CustomFieldDefinition created = customFieldService.createDefinition(id, definition);
+        return ResponseEntity.status(HttpStatus.CREATED).body(created);
+    }
+
+    /**
+     * DELETE /api/projects/{id}/custom-fields/{fieldId}
+     * Elimina el campo y su valor en las tareas del proyecto.
+     */
+    @DeleteMapping("/{id}/custom-fields/{fieldId}")
+    public ResponseEntity<Void> deleteCustomField(@PathVariable UUID id, @PathVariable UUID fieldId) {
+        log.info("📥 DELETE /api/projects/{}/custom-fields/{}", id, fieldId);
+        customFieldService.deleteDefinition(id, fieldId);
+        return ResponseEntity.noContent().build();
+    }
+
     /**
      * PUT /api/projects/{id}
      * Actualiza un proyecto existente.
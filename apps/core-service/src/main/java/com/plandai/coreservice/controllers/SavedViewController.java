@@ -0,0 +1,108 @@
+package com.plandai.coreservice.controllers;
+
+import com.plandai.coreservice.dto.ViewCountDto;
+import com.plandai.coreservice.entities.SavedView;
+import com.plandai.coreservice.entities.Task;
+import com.plandai.coreservice.pagination.CursorPage;
+import com.plandai.coreservice.security.AuthenticatedUser;
+import com.plandai.coreservice.security.CurrentUser;
+import com.plandai.coreservice.services.SavedViewService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Controlador REST para las vistas guardadas (filtros de tareas con nombre).
+ * Cada usuario solo ve y modifica sus propias vistas.
+ */
+@RestController
+@RequestMapping("/api/views")
+@RequiredArgsConstructor
+@Slf4j
+public class SavedViewController {
+
+    private final SavedViewService savedViewService;
+
+    /**
+     * GET /api/views
+     * Vistas del usuario autenticado, por nombre.
+     */
+    @GetMapping
+    public ResponseEntity<List<SavedView>> getViews(@CurrentUser AuthenticatedUser user) {
+        log.info("📥 GET /api/views - userId: {}", user.userId());
+        return ResponseEntity.ok(savedViewService.getViews(user.userId()));
+    }
+
+    /**
+     * POST /api/views
+     * Guarda una vista.
+     *
+     * Body: {"name": "Mis vencidas", "filter": {"assignedTo": "uuid", "overdue": true}}
+     * - 400 si el nombre ya existe, el filtro no se acota a un workspace, proyecto o asignado,
+     *   o abarca demasiadas tareas
+     */
+    @PostMapping
+    public ResponseEntity<SavedView> createView(
+            @CurrentUser AuthenticatedUser user,
+            @Valid @RequestBody SavedView view
+    ) {
+        log.info("📥 POST /api/views - userId: {}, name: {}", user.userId(), view.getName());
+        SavedView created = savedViewService.createView(user.userId(), view);
+        return ResponseEntity.status(HttpStatus.CREATED).body(created);
+    }
+
+    /**
+     * PUT /api/views/{id}
+     * Cambia el nombre y el filtro de una vista.
+     */
+    @PutMapping("/{id}")
+    public ResponseEntity<SavedView> updateView(
+            @CurrentUser AuthenticatedUser user,
+            @PathVariable UUID id,
+            @Valid @RequestBody SavedView view
+    ) {
+        log.info("📥 PUT /api/views/{}", id);
+        return ResponseEntity.ok(savedViewService.updateView(user.userId(), id, view));
+    }
+
+    /**
+     * DELETE /api/views/{id}
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteView(@CurrentUser AuthenticatedUser user, @PathVariable UUID id) {
+        log.info("📥 DELETE /api/views/{}", id);
+        savedViewService.deleteView(user.userId(), id);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * GET /api/views/{id}/count
+     * Número de tareas que cumplen la vista.
+     */
+    @GetMapping("/{id}/count")
+    public ResponseEntity<ViewCountDto> countTasks(@CurrentUser AuthenticatedUser user, @PathVariable UUID id) {
+        log.info("📥 GET /api/views/{}/count", id);
+        return ResponseEntity.ok(new ViewCountDto(id, savedViewService.countTasks(user.userId(), id)));
+    }
+
+    /**
+     * GET /api/views/{id}/tasks?cursor=...&limit=50
+     * Tareas de la vista por fecha de creación, paginadas por cursor como GET /api/tasks?limit=50.
+     */
+    @GetMapping("/{id}/tasks")
+    public ResponseEntity<CursorPage<Task>> getTasks(
+            @CurrentUser AuthenticatedUser user,
+            @PathVariable UUID id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit
+    ) {
+        log.info("📥 GET /api/views/{}/tasks - cursor: {}, limit: {}", id, cursor, limit);
+        return ResponseEntity.ok(savedViewService.getTasksPage(user.userId(), id, cursor, limit));
+    }
+}
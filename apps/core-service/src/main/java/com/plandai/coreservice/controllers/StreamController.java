@@ -0,0 +1,49 @@
+package com.plandai.coreservice.controllers;
+
+import com.plandai.coreservice.exception.ResourceNotFoundException;
+import com.plandai.coreservice.repositories.ProjectRepository;
+import com.plandai.coreservice.stream.ChangeStreamHub;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.UUID;
+
+/**
+ * Controlador de streams en tiempo real (Server-Sent Events).
+ * 
+ * Sustituye al polling de GET /api/tasks?projectId=: el cliente carga el tablero
+ * una vez y después solo recibe los cambios.
+ */
+@RestController
+@RequestMapping("/api/stream")
+@RequiredArgsConstructor
+@Slf4j
+public class StreamController {
+
+    private final ChangeStreamHub changeStreamHub;
+    private final ProjectRepository projectRepository;
+
+    /**
+     * GET /api/stream/projects/{id}
+     * Stream SSE de cambios de las tareas de un proyecto.
+     * 
+     * Eventos:
+     * - "task": cambio de una tarea (op = CREATED, UPDATED, MOVED o DELETED)
+     * - "resync": se han perdido cambios, el cliente debe recargar el tablero
+     * - comentario "keepalive" periódico
+     */
+    @GetMapping(value = "/projects/{id}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamProject(@PathVariable UUID id) {
+        log.info("📥 GET /api/stream/projects/{}", id);
+        if (!projectRepository.existsById(id)) {
+            throw new ResourceNotFoundException("Proyecto", id);
+        }
+        return changeStreamHub.subscribe(id);
+    }
+}
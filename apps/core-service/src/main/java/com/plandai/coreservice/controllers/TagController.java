@@ -0,0 +1,73 @@
+package com.plandai.coreservice.controllers;
+
+import com.plandai.coreservice.entities.Tag;
+import com.plandai.coreservice.services.TagService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Controlador REST para las etiquetas de un workspace.
+ * Para etiquetar tareas: PUT/DELETE /api/tasks/{id}/tags/{tagId}; para filtrar: GET /api/tasks?tags=...
+ */
+@RestController
+@RequestMapping("/api/tags")
+@RequiredArgsConstructor
+@Slf4j
+public class TagController {
+
+    private final TagService tagService;
+
+    /**
+     * GET /api/tags?workspaceId=uuid
+     * Etiquetas del workspace, por nombre.
+     */
+    @GetMapping
+    public ResponseEntity<List<Tag>> getTags(@RequestParam UUID workspaceId) {
+        log.info("📥 GET /api/tags - workspaceId: {}", workspaceId);
+        return ResponseEntity.ok(tagService.getTagsByWorkspace(workspaceId));
+    }
+
+    /**
+     * POST /api/tags?workspaceId=uuid
+     * Crea una etiqueta.
+     *
+     * Body: {"name": "backend", "color": "#3366FF"}
+     */
+    @PostMapping
+    public ResponseEntity<Tag> createTag(
+            @RequestParam UUID workspaceId,
+            @Valid @RequestBody Tag tag
+    ) {
+        log.info("📥 POST /api/tags - workspaceId: {}, name: {}", workspaceId, tag.getName());
+        Tag created = tagService.createTag(workspaceId, tag);
+        return ResponseEntity.status(HttpStatus.CREATED).body(created);
+    }
+
+    /**
+     * PUT /api/tags/{id}
+     * Cambia nombre y color; las tareas conservan la etiqueta.
+     */
+    @PutMapping("/{id}")
+    public ResponseEntity<Tag> updateTag(@PathVariable UUID id, @Valid @RequestBody Tag tag) {
+        log.info("📥 PUT /api/tags/{}", id);
+        return ResponseEntity.ok(tagService.updateTag(id, tag));
+    }
+
+    /**
+     * DELETE /api/tags/{id}
+     * Elimina la etiqueta y la quita de todas sus tareas.
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteTag(@PathVariable UUID id) {
+        log.info("📥 DELETE /api/tags/{}", id);
+        tagService.deleteTag(id);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -1,7 +1,27 @@
 package com.plandai.coreservice.controllers;
 
+import com.plandai.coreservice.dto.InboxItemDto;
+import com.plandai.coreservice.dto.SubtaskProgressDto;
+import com.plandai.coreservice.dto.TaskBulkRequestDto;
+import com.plandai.coreservice.dto.TaskBulkResultDto;
+import com.plandai.coreservice.dto.TaskFilterDto;
+import com.plandai.coreservice.dto.TaskMoveDto;
+import com.plandai.coreservice.dto.TaskRankDto;
+import com.plandai.coreservice.dto.TaskReorderDto;
+import com.plandai.coreservice.entities.Tag;
 import com.plandai.coreservice.entities.Task;
+import com.plandai.coreservice.pagination.CursorPage;
+import com.plandai.coreservice.security.AuthenticatedUser;
+import com.plandai.coreservice.security.CurrentUser;
+import com.plandai.coreservice.services.TagService;
+import com.plandai.coreservice.services.TaskArchiveService;
+import com.plandai.coreservice.services.TaskBulkService;
+import com.plandai.coreservice.services.TaskDependencyService;
+import com.plandai.coreservice.services.TaskHierarchyService;
+import com.plandai.coreservice.services.TaskInboxService;
+import com.plandai.coreservice.services.TaskRankService;
 import com.plandai.coreservice.services.TaskService;
+import com.plandai.coreservice.services.UserDirectoryService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -10,6 +30,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -24,57 +45,84 @@ import java.util.UUID;
 public class TaskController {
 
     private final TaskService taskService;
+    private final TaskBulkService taskBulkService;
+    private final TaskArchiveService taskArchiveService;
+    private final TaskInboxService taskInboxService;
+    private final TaskRankService taskRankService;
+    private final TaskDependencyService taskDependencyService;
+    private final TaskHierarchyService taskHierarchyService;
+    private final TagService tagService;
+    private final UserDirectoryService userDirectoryService;
 
     /**
      * GET /api/tasks
-     * Obtiene todas las tareas o filtradas.
+     * Obtiene todas las tareas o filtradas. Los filtros se combinan (AND) y se aplican en SQL.
      * 
      * Ejemplos:
      * - GET /api/tasks → Todas las tareas
      * - GET /api/tasks?projectId=uuid → Tareas de un proyecto
-     * - GET /api/tasks?assignedTo=uuid → Tareas de un usuario
-     * - GET /api/tasks?status=DONE → Tareas completadas
+     * - GET /api/tasks?assignedTo=uuid&status=TO_DO,IN_PROGRESS → Pendientes de un usuario
+     * - GET /api/tasks?priority=HIGH,URGENT&dueTo=2025-12-31 → Importantes que vencen este año
+     * - GET /api/tasks?projectId=uuid&q=login → Búsqueda de texto en título y descripción
+     * - GET /api/tasks?projectId=uuid&includeArchived=true → También las tareas archivadas
+     * - GET /api/tasks?workspaceId=uuid&tags=backend AND NOT bloqueada → Expresión de etiquetas
+     * - GET /api/tasks?projectId=uuid&cf=points:gte:5&cfSort=points:desc → Campos personalizados
+     *
+     * Cada tarea incluye "assignee" (email y nombre) desde el directorio local de usuarios.
      */
     @GetMapping
-    public ResponseEntity<List<Task>> getAllTasks(
-            @RequestParam(required = false) UUID projectId,
-            @RequestParam(required = false) UUID assignedTo,
-            @RequestParam(required = false) Task.TaskStatus status
-    ) {
-        log.info("📥 GET /api/tasks - projectId: {}, assignedTo: {}, status: {}", 
-                 projectId, assignedTo, status);
-
-        List<Task> tasks;
-
-        if (projectId != null) {
-            tasks = taskService.getTasksByProjectId(projectId);
-        } else if (assignedTo != null && status != null) {
-            tasks = taskService.getTasksByAssignedUser(assignedTo)
-                    .stream()
-                    .filter(t -> t.getStatus() == status)
-                    .toList();
-        } else if (assignedTo != null) {
-            tasks = taskService.getTasksByAssignedUser(assignedTo);
-        } else if (status != null) {
-            tasks = taskService.getTasksByStatus(status);
-        } else {
-            tasks = taskService.getAllTasks();
-        }
+    public ResponseEntity<List<Task>> getAllTasks(@ModelAttribute TaskFilterDto filter) {
+        log.info("📥 GET /api/tasks - filtros: {}", filter);
+        List<Task> tasks = taskService.searchTasks(filter);
+        return ResponseEntity.ok(userDirectoryService.withAssignees(tasks));
+    }
 
-        return ResponseEntity.ok(tasks);
+    /**
+     * GET /api/tasks?limit=50&cursor=...
+     * Versión paginada por cursor del listado (se activa al pasar "limit").
+     * Acepta los mismos filtros combinados y devuelve {"items": [...], "next": "cursor"}.
+     * 
+     * Para la página siguiente: repetir la petición con cursor = next (null = no hay más).
+     */
+    @GetMapping(params = "limit")
+    public ResponseEntity<CursorPage<Task>> getTasksPage(
+            @ModelAttribute TaskFilterDto filter,
+            @RequestParam(required = false) String cursor,
+            @RequestParam Integer limit
+    ) {
+        log.info("📥 GET /api/tasks (paginado) - filtros: {}, limit: {}", filter, limit);
+        CursorPage<Task> page = taskService.getTasksPage(filter, cursor, limit);
+        userDirectoryService.withAssignees(page.items());
+        return ResponseEntity.ok(page);
     }
 
     /**
      * GET /api/tasks/{id}
      * Obtiene una tarea específica.
+     * Con includeArchived=true también la busca en el archivo (trae "archivedAt").
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Task> getTaskById(@PathVariable UUID id) {
-        log.info("📥 GET /api/tasks/{}", id);
-        Task task = taskService.getTaskById(id);
+    public ResponseEntity<Task> getTaskById(
+            @PathVariable UUID id,
+            @RequestParam(defaultValue = "false") boolean includeArchived
+    ) {
+        log.info("📥 GET /api/tasks/{} - includeArchived: {}", id, includeArchived);
+        Task task = taskService.getTaskById(id, includeArchived);
         return ResponseEntity.ok(task);
     }
 
+    /**
+     * POST /api/tasks/{id}/restore
+     * Devuelve una tarea archivada al tablero (misma columna y posición).
+     * 
+     * Respuesta: 200 OK + tarea restaurada, o 404 si no está archivada
+     */
+    @PostMapping("/{id}/restore")
+    public ResponseEntity<Task> restoreTask(@PathVariable UUID id) {
+        log.info("📥 POST /api/tasks/{}/restore", id);
+        return ResponseEntity.ok(taskArchiveService.restoreTask(id));
+    }
+
     /**
      * GET /api/tasks/urgent
      * Obtiene tareas urgentes sin terminar.
@@ -85,7 +133,26 @@ public class TaskController {
     public ResponseEntity<List<Task>> getUrgentTasks() {
         log.info("📥 GET /api/tasks/urgent");
         List<Task> tasks = taskService.getUrgentIncompleteTasks();
-        return ResponseEntity.ok(tasks);
+        return ResponseEntity.ok(userDirectoryService.withAssignees(tasks));
+    }
+
+    /**
+     * GET /api/tasks/inbox
+     * Bandeja de entrada del usuario autenticado: sus tareas abiertas ordenadas por importancia
+     * (prioridad, cercanía de la fecha límite y tiempo sin tocarlas).
+     * 
+     * Ejemplos:
+     * - GET /api/tasks/inbox → Top 20
+     * - GET /api/tasks/inbox?limit=20&cursor=... → Siguientes 20 (mismas puntuaciones que la primera página)
+     */
+    @GetMapping("/inbox")
+    public ResponseEntity<CursorPage<InboxItemDto>> getInbox(
+            @CurrentUser AuthenticatedUser user,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit
+    ) {
+        log.info("📥 GET /api/tasks/inbox - userId: {}", user.userId());
+        return ResponseEntity.ok(taskInboxService.getInbox(user.userId(), cursor, limit));
     }
 
     /**
@@ -98,12 +165,13 @@ public class TaskController {
     public ResponseEntity<List<Task>> getTasksDueSoon(@RequestParam(defaultValue = "7") int days) {
         log.info("📥 GET /api/tasks/due-soon - days: {}", days);
         List<Task> tasks = taskService.getTasksDueSoon(days);
-        return ResponseEntity.ok(tasks);
+        return ResponseEntity.ok(userDirectoryService.withAssignees(tasks));
     }
 
     /**
      * POST /api/tasks
      * Crea una nueva tarea dentro de un proyecto.
+     * Con parentId se crea como subtarea de otra tarea del mismo proyecto.
      * 
      * Body: {
      *   "title": "Diseñar mockups",
@@ -117,13 +185,43 @@ public class TaskController {
     @PostMapping
     public ResponseEntity<Task> createTask(
             @RequestParam UUID projectId,
+            @RequestParam(required = false) UUID parentId,
             @Valid @RequestBody Task task
     ) {
-        log.info("📥 POST /api/tasks - projectId: {}, title: {}", projectId, task.getTitle());
-        Task created = taskService.createTask(projectId, task);
+        log.info("📥 POST /api/tasks - projectId: {}, parentId: {}, title: {}", projectId, parentId, task.getTitle());
+        Task created = taskService.createTask(projectId, parentId, task);
         return ResponseEntity.status(HttpStatus.CREATED).body(created);
     }
 
+    /**
+     * POST /api/tasks/bulk
+     * Crea, cambia de estado, reasigna, mueve de proyecto o elimina muchas tareas
+     * en una sola transacción (útil para limpiezas de Kanban e importaciones).
+     * 
+     * Respuesta: 200 OK con un resultado por operación (en el mismo orden):
+     * {"succeeded": 998, "failed": 2, "results": [{"index": 0, "taskId": "uuid", "success": true}, ...]}
+     */
+    @PostMapping("/bulk")
+    public ResponseEntity<TaskBulkResultDto> bulk(@Valid @RequestBody TaskBulkRequestDto request) {
+        log.info("📥 POST /api/tasks/bulk - operaciones: {}", request.getOperations().size());
+        TaskBulkResultDto result = taskBulkService.execute(request);
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * POST /api/tasks/reorder
+     * Coloca varias tarjetas seguidas y en orden dentro de una columna del tablero
+     * (p. ej. "ordenar la columna por prioridad" o arrastrar una selección múltiple).
+     * 
+     * Body: {"taskIds": ["uuid1", "uuid2"], "status": "TO_DO", "previousTaskId": "uuid", "nextTaskId": "uuid"}
+     * Respuesta: 200 OK con la nueva posición de cada tarea: [{"id": "uuid1", "status": "TO_DO", "rank": "Vk"}, ...]
+     */
+    @PostMapping("/reorder")
+    public ResponseEntity<List<TaskRankDto>> reorderTasks(@Valid @RequestBody TaskReorderDto request) {
+        log.info("📥 POST /api/tasks/reorder - tareas: {}", request.getTaskIds().size());
+        return ResponseEntity.ok(taskRankService.reorderTasks(request));
+    }
+
     /**
      * PUT /api/tasks/{id}
      * Actualiza una tarea existente.
@@ -159,6 +257,26 @@ public class TaskController {
         return ResponseEntity.ok(updated);
     }
 
+    /**
+     * PATCH /api/tasks/{id}/move
+     * Drag & drop en el tablero: mueve la tarjeta entre dos tarjetas de la columna de destino.
+     * Solo se modifica esta tarea (las demás conservan su posición).
+     * 
+     * Body: {"status": "IN_PROGRESS", "previousTaskId": "uuid", "nextTaskId": "uuid"}
+     * - Solo nextTaskId: la tarjeta queda la primera de la columna
+     * - Solo previousTaskId: queda la última
+     * - Ninguna: al final de la columna (p. ej. solo cambiar de estado)
+     */
+    @PatchMapping("/{id}/move")
+    public ResponseEntity<Task> moveTask(
+            @PathVariable UUID id,
+            @RequestBody TaskMoveDto move
+    ) {
+        log.info("📥 PATCH /api/tasks/{}/move - status: {}", id, move.getStatus());
+        Task moved = taskRankService.moveTask(id, move);
+        return ResponseEntity.ok(moved);
+    }
+
     /**
      * PATCH /api/tasks/{id}/assign
      * Asigna una tarea a un usuario.
@@ -175,9 +293,46 @@ public class TaskController {
         return ResponseEntity.ok(updated);
     }
 
+    /**
+     * PATCH /api/tasks/{id}/parent?parentId=uuid
+     * Cuelga la tarea (con todas sus subtareas) de otra tarea del mismo proyecto.
+     * Sin parentId pasa a ser una tarea raíz.
+     * 
+     * 400 Bad Request si se formaría un ciclo o se supera el máximo de niveles.
+     */
+    @PatchMapping("/{id}/parent")
+    public ResponseEntity<Task> moveSubtree(
+            @PathVariable UUID id,
+            @RequestParam(required = false) UUID parentId
+    ) {
+        log.info("📥 PATCH /api/tasks/{}/parent - parentId: {}", id, parentId);
+        return ResponseEntity.ok(taskHierarchyService.moveSubtree(id, parentId));
+    }
+
+    /**
+     * GET /api/tasks/{id}/subtree
+     * La tarea y todas sus subtareas, por niveles (cada una con su parentId).
+     */
+    @GetMapping("/{id}/subtree")
+    public ResponseEntity<List<Task>> getSubtree(@PathVariable UUID id) {
+        log.info("📥 GET /api/tasks/{}/subtree", id);
+        List<Task> subtree = taskHierarchyService.getSubtree(id);
+        return ResponseEntity.ok(userDirectoryService.withAssignees(subtree));
+    }
+
+    /**
+     * GET /api/tasks/{id}/progress
+     * Progreso acumulado de las subtareas: {"taskId": "uuid", "subtasks": 8, "completed": 6, "percent": 75}
+     */
+    @GetMapping("/{id}/progress")
+    public ResponseEntity<SubtaskProgressDto> getProgress(@PathVariable UUID id) {
+        log.info("📥 GET /api/tasks/{}/progress", id);
+        return ResponseEntity.ok(taskHierarchyService.getProgress(id));
+    }
+
     /**
      * DELETE /api/tasks/{id}
-     * Elimina una tarea.
+     * Elimina una tarea y todas sus subtareas.
      */
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteTask(@PathVariable UUID id) {
@@ -186,6 +341,94 @@ public class TaskController {
         return ResponseEntity.noContent().build();
     }
 
+    /**
+     * GET /api/tasks/{id}/blockers
+     * Tareas abiertas que bloquean a esta, directa o indirectamente (en orden de ejecución).
+     */
+    @GetMapping("/{id}/blockers")
+    public ResponseEntity<List<UUID>> getBlockers(@PathVariable UUID id) {
+        log.info("📥 GET /api/tasks/{}/blockers", id);
+        return ResponseEntity.ok(taskDependencyService.getBlockers(id));
+    }
+
+    /**
+     * POST /api/tasks/{id}/dependencies?blockedBy=uuid
+     * Marca la tarea como bloqueada por otra del mismo proyecto.
+     * 
+     * 400 Bad Request si la dependencia formaría un ciclo (el mensaje incluye la cadena).
+     */
+    @PostMapping("/{id}/dependencies")
+    public ResponseEntity<Void> addDependency(
+            @PathVariable UUID id,
+            @RequestParam UUID blockedBy
+    ) {
+        log.info("📥 POST /api/tasks/{}/dependencies - blockedBy: {}", id, blockedBy);
+        taskDependencyService.addDependency(id, blockedBy);
+        return ResponseEntity.status(HttpStatus.CREATED).build();
+    }
+
+    /**
+     * DELETE /api/tasks/{id}/dependencies/{blockedBy}
+     * Quita una dependencia.
+     */
+    @DeleteMapping("/{id}/dependencies/{blockedBy}")
+    public ResponseEntity<Void> removeDependency(
+            @PathVariable UUID id,
+            @PathVariable UUID blockedBy
+    ) {
+        log.info("📥 DELETE /api/tasks/{}/dependencies/{}", id, blockedBy);
+        taskDependencyService.removeDependency(id, blockedBy);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * PATCH /api/tasks/{id}/custom-fields
+     * Cambia campos personalizados: las claves con valor se ponen, las que van a null se quitan.
+     *
+     * Body: {"points": 5, "client": "ACME", "sprint": null}
+     * 400 si una clave no está definida en el proyecto o el valor no es de su tipo.
+     */
+    @PatchMapping("/{id}/custom-fields")
+    public ResponseEntity<Task> updateCustomFields(
+            @PathVariable UUID id,
+            @RequestBody Map<String, Object> values
+    ) {
+        log.info("📥 PATCH /api/tasks/{}/custom-fields - claves: {}", id, values.keySet());
+        return ResponseEntity.ok(taskService.updateCustomFields(id, values));
+    }
+
+    /**
+     * GET /api/tasks/{id}/tags
+     * Etiquetas de la tarea, por nombre.
+     */
+    @GetMapping("/{id}/tags")
+    public ResponseEntity<List<Tag>> getTaskTags(@PathVariable UUID id) {
+        log.info("📥 GET /api/tasks/{}/tags", id);
+        return ResponseEntity.ok(tagService.getTaskTags(id));
+    }
+
+    /**
+     * PUT /api/tasks/{id}/tags/{tagId}
+     * Pone una etiqueta del mismo workspace a la tarea (idempotente).
+     */
+    @PutMapping("/{id}/tags/{tagId}")
+    public ResponseEntity<Void> tagTask(@PathVariable UUID id, @PathVariable UUID tagId) {
+        log.info("📥 PUT /api/tasks/{}/tags/{}", id, tagId);
+        tagService.tagTask(id, tagId);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * DELETE /api/tasks/{id}/tags/{tagId}
+     * Quita una etiqueta de la tarea.
+     */
+    @DeleteMapping("/{id}/tags/{tagId}")
+    public ResponseEntity<Void> untagTask(@PathVariable UUID id, @PathVariable UUID tagId) {
+        log.info("📥 DELETE /api/tasks/{}/tags/{}", id, tagId);
+        tagService.untagTask(id, tagId);
+        return ResponseEntity.noContent().build();
+    }
+
     /**
      * GET /api/tasks/count
      * Cuenta cuántas tareas tiene un proyecto.
@@ -0,0 +1,66 @@
+package com.plandai.coreservice.controllers;
+
+import com.plandai.coreservice.dto.TimeBlockAcceptDto;
+import com.plandai.coreservice.dto.TimeBlockDto;
+import com.plandai.coreservice.dto.TimeBlockPlanDto;
+import com.plandai.coreservice.dto.TimeBlockRequestDto;
+import com.plandai.coreservice.security.AuthenticatedUser;
+import com.plandai.coreservice.security.CurrentUser;
+import com.plandai.coreservice.services.TimeBlockingService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Controlador REST para la planificación automática de tareas en el calendario.
+ * Primero se pide una propuesta y después se aceptan los bloques que interesen.
+ */
+@RestController
+@RequestMapping("/api/time-blocks")
+@RequiredArgsConstructor
+@Slf4j
+public class TimeBlockingController {
+
+    private final TimeBlockingService timeBlockingService;
+
+    /**
+     * POST /api/time-blocks/proposals
+     * Propone bloques para las tareas abiertas del usuario autenticado (no guarda nada).
+     *
+     * Body (todo opcional): {"horizonDays": 14, "workStart": "09:00", "workEnd": "17:00",
+     * "workDays": ["MONDAY", ...], "minBlockMinutes": 30, "taskIds": ["uuid"]}
+     */
+    @PostMapping("/proposals")
+    public ResponseEntity<TimeBlockPlanDto> propose(
+            @CurrentUser AuthenticatedUser user,
+            @Valid @RequestBody TimeBlockRequestDto request
+    ) {
+        log.info("📥 POST /api/time-blocks/proposals - userId: {}", user.userId());
+        return ResponseEntity.ok(timeBlockingService.propose(user.userId(), request));
+    }
+
+    /**
+     * POST /api/time-blocks
+     * Guarda los bloques aceptados como eventos TASK_BLOCK (todos o ninguno) y los devuelve con eventId.
+     *
+     * Body: {"blocks": [{"taskId": "uuid", "start": "2025-12-15T09:00:00", "end": "2025-12-15T10:30:00"}]}
+     * - 400 si algún bloque se solapa con otro o con un evento del calendario
+     */
+    @PostMapping
+    public ResponseEntity<List<TimeBlockDto>> accept(
+            @CurrentUser AuthenticatedUser user,
+            @Valid @RequestBody TimeBlockAcceptDto request
+    ) {
+        log.info("📥 POST /api/time-blocks - userId: {}, bloques: {}", user.userId(), request.getBlocks().size());
+        List<TimeBlockDto> created = timeBlockingService.accept(user.userId(), request.getBlocks());
+        return ResponseEntity.status(HttpStatus.CREATED).body(created);
+    }
+}
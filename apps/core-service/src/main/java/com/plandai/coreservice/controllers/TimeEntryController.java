@@ -0,0 +1,167 @@
+package com.plandai.coreservice.controllers;
+
+import com.plandai.coreservice.dto.TimeEntryCreateDto;
+import com.plandai.coreservice.dto.TimeTotalDto;
+import com.plandai.coreservice.dto.TimesheetDto;
+import com.plandai.coreservice.entities.TimeEntry;
+import com.plandai.coreservice.security.AuthenticatedUser;
+import com.plandai.coreservice.security.CurrentUser;
+import com.plandai.coreservice.services.TimeTrackingService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Controlador REST para el registro de tiempo en tareas.
+ * Todas las operaciones son sobre el tiempo del usuario autenticado.
+ */
+@RestController
+@RequestMapping("/api/time-entries")
+@RequiredArgsConstructor
+@Slf4j
+public class TimeEntryController {
+
+    private final TimeTrackingService timeTrackingService;
+
+    /**
+     * POST /api/time-entries/start?taskId=uuid
+     * Inicia un temporizador sobre una tarea.
+     *
+     * - 400 si ya hay uno en marcha
+     * - Con stopRunning=true se para antes el que hubiera (cambiar de tarea en un paso)
+     */
+    @PostMapping("/start")
+    public ResponseEntity<TimeEntry> startTimer(
+            @CurrentUser AuthenticatedUser user,
+            @RequestParam UUID taskId,
+            @RequestParam(defaultValue = "false") boolean stopRunning
+    ) {
+        log.info("📥 POST /api/time-entries/start - userId: {}, taskId: {}", user.userId(), taskId);
+        TimeEntry started = timeTrackingService.startTimer(user.userId(), taskId, stopRunning);
+        return ResponseEntity.status(HttpStatus.CREATED).body(started);
+    }
+
+    /**
+     * POST /api/time-entries/stop
+     * Para el temporizador en marcha (404 si no hay ninguno).
+     */
+    @PostMapping("/stop")
+    public ResponseEntity<TimeEntry> stopTimer(@CurrentUser AuthenticatedUser user) {
+        log.info("📥 POST /api/time-entries/stop - userId: {}", user.userId());
+        return ResponseEntity.ok(timeTrackingService.stopTimer(user.userId()));
+    }
+
+    /**
+     * GET /api/time-entries/running
+     * Temporizador en marcha, o 204 No Content si no hay ninguno.
+     */
+    @GetMapping("/running")
+    public ResponseEntity<TimeEntry> getRunningTimer(@CurrentUser AuthenticatedUser user) {
+        log.info("📥 GET /api/time-entries/running - userId: {}", user.userId());
+        TimeEntry running = timeTrackingService.getRunningTimer(user.userId());
+        return running == null ? ResponseEntity.noContent().build() : ResponseEntity.ok(running);
+    }
+
+    /**
+     * POST /api/time-entries
+     * Registra tiempo manualmente.
+     *
+     * Body: {"taskId": "uuid", "startedAt": "2025-12-08T09:00:00", "endedAt": "2025-12-08T10:30:00", "note": "..."}
+     */
+    @PostMapping
+    public ResponseEntity<TimeEntry> addEntry(
+            @CurrentUser AuthenticatedUser user,
+            @Valid @RequestBody TimeEntryCreateDto dto
+    ) {
+        log.info("📥 POST /api/time-entries - userId: {}, taskId: {}", user.userId(), dto.getTaskId());
+        TimeEntry created = timeTrackingService.addEntry(user.userId(), dto);
+        return ResponseEntity.status(HttpStatus.CREATED).body(created);
+    }
+
+    /**
+     * DELETE /api/time-entries/{id}
+     * Elimina una entrada propia.
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteEntry(@CurrentUser AuthenticatedUser user, @PathVariable UUID id) {
+        log.info("📥 DELETE /api/time-entries/{}", id);
+        timeTrackingService.deleteEntry(user.userId(), id);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * GET /api/time-entries/timesheet?week=2025-12-10
+     * Hoja de horas de la semana (lunes a domingo) que contiene ese día; sin "week", la actual.
+     */
+    @GetMapping("/timesheet")
+    public ResponseEntity<TimesheetDto> getTimesheet(
+            @CurrentUser AuthenticatedUser user,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate week
+    ) {
+        log.info("📥 GET /api/time-entries/timesheet - userId: {}, week: {}", user.userId(), week);
+        return ResponseEntity.ok(timeTrackingService.getWeeklyTimesheet(user.userId(), week));
+    }
+
+    /**
+     * GET /api/time-entries/export?from=2025-12-01&to=2025-12-31
+     * Entradas del periodo en CSV, escritas en la respuesta según se leen.
+     */
+    @GetMapping(value = "/export", produces = "text/csv")
+    public ResponseEntity<StreamingResponseBody> export(
+            @CurrentUser AuthenticatedUser user,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        log.info("📥 GET /api/time-entries/export - userId: {}, {} → {}", user.userId(), from, to);
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("La fecha final no puede ser anterior a la inicial");
+        }
+        UUID userId = user.userId();
+        StreamingResponseBody body = out -> timeTrackingService.exportCsv(userId, from, to, out);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"time-entries-" + from + "-" + to + ".csv\"")
+                .contentType(MediaType.parseMediaType("text/csv"))
+                .body(body);
+    }
+
+    /**
+     * GET /api/time-entries/totals/me
+     * Tiempo total registrado por el usuario autenticado.
+     */
+    @GetMapping("/totals/me")
+    public ResponseEntity<TimeTotalDto> getMyTotal(@CurrentUser AuthenticatedUser user) {
+        log.info("📥 GET /api/time-entries/totals/me - userId: {}", user.userId());
+        return ResponseEntity.ok(timeTrackingService.getUserTotal(user.userId()));
+    }
+
+    /**
+     * GET /api/time-entries/totals/tasks/{taskId}
+     * Tiempo total registrado en una tarea (por todos los usuarios).
+     */
+    @GetMapping("/totals/tasks/{taskId}")
+    public ResponseEntity<TimeTotalDto> getTaskTotal(@PathVariable UUID taskId) {
+        log.info("📥 GET /api/time-entries/totals/tasks/{}", taskId);
+        return ResponseEntity.ok(timeTrackingService.getTaskTotal(taskId));
+    }
+
+    /**
+     * GET /api/time-entries/totals/projects/{projectId}
+     * Tiempo total registrado en las tareas de un proyecto.
+     */
+    @GetMapping("/totals/projects/{projectId}")
+    public ResponseEntity<TimeTotalDto> getProjectTotal(@PathVariable UUID projectId) {
+        log.info("📥 GET /api/time-entries/totals/projects/{}", projectId);
+        return ResponseEntity.ok(timeTrackingService.getProjectTotal(projectId));
+    }
+}
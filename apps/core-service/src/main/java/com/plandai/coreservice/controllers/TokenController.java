@@ -0,0 +1,39 @@
+package com.plandai.coreservice.controllers;
+
+import com.plandai.coreservice.security.AuthenticatedUser;
+import com.plandai.coreservice.security.CurrentUser;
+import com.plandai.coreservice.security.TokenRevocationService;
+import io.swagger.v3.oas.annotations.Parameter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Controlador REST para la revocación de tokens JWT.
+ */
+@RestController
+@RequestMapping("/api/tokens")
+@RequiredArgsConstructor
+@Slf4j
+public class TokenController {
+
+    private final TokenRevocationService tokenRevocationService;
+
+    /**
+     * POST /api/tokens/revoke
+     * Revoca el token con el que se hace la petición (logout en servidor).
+     * El token deja de ser válido en este nodo al instante y en el resto
+     * en la siguiente reconstrucción del Bloom filter.
+     */
+    @PostMapping("/revoke")
+    public ResponseEntity<Void> revokeCurrentToken(
+            @CurrentUser AuthenticatedUser user,
+            @Parameter(hidden = true) @RequestHeader(HttpHeaders.AUTHORIZATION) String authorizationHeader
+    ) {
+        log.info("📥 POST /api/tokens/revoke - userId: {}", user.userId());
+        tokenRevocationService.revoke(authorizationHeader.substring("Bearer ".length()));
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,51 @@
+package com.plandai.coreservice.controllers;
+
+import com.plandai.coreservice.dto.WorkloadDto;
+import com.plandai.coreservice.services.WorkloadService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Controlador REST para la carga de trabajo por persona de un workspace.
+ * Sirve para ver quién está más cargado antes de asignar (PATCH /api/tasks/{id}/assign).
+ */
+@RestController
+@RequestMapping("/api/workload")
+@RequiredArgsConstructor
+@Slf4j
+public class WorkloadController {
+
+    private final WorkloadService workloadService;
+
+    /**
+     * GET /api/workload?workspaceId=uuid
+     * Tareas abiertas de cada persona por prioridad y vencimiento, y minutos estimados.
+     */
+    @GetMapping
+    public ResponseEntity<List<WorkloadDto>> getWorkload(@RequestParam UUID workspaceId) {
+        log.info("📥 GET /api/workload - workspaceId: {}", workspaceId);
+        return ResponseEntity.ok(workloadService.getWorkload(workspaceId));
+    }
+
+    /**
+     * GET /api/workload/suggest?workspaceId=uuid&candidates=uuid1,uuid2
+     * Candidatos del menos al más cargado: el primero es la persona sugerida.
+     * Sin "candidates" se elige entre quienes ya tienen tareas abiertas en el workspace.
+     */
+    @GetMapping("/suggest")
+    public ResponseEntity<List<WorkloadDto>> suggestAssignees(
+            @RequestParam UUID workspaceId,
+            @RequestParam(required = false) List<UUID> candidates
+    ) {
+        log.info("📥 GET /api/workload/suggest - workspaceId: {}, candidates: {}", workspaceId, candidates);
+        return ResponseEntity.ok(workloadService.suggestAssignees(workspaceId, candidates));
+    }
+}
@@ -1,8 +1,11 @@
 package com.plandai.coreservice.controllers;
 
+import com.plandai.coreservice.dto.ActivityDto;
 import com.plandai.coreservice.dto.WorkspaceCreateDto;
 import com.plandai.coreservice.dto.WorkspaceUpdateDto;
 import com.plandai.coreservice.entities.Workspace;
+import com.plandai.coreservice.pagination.CursorPage;
+import com.plandai.coreservice.services.ActivityFeedService;
 import com.plandai.coreservice.services.WorkspaceService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -29,6 +32,7 @@ import java.util.UUID;
 public class WorkspaceController {
 
     private final WorkspaceService workspaceService;
+    private final ActivityFeedService activityFeedService;
 
     /**
      * POST /api/workspaces
@@ -85,6 +89,36 @@ public class WorkspaceController {
         return ResponseEntity.ok(workspaces);
     }
 
+    /**
+     * GET /api/workspaces?userId={uuid}&limit=50&cursor=...
+     * Versión paginada por cursor (se activa al pasar "limit").
+     * 
+     * Respuesta: 200 OK + {"items": [...], "next": "cursor o null"}
+     */
+    @GetMapping(params = "limit")
+    public ResponseEntity<CursorPage<Workspace>> getWorkspacesPage(
+            @RequestParam(required = false) UUID userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam Integer limit) {
+        log.info("📥 GET /api/workspaces (paginado) - userId: {}, limit: {}", userId, limit);
+        return ResponseEntity.ok(workspaceService.getWorkspacesPage(userId, cursor, limit));
+    }
+
+    /**
+     * GET /api/workspaces/{id}/activity?limit=50&cursor=...
+     * Actividad del workspace (workspace, proyectos, tareas y eventos), lo más reciente primero.
+     * 
+     * Respuesta: 200 OK + {"items": [...], "next": "cursor o null"}
+     */
+    @GetMapping("/{id}/activity")
+    public ResponseEntity<CursorPage<ActivityDto>> getActivity(
+            @PathVariable UUID id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        log.info("📥 GET /api/workspaces/{}/activity", id);
+        return ResponseEntity.ok(activityFeedService.getWorkspaceFeed(id, cursor, limit));
+    }
+
     /**
      * PUT /api/workspaces/{id}
      * Actualiza un workspace existente.
@@ -99,15 +133,15 @@ public class WorkspaceController {
         log.info("📥 PUT /api/workspaces/{}", id);
         
         Workspace existing = workspaceService.getWorkspaceById(id);
-        
-        if (updateDto.getName() != null) {
-            existing.setName(updateDto.getName());
-        }
-        if (updateDto.getDescription() != null) {
-            existing.setDescription(updateDto.getDescription());
-        }
-        
-        Workspace updated = workspaceService.updateWorkspace(id, existing);
+
+        // Copia aparte: con open-in-view "existing" es la misma instancia gestionada que
+        // carga el servicio, y modificarla aquí ocultaría los cambios al registro de actividad
+        Workspace changes = new Workspace();
+        changes.setName(updateDto.getName() != null ? updateDto.getName() : existing.getName());
+        changes.setDescription(updateDto.getDescription() != null
+                ? updateDto.getDescription() : existing.getDescription());
+
+        Workspace updated = workspaceService.updateWorkspace(id, changes);
         return ResponseEntity.ok(updated);
     }
 
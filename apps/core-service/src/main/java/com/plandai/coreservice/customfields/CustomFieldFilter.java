@@ -0,0 +1,103 @@
+package com.plandai.coreservice.customfields;
+
+import com.plandai.coreservice.entities.CustomFieldDefinition;
+import com.plandai.coreservice.entities.CustomFieldDefinition.FieldType;
+
+import java.math.BigDecimal;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Filtro tipado sobre un campo personalizado, tal como llega en ?cf=clave:operador:valor
+ *
+ * Ejemplos: cf=points:gte:5, cf=client:eq:ACME, cf=deadline:lt:2025-12-31, cf=billable:eq:true
+ *
+ * Se traduce a un predicado jsonpath (custom_fields @@ '$.points >= 5'), que sirve el
+ * índice GIN jsonb_path_ops de V19. "ne" solo encuentra tareas con OTRO valor (no las que
+ * no tienen el campo); gt/gte/lt/lte solo valen para NUMBER y DATE.
+ */
+public record CustomFieldFilter(String key, Operator operator, String value) {
+
+    public enum Operator {
+        EQ("=="),
+        NE("!="),
+        GT(">"),
+        GTE(">="),
+        LT("<"),
+        LTE("<=");
+
+        private final String jsonPath;
+
+        Operator(String jsonPath) {
+            this.jsonPath = jsonPath;
+        }
+
+        boolean isRange() {
+            return this != EQ && this != NE;
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException si no tiene la forma clave:operador:valor
+     */
+    public static CustomFieldFilter parse(String text) {
+        String[] parts = text.split(":", 3);
+        if (parts.length != 3 || parts[0].isBlank()) {
+            throw new IllegalArgumentException("Filtro de campo personalizado no válido (clave:operador:valor): " + text);
+        }
+        try {
+            return new CustomFieldFilter(parts[0].trim(), Operator.valueOf(parts[1].trim().toUpperCase(Locale.ROOT)),
+                    parts[2]);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Operador no válido en '" + text + "' (eq, ne, gt, gte, lt, lte)");
+        }
+    }
+
+    /**
+     * Predicado jsonpath del filtro, validado contra la definición del campo.
+     *
+     * @param definitions definiciones del proyecto por clave
+     * @throws IllegalArgumentException si el campo no existe, el valor no es de su tipo
+     *                                  o el operador no tiene sentido para él
+     */
+    public String toJsonPath(Map<String, CustomFieldDefinition> definitions) {
+        CustomFieldDefinition definition = definitions.get(key);
+        if (definition == null) {
+            throw new IllegalArgumentException("El proyecto no tiene el campo personalizado '" + key + "'");
+        }
+        FieldType type = definition.getType();
+        if (operator.isRange() && type != FieldType.NUMBER && type != FieldType.DATE) {
+            throw new IllegalArgumentException("El campo '" + key + "' solo admite eq y ne");
+        }
+        // La clave ya cumple [a-z][a-z0-9_]*: no necesita comillas en el jsonpath
+        return "$." + key + " " + operator.jsonPath + " " + literal(CustomFieldValues.fromText(definition, value));
+    }
+
+    /**
+     * Literal jsonpath: los textos con las mismas secuencias de escape que JSON.
+     */
+    static String literal(Object value) {
+        if (value instanceof BigDecimal number) {
+            return number.toPlainString();
+        }
+        if (value instanceof Boolean bool) {
+            return bool.toString();
+        }
+        String text = value.toString();
+        StringBuilder quoted = new StringBuilder(text.length() + 2).append('"');
+        for (char c : text.toCharArray()) {
+            switch (c) {
+                case '"' -> quoted.append("\\\"");
+                case '\\' -> quoted.append("\\\\");
+                default -> {
+                    if (c < 0x20) {
+                        quoted.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        quoted.append(c);
+                    }
+                }
+            }
+        }
+        return quoted.append('"').toString();
+    }
+}
@@ -0,0 +1,18 @@
+package com.plandai.coreservice.customfields;
+
+import java.util.List;
+
+/**
+ * Filtros y orden sobre campos personalizados ya validados contra las definiciones del proyecto.
+ *
+ * @param jsonPaths      predicados jsonpath que deben cumplirse todos (custom_fields @@ ...)
+ * @param sortKey        clave por la que ordenar (null = orden habitual por creación)
+ * @param sortNumeric    true si el campo es NUMBER (se ordena como número, no como texto)
+ * @param sortDescending orden descendente
+ */
+public record CustomFieldQuery(List<String> jsonPaths, String sortKey, boolean sortNumeric, boolean sortDescending) {
+
+    public boolean sorted() {
+        return sortKey != null;
+    }
+}
@@ -0,0 +1,100 @@
+package com.plandai.coreservice.customfields;
+
+import com.plandai.coreservice.entities.CustomFieldDefinition;
+import com.plandai.coreservice.entities.CustomFieldDefinition.FieldType;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Validación y forma canónica de los valores de campos personalizados.
+ *
+ * La misma conversión sirve al escribir (valor JSON del cliente) y al filtrar (texto del
+ * query param), así un filtro compara exactamente con lo que se guardó:
+ * NUMBER → BigDecimal, DATE → "yyyy-MM-dd", BOOLEAN → Boolean, TEXT/SELECT → String.
+ */
+public final class CustomFieldValues {
+
+    public static final int MAX_TEXT_LENGTH = 500;
+
+    private CustomFieldValues() {
+    }
+
+    /**
+     * Valor a guardar en custom_fields (nunca null: null significa "quitar" y se trata antes).
+     *
+     * @throws IllegalArgumentException si no es del tipo del campo
+     */
+    public static Object normalize(CustomFieldDefinition definition, Object value) {
+        FieldType type = definition.getType();
+        return switch (type) {
+            case NUMBER -> {
+                if (value instanceof Number number) {
+                    yield number(definition, number.toString());
+                }
+                throw invalid(definition, "un número");
+            }
+            case BOOLEAN -> {
+                if (value instanceof Boolean bool) {
+                    yield bool;
+                }
+                throw invalid(definition, "true o false");
+            }
+            case TEXT, DATE, SELECT -> {
+                if (value instanceof String text) {
+                    yield fromText(definition, text);
+                }
+                throw invalid(definition, type == FieldType.DATE ? "una fecha yyyy-MM-dd" : "un texto");
+            }
+        };
+    }
+
+    /**
+     * Valor de un filtro (siempre llega como texto) en la misma forma que normalize.
+     */
+    public static Object fromText(CustomFieldDefinition definition, String text) {
+        return switch (definition.getType()) {
+            case TEXT -> {
+                if (text.length() > MAX_TEXT_LENGTH) {
+                    throw new IllegalArgumentException("El campo '" + definition.getKey()
+                            + "' no puede exceder " + MAX_TEXT_LENGTH + " caracteres");
+                }
+                yield text;
+            }
+            case NUMBER -> number(definition, text);
+            case DATE -> {
+                try {
+                    yield LocalDate.parse(text).toString();
+                } catch (DateTimeParseException e) {
+                    throw invalid(definition, "una fecha yyyy-MM-dd");
+                }
+            }
+            case BOOLEAN -> {
+                if (!text.equals("true") && !text.equals("false")) {
+                    throw invalid(definition, "true o false");
+                }
+                yield Boolean.valueOf(text);
+            }
+            case SELECT -> {
+                if (definition.getOptions() == null || !definition.getOptions().contains(text)) {
+                    throw new IllegalArgumentException("El campo '" + definition.getKey()
+                            + "' solo admite: " + definition.getOptions());
+                }
+                yield text;
+            }
+        };
+    }
+
+    private static BigDecimal number(CustomFieldDefinition definition, String text) {
+        try {
+            return new BigDecimal(text);
+        } catch (NumberFormatException e) {
+            throw invalid(definition, "un número");
+        }
+    }
+
+    private static IllegalArgumentException invalid(CustomFieldDefinition definition, String expected) {
+        return new IllegalArgumentException("El campo '" + definition.getKey() + "' debe ser " + expected);
+    }
+}
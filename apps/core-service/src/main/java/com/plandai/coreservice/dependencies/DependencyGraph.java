@@ -0,0 +1,530 @@
+package com.plandai.coreservice.dependencies;
+
+import com.plandai.coreservice.dto.CriticalPathDto;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Índice en memoria de las dependencias de UN proyecto.
+ *
+ * - Cada tarea es un int (0..n-1); las aristas "u bloquea a w" son listas de int por nodo
+ *   (sucesores y predecesores). Con 10k tareas ocupa unos cientos de KB.
+ * - Mantiene un orden topológico de forma incremental (algoritmo de Pearce-Kelly):
+ *   al añadir una arista solo se visita la región del orden afectada, y si esa
+ *   búsqueda llega al origen la arista cerraría un ciclo y se rechaza.
+ * - Tareas bloqueadas y ruta crítica se calculan recorriendo ese orden: O(n + aristas).
+ *
+ * Los métodos son synchronized: las escrituras llegan tras el commit y las lecturas
+ * tardan milisegundos.
+ */
+public final class DependencyGraph {
+
+    /**
+     * Tarea del proyecto (solo lo que necesita el grafo).
+     */
+    public record Node(UUID id, boolean done, LocalDate dueDate) {
+    }
+
+    /**
+     * Arista: taskId está bloqueada por blockedBy.
+     */
+    public record Edge(UUID taskId, UUID blockedBy) {
+    }
+
+    private static final long NO_DUE = Long.MAX_VALUE;
+    private static final int[] EMPTY = new int[0];
+
+    private final UUID[] ids;
+    private final Map<UUID, Integer> index;
+    private final boolean[] done;
+    private final long[] dueDays;
+
+    private final int[][] successors;
+    private final int[] successorCount;
+    private final int[][] predecessors;
+    private final int[] predecessorCount;
+
+    // ord[nodo] = posición en el orden topológico; nodeAt[posición] = nodo
+    private final int[] ord;
+    private final int[] nodeAt;
+    private final boolean[] visited;
+
+    private long version;
+
+    private DependencyGraph(long version, List<Node> nodes) {
+        int n = nodes.size();
+        this.version = version;
+        this.ids = new UUID[n];
+        this.index = new HashMap<>(n * 2);
+        this.done = new boolean[n];
+        this.dueDays = new long[n];
+        this.successors = new int[n][];
+        this.successorCount = new int[n];
+        this.predecessors = new int[n][];
+        this.predecessorCount = new int[n];
+        this.ord = new int[n];
+        this.nodeAt = new int[n];
+        this.visited = new boolean[n];
+        for (int i = 0; i < n; i++) {
+            Node node = nodes.get(i);
+            ids[i] = node.id();
+            index.put(node.id(), i);
+            done[i] = node.done();
+            dueDays[i] = node.dueDate() == null ? NO_DUE : node.dueDate().toEpochDay();
+            successors[i] = EMPTY;
+            predecessors[i] = EMPTY;
+        }
+    }
+
+    /**
+     * Construye el índice de un proyecto. Las aristas con tareas desconocidas se ignoran
+     * (p. ej. una tarea creada después de leer la lista de tareas).
+     *
+     * @param nodes tareas en orden estable (desempata el orden topológico inicial)
+     * @throws IllegalStateException si las aristas ya contienen un ciclo
+     */
+    public static DependencyGraph build(long version, List<Node> nodes, List<Edge> edges) {
+        DependencyGraph graph = new DependencyGraph(version, nodes);
+        for (Edge edge : edges) {
+            Integer task = graph.index.get(edge.taskId());
+            Integer blocker = graph.index.get(edge.blockedBy());
+            if (task != null && blocker != null && !graph.linked(blocker, task)) {
+                graph.link(blocker, task);
+            }
+        }
+        graph.sortTopologically();
+        return graph;
+    }
+
+    public synchronized long version() {
+        return version;
+    }
+
+    public synchronized int size() {
+        return ids.length;
+    }
+
+    public synchronized boolean contains(UUID taskId) {
+        return index.containsKey(taskId);
+    }
+
+    public synchronized boolean hasDependency(UUID taskId, UUID blockedBy) {
+        Integer task = index.get(taskId);
+        Integer blocker = index.get(blockedBy);
+        return task != null && blocker != null && linked(blocker, task);
+    }
+
+    /**
+     * Ciclo que cerraría la arista "taskId bloqueada por blockedBy", sin modificar el grafo.
+     *
+     * @return [taskId, ..., blockedBy]: cadena en la que cada tarea bloquea a la siguiente,
+     *         o lista vacía si la arista es válida
+     */
+    public synchronized List<UUID> cycleIfAdded(UUID taskId, UUID blockedBy) {
+        int task = require(taskId);
+        int blocker = require(blockedBy);
+        if (task == blocker) {
+            return List.of(taskId);
+        }
+        if (ord[blocker] < ord[task]) {
+            // El orden actual ya coloca al bloqueador antes: no puede haber camino de vuelta
+            return List.of();
+        }
+
+        int[] parent = new int[ids.length];
+        int[] stack = new int[ids.length];
+        int top = 0;
+        List<Integer> seen = new ArrayList<>();
+        stack[top++] = task;
+        visited[task] = true;
+        seen.add(task);
+        parent[task] = -1;
+        boolean found = false;
+        while (top > 0 && !found) {
+            int node = stack[--top];
+            for (int i = 0; i < successorCount[node]; i++) {
+                int next = successors[node][i];
+                if (visited[next] || ord[next] > ord[blocker]) {
+                    continue;
+                }
+                visited[next] = true;
+                seen.add(next);
+                parent[next] = node;
+                if (next == blocker) {
+                    found = true;
+                    break;
+                }
+                stack[top++] = next;
+            }
+        }
+        seen.forEach(node -> visited[node] = false);
+        if (!found) {
+            return List.of();
+        }
+
+        List<UUID> cycle = new ArrayList<>();
+        for (int node = blocker; node != -1; node = parent[node]) {
+            cycle.add(ids[node]);
+        }
+        return cycle.reversed();
+    }
+
+    /**
+     * Añade "taskId bloqueada por blockedBy" y reordena solo la región afectada del orden.
+     *
+     * @return false si la arista cerraría un ciclo (el grafo no cambia)
+     */
+    public synchronized boolean addDependency(UUID taskId, UUID blockedBy, long newVersion) {
+        int task = require(taskId);
+        int blocker = require(blockedBy);
+        if (task == blocker) {
+            return false;
+        }
+        if (!linked(blocker, task)) {
+            int lower = ord[task];
+            int upper = ord[blocker];
+            if (upper > lower) {
+                int[] forward = collect(task, upper, true);
+                if (forward == null) {
+                    return false;
+                }
+                int[] backward = collect(blocker, lower, false);
+                reorder(backward, forward);
+            }
+            link(blocker, task);
+        }
+        version = newVersion;
+        return true;
+    }
+
+    /**
+     * Quita "taskId bloqueada por blockedBy". El orden topológico sigue siendo válido.
+     */
+    public synchronized void removeDependency(UUID taskId, UUID blockedBy, long newVersion) {
+        Integer task = index.get(taskId);
+        Integer blocker = index.get(blockedBy);
+        if (task != null && blocker != null) {
+            unlink(successors, successorCount, blocker, task);
+            unlink(predecessors, predecessorCount, task, blocker);
+        }
+        version = newVersion;
+    }
+
+    /**
+     * Actualiza estado y fecha límite de una tarea (no cambia la estructura del grafo).
+     */
+    public synchronized void updateNode(UUID taskId, boolean taskDone, LocalDate dueDate) {
+        Integer node = index.get(taskId);
+        if (node != null) {
+            done[node] = taskDone;
+            dueDays[node] = dueDate == null ? NO_DUE : dueDate.toEpochDay();
+        }
+    }
+
+    /**
+     * Todas las tareas: cada una aparece después de las que la bloquean.
+     */
+    public synchronized List<UUID> topologicalOrder() {
+        List<UUID> order = new ArrayList<>(ids.length);
+        for (int position = 0; position < ids.length; position++) {
+            order.add(ids[nodeAt[position]]);
+        }
+        return order;
+    }
+
+    /**
+     * Tareas abiertas con algún bloqueador directo abierto (en orden topológico).
+     * Un bloqueador terminado (DONE) ya no bloquea.
+     */
+    public synchronized Map<UUID, List<UUID>> blocked() {
+        Map<UUID, List<UUID>> blocked = new LinkedHashMap<>();
+        for (int position = 0; position < ids.length; position++) {
+            int node = nodeAt[position];
+            if (done[node]) {
+                continue;
+            }
+            List<UUID> blockers = null;
+            for (int i = 0; i < predecessorCount[node]; i++) {
+                int blocker = predecessors[node][i];
+                if (!done[blocker]) {
+                    if (blockers == null) {
+                        blockers = new ArrayList<>();
+                    }
+                    blockers.add(ids[blocker]);
+                }
+            }
+            if (blockers != null) {
+                blocked.put(ids[node], blockers);
+            }
+        }
+        return blocked;
+    }
+
+    /**
+     * Bloqueadores abiertos de una tarea, directos e indirectos, en orden topológico.
+     */
+    public synchronized List<UUID> blockersOf(UUID taskId) {
+        int start = require(taskId);
+        int[] stack = new int[ids.length];
+        int top = 0;
+        List<Integer> found = new ArrayList<>();
+        stack[top++] = start;
+        visited[start] = true;
+        while (top > 0) {
+            int node = stack[--top];
+            for (int i = 0; i < predecessorCount[node]; i++) {
+                int blocker = predecessors[node][i];
+                if (!visited[blocker] && !done[blocker]) {
+                    visited[blocker] = true;
+                    found.add(blocker);
+                    stack[top++] = blocker;
+                }
+            }
+        }
+        visited[start] = false;
+        found.forEach(node -> visited[node] = false);
+        found.sort((a, b) -> Integer.compare(ord[a], ord[b]));
+        return found.stream().map(node -> ids[node]).toList();
+    }
+
+    /**
+     * Ruta crítica a partir de las fechas límite (método del camino crítico).
+     *
+     * Sin estimaciones de duración, cada tarea abierta cuenta como 1 día y empieza
+     * cuando terminan sus bloqueadores abiertos (desde today):
+     * - Fin más temprano (EF): en orden topológico, 1 + máx. EF de sus bloqueadores.
+     * - Fin más tardío (LF): en orden inverso, mín. entre su fecha límite y el inicio
+     *   más tardío de las tareas que bloquea; sin ninguna de las dos, el fin del proyecto.
+     * - Holgura = LF - EF. La ruta crítica acaba en la tarea con menos holgura y sigue
+     *   hacia atrás por los bloqueadores que la retrasan.
+     */
+    public synchronized CriticalPathDto criticalPath(LocalDate today) {
+        int n = ids.length;
+        long start = today.toEpochDay();
+        long[] earliestFinish = new long[n];
+        long projectEnd = 0;
+        for (int position = 0; position < n; position++) {
+            int node = nodeAt[position];
+            if (done[node]) {
+                continue;
+            }
+            long earliestStart = 0;
+            for (int i = 0; i < predecessorCount[node]; i++) {
+                int blocker = predecessors[node][i];
+                if (!done[blocker]) {
+                    earliestStart = Math.max(earliestStart, earliestFinish[blocker]);
+                }
+            }
+            earliestFinish[node] = earliestStart + 1;
+            projectEnd = Math.max(projectEnd, earliestFinish[node]);
+        }
+        if (projectEnd == 0) {
+            return new CriticalPathDto(List.of(), null, 0);
+        }
+
+        long[] slack = new long[n];
+        long[] latestFinish = new long[n];
+        int end = -1;
+        for (int position = n - 1; position >= 0; position--) {
+            int node = nodeAt[position];
+            if (done[node]) {
+                continue;
+            }
+            // Un día de fin "d" (EF = d) termina el día start + d - 1
+            long latest = dueDays[node] == NO_DUE ? Long.MAX_VALUE : dueDays[node] - start + 1;
+            for (int i = 0; i < successorCount[node]; i++) {
+                int blocked = successors[node][i];
+                if (!done[blocked]) {
+                    latest = Math.min(latest, latestFinish[blocked] - 1);
+                }
+            }
+            latestFinish[node] = latest == Long.MAX_VALUE ? projectEnd : latest;
+            slack[node] = latestFinish[node] - earliestFinish[node];
+            if (end == -1 || slack[node] < slack[end]
+                    || (slack[node] == slack[end] && earliestFinish[node] >= earliestFinish[end])) {
+                end = node;
+            }
+        }
+
+        List<UUID> path = new ArrayList<>();
+        for (int node = end; node != -1; ) {
+            path.add(ids[node]);
+            int critical = -1;
+            for (int i = 0; i < predecessorCount[node]; i++) {
+                int blocker = predecessors[node][i];
+                if (!done[blocker] && earliestFinish[blocker] == earliestFinish[node] - 1
+                        && (critical == -1 || slack[blocker] < slack[critical])) {
+                    critical = blocker;
+                }
+            }
+            node = critical;
+        }
+        return new CriticalPathDto(path.reversed(), today.plusDays(earliestFinish[end] - 1), slack[end]);
+    }
+
+    // ---------------------------------------------------------------------
+    // Orden topológico
+    // ---------------------------------------------------------------------
+
+    /**
+     * Orden inicial (Kahn), desempatando por el orden de las tareas recibidas.
+     */
+    private void sortTopologically() {
+        int n = ids.length;
+        int[] pending = Arrays.copyOf(predecessorCount, n);
+        int[] queue = new int[n];
+        int head = 0;
+        int tail = 0;
+        for (int node = 0; node < n; node++) {
+            if (pending[node] == 0) {
+                queue[tail++] = node;
+            }
+        }
+        while (head < tail) {
+            int node = queue[head];
+            ord[node] = head;
+            nodeAt[head] = node;
+            head++;
+            for (int i = 0; i < successorCount[node]; i++) {
+                int next = successors[node][i];
+                if (--pending[next] == 0) {
+                    queue[tail++] = next;
+                }
+            }
+        }
+        if (tail < n) {
+            throw new IllegalStateException("Las dependencias del proyecto contienen un ciclo");
+        }
+    }
+
+    /**
+     * Nodos alcanzables desde start sin salir de la región afectada del orden:
+     * hacia delante (sucesores con ord < bound) o hacia atrás (predecesores con ord > bound).
+     *
+     * @return null si la búsqueda hacia delante alcanza el nodo en la posición bound (ciclo)
+     */
+    private int[] collect(int start, int bound, boolean forward) {
+        int[] stack = new int[ids.length];
+        int[] found = new int[ids.length];
+        int top = 0;
+        int count = 0;
+        stack[top++] = start;
+        visited[start] = true;
+        found[count++] = start;
+        boolean cycle = false;
+        while (top > 0 && !cycle) {
+            int node = stack[--top];
+            int[] edges = forward ? successors[node] : predecessors[node];
+            int degree = forward ? successorCount[node] : predecessorCount[node];
+            for (int i = 0; i < degree; i++) {
+                int next = edges[i];
+                if (forward && ord[next] == bound) {
+                    cycle = true;
+                    break;
+                }
+                boolean inRegion = forward ? ord[next] < bound : ord[next] > bound;
+                if (!visited[next] && inRegion) {
+                    visited[next] = true;
+                    found[count++] = next;
+                    stack[top++] = next;
+                }
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            visited[found[i]] = false;
+        }
+        return cycle ? null : Arrays.copyOf(found, count);
+    }
+
+    /**
+     * Reparte las posiciones que ocupaban ambos conjuntos: primero los que deben ir
+     * antes (backward), luego los que deben ir después (forward), cada uno en su orden relativo.
+     */
+    private void reorder(int[] backward, int[] forward) {
+        sortByOrd(backward);
+        sortByOrd(forward);
+        int[] positions = new int[backward.length + forward.length];
+        int count = 0;
+        for (int node : backward) {
+            positions[count++] = ord[node];
+        }
+        for (int node : forward) {
+            positions[count++] = ord[node];
+        }
+        Arrays.sort(positions);
+
+        int next = 0;
+        for (int node : backward) {
+            place(node, positions[next++]);
+        }
+        for (int node : forward) {
+            place(node, positions[next++]);
+        }
+    }
+
+    private void place(int node, int position) {
+        ord[node] = position;
+        nodeAt[position] = node;
+    }
+
+    private void sortByOrd(int[] nodes) {
+        long[] keys = new long[nodes.length];
+        for (int i = 0; i < nodes.length; i++) {
+            keys[i] = ((long) ord[nodes[i]] << 32) | nodes[i];
+        }
+        Arrays.sort(keys);
+        for (int i = 0; i < nodes.length; i++) {
+            nodes[i] = (int) keys[i];
+        }
+    }
+
+    // ---------------------------------------------------------------------
+    // Listas de adyacencia
+    // ---------------------------------------------------------------------
+
+    private boolean linked(int blocker, int task) {
+        for (int i = 0; i < successorCount[blocker]; i++) {
+            if (successors[blocker][i] == task) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void link(int blocker, int task) {
+        append(successors, successorCount, blocker, task);
+        append(predecessors, predecessorCount, task, blocker);
+    }
+
+    private static void append(int[][] lists, int[] counts, int node, int value) {
+        if (counts[node] == lists[node].length) {
+            lists[node] = Arrays.copyOf(lists[node], Math.max(4, lists[node].length * 2));
+        }
+        lists[node][counts[node]++] = value;
+    }
+
+    private static void unlink(int[][] lists, int[] counts, int node, int value) {
+        int[] list = lists[node];
+        for (int i = 0; i < counts[node]; i++) {
+            if (list[i] == value) {
+                list[i] = list[--counts[node]];
+                return;
+            }
+        }
+    }
+
+    private int require(UUID taskId) {
+        Integer node = index.get(taskId);
+        if (node == null) {
+            throw new IllegalArgumentException("La tarea no está en el grafo: " + taskId);
+        }
+        return node;
+    }
+}
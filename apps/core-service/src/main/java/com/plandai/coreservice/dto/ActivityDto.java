@@ -0,0 +1,26 @@
+package com.plandai.coreservice.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.plandai.coreservice.activity.ActivityAction;
+import com.plandai.coreservice.activity.ActivityEntityType;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Entrada del feed de actividad.
+ *
+ * @param actorId usuario que hizo el cambio (null si lo hizo un proceso del sistema)
+ * @param changes campos cambiados como {"campo": [antes, después]} (null en las bajas)
+ */
+public record ActivityDto(
+        UUID id,
+        LocalDateTime occurredAt,
+        UUID workspaceId,
+        UUID actorId,
+        ActivityEntityType entityType,
+        UUID entityId,
+        ActivityAction action,
+        JsonNode changes
+) {
+}
@@ -0,0 +1,18 @@
+package com.plandai.coreservice.dto;
+
+import com.plandai.coreservice.entities.Task;
+
+import java.util.List;
+
+/**
+ * Columna del tablero Kanban: un estado, su total de tareas y las primeras tarjetas.
+ *
+ * @param next cursor para cargar más tarjetas de esta columna (null si no hay más)
+ */
+public record BoardColumnDto(
+        Task.TaskStatus status,
+        long count,
+        List<TaskCardDto> cards,
+        String next
+) {
+}
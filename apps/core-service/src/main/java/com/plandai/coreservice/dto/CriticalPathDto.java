@@ -0,0 +1,19 @@
+package com.plandai.coreservice.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Ruta crítica de un proyecto: la cadena de tareas abiertas con menos holgura.
+ *
+ * @param taskIds         tareas de la cadena, de la primera a la última
+ * @param estimatedFinish fecha estimada de fin de la última tarea (1 día por tarea abierta)
+ * @param slackDays       días de margen respecto a las fechas límite (negativo = se llegará tarde)
+ */
+public record CriticalPathDto(
+        List<UUID> taskIds,
+        LocalDate estimatedFinish,
+        long slackDays
+) {
+}
@@ -0,0 +1,20 @@
+package com.plandai.coreservice.dto;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Grafo de dependencias de un proyecto.
+ *
+ * @param topologicalOrder todas las tareas, cada una después de las que la bloquean
+ * @param blocked          tareas abiertas → tareas abiertas que las bloquean directamente
+ * @param criticalPath     cadena de tareas que marca la fecha de fin del proyecto
+ */
+public record DependencyGraphDto(
+        UUID projectId,
+        List<UUID> topologicalOrder,
+        Map<UUID, List<UUID>> blocked,
+        CriticalPathDto criticalPath
+) {
+}
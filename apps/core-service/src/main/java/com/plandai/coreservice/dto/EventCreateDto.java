@@ -33,8 +33,5 @@ public class EventCreateDto {
     
     private Boolean isAllDay = false;
     
-    @NotNull(message = "El ID de usuario es obligatorio")
-    private UUID userId;
-    
     private UUID projectId;
 }
@@ -25,9 +25,6 @@ public class ExpenseCreateDto {
     
     private UUID categoryId;
     
-    @NotNull(message = "El ID de usuario es obligatorio")
-    private UUID userId;
-    
     private Boolean isRecurring = false;
     
     private Expense.RecurrencePeriod recurrencePeriod;
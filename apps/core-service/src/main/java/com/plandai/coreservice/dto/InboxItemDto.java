@@ -0,0 +1,22 @@
+package com.plandai.coreservice.dto;
+
+import com.plandai.coreservice.entities.Task;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Tarea de la bandeja de entrada del usuario, con su puntuación de prioridad.
+ *
+ * @param score mayor = más importante ahora (prioridad + cercanía de la fecha límite + tiempo sin tocarla)
+ */
+public record InboxItemDto(
+        UUID id,
+        String title,
+        Task.TaskStatus status,
+        Task.TaskPriority priority,
+        LocalDate dueDate,
+        UUID projectId,
+        double score
+) {
+}
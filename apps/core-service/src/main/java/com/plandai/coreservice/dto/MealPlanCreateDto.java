@@ -19,9 +19,6 @@ public class MealPlanCreateDto {
     @NotNull(message = "El ID de la receta es obligatorio")
     private UUID mealId;
     
-    @NotNull(message = "El ID de usuario es obligatorio")
-    private UUID userId;
-    
     private String notes;
     
     private Boolean isCompleted = false;
@@ -0,0 +1,25 @@
+package com.plandai.coreservice.dto;
+
+import java.util.UUID;
+
+/**
+ * Progreso acumulado de una tarea con subtareas.
+ *
+ * @param subtasks  descendientes a cualquier nivel
+ * @param completed descendientes en DONE
+ * @param percent   completed sobre subtasks (0-100); sin subtareas, 100 si la propia tarea está DONE
+ */
+public record SubtaskProgressDto(
+        UUID taskId,
+        long subtasks,
+        long completed,
+        int percent
+) {
+
+    public static SubtaskProgressDto of(UUID taskId, long subtasks, long completed, boolean done) {
+        int percent = subtasks == 0
+                ? (done ? 100 : 0)
+                : (int) (completed * 100 / subtasks);
+        return new SubtaskProgressDto(taskId, subtasks, completed, percent);
+    }
+}
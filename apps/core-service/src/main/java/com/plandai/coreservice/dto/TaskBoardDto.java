@@ -0,0 +1,10 @@
+package com.plandai.coreservice.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Tablero Kanban de un proyecto: una columna por cada TaskStatus (en orden del enum).
+ */
+public record TaskBoardDto(UUID projectId, List<BoardColumnDto> columns) {
+}
@@ -0,0 +1,82 @@
+package com.plandai.coreservice.dto;
+
+import com.plandai.coreservice.entities.Task;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * DTO para operaciones masivas sobre tareas (POST /api/tasks/bulk).
+ *
+ * Body: {
+ *   "operations": [
+ *     {"type": "CREATE", "projectId": "uuid", "task": {"title": "...", "priority": "HIGH"}},
+ *     {"type": "CREATE", "projectId": "uuid", "parentId": "uuid", "task": {"title": "..."}},
+ *     {"type": "UPDATE_STATUS", "taskId": "uuid", "status": "DONE"},
+ *     {"type": "REASSIGN", "taskId": "uuid", "assignedTo": "uuid o null"},
+ *     {"type": "MOVE", "taskId": "uuid", "projectId": "uuid"},
+ *     {"type": "DELETE", "taskId": "uuid"}
+ *   ]
+ * }
+ *
+ * DELETE borra también las subtareas, como DELETE /api/tasks/{id}. MOVE falla si la tarea
+ * tiene campos personalizados que el proyecto destino no define con el mismo tipo.
+ */
+@Data
+public class TaskBulkRequestDto {
+
+    @NotEmpty(message = "Debe indicar al menos una operación")
+    @Size(max = 5000, message = "Máximo 5000 operaciones por petición")
+    @Valid
+    private List<Operation> operations;
+
+    @Data
+    public static class Operation {
+
+        @NotNull(message = "El tipo de operación es obligatorio")
+        private OperationType type;
+
+        /**
+         * Tarea afectada (todas las operaciones salvo CREATE).
+         */
+        private UUID taskId;
+
+        /**
+         * Proyecto destino (CREATE y MOVE).
+         */
+        private UUID projectId;
+
+        /**
+         * Tarea padre de la tarea nueva (CREATE, opcional). Debe existir antes de la petición.
+         */
+        private UUID parentId;
+
+        /**
+         * Nuevo estado (UPDATE_STATUS).
+         */
+        private Task.TaskStatus status;
+
+        /**
+         * Nuevo asignado (REASSIGN). null = desasignar.
+         */
+        private UUID assignedTo;
+
+        /**
+         * Datos de la tarea nueva (CREATE). Se valida elemento a elemento.
+         */
+        private Task task;
+    }
+
+    public enum OperationType {
+        CREATE,
+        UPDATE_STATUS,
+        REASSIGN,
+        MOVE,
+        DELETE
+    }
+}
@@ -0,0 +1,54 @@
+package com.plandai.coreservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Resultado de una operación masiva: un resultado por operación, en el mismo orden.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskBulkResultDto {
+
+    private int succeeded;
+
+    private int failed;
+
+    private List<ItemResult> results;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ItemResult {
+
+        /**
+         * Posición de la operación en la petición.
+         */
+        private int index;
+
+        /**
+         * Tarea afectada (la nueva en CREATE).
+         */
+        private UUID taskId;
+
+        private boolean success;
+
+        /**
+         * Motivo del fallo (null si success = true).
+         */
+        private String error;
+
+        public static ItemResult ok(int index, UUID taskId) {
+            return new ItemResult(index, taskId, true, null);
+        }
+
+        public static ItemResult error(int index, UUID taskId, String error) {
+            return new ItemResult(index, taskId, false, error);
+        }
+    }
+}
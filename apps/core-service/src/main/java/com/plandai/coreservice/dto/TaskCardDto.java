@@ -0,0 +1,22 @@
+package com.plandai.coreservice.dto;
+
+import com.plandai.coreservice.entities.Task;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Tarjeta ligera de una tarea para el tablero Kanban (sin descripción).
+ *
+ * @param rank clave de orden dentro de la columna (para colocar los cambios que llegan por SSE)
+ */
+public record TaskCardDto(
+        UUID id,
+        String title,
+        Task.TaskPriority priority,
+        LocalDate dueDate,
+        UUID assignedTo,
+        UserSummaryDto assignee,
+        String rank
+) {
+}
@@ -0,0 +1,77 @@
+package com.plandai.coreservice.dto;
+
+import com.plandai.coreservice.entities.Task;
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * DTO con los filtros combinables del listado de tareas.
+ * Todos son opcionales y se aplican a la vez (AND) en SQL.
+ *
+ * Ejemplo: GET /api/tasks?projectId=uuid&status=TO_DO,IN_PROGRESS&priority=HIGH,URGENT&dueTo=2025-12-31&q=login
+ * Con etiquetas: GET /api/tasks?workspaceId=uuid&tags=backend AND NOT bloqueada
+ */
+@Data
+public class TaskFilterDto {
+
+    private UUID workspaceId;
+
+    private UUID projectId;
+
+    private UUID assignedTo;
+
+    /**
+     * Estados aceptados (cualquiera de ellos).
+     */
+    private Set<Task.TaskStatus> status;
+
+    /**
+     * Prioridades aceptadas (cualquiera de ellas).
+     */
+    private Set<Task.TaskPriority> priority;
+
+    /**
+     * Fecha límite desde (inclusive).
+     */
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate dueFrom;
+
+    /**
+     * Fecha límite hasta (inclusive).
+     */
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate dueTo;
+
+    /**
+     * Texto a buscar en título y descripción (sin distinguir mayúsculas).
+     */
+    private String q;
+
+    /**
+     * Expresión de etiquetas (AND, OR, NOT y paréntesis). Ejemplo: backend AND (urgente OR api)
+     * Requiere workspaceId o projectId: los nombres de etiqueta son del workspace.
+     */
+    private String tags;
+
+    /**
+     * Filtros sobre campos personalizados del proyecto, clave:operador:valor (todos a la vez).
+     * Ejemplo: cf=points:gte:5&cf=client:eq:ACME. Requiere projectId.
+     */
+    private List<String> cf;
+
+    /**
+     * Orden por un campo personalizado: "points" o "points:desc". Requiere projectId;
+     * no se combina con la paginación por cursor ni con includeArchived.
+     */
+    private String cfSort;
+
+    /**
+     * Incluir también las tareas archivadas (tasks_archive). Por defecto solo las vivas.
+     */
+    private boolean includeArchived;
+}
@@ -0,0 +1,25 @@
+package com.plandai.coreservice.dto;
+
+import com.plandai.coreservice.entities.Task;
+import lombok.Data;
+
+import java.util.UUID;
+
+/**
+ * DTO para mover una tarjeta en el tablero (PATCH /api/tasks/{id}/move).
+ *
+ * Body: {"status": "IN_PROGRESS", "previousTaskId": "uuid", "nextTaskId": "uuid"}
+ *
+ * - status: columna de destino (null = la misma)
+ * - previousTaskId / nextTaskId: tarjetas que quedan justo encima y justo debajo.
+ *   Sin ninguna de las dos, la tarjeta va al final de la columna.
+ */
+@Data
+public class TaskMoveDto {
+
+    private Task.TaskStatus status;
+
+    private UUID previousTaskId;
+
+    private UUID nextTaskId;
+}
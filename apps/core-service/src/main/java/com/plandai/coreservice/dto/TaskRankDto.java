@@ -0,0 +1,15 @@
+package com.plandai.coreservice.dto;
+
+import com.plandai.coreservice.entities.Task;
+
+import java.util.UUID;
+
+/**
+ * Nueva posición de una tarea tras reordenar.
+ */
+public record TaskRankDto(
+        UUID id,
+        Task.TaskStatus status,
+        String rank
+) {
+}
@@ -0,0 +1,39 @@
+package com.plandai.coreservice.dto;
+
+import com.plandai.coreservice.entities.Task;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * DTO para reordenar varias tarjetas de una vez (POST /api/tasks/reorder).
+ *
+ * Body: {
+ *   "taskIds": ["uuid1", "uuid2", "uuid3"],
+ *   "status": "TO_DO",
+ *   "previousTaskId": "uuid",
+ *   "nextTaskId": "uuid"
+ * }
+ *
+ * Las tareas quedan seguidas, en el orden de taskIds, entre previousTaskId y nextTaskId
+ * (sin ninguna de las dos: al final de la columna). Todas deben ser del mismo proyecto.
+ */
+@Data
+public class TaskReorderDto {
+
+    @NotEmpty(message = "Debe indicar al menos una tarea")
+    @Size(max = 1000, message = "Máximo 1000 tareas por petición")
+    private List<UUID> taskIds;
+
+    /**
+     * Columna de destino (null = la de la primera tarea).
+     */
+    private Task.TaskStatus status;
+
+    private UUID previousTaskId;
+
+    private UUID nextTaskId;
+}
@@ -0,0 +1,19 @@
+package com.plandai.coreservice.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Bloques propuestos que el usuario acepta (todos o parte de una propuesta).
+ */
+@Data
+public class TimeBlockAcceptDto {
+
+    @NotEmpty(message = "Indica al menos un bloque")
+    @Size(max = 1000, message = "No se pueden aceptar más de 1000 bloques a la vez")
+    private List<@Valid TimeBlockDto> blocks;
+}
@@ -0,0 +1,21 @@
+package com.plandai.coreservice.dto;
+
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Bloque de trabajo en una tarea [start, end). Al aceptarlo se guarda como evento TASK_BLOCK.
+ *
+ * @param title   título de la tarea (solo informativo al aceptar)
+ * @param eventId evento creado al aceptarlo (null en una propuesta)
+ */
+public record TimeBlockDto(
+        @NotNull(message = "La tarea es obligatoria") UUID taskId,
+        String title,
+        @NotNull(message = "La fecha y hora de inicio es obligatoria") LocalDateTime start,
+        @NotNull(message = "La fecha y hora de fin es obligatoria") LocalDateTime end,
+        UUID eventId
+) {
+}
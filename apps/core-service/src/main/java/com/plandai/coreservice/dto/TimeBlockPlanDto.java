@@ -0,0 +1,30 @@
+package com.plandai.coreservice.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Propuesta de bloques de tiempo (no se guarda nada hasta aceptarla).
+ *
+ * @param blocks      bloques propuestos, por fecha
+ * @param unscheduled tareas que no se han podido planificar y por qué
+ * @param iterations  movimientos probados por la búsqueda local
+ * @param solveMillis tiempo de cálculo
+ */
+public record TimeBlockPlanDto(
+        List<TimeBlockDto> blocks,
+        List<Unscheduled> unscheduled,
+        long iterations,
+        long solveMillis
+) {
+
+    public record Unscheduled(UUID taskId, String title, Reason reason) {
+    }
+
+    public enum Reason {
+        NO_ESTIMATE,        // Sin estimated_minutes
+        ALREADY_SCHEDULED,  // Sus bloques futuros ya cubren la estimación
+        PAST_DUE,           // Vencida antes de hoy
+        DOES_NOT_FIT        // No hay tiempo libre suficiente antes de su vencimiento
+    }
+}
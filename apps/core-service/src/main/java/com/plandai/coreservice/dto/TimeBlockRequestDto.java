@@ -0,0 +1,48 @@
+package com.plandai.coreservice.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Parámetros de una propuesta de bloques de tiempo (todos opcionales).
+ */
+@Data
+public class TimeBlockRequestDto {
+
+    /**
+     * Días a planificar desde ahora (el máximo lo fija scheduling.max-horizon-days).
+     */
+    @Min(value = 1, message = "El horizonte debe ser de al menos 1 día")
+    private int horizonDays = 14;
+
+    @NotNull(message = "La hora de inicio de la jornada es obligatoria")
+    private LocalTime workStart = LocalTime.of(9, 0);
+
+    @NotNull(message = "La hora de fin de la jornada es obligatoria")
+    private LocalTime workEnd = LocalTime.of(17, 0);
+
+    @NotEmpty(message = "Indica al menos un día laborable")
+    private Set<DayOfWeek> workDays = EnumSet.range(DayOfWeek.MONDAY, DayOfWeek.FRIDAY);
+
+    /**
+     * Bloque más corto que conviene crear: se evita (no se prohíbe) partir tareas en trozos menores.
+     */
+    @Min(value = 1, message = "El bloque mínimo debe ser de al menos 1 minuto")
+    @Max(value = 480, message = "El bloque mínimo no puede superar 480 minutos")
+    private int minBlockMinutes = 30;
+
+    /**
+     * Solo estas tareas (de entre las abiertas asignadas al usuario); vacío = todas.
+     */
+    private List<UUID> taskIds;
+}
@@ -0,0 +1,27 @@
+package com.plandai.coreservice.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Entrada de tiempo manual (sin temporizador).
+ */
+@Data
+public class TimeEntryCreateDto {
+
+    @NotNull(message = "La tarea es obligatoria")
+    private UUID taskId;
+
+    @NotNull(message = "La fecha y hora de inicio es obligatoria")
+    private LocalDateTime startedAt;
+
+    @NotNull(message = "La fecha y hora de fin es obligatoria")
+    private LocalDateTime endedAt;
+
+    @Size(max = 500, message = "La nota no puede exceder 500 caracteres")
+    private String note;
+}
@@ -0,0 +1,11 @@
+package com.plandai.coreservice.dto;
+
+import java.util.UUID;
+
+/**
+ * Tiempo total registrado (solo entradas terminadas) de una tarea, un proyecto o un usuario.
+ *
+ * @param scope TASK, PROJECT o USER
+ */
+public record TimeTotalDto(String scope, UUID scopeId, long totalSeconds, long entries) {
+}
@@ -0,0 +1,19 @@
+package com.plandai.coreservice.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hoja de horas semanal de un usuario (lunes a domingo).
+ *
+ * @param rows         una fila por tarea, ordenadas por título
+ * @param dailySeconds total de cada día de la semana (los 7, también los vacíos)
+ */
+public record TimesheetDto(
+        LocalDate weekStart,
+        List<TimesheetRowDto> rows,
+        Map<LocalDate, Long> dailySeconds,
+        long totalSeconds
+) {
+}
@@ -0,0 +1,13 @@
+package com.plandai.coreservice.dto;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Fila de la hoja de horas: el tiempo de una tarea en cada día de la semana.
+ *
+ * @param dailySeconds segundos por día (solo los días con tiempo registrado)
+ */
+public record TimesheetRowDto(UUID taskId, String title, Map<LocalDate, Long> dailySeconds, long totalSeconds) {
+}
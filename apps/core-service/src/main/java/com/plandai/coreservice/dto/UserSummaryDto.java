@@ -0,0 +1,9 @@
+package com.plandai.coreservice.dto;
+
+import java.util.UUID;
+
+/**
+ * Datos de presentación de un usuario (asignado de una tarea, propietario de un evento...).
+ */
+public record UserSummaryDto(UUID userId, String email, String displayName) {
+}
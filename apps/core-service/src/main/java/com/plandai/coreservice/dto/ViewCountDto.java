@@ -0,0 +1,9 @@
+package com.plandai.coreservice.dto;
+
+import java.util.UUID;
+
+/**
+ * Número de tareas que cumplen una vista guardada.
+ */
+public record ViewCountDto(UUID viewId, int count) {
+}
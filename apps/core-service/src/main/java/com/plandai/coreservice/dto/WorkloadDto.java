@@ -0,0 +1,23 @@
+package com.plandai.coreservice.dto;
+
+import com.plandai.coreservice.entities.Task;
+import com.plandai.coreservice.workload.DueWindow;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Carga de trabajo de una persona en un workspace: sus tareas abiertas (no DONE) asignadas.
+ *
+ * @param estimatedMinutes suma de las estimaciones de esas tareas
+ * @param unestimatedTasks cuántas no tienen estimación
+ */
+public record WorkloadDto(
+        UUID userId,
+        long openTasks,
+        Map<Task.TaskPriority, Long> byPriority,
+        Map<DueWindow, Long> byDueWindow,
+        long estimatedMinutes,
+        long unestimatedTasks
+) {
+}
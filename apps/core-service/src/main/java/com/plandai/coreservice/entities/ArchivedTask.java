@@ -0,0 +1,104 @@
+package com.plandai.coreservice.entities;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Tarea completada que se ha movido a la tabla fría tasks_archive (ver TaskArchiveService).
+ *
+ * Mismos atributos que Task (así TaskSpecifications sirve para ambas) más archivedAt.
+ * Solo se lee con JPA: las altas y bajas se hacen en SQL moviendo filas entre tablas.
+ */
+@Entity
+@Table(name = "tasks_archive", schema = "core_schema")
+@Data
+@NoArgsConstructor
+public class ArchivedTask {
+
+    @Id
+    @Column(name = "id", updatable = false, nullable = false)
+    private UUID id;
+
+    @Column(name = "title", nullable = false, length = 200)
+    private String title;
+
+    @Column(name = "description", length = 2000)
+    private String description;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private Task.TaskStatus status;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "priority", nullable = false, length = 20)
+    private Task.TaskPriority priority;
+
+    @Column(name = "due_date")
+    private LocalDate dueDate;
+
+    @Column(name = "assigned_to")
+    private UUID assignedTo;
+
+    @Column(name = "estimated_minutes")
+    private Integer estimatedMinutes;
+
+    @Column(name = "rank", nullable = false)
+    private String rank;
+
+    /**
+     * Padre que tenía al archivarse (sin clave foránea: puede haber desaparecido).
+     */
+    @Column(name = "parent_id")
+    private UUID parentId;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "custom_fields", nullable = false)
+    private Map<String, Object> customFields;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "project_id", nullable = false)
+    private Project project;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    /**
+     * Momento en que se archivó.
+     */
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+
+    /**
+     * Copia como Task (no gestionada) para devolverla en los mismos listados que las vivas.
+     */
+    public Task toTask() {
+        Task task = new Task();
+        task.setId(id);
+        task.setTitle(title);
+        task.setDescription(description);
+        task.setStatus(status);
+        task.setPriority(priority);
+        task.setDueDate(dueDate);
+        task.setAssignedTo(assignedTo);
+        task.setEstimatedMinutes(estimatedMinutes);
+        task.setRank(rank);
+        task.setParentId(parentId);
+        task.setCustomFields(customFields);
+        task.setProject(project);
+        task.setCreatedAt(createdAt);
+        task.setUpdatedAt(updatedAt);
+        task.setArchivedAt(archivedAt);
+        return task;
+    }
+}
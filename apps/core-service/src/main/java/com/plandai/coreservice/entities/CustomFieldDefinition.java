@@ -0,0 +1,86 @@
+package com.plandai.coreservice.entities;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Definición de un campo personalizado de las tareas de un proyecto.
+ * Ejemplo: {"key": "points", "label": "Story points", "type": "NUMBER"}
+ *
+ * Los valores se guardan en tasks.custom_fields bajo "key" (V19).
+ */
+@Entity
+@Table(name = "custom_field_definitions", schema = "core_schema")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomFieldDefinition {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @Column(name = "id", updatable = false, nullable = false)
+    private UUID id;
+
+    /**
+     * Proyecto del campo (lo fija el servicio, no el cliente).
+     */
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(name = "project_id", nullable = false, updatable = false)
+    private UUID projectId;
+
+    /**
+     * Clave en el JSON de la tarea y en los filtros: minúsculas, dígitos y "_".
+     */
+    @NotBlank(message = "La clave del campo es obligatoria")
+    @Pattern(regexp = "[a-z][a-z0-9_]{0,39}",
+            message = "La clave debe empezar por letra y tener solo minúsculas, dígitos o _ (máx. 40)")
+    @Column(name = "key", nullable = false, updatable = false, length = 40)
+    private String key;
+
+    @NotBlank(message = "El nombre visible del campo es obligatorio")
+    @Size(max = 100, message = "El nombre visible no puede exceder 100 caracteres")
+    @Column(name = "label", nullable = false, length = 100)
+    private String label;
+
+    @NotNull(message = "El tipo del campo es obligatorio")
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type", nullable = false, updatable = false, length = 20)
+    private FieldType type;
+
+    /**
+     * Valores permitidos (solo para SELECT).
+     */
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "options")
+    private List<String> options;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    /**
+     * Tipos de campo. En el JSON: TEXT y SELECT como texto, NUMBER como número,
+     * DATE como texto ISO (yyyy-MM-dd, que ordena igual que la fecha) y BOOLEAN como true/false.
+     */
+    public enum FieldType {
+        TEXT,
+        NUMBER,
+        DATE,
+        BOOLEAN,
+        SELECT
+    }
+}
@@ -0,0 +1,80 @@
+package com.plandai.coreservice.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Estadísticas de tareas de un proyecto (progreso, desglose por estado y prioridad).
+ *
+ * Solo lectura desde la aplicación: las mantiene el trigger de V8 en la misma
+ * transacción que cada escritura de tareas, y el job de reconciliación corrige la deriva.
+ */
+@Entity
+@Immutable
+@Table(name = "project_task_stats", schema = "core_schema")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProjectTaskStats {
+
+    @Id
+    @Column(name = "project_id", updatable = false, nullable = false)
+    private UUID projectId;
+
+    @Column(name = "total_count", nullable = false)
+    private long totalCount;
+
+    @Column(name = "todo_count", nullable = false)
+    private long todoCount;
+
+    @Column(name = "in_progress_count", nullable = false)
+    private long inProgressCount;
+
+    @Column(name = "done_count", nullable = false)
+    private long doneCount;
+
+    @Column(name = "low_count", nullable = false)
+    private long lowCount;
+
+    @Column(name = "medium_count", nullable = false)
+    private long mediumCount;
+
+    @Column(name = "high_count", nullable = false)
+    private long highCount;
+
+    @Column(name = "urgent_count", nullable = false)
+    private long urgentCount;
+
+    /**
+     * Tareas sin terminar con fecha límite pasada.
+     */
+    @Column(name = "overdue_count", nullable = false)
+    private long overdueCount;
+
+    /**
+     * Última escritura sobre cualquier tarea del proyecto.
+     */
+    @Column(name = "last_activity_at")
+    private LocalDateTime lastActivityAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    /**
+     * Estadísticas de un proyecto que todavía no tiene fila (ninguna tarea escrita).
+     */
+    public static ProjectTaskStats empty(UUID projectId) {
+        ProjectTaskStats stats = new ProjectTaskStats();
+        stats.setProjectId(projectId);
+        return stats;
+    }
+}
@@ -0,0 +1,51 @@
+package com.plandai.coreservice.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Token JWT revocado antes de su expiración.
+ *
+ * La fila solo es necesaria hasta el "exp" del token: después el token
+ * ya no es válido de todas formas y se purga.
+ */
+@Entity
+@Table(name = "revoked_tokens", schema = "core_schema")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevokedToken {
+
+    /**
+     * Clave de revocación: "jti:<id>" si el token trae jti, o "sha:<digest>" si no.
+     */
+    @Id
+    @Column(name = "token_key", length = 128, nullable = false, updatable = false)
+    private String tokenKey;
+
+    /**
+     * Usuario dueño del token.
+     */
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    /**
+     * Expiración original del token.
+     */
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    /**
+     * Momento de la revocación.
+     */
+    @Column(name = "revoked_at", nullable = false)
+    private LocalDateTime revokedAt;
+}
@@ -0,0 +1,65 @@
+package com.plandai.coreservice.entities;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.plandai.coreservice.views.ViewFilter;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Vista guardada: un filtro de tareas con nombre de un usuario.
+ * Ejemplo: {"name": "Mis urgentes", "filter": {"assignedTo": "uuid", "priority": ["URGENT"]}}
+ *
+ * Solo se guarda el filtro (V20); los resultados los mantiene SavedViewService en memoria.
+ */
+@Entity
+@Table(name = "saved_views", schema = "core_schema")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SavedView {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @Column(name = "id", updatable = false, nullable = false)
+    private UUID id;
+
+    /**
+     * Dueño de la vista (lo fija el servicio con el usuario autenticado).
+     */
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(name = "user_id", nullable = false, updatable = false)
+    private UUID userId;
+
+    /**
+     * Nombre, único por usuario sin distinguir mayúsculas.
+     */
+    @NotBlank(message = "El nombre de la vista es obligatorio")
+    @Size(max = 100, message = "El nombre no puede exceder 100 caracteres")
+    @Column(name = "name", nullable = false, length = 100)
+    private String name;
+
+    @NotNull(message = "El filtro de la vista es obligatorio")
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "filter", nullable = false)
+    private ViewFilter filter;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,62 @@
+package com.plandai.coreservice.entities;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Etiqueta de un workspace que se puede poner a cualquiera de sus tareas.
+ * Ejemplo: "backend", "urgente", "cliente vip".
+ *
+ * Las asignaciones viven en task_tags (V18) y se filtran con expresiones
+ * ("backend AND NOT bloqueada") a través del índice en memoria de TagService.
+ */
+@Entity
+@Table(name = "tags", schema = "core_schema")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Tag {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @Column(name = "id", updatable = false, nullable = false)
+    private UUID id;
+
+    /**
+     * Workspace de la etiqueta (lo fija el servicio, no el cliente).
+     */
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(name = "workspace_id", nullable = false, updatable = false)
+    private UUID workspaceId;
+
+    /**
+     * Nombre, único en el workspace sin distinguir mayúsculas.
+     * Sin comillas ni paréntesis: así se puede escribir tal cual en una expresión.
+     */
+    @NotBlank(message = "El nombre de la etiqueta es obligatorio")
+    @Size(max = 50, message = "El nombre no puede exceder 50 caracteres")
+    @Pattern(regexp = "[^\"()]*", message = "El nombre no puede contener comillas ni paréntesis")
+    @Column(name = "name", nullable = false, length = 50)
+    private String name;
+
+    /**
+     * Color en hexadecimal (opcional). Ejemplo: "#FF8800"
+     */
+    @Pattern(regexp = "#[0-9a-fA-F]{6}", message = "El color debe tener el formato #RRGGBB")
+    @Column(name = "color", length = 7)
+    private String color;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -1,17 +1,24 @@
 package com.plandai.coreservice.entities;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.plandai.coreservice.dto.UserSummaryDto;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.PositiveOrZero;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.type.SqlTypes;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -86,6 +93,56 @@ public class Task {
     @Column(name = "assigned_to")
     private UUID assignedTo;
 
+    /**
+     * Esfuerzo estimado en minutos (opcional). Suma en la carga de trabajo del asignado.
+     */
+    @PositiveOrZero(message = "La estimación no puede ser negativa")
+    @Column(name = "estimated_minutes")
+    private Integer estimatedMinutes;
+
+    /**
+     * Posición manual dentro de su columna (proyecto + estado).
+     * Clave fraccionaria (ver RankKeys): la asigna el servidor al crear, mover y reordenar.
+     */
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(name = "rank", nullable = false)
+    private String rank;
+
+    /**
+     * Tarea padre (null = tarea raíz). Siempre del mismo proyecto.
+     * Solo se fija al crear; los cambios de padre pasan por TaskHierarchyService,
+     * que mantiene la tabla de clausura y el límite de anidación.
+     */
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(name = "parent_id", updatable = false)
+    private UUID parentId;
+
+    /**
+     * Valores de los campos personalizados del proyecto, por clave. Ejemplo: {"points": 5, "client": "ACME"}
+     * Se validan contra las definiciones del proyecto (CustomFieldService). Solo se fija al crear:
+     * los cambios van por PATCH /api/tasks/{id}/custom-fields, así que ni las actualizaciones
+     * completas ni las de estado vuelven a escribir el JSON.
+     */
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "custom_fields", nullable = false, updatable = false)
+    private Map<String, Object> customFields = new HashMap<>();
+
+    /**
+     * Datos de presentación del asignado (email, nombre).
+     * No se persiste: se rellena desde el directorio local de usuarios en los listados.
+     */
+    @Transient
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private UserSummaryDto assignee;
+
+    /**
+     * Momento en que se archivó (solo en tareas leídas de tasks_archive con includeArchived).
+     * null = tarea viva.
+     */
+    @Transient
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private LocalDateTime archivedAt;
+
     /**
      * Relación con Project (MUCHAS tareas → 1 proyecto).
      * 
@@ -0,0 +1,71 @@
+package com.plandai.coreservice.entities;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.Generated;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Entrada de tiempo dedicado a una tarea: un temporizador (endedAt = null mientras corre)
+ * o una entrada manual.
+ *
+ * La duración la calcula PostgreSQL (columna generada); los totales por tarea,
+ * proyecto y usuario los mantiene el trigger de V17.
+ */
+@Entity
+@Table(name = "time_entries", schema = "core_schema")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TimeEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @Column(name = "id", updatable = false, nullable = false)
+    private UUID id;
+
+    /**
+     * Tarea a la que se imputa el tiempo (sin clave foránea: puede estar archivada).
+     */
+    @Column(name = "task_id", nullable = false)
+    private UUID taskId;
+
+    /**
+     * Proyecto de la tarea (copiado para los totales por proyecto; lo actualiza un trigger si la tarea se mueve).
+     */
+    @Column(name = "project_id", nullable = false)
+    private UUID projectId;
+
+    @Column(name = "user_id", nullable = false, updatable = false)
+    private UUID userId;
+
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+
+    /**
+     * Fin de la entrada (null = temporizador en marcha).
+     */
+    @Column(name = "ended_at")
+    private LocalDateTime endedAt;
+
+    /**
+     * Segundos entre inicio y fin (null mientras el temporizador corre).
+     */
+    @Generated
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(name = "duration_seconds", insertable = false, updatable = false)
+    private Long durationSeconds;
+
+    @Column(name = "note", length = 500)
+    private String note;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
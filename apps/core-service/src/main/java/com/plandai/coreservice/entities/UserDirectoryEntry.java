@@ -0,0 +1,45 @@
+package com.plandai.coreservice.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Entrada del directorio local de usuarios.
+ *
+ * Es una copia de solo presentación de los claims del JWT (email y nombre):
+ * la fuente de verdad sigue siendo el Auth Service.
+ */
+@Entity
+@Table(name = "user_directory", schema = "core_schema")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserDirectoryEntry {
+
+    /**
+     * ID del usuario en auth_schema.
+     */
+    @Id
+    @Column(name = "user_id", updatable = false, nullable = false)
+    private UUID userId;
+
+    @Column(name = "email", length = 255)
+    private String email;
+
+    @Column(name = "display_name", length = 200)
+    private String displayName;
+
+    /**
+     * Última vez que cambiaron los datos (la escribe el upsert).
+     */
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -1,5 +1,7 @@
 package com.plandai.coreservice.model;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.plandai.coreservice.dto.UserSummaryDto;
 import com.plandai.coreservice.entities.Project;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
@@ -47,6 +49,15 @@ public class Event {
     @Column(name = "user_id", nullable = false)
     private UUID userId;
 
+    // Datos del propietario desde el directorio local de usuarios (no se persiste)
+    @Transient
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private UserSummaryDto owner;
+
+    // Tarea de un bloque de tiempo (TASK_BLOCK); sin clave foránea: puede estar archivada
+    @Column(name = "task_id")
+    private UUID taskId;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "project_id")
     private Project project;
@@ -65,6 +76,7 @@ public class Event {
         APPOINTMENT,
         REMINDER,
         DEADLINE,
-        OTHER
+        OTHER,
+        TASK_BLOCK  // Bloque de trabajo en una tarea (planificación automática)
     }
 }
@@ -0,0 +1,166 @@
+package com.plandai.coreservice.ordering;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Claves de orden fraccionarias (fractional indexing) para ordenar tareas a mano.
+ *
+ * - Una clave es una fracción en base 62 escrita como texto: "V" ≈ 0.5, "VV" ≈ 0.508...
+ *   El orden lexicográfico byte a byte (collation "C" en PostgreSQL) es el orden numérico.
+ * - Entre dos claves distintas siempre cabe otra: mover una tarjeta solo reescribe SU clave.
+ * - Ninguna clave termina en '0', así siempre queda sitio delante de cualquiera.
+ * - Insertar muchas veces en el mismo hueco alarga las claves (~1 carácter cada 6 inserciones):
+ *   TaskRankService reequilibra las columnas cuyas claves crecen demasiado.
+ */
+public final class RankKeys {
+
+    /**
+     * Dígitos en orden ASCII: el orden de los caracteres coincide con su valor.
+     */
+    public static final String DIGITS = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz";
+
+    private static final int BASE = DIGITS.length();
+    private static final char ZERO = DIGITS.charAt(0);
+    private static final char LAST = DIGITS.charAt(BASE - 1);
+
+    private RankKeys() {
+    }
+
+    /**
+     * Clave estrictamente entre before y after.
+     *
+     * @param before clave anterior (null = principio de la columna)
+     * @param after  clave siguiente (null = final de la columna)
+     * @throws IllegalArgumentException si alguna clave no es válida o before >= after
+     */
+    public static String between(String before, String after) {
+        requireValid(before);
+        requireValid(after);
+        if (before != null && after != null && before.compareTo(after) >= 0) {
+            throw new IllegalArgumentException("Claves de orden desordenadas: " + before + " >= " + after);
+        }
+        return midpoint(before == null ? "" : before, after);
+    }
+
+    /**
+     * count claves ordenadas entre before y after, repartidas por mitades
+     * (la longitud crece con log(count), no con count).
+     */
+    public static List<String> between(String before, String after, int count) {
+        List<String> keys = new ArrayList<>(Math.max(count, 0));
+        fill(before, after, count, keys);
+        return keys;
+    }
+
+    /**
+     * Clave para añadir al final de una columna: la siguiente tras key con su misma longitud
+     * ("k" → "l"), o un dígito más si ya no cabe ("z" → "z1").
+     * Crece mucho más despacio que between(key, null) cuando se añaden tarjetas una tras otra.
+     *
+     * @param key última clave de la columna (null = columna vacía)
+     */
+    public static String after(String key) {
+        requireValid(key);
+        if (key == null) {
+            return between(null, null);
+        }
+        char last = key.charAt(key.length() - 1);
+        if (last == LAST) {
+            return key + DIGITS.charAt(1);
+        }
+        return key.substring(0, key.length() - 1) + DIGITS.charAt(DIGITS.indexOf(last) + 1);
+    }
+
+    /**
+     * count claves repartidas de forma uniforme por todo el espacio, con la longitud mínima
+     * que deja al menos un hueco libre entre cada par. Es el resultado de reequilibrar una columna.
+     */
+    public static List<String> spread(int count) {
+        int width = 1;
+        long span = BASE;
+        while (span <= 2L * count) {
+            width++;
+            span *= BASE;
+        }
+
+        List<String> keys = new ArrayList<>(Math.max(count, 0));
+        char[] digits = new char[width];
+        for (int i = 1; i <= count; i++) {
+            long value = i * span / (count + 1);
+            for (int position = width - 1; position >= 0; position--) {
+                digits[position] = DIGITS.charAt((int) (value % BASE));
+                value /= BASE;
+            }
+            int length = width;
+            while (digits[length - 1] == ZERO) {
+                length--;
+            }
+            keys.add(new String(digits, 0, length));
+        }
+        return keys;
+    }
+
+    /**
+     * Indica si key es una clave válida (no vacía, solo dígitos base 62, sin '0' final).
+     */
+    public static boolean isValid(String key) {
+        if (key == null || key.isEmpty() || key.charAt(key.length() - 1) == ZERO) {
+            return false;
+        }
+        for (int i = 0; i < key.length(); i++) {
+            if (DIGITS.indexOf(key.charAt(i)) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void fill(String before, String after, int count, List<String> keys) {
+        if (count <= 0) {
+            return;
+        }
+        String middle = between(before, after);
+        int left = count / 2;
+        fill(before, middle, left, keys);
+        keys.add(middle);
+        fill(middle, after, count - left - 1, keys);
+    }
+
+    /**
+     * Punto medio entre a y b, con a < b ("" = 0, null = 1).
+     */
+    private static String midpoint(String a, String b) {
+        if (b != null) {
+            // Prefijo común (a se rellena con '0' por la derecha)
+            int n = 0;
+            while (n < b.length() && digitAt(a, n) == b.charAt(n)) {
+                n++;
+            }
+            if (n > 0) {
+                return b.substring(0, n) + midpoint(a.length() > n ? a.substring(n) : "", b.substring(n));
+            }
+        }
+
+        int digitA = a.isEmpty() ? 0 : DIGITS.indexOf(a.charAt(0));
+        int digitB = b == null ? BASE : DIGITS.indexOf(b.charAt(0));
+        if (digitB - digitA > 1) {
+            return String.valueOf(DIGITS.charAt((digitA + digitB) / 2));
+        }
+        // Primeros dígitos consecutivos
+        if (b != null && b.length() > 1) {
+            return b.substring(0, 1);
+        }
+        return DIGITS.charAt(digitA) + midpoint(a.isEmpty() ? "" : a.substring(1), null);
+    }
+
+    private static char digitAt(String key, int index) {
+        return index < key.length() ? key.charAt(index) : ZERO;
+    }
+
+    private static void requireValid(String key) {
+        if (key != null && !isValid(key)) {
+            throw new IllegalArgumentException("Clave de orden inválida: " + key);
+        }
+    }
+}
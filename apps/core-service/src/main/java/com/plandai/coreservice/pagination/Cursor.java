@@ -0,0 +1,47 @@
+package com.plandai.coreservice.pagination;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Cursor opaco: la clave de orden y el id del último elemento de la página.
+ *
+ * Se serializa como Base64 URL-safe de "clave|id". El cliente no debe
+ * interpretarlo, solo devolverlo tal cual en el parámetro "cursor".
+ *
+ * @param key valor de la clave de orden en texto (ISO-8601 para fechas)
+ * @param id  id del último elemento (desempate)
+ */
+public record Cursor(String key, UUID id) {
+
+    private static final char SEPARATOR = '|';
+
+    public String encode() {
+        String raw = key + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodifica un cursor recibido del cliente.
+     *
+     * @return null si no hay cursor (primera página)
+     * @throws IllegalArgumentException si el cursor no es válido
+     */
+    public static Cursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            // La clave puede contener '|' (por ejemplo un nombre): el id siempre va al final
+            int separator = raw.lastIndexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new IllegalArgumentException("Cursor inválido");
+            }
+            return new Cursor(raw.substring(0, separator), UUID.fromString(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor inválido", e);
+        }
+    }
+}
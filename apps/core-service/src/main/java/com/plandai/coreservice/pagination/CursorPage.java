@@ -0,0 +1,12 @@
+package com.plandai.coreservice.pagination;
+
+import java.util.List;
+
+/**
+ * Página de resultados con paginación por cursor (keyset).
+ *
+ * @param items elementos de la página (como mucho "limit")
+ * @param next  cursor opaco para pedir la página siguiente (null si no hay más)
+ */
+public record CursorPage<T>(List<T> items, String next) {
+}
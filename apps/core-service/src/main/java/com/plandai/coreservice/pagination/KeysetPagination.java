@@ -0,0 +1,98 @@
+package com.plandai.coreservice.pagination;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Paginación por keyset (seek method) sobre repositorios con Specifications.
+ *
+ * En lugar de OFFSET (que lee y descarta todas las filas anteriores) se continúa
+ * desde la última fila vista:
+ *
+ *   WHERE filtros AND clave >= :k AND (clave > :k OR id > :id)
+ *   ORDER BY clave, id LIMIT :limit + 1
+ *
+ * Con un índice (filtros..., clave, id) la página N cuesta lo mismo que la 1.
+ * La condición redundante "clave >= :k" es la que permite a PostgreSQL usarla
+ * como inicio del rango del índice.
+ */
+public final class KeysetPagination {
+
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 200;
+
+    private KeysetPagination() {
+    }
+
+    /**
+     * Devuelve una página de como mucho "limit" elementos después del cursor.
+     *
+     * @param filter filtros del listado (usuario, proyecto...)
+     * @param cursor cursor opaco de la página anterior (null = primera página)
+     * @param limit  tamaño de página (se acota a [1, MAX_LIMIT])
+     */
+    public static <T, K extends Comparable<? super K>> CursorPage<T> page(
+            JpaSpecificationExecutor<T> repository,
+            Specification<T> filter,
+            KeysetSort<T, K> sort,
+            String cursor,
+            Integer limit
+    ) {
+        int pageSize = clampLimit(limit);
+        Cursor after = Cursor.decode(cursor);
+
+        Specification<T> spec = after == null ? filter : filter.and(after(sort, after));
+
+        // Se pide un elemento de más para saber si hay página siguiente sin hacer COUNT
+        List<T> rows = repository.findBy(spec, query -> query.sortBy(sort.toSort()).limit(pageSize + 1).all());
+
+        if (rows.size() <= pageSize) {
+            return new CursorPage<>(rows, null);
+        }
+
+        List<T> items = rows.subList(0, pageSize);
+        T last = items.get(pageSize - 1);
+        String next = new Cursor(String.valueOf(sort.keyOf().apply(last)), sort.idOf().apply(last)).encode();
+        return new CursorPage<>(List.copyOf(items), next);
+    }
+
+    public static int clampLimit(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_LIMIT;
+        }
+        return Math.max(1, Math.min(MAX_LIMIT, limit));
+    }
+
+    private static <T, K extends Comparable<? super K>> Specification<T> after(KeysetSort<T, K> sort, Cursor cursor) {
+        K key;
+        try {
+            key = sort.parseKey().apply(cursor.key());
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Cursor inválido", e);
+        }
+
+        return (root, query, cb) -> {
+            Path<K> keyPath = root.get(sort.attribute());
+            Path<UUID> idPath = root.get("id");
+            boolean asc = sort.direction() == Sort.Direction.ASC;
+
+            Predicate bound = asc ? cb.greaterThanOrEqualTo(keyPath, key) : cb.lessThanOrEqualTo(keyPath, key);
+            Predicate strictlyAfter = cb.or(
+                    asc ? cb.greaterThan(keyPath, key) : cb.lessThan(keyPath, key),
+                    idAfter(cb, idPath, cursor.id(), asc)
+            );
+            return cb.and(bound, strictlyAfter);
+        };
+    }
+
+    private static Predicate idAfter(CriteriaBuilder cb, Path<UUID> idPath, UUID id, boolean asc) {
+        return asc ? cb.greaterThan(idPath, id) : cb.lessThan(idPath, id);
+    }
+}
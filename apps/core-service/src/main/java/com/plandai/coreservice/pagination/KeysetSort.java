@@ -0,0 +1,41 @@
+package com.plandai.coreservice.pagination;
+
+import org.springframework.data.domain.Sort;
+
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Orden estable (clave, id) de un listado paginado por keyset.
+ *
+ * @param attribute atributo JPA de la clave de orden (debe ser NOT NULL)
+ * @param direction dirección de la clave y del id
+ * @param keyOf     extrae la clave de un elemento (para construir el cursor)
+ * @param parseKey  convierte la clave del cursor a su tipo
+ * @param idOf      extrae el id de un elemento
+ */
+public record KeysetSort<T, K extends Comparable<? super K>>(
+        String attribute,
+        Sort.Direction direction,
+        Function<T, K> keyOf,
+        Function<String, K> parseKey,
+        Function<T, UUID> idOf
+) {
+
+    public static <T, K extends Comparable<? super K>> KeysetSort<T, K> asc(
+            String attribute, Function<T, K> keyOf, Function<String, K> parseKey, Function<T, UUID> idOf) {
+        return new KeysetSort<>(attribute, Sort.Direction.ASC, keyOf, parseKey, idOf);
+    }
+
+    public static <T, K extends Comparable<? super K>> KeysetSort<T, K> desc(
+            String attribute, Function<T, K> keyOf, Function<String, K> parseKey, Function<T, UUID> idOf) {
+        return new KeysetSort<>(attribute, Sort.Direction.DESC, keyOf, parseKey, idOf);
+    }
+
+    /**
+     * ORDER BY clave, id (misma dirección: así lo sirve un índice compuesto).
+     */
+    public Sort toSort() {
+        return Sort.by(direction, attribute).and(Sort.by(direction, "id"));
+    }
+}
@@ -0,0 +1,19 @@
+package com.plandai.coreservice.reminders;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Notificador por defecto: escribe cada recordatorio en el log.
+ */
+@Component
+@ConditionalOnProperty(name = "reminders.notifier", havingValue = "log", matchIfMissing = true)
+@Slf4j
+public class LoggingReminderNotifier implements ReminderNotifier {
+
+    @Override
+    public void notify(Reminder reminder) {
+        log.info("🔔 Recordatorio {} para {} (vencía {})", reminder.kind(), reminder.targetId(), reminder.dueAt());
+    }
+}
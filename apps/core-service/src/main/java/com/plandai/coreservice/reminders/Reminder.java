@@ -0,0 +1,14 @@
+package com.plandai.coreservice.reminders;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Recordatorio disparado.
+ *
+ * @param kind     origen (tarea o evento)
+ * @param targetId id de la tarea o del evento
+ * @param dueAt    instante programado (el retraso real se mide en reminders.firing.lag)
+ */
+public record Reminder(ReminderKind kind, UUID targetId, Instant dueAt) {
+}
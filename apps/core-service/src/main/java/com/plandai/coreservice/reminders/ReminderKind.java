@@ -0,0 +1,21 @@
+package com.plandai.coreservice.reminders;
+
+/**
+ * Origen de un recordatorio.
+ */
+public enum ReminderKind {
+    /**
+     * Fecha límite de una tarea sin terminar (tasks.due_date).
+     */
+    TASK_DUE,
+    /**
+     * Evento de calendario de tipo REMINDER (events.start_time).
+     */
+    EVENT_REMINDER;
+
+    private static final ReminderKind[] VALUES = values();
+
+    static ReminderKind fromOrdinal(int ordinal) {
+        return VALUES[ordinal];
+    }
+}
@@ -0,0 +1,12 @@
+package com.plandai.coreservice.reminders;
+
+/**
+ * Destino de los recordatorios disparados (log, webhook...).
+ *
+ * Se llama desde el hilo del scheduler fuera de cualquier lock: las
+ * implementaciones no deben bloquear (las que hagan I/O deben ser asíncronas).
+ */
+public interface ReminderNotifier {
+
+    void notify(Reminder reminder);
+}
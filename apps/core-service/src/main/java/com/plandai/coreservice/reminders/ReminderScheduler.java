@@ -0,0 +1,374 @@
+package com.plandai.coreservice.reminders;
+
+import com.plandai.coreservice.changes.EventChange;
+import com.plandai.coreservice.changes.TaskChange;
+import com.plandai.coreservice.entities.Task;
+import com.plandai.coreservice.model.Event;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Motor de recordatorios: fechas límite de tareas y eventos de tipo REMINDER.
+ *
+ * - Solo se carga en memoria la ventana próxima (reminders.horizon, 24 h por defecto)
+ *   en una rueda de tiempo jerárquica; la ventana se amplía periódicamente.
+ * - Los cambios de tareas y eventos (TaskChange / EventChange tras el commit)
+ *   reprograman o cancelan su recordatorio sin volver a consultar la BD. Los que llegan
+ *   mientras se carga una ventana se repiten al terminar: la consulta puede haber leído
+ *   la fila de antes del cambio.
+ * - Cada tick dispara los vencidos hacia el ReminderNotifier configurado y mide
+ *   el retraso real en reminders.firing.lag.
+ * - Recuperación: reminder_state guarda hasta qué instante se ha disparado todo.
+ *   Al arrancar se recargan los vencidos desde esa marca (se disparan enseguida),
+ *   así que la entrega es "al menos una vez".
+ *
+ * Las tareas vencen a la hora reminders.task-due-time (09:00) de su due_date.
+ */
+@Service
+@Slf4j
+public class ReminderScheduler {
+
+    private static final String LOAD_TASKS_SQL = """
+            SELECT id, due_date FROM core_schema.tasks
+             WHERE status <> 'DONE' AND due_date BETWEEN ? AND ?
+            """;
+
+    private static final String LOAD_EVENTS_SQL = """
+            SELECT id, start_time FROM core_schema.events
+             WHERE event_type = 'REMINDER' AND start_time > ? AND start_time <= ?
+            """;
+
+    private static final String READ_WATERMARK_SQL = "SELECT fired_through FROM core_schema.reminder_state WHERE id = 1";
+
+    private static final String SAVE_WATERMARK_SQL = """
+            INSERT INTO core_schema.reminder_state (id, fired_through, updated_at)
+            VALUES (1, ?, CURRENT_TIMESTAMP)
+            ON CONFLICT (id) DO UPDATE
+               SET fired_through = GREATEST(reminder_state.fired_through, EXCLUDED.fired_through),
+                   updated_at = CURRENT_TIMESTAMP
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ReminderNotifier notifier;
+    private final Clock clock;
+    private final ZoneId zone;
+    private final Duration horizon;
+    private final LocalTime taskDueTime;
+    private final int loadFetchSize;
+    private final Timer firingLag;
+
+    /**
+     * Cambio recibido durante una carga, para repetirlo al terminar.
+     */
+    private record Change(ReminderKind kind, UUID targetId, Long dueAt) {
+    }
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final TimingWheel wheel;
+    // Todo lo que vence hasta aquí está en la rueda (o ya se disparó)
+    private long loadedUntil;
+    // Carga en curso y cambios recibidos mientras tanto (ver load)
+    private boolean loading;
+    private final List<Change> changesDuringLoad = new ArrayList<>();
+    private volatile boolean started;
+
+    @Autowired
+    public ReminderScheduler(JdbcTemplate jdbcTemplate,
+                             TransactionTemplate transactionTemplate,
+                             ReminderNotifier notifier,
+                             MeterRegistry meterRegistry,
+                             @Value("${reminders.tick-ms:1000}") long tickMillis,
+                             @Value("${reminders.horizon:PT24H}") String horizon,
+                             @Value("${reminders.task-due-time:09:00}") String taskDueTime,
+                             @Value("${reminders.load-fetch-size:10000}") int loadFetchSize) {
+        this(jdbcTemplate, transactionTemplate, notifier, meterRegistry, Clock.systemDefaultZone(), tickMillis,
+                Duration.parse(horizon), LocalTime.parse(taskDueTime), loadFetchSize);
+    }
+
+    ReminderScheduler(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate, ReminderNotifier notifier,
+                      MeterRegistry meterRegistry, Clock clock, long tickMillis, Duration horizon,
+                      LocalTime taskDueTime, int loadFetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.notifier = notifier;
+        this.clock = clock;
+        this.zone = clock.getZone();
+        this.horizon = horizon;
+        this.taskDueTime = taskDueTime;
+        this.loadFetchSize = loadFetchSize;
+        this.wheel = new TimingWheel(tickMillis, clock.millis(), 1024);
+        this.loadedUntil = clock.millis();
+        this.firingLag = Timer.builder("reminders.firing.lag")
+                .description("Retraso entre el vencimiento programado y el disparo real")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        Gauge.builder("reminders.pending", this, ReminderScheduler::pending)
+                .description("Recordatorios cargados en la rueda de tiempo")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Carga inicial: desde la última marca persistida (recupera los que vencieron
+     * con el servicio parado) hasta ahora + horizonte.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        long now = clock.millis();
+        long from = now;
+        try {
+            List<Timestamp> watermark = jdbcTemplate.queryForList(READ_WATERMARK_SQL, Timestamp.class);
+            if (!watermark.isEmpty()) {
+                from = Math.min(now, toMillis(watermark.get(0).toLocalDateTime()));
+            }
+            load(from, now + horizon.toMillis());
+            log.info("⏰ Recordatorios cargados: {} pendientes hasta {}", pending(), Instant.ofEpochMilli(loadedUntil));
+        } catch (RuntimeException e) {
+            // Sin BD o sin esquema: los cambios incrementales siguen funcionando y la ventana se reintenta
+            log.error("❌ No se pudieron cargar los recordatorios: {}", e.getMessage());
+        }
+        started = true;
+    }
+
+    /**
+     * Amplía la ventana cargada hasta ahora + horizonte.
+     */
+    @Scheduled(fixedDelayString = "${reminders.horizon-refresh-ms:900000}")
+    public void extendHorizon() {
+        if (!started) {
+            return;
+        }
+        try {
+            long from;
+            lock.lock();
+            try {
+                from = loadedUntil;
+            } finally {
+                lock.unlock();
+            }
+            load(from, clock.millis() + horizon.toMillis());
+        } catch (RuntimeException e) {
+            log.error("❌ No se pudo ampliar la ventana de recordatorios: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Avanza la rueda y dispara los recordatorios vencidos.
+     */
+    @Scheduled(fixedRateString = "${reminders.tick-ms:1000}")
+    public void tick() {
+        if (!started) {
+            return;
+        }
+        long now = clock.millis();
+        List<Reminder> due = new ArrayList<>();
+        lock.lock();
+        try {
+            wheel.advance(now, (kind, targetId, deadline) ->
+                    due.add(new Reminder(kind, targetId, Instant.ofEpochMilli(deadline))));
+        } finally {
+            lock.unlock();
+        }
+        if (due.isEmpty()) {
+            return;
+        }
+
+        // Fuera del lock: un notifier lento no bloquea los cambios incrementales
+        for (Reminder reminder : due) {
+            firingLag.record(Math.max(0, now - reminder.dueAt().toEpochMilli()), TimeUnit.MILLISECONDS);
+            try {
+                notifier.notify(reminder);
+            } catch (RuntimeException e) {
+                log.error("❌ Error notificando recordatorio {} {}: {}", reminder.kind(), reminder.targetId(),
+                        e.getMessage());
+            }
+        }
+        saveWatermark(now);
+    }
+
+    /**
+     * Reprograma o cancela el recordatorio de una tarea tras el commit.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChange(TaskChange change) {
+        Long dueAt = change.deleted() || change.status() == Task.TaskStatus.DONE || change.dueDate() == null
+                ? null
+                : taskDueMillis(change.dueDate());
+        apply(ReminderKind.TASK_DUE, change.taskId(), dueAt);
+    }
+
+    /**
+     * Reprograma o cancela el recordatorio de un evento tras el commit.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEventChange(EventChange change) {
+        Long dueAt = change.deleted() || change.eventType() != Event.EventType.REMINDER || change.startTime() == null
+                ? null
+                : toMillis(change.startTime());
+        apply(ReminderKind.EVENT_REMINDER, change.eventId(), dueAt);
+    }
+
+    /**
+     * Recordatorios en memoria.
+     */
+    public int pending() {
+        lock.lock();
+        try {
+            return wheel.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void apply(ReminderKind kind, UUID targetId, Long dueAt) {
+        lock.lock();
+        try {
+            if (loading) {
+                changesDuringLoad.add(new Change(kind, targetId, dueAt));
+            }
+            reschedule(kind, targetId, dueAt);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Con el lock tomado.
+     */
+    private void reschedule(ReminderKind kind, UUID targetId, Long dueAt) {
+        // Vencimientos pasados no se disparan por un cambio (p. ej. editar el título de una tarea vencida),
+        // y los que están más allá de la ventana los cargará extendHorizon
+        if (dueAt == null || dueAt <= clock.millis() || dueAt > loadedUntil) {
+            wheel.cancel(kind, targetId);
+        } else {
+            wheel.schedule(kind, targetId, dueAt);
+        }
+    }
+
+    /**
+     * Carga los recordatorios con vencimiento en (from, to] en streaming (sin materializar la lista).
+     * Dentro de una transacción de solo lectura: el driver de PostgreSQL solo respeta
+     * el fetch size (cursor en servidor) con autocommit desactivado.
+     *
+     * Un cambio que llega durante la carga puede no estar en lo leído (un vencimiento movido a
+     * la ventana) o llegar antes que la fila vieja (una tarea ya terminada): al acabar, con la
+     * ventana ya ampliada, se repiten todos los cambios recibidos mientras tanto.
+     */
+    private void load(long from, long to) {
+        if (to <= from) {
+            return;
+        }
+        lock.lock();
+        try {
+            loading = true;
+        } finally {
+            lock.unlock();
+        }
+        boolean loaded = false;
+        try {
+            transactionTemplate.executeWithoutResult(status -> loadWindow(from, to));
+            loaded = true;
+        } finally {
+            lock.lock();
+            try {
+                if (loaded) {
+                    loadedUntil = Math.max(loadedUntil, to);
+                }
+                loading = false;
+                changesDuringLoad.forEach(change -> reschedule(change.kind(), change.targetId(), change.dueAt()));
+                changesDuringLoad.clear();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void loadWindow(long from, long to) {
+        int[] loaded = {0};
+
+        // due_date es una fecha: se cargan los días que pueden caer en la ventana y se filtra por hora
+        LocalDate firstDay = LocalDateTime.ofInstant(Instant.ofEpochMilli(from), zone).toLocalDate();
+        LocalDate lastDay = LocalDateTime.ofInstant(Instant.ofEpochMilli(to), zone).toLocalDate();
+        jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement(LOAD_TASKS_SQL);
+            statement.setFetchSize(loadFetchSize);
+            statement.setObject(1, firstDay);
+            statement.setObject(2, lastDay);
+            return statement;
+        }, resultSet -> {
+            long dueAt = taskDueMillis(resultSet.getObject(2, LocalDate.class));
+            if (dueAt > from && dueAt <= to) {
+                schedule(ReminderKind.TASK_DUE, resultSet.getObject(1, UUID.class), dueAt);
+                loaded[0]++;
+            }
+        });
+
+        jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement(LOAD_EVENTS_SQL);
+            statement.setFetchSize(loadFetchSize);
+            statement.setTimestamp(1, Timestamp.valueOf(toLocalDateTime(from)));
+            statement.setTimestamp(2, Timestamp.valueOf(toLocalDateTime(to)));
+            return statement;
+        }, resultSet -> {
+            schedule(ReminderKind.EVENT_REMINDER, resultSet.getObject(1, UUID.class),
+                    toMillis(resultSet.getTimestamp(2).toLocalDateTime()));
+            loaded[0]++;
+        });
+        log.debug("Ventana de recordatorios ampliada: {} cargados hasta {}", loaded[0], Instant.ofEpochMilli(to));
+    }
+
+    private void schedule(ReminderKind kind, UUID targetId, long dueAt) {
+        lock.lock();
+        try {
+            wheel.schedule(kind, targetId, dueAt);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void saveWatermark(long firedThrough) {
+        try {
+            jdbcTemplate.update(SAVE_WATERMARK_SQL, Timestamp.valueOf(toLocalDateTime(firedThrough)));
+        } catch (RuntimeException e) {
+            // Se reintenta en el siguiente disparo; en el peor caso se repiten recordatorios al reiniciar
+            log.error("❌ No se pudo guardar la marca de recordatorios: {}", e.getMessage());
+        }
+    }
+
+    private long taskDueMillis(LocalDate dueDate) {
+        return toMillis(dueDate.atTime(taskDueTime));
+    }
+
+    private long toMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(zone).toInstant().toEpochMilli();
+    }
+
+    private LocalDateTime toLocalDateTime(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), zone);
+    }
+}
@@ -0,0 +1,361 @@
+package com.plandai.coreservice.reminders;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Rueda de tiempo jerárquica (hierarchical timing wheel) para recordatorios.
+ *
+ * - 4 niveles de 64 huecos: con tick de 1 s cubre ~194 días.
+ *   Programar, cancelar y avanzar un tick cuestan O(1) (amortizado).
+ * - Un recordatorio se guarda en el nivel más bajo que alcanza su vencimiento y
+ *   baja de nivel ("cascade") cuando la rueda inferior llega a su hueco.
+ * - Sin objetos por recordatorio: todo vive en arrays primitivos indexados por
+ *   un "handle" int (lista doblemente enlazada intrusiva por hueco + free list),
+ *   y el índice (tipo, UUID) → handle es una tabla hash abierta de int.
+ *   ~90 bytes por recordatorio pendiente, sin presión de GC.
+ *
+ * No es thread-safe: ReminderScheduler la protege con un lock.
+ */
+final class TimingWheel {
+
+    /**
+     * Recibe cada recordatorio vencido al avanzar la rueda.
+     */
+    @FunctionalInterface
+    interface FiredSink {
+        void fired(ReminderKind kind, UUID targetId, long deadlineMillis);
+    }
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    private static final long SPAN_TICKS = 1L << (SLOT_BITS * LEVELS);
+    private static final int NONE = -1;
+
+    private final long tickMillis;
+    private long currentTick;
+
+    // Pool de recordatorios (un handle = una posición)
+    private long[] deadlines;
+    private long[] idMsb;
+    private long[] idLsb;
+    private byte[] kinds;
+    private int[] next;
+    private int[] prev;
+    private int[] bucketOf;
+    private int freeHead = NONE;
+    private int allocated;
+    private int size;
+
+    // Cabeza de la lista de cada hueco: LEVELS * SLOTS
+    private final int[] buckets = new int[LEVELS * SLOTS];
+
+    // Índice (tipo, UUID) → handle + 1 (0 = vacío), direccionamiento abierto lineal
+    private int[] index;
+    private int indexMask;
+
+    TimingWheel(long tickMillis, long startMillis, int initialCapacity) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("tickMillis debe ser > 0");
+        }
+        this.tickMillis = tickMillis;
+        this.currentTick = Math.floorDiv(startMillis, tickMillis);
+        int capacity = Math.max(16, initialCapacity);
+        this.deadlines = new long[capacity];
+        this.idMsb = new long[capacity];
+        this.idLsb = new long[capacity];
+        this.kinds = new byte[capacity];
+        this.next = new int[capacity];
+        this.prev = new int[capacity];
+        this.bucketOf = new int[capacity];
+        Arrays.fill(buckets, NONE);
+        int indexCapacity = Integer.highestOneBit(capacity * 2 - 1) << 1;
+        this.index = new int[indexCapacity];
+        this.indexMask = indexCapacity - 1;
+    }
+
+    /**
+     * Número de recordatorios pendientes.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Último instante (exclusivo) que la rueda puede programar desde ahora.
+     */
+    long maxDeadlineMillis() {
+        return (currentTick + SPAN_TICKS) * tickMillis;
+    }
+
+    /**
+     * Programa (o reprograma) un recordatorio. Los vencimientos ya pasados
+     * se disparan en el siguiente tick.
+     *
+     * @return false si el vencimiento queda fuera del alcance de la rueda
+     */
+    boolean schedule(ReminderKind kind, UUID targetId, long deadlineMillis) {
+        if (Math.floorDiv(deadlineMillis, tickMillis) - currentTick >= SPAN_TICKS) {
+            cancel(kind, targetId);
+            return false;
+        }
+
+        int handle = find(kind, targetId);
+        if (handle == NONE) {
+            handle = allocate();
+            idMsb[handle] = targetId.getMostSignificantBits();
+            idLsb[handle] = targetId.getLeastSignificantBits();
+            kinds[handle] = (byte) kind.ordinal();
+            indexInsert(handle);
+            size++;
+        } else {
+            unlink(handle);
+        }
+        deadlines[handle] = deadlineMillis;
+        place(handle, currentTick + 1);
+        return true;
+    }
+
+    /**
+     * Cancela un recordatorio pendiente.
+     *
+     * @return true si existía
+     */
+    boolean cancel(ReminderKind kind, UUID targetId) {
+        int handle = find(kind, targetId);
+        if (handle == NONE) {
+            return false;
+        }
+        unlink(handle);
+        release(handle);
+        return true;
+    }
+
+    /**
+     * Avanza la rueda hasta nowMillis y entrega los recordatorios vencidos (en orden de tick).
+     */
+    void advance(long nowMillis, FiredSink sink) {
+        long targetTick = Math.floorDiv(nowMillis, tickMillis);
+        if (size == 0) {
+            // Nada pendiente: saltar directamente (p. ej. tras una pausa larga)
+            currentTick = Math.max(currentTick, targetTick);
+            return;
+        }
+        while (currentTick < targetTick) {
+            currentTick++;
+            cascade();
+            fireBucket((int) (currentTick & SLOT_MASK), sink);
+        }
+    }
+
+    // ---------------------------------------------------------------------
+    // Huecos
+    // ---------------------------------------------------------------------
+
+    private void place(int handle, long minTick) {
+        long deadlineTick = Math.max(Math.floorDiv(deadlines[handle], tickMillis), minTick);
+        long delta = deadlineTick - currentTick;
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << (SLOT_BITS * (level + 1))) {
+            level++;
+        }
+        int slot = (int) ((deadlineTick >>> (SLOT_BITS * level)) & SLOT_MASK);
+        link(handle, level * SLOTS + slot);
+    }
+
+    /**
+     * Al entrar en un hueco nuevo de un nivel superior, sus recordatorios bajan de nivel.
+     * Se procesa de arriba abajo para que lo que baja de nivel 3 llegue a tiempo al nivel 1.
+     */
+    private void cascade() {
+        for (int level = LEVELS - 1; level >= 1; level--) {
+            long lowBits = (1L << (SLOT_BITS * level)) - 1;
+            if ((currentTick & lowBits) != 0) {
+                continue;
+            }
+            int bucket = level * SLOTS + (int) ((currentTick >>> (SLOT_BITS * level)) & SLOT_MASK);
+            int handle = detach(bucket);
+            while (handle != NONE) {
+                int following = next[handle];
+                place(handle, currentTick);
+                handle = following;
+            }
+        }
+    }
+
+    private void fireBucket(int slot, FiredSink sink) {
+        int handle = detach(slot);
+        while (handle != NONE) {
+            int following = next[handle];
+            ReminderKind kind = ReminderKind.fromOrdinal(kinds[handle]);
+            UUID targetId = new UUID(idMsb[handle], idLsb[handle]);
+            long deadline = deadlines[handle];
+            release(handle);
+            sink.fired(kind, targetId, deadline);
+            handle = following;
+        }
+    }
+
+    private void link(int handle, int bucket) {
+        int head = buckets[bucket];
+        next[handle] = head;
+        prev[handle] = NONE;
+        if (head != NONE) {
+            prev[head] = handle;
+        }
+        buckets[bucket] = handle;
+        bucketOf[handle] = bucket;
+    }
+
+    private void unlink(int handle) {
+        int bucket = bucketOf[handle];
+        if (bucket == NONE) {
+            return;
+        }
+        int before = prev[handle];
+        int after = next[handle];
+        if (before == NONE) {
+            buckets[bucket] = after;
+        } else {
+            next[before] = after;
+        }
+        if (after != NONE) {
+            prev[after] = before;
+        }
+        bucketOf[handle] = NONE;
+    }
+
+    /**
+     * Vacía un hueco y devuelve su lista (enlazada por next[]).
+     */
+    private int detach(int bucket) {
+        int head = buckets[bucket];
+        buckets[bucket] = NONE;
+        for (int handle = head; handle != NONE; handle = next[handle]) {
+            bucketOf[handle] = NONE;
+        }
+        return head;
+    }
+
+    // ---------------------------------------------------------------------
+    // Pool
+    // ---------------------------------------------------------------------
+
+    private int allocate() {
+        if (freeHead != NONE) {
+            int handle = freeHead;
+            freeHead = next[handle];
+            return handle;
+        }
+        if (allocated == deadlines.length) {
+            grow();
+        }
+        return allocated++;
+    }
+
+    private void release(int handle) {
+        indexRemove(handle);
+        bucketOf[handle] = NONE;
+        next[handle] = freeHead;
+        freeHead = handle;
+        size--;
+    }
+
+    private void grow() {
+        int capacity = deadlines.length * 2;
+        deadlines = Arrays.copyOf(deadlines, capacity);
+        idMsb = Arrays.copyOf(idMsb, capacity);
+        idLsb = Arrays.copyOf(idLsb, capacity);
+        kinds = Arrays.copyOf(kinds, capacity);
+        next = Arrays.copyOf(next, capacity);
+        prev = Arrays.copyOf(prev, capacity);
+        bucketOf = Arrays.copyOf(bucketOf, capacity);
+    }
+
+    // ---------------------------------------------------------------------
+    // Índice (tipo, UUID) → handle
+    // ---------------------------------------------------------------------
+
+    private int find(ReminderKind kind, UUID targetId) {
+        long msb = targetId.getMostSignificantBits();
+        long lsb = targetId.getLeastSignificantBits();
+        byte kindOrdinal = (byte) kind.ordinal();
+        for (int i = home(msb, lsb, kindOrdinal); ; i = (i + 1) & indexMask) {
+            int entry = index[i];
+            if (entry == 0) {
+                return NONE;
+            }
+            int handle = entry - 1;
+            if (idMsb[handle] == msb && idLsb[handle] == lsb && kinds[handle] == kindOrdinal) {
+                return handle;
+            }
+        }
+    }
+
+    private void indexInsert(int handle) {
+        // Factor de carga máximo 0.5 para sondeos cortos
+        if ((size + 1) * 2 > index.length) {
+            rehash(index.length * 2);
+        }
+        int i = home(idMsb[handle], idLsb[handle], kinds[handle]);
+        while (index[i] != 0) {
+            i = (i + 1) & indexMask;
+        }
+        index[i] = handle + 1;
+    }
+
+    /**
+     * Borrado con desplazamiento hacia atrás (sin tombstones).
+     */
+    private void indexRemove(int handle) {
+        int i = home(idMsb[handle], idLsb[handle], kinds[handle]);
+        while (index[i] != handle + 1) {
+            i = (i + 1) & indexMask;
+        }
+        index[i] = 0;
+
+        int j = i;
+        while (true) {
+            j = (j + 1) & indexMask;
+            int entry = index[j];
+            if (entry == 0) {
+                return;
+            }
+            int other = entry - 1;
+            int k = home(idMsb[other], idLsb[other], kinds[other]);
+            // Mover si su posición ideal k no está en el tramo circular (i, j]
+            boolean inRange = i <= j ? (i < k && k <= j) : (i < k || k <= j);
+            if (!inRange) {
+                index[i] = entry;
+                index[j] = 0;
+                i = j;
+            }
+        }
+    }
+
+    private void rehash(int capacity) {
+        int[] old = index;
+        index = new int[capacity];
+        indexMask = capacity - 1;
+        for (int entry : old) {
+            if (entry != 0) {
+                int handle = entry - 1;
+                int i = home(idMsb[handle], idLsb[handle], kinds[handle]);
+                while (index[i] != 0) {
+                    i = (i + 1) & indexMask;
+                }
+                index[i] = entry;
+            }
+        }
+    }
+
+    private int home(long msb, long lsb, byte kind) {
+        long h = msb * 0x9E3779B97F4A7C15L ^ lsb ^ kind;
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        return (int) h & indexMask;
+    }
+}
@@ -0,0 +1,63 @@
+package com.plandai.coreservice.reminders;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * Notificador que envía cada recordatorio como JSON (POST) a un webhook local
+ * (por ejemplo el futuro servicio de notificaciones).
+ *
+ * El envío es asíncrono: el tick del scheduler nunca espera a la red.
+ * Los fallos solo se registran (sin reintentos).
+ */
+@Component
+@ConditionalOnProperty(name = "reminders.notifier", havingValue = "webhook")
+@Slf4j
+public class WebhookReminderNotifier implements ReminderNotifier {
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(2))
+            .build();
+    private final ObjectMapper objectMapper;
+    private final URI webhookUrl;
+
+    public WebhookReminderNotifier(ObjectMapper objectMapper,
+                                   @Value("${reminders.webhook.url:http://localhost:8090/reminders}") String webhookUrl) {
+        this.objectMapper = objectMapper;
+        this.webhookUrl = URI.create(webhookUrl);
+    }
+
+    @Override
+    public void notify(Reminder reminder) {
+        String body;
+        try {
+            body = objectMapper.writeValueAsString(reminder);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar el recordatorio", e);
+        }
+
+        HttpRequest request = HttpRequest.newBuilder(webhookUrl)
+                .timeout(Duration.ofSeconds(5))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, error) -> {
+                    if (error != null) {
+                        log.error("❌ Webhook de recordatorios no disponible: {}", error.getMessage());
+                    } else if (response.statusCode() >= 300) {
+                        log.warn("⚠️ Webhook de recordatorios respondió {}", response.statusCode());
+                    }
+                });
+    }
+}
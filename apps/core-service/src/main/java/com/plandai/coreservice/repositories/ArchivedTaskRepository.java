@@ -0,0 +1,17 @@
+package com.plandai.coreservice.repositories;
+
+import com.plandai.coreservice.entities.ArchivedTask;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+/**
+ * Repositorio de solo lectura para tasks_archive.
+ * Los listados usan las mismas TaskSpecifications que TaskRepository.
+ */
+@Repository
+public interface ArchivedTaskRepository extends JpaRepository<ArchivedTask, UUID>,
+        JpaSpecificationExecutor<ArchivedTask> {
+}
@@ -0,0 +1,23 @@
+package com.plandai.coreservice.repositories;
+
+import com.plandai.coreservice.entities.CustomFieldDefinition;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repositorio para la entidad CustomFieldDefinition.
+ */
+@Repository
+public interface CustomFieldDefinitionRepository extends JpaRepository<CustomFieldDefinition, UUID> {
+
+    List<CustomFieldDefinition> findByProjectIdOrderByKeyAsc(UUID projectId);
+
+    // Definiciones de varios proyectos en una consulta (altas masivas)
+    List<CustomFieldDefinition> findByProjectIdIn(Collection<UUID> projectIds);
+
+    boolean existsByProjectIdAndKey(UUID projectId, String key);
+}
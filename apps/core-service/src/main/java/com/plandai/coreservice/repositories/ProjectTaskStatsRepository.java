@@ -0,0 +1,24 @@
+package com.plandai.coreservice.repositories;
+
+import com.plandai.coreservice.entities.ProjectTaskStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repositorio de solo lectura para las estadísticas de tareas por proyecto.
+ */
+@Repository
+public interface ProjectTaskStatsRepository extends JpaRepository<ProjectTaskStats, UUID> {
+
+    /**
+     * Estadísticas de todos los proyectos de un workspace (una fila por proyecto, sin contar tareas).
+     */
+    @Query("SELECT s FROM ProjectTaskStats s WHERE s.projectId IN "
+            + "(SELECT p.id FROM Project p WHERE p.workspace.id = :workspaceId)")
+    List<ProjectTaskStats> findByWorkspaceId(@Param("workspaceId") UUID workspaceId);
+}
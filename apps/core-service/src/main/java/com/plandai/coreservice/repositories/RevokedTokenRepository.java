@@ -0,0 +1,57 @@
+package com.plandai.coreservice.repositories;
+
+import com.plandai.coreservice.entities.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repositorio para la entidad RevokedToken.
+ */
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, String> {
+
+    /**
+     * Verifica si un token está revocado y aún no ha expirado.
+     * 
+     * SQL generado:
+     * SELECT ... FROM revoked_tokens WHERE token_key = ? AND expires_at > ? LIMIT 1
+     */
+    boolean existsByTokenKeyAndExpiresAtAfter(String tokenKey, LocalDateTime now);
+
+    /**
+     * Claves de todos los tokens revocados todavía vigentes.
+     * Se usa para reconstruir el Bloom filter de cada nodo.
+     */
+    @Query("SELECT r.tokenKey FROM RevokedToken r WHERE r.expiresAt > :now")
+    List<String> findActiveTokenKeys(@Param("now") LocalDateTime now);
+
+    /**
+     * Inserta la revocación (idempotente: revocar dos veces no falla).
+     */
+    @Modifying
+    @Transactional
+    @Query(value = """
+            INSERT INTO core_schema.revoked_tokens (token_key, user_id, expires_at, revoked_at)
+            VALUES (:tokenKey, :userId, :expiresAt, CURRENT_TIMESTAMP)
+            ON CONFLICT (token_key) DO NOTHING
+            """, nativeQuery = true)
+    int insertIfAbsent(@Param("tokenKey") String tokenKey,
+                       @Param("userId") UUID userId,
+                       @Param("expiresAt") LocalDateTime expiresAt);
+
+    /**
+     * Purga las revocaciones cuyo token ya expiró.
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM RevokedToken r WHERE r.expiresAt <= :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
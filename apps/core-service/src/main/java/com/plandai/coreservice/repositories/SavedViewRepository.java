@@ -0,0 +1,25 @@
+package com.plandai.coreservice.repositories;
+
+import com.plandai.coreservice.entities.SavedView;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Repositorio para la entidad SavedView.
+ */
+@Repository
+public interface SavedViewRepository extends JpaRepository<SavedView, UUID> {
+
+    List<SavedView> findByUserIdOrderByNameAsc(UUID userId);
+
+    Optional<SavedView> findByIdAndUserId(UUID id, UUID userId);
+
+    /**
+     * ¿Tiene ya el usuario una vista con ese nombre? (sin distinguir mayúsculas, como idx_saved_views_user_name)
+     */
+    boolean existsByUserIdAndNameIgnoreCase(UUID userId, String name);
+}
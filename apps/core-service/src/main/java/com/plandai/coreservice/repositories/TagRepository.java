@@ -0,0 +1,36 @@
+package com.plandai.coreservice.repositories;
+
+import com.plandai.coreservice.entities.Tag;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repositorio para la entidad Tag.
+ * Las asignaciones a tareas (task_tags) no son entidad: las escribe TagService con SQL.
+ */
+@Repository
+public interface TagRepository extends JpaRepository<Tag, UUID> {
+
+    List<Tag> findByWorkspaceIdOrderByNameAsc(UUID workspaceId);
+
+    /**
+     * ¿Existe ya ese nombre en el workspace? (sin distinguir mayúsculas, como idx_tags_workspace_name)
+     */
+    boolean existsByWorkspaceIdAndNameIgnoreCase(UUID workspaceId, String name);
+
+    /**
+     * Etiquetas de una tarea, por nombre.
+     */
+    @Query(value = """
+            SELECT g.* FROM core_schema.tags g
+              JOIN core_schema.task_tags tt ON tt.tag_id = g.id
+             WHERE tt.task_id = :taskId
+             ORDER BY g.name
+            """, nativeQuery = true)
+    List<Tag> findByTaskId(@Param("taskId") UUID taskId);
+}
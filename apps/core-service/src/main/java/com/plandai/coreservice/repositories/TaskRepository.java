@@ -2,21 +2,44 @@ package com.plandai.coreservice.repositories;
 
 import com.plandai.coreservice.entities.Task;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
  * Repositorio para la entidad Task.
  * 
  * Incluye métodos personalizados con Query Methods y @Query (JPQL).
+ * JpaSpecificationExecutor permite los listados paginados por keyset (ver KeysetPagination).
  */
 @Repository
-public interface TaskRepository extends JpaRepository<Task, UUID> {
+public interface TaskRepository extends JpaRepository<Task, UUID>, JpaSpecificationExecutor<Task> {
+
+    /**
+     * Tareas abiertas de un usuario con su puntuación de bandeja de entrada (ver findInbox).
+     */
+    String INBOX_SQL = """
+            SELECT s.id, s.title, s.status, s.priority, s.due_date, s.project_id, s.score
+              FROM (SELECT t.id, t.title, t.status, t.priority, t.due_date, t.project_id,
+                           CAST(
+                             CASE t.priority WHEN 'URGENT' THEN 40 WHEN 'HIGH' THEN 30
+                                             WHEN 'MEDIUM' THEN 20 ELSE 10 END
+                             + CASE WHEN t.due_date IS NULL THEN 0
+                                    ELSE LEAST(45, GREATEST(0, 30 - (t.due_date - CAST(:asOf AS date)))) END
+                             + LEAST(14, GREATEST(0, EXTRACT(EPOCH FROM (CAST(:asOf AS timestamp) - t.updated_at))
+                                                     / 86400)) / 2
+                           AS double precision) AS score
+                      FROM core_schema.tasks t
+                     WHERE t.assigned_to = :userId AND t.status <> 'DONE') s
+            """;
 
     /**
      * Busca todas las tareas de un proyecto.
@@ -104,4 +127,242 @@ public interface TaskRepository extends JpaRepository<Task, UUID> {
      */
     @Query("SELECT t FROM Task t WHERE (t.priority = 'HIGH' OR t.priority = 'URGENT') AND t.status != 'DONE'")
     List<Task> findUrgentIncompleteTasks();
+
+    /**
+     * Tablero Kanban de un proyecto en UNA consulta.
+     * 
+     * Por cada estado devuelve las primeras :perColumn tarjetas (orden manual: rank, id)
+     * y en cada fila el total de la columna (count(*) OVER).
+     * Solo columnas ligeras: nunca se lee la descripción.
+     * 
+     * Columnas: id, title, priority, due_date, assigned_to, status, rank, total
+     */
+    @Query(value = """
+            SELECT b.id, b.title, b.priority, b.due_date, b.assigned_to, b.status, b.rank, b.total
+              FROM (SELECT t.id, t.title, t.priority, t.due_date, t.assigned_to, t.status, t.rank,
+                           count(*) OVER (PARTITION BY t.status) AS total,
+                           row_number() OVER (PARTITION BY t.status ORDER BY t.rank, t.id) AS rn
+                      FROM core_schema.tasks t
+                     WHERE t.project_id = :projectId) b
+             WHERE b.rn <= :perColumn
+             ORDER BY b.status, b.rank, b.id
+            """, nativeQuery = true)
+    List<Object[]> findBoard(@Param("projectId") UUID projectId, @Param("perColumn") int perColumn);
+
+    /**
+     * Primera página de tarjetas de una columna del tablero.
+     * Mismas columnas que findBoard (total = 0: el total ya viene en el tablero).
+     */
+    @Query(value = """
+            SELECT t.id, t.title, t.priority, t.due_date, t.assigned_to, t.status, t.rank, 0 AS total
+              FROM core_schema.tasks t
+             WHERE t.project_id = :projectId AND t.status = :status
+             ORDER BY t.rank, t.id
+             LIMIT :limit
+            """, nativeQuery = true)
+    List<Object[]> findBoardColumn(@Param("projectId") UUID projectId,
+                                   @Param("status") String status,
+                                   @Param("limit") int limit);
+
+    /**
+     * Siguiente página de tarjetas de una columna, continuando tras (rank, id).
+     * La comparación de filas usa idx_tasks_rank (V12) como rango: cuesta lo mismo en cualquier página.
+     */
+    @Query(value = """
+            SELECT t.id, t.title, t.priority, t.due_date, t.assigned_to, t.status, t.rank, 0 AS total
+              FROM core_schema.tasks t
+             WHERE t.project_id = :projectId AND t.status = :status
+               AND (t.rank, t.id) > (:rank, :id)
+             ORDER BY t.rank, t.id
+             LIMIT :limit
+            """, nativeQuery = true)
+    List<Object[]> findBoardColumnAfter(@Param("projectId") UUID projectId,
+                                        @Param("status") String status,
+                                        @Param("rank") String rank,
+                                        @Param("id") UUID id,
+                                        @Param("limit") int limit);
+
+    /**
+     * Última clave de orden de una columna (null = columna vacía).
+     * Lee una sola entrada de idx_tasks_rank (V12).
+     */
+    @Query("SELECT max(t.rank) FROM Task t WHERE t.project.id = :projectId AND t.status = :status")
+    String findMaxRank(@Param("projectId") UUID projectId, @Param("status") Task.TaskStatus status);
+
+    /**
+     * Datos mínimos para colocar tareas en el tablero, sin cargar entidades.
+     * 
+     * Columnas: id, project.id, status, rank, dueDate
+     */
+    @Query("SELECT t.id, t.project.id, t.status, t.rank, t.dueDate FROM Task t WHERE t.id IN :ids")
+    List<Object[]> findRankRows(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Bandeja de entrada de un usuario: sus tareas abiertas ordenadas por puntuación (top-K).
+     * 
+     * Puntuación (calculada en SQL respecto a :asOf, fija durante toda la paginación):
+     * - Prioridad: URGENT 40, HIGH 30, MEDIUM 20, LOW 10
+     * - Fecha límite: hasta +30 según se acerca, hasta +45 si ya venció
+     * - Sin tocar: +0.5 por día sin actualizar (máx. +7)
+     * 
+     * Solo lee las tareas abiertas del usuario (índice parcial idx_tasks_inbox de V10),
+     * nunca su histórico de tareas terminadas.
+     * 
+     * Columnas: id, title, status, priority, due_date, project_id, score
+     */
+    @Query(value = INBOX_SQL + """
+             ORDER BY s.score DESC, s.id DESC
+             LIMIT :limit
+            """, nativeQuery = true)
+    List<Object[]> findInbox(@Param("userId") UUID userId,
+                             @Param("asOf") LocalDateTime asOf,
+                             @Param("limit") int limit);
+
+    /**
+     * Siguiente página de la bandeja de entrada tras (score, id).
+     */
+    @Query(value = INBOX_SQL + """
+             WHERE (s.score, s.id) < (:score, :id)
+             ORDER BY s.score DESC, s.id DESC
+             LIMIT :limit
+            """, nativeQuery = true)
+    List<Object[]> findInboxAfter(@Param("userId") UUID userId,
+                                  @Param("asOf") LocalDateTime asOf,
+                                  @Param("score") double score,
+                                  @Param("id") UUID id,
+                                  @Param("limit") int limit);
+
+    /**
+     * Cambia el estado de una tarea y devuelve la fila actualizada en UNA sentencia.
+     * 
+     * SQL:
+     * UPDATE tasks SET status = ?, rank = ..., updated_at = now() WHERE id = ? RETURNING *
+     * 
+     * Si cambia de columna, la tarea pasa al final de la nueva: rank_after (V23) de la
+     * última clave de esa columna, leída en el propio UPDATE (una entrada de idx_tasks_rank).
+     * Sin @Modifying: el RETURNING produce un result set que se mapea a Task.
+     * Optional vacío = la tarea no existe. El estado se pasa como texto (enum.name()).
+     */
+    @Query(value = """
+            UPDATE core_schema.tasks t
+               SET status = :status,
+                   rank = CASE WHEN t.status = :status THEN t.rank
+                               ELSE core_schema.rank_after((SELECT max(o.rank) FROM core_schema.tasks o
+                                                             WHERE o.project_id = t.project_id
+                                                               AND o.status = :status)) END,
+                   updated_at = CURRENT_TIMESTAMP
+             WHERE t.id = :id
+            RETURNING *
+            """, nativeQuery = true)
+    Optional<Task> updateStatusReturning(@Param("id") UUID id, @Param("status") String status);
+
+    /**
+     * Mueve una tarea (columna y posición) y devuelve la fila actualizada en UNA sentencia.
+     * Solo se escribe esta fila: las vecinas conservan su clave.
+     */
+    @Query(value = """
+            UPDATE core_schema.tasks
+               SET status = :status, rank = :rank, updated_at = CURRENT_TIMESTAMP
+             WHERE id = :id
+            RETURNING *
+            """, nativeQuery = true)
+    Optional<Task> moveReturning(@Param("id") UUID id, @Param("status") String status, @Param("rank") String rank);
+
+    /**
+     * Asigna (o desasigna con null) una tarea y devuelve la fila actualizada en UNA sentencia.
+     */
+    @Query(value = """
+            UPDATE core_schema.tasks
+               SET assigned_to = :userId, updated_at = CURRENT_TIMESTAMP
+             WHERE id = :id
+            RETURNING *
+            """, nativeQuery = true)
+    Optional<Task> assignReturning(@Param("id") UUID id, @Param("userId") UUID userId);
+
+    /**
+     * Aplica un cambio de campos personalizados (ya validado) y devuelve la fila en UNA sentencia:
+     * añade o sustituye las claves de "set" (objeto JSON) y quita las de "remove" (array JSON).
+     * Optional vacío = la tarea no existe o ya no está en ese proyecto (se validó con sus definiciones).
+     */
+    @Query(value = """
+            UPDATE core_schema.tasks
+               SET custom_fields = (custom_fields || CAST(:set AS jsonb))
+                                   - ARRAY(SELECT jsonb_array_elements_text(CAST(:remove AS jsonb))),
+                   updated_at = CURRENT_TIMESTAMP
+             WHERE id = :id AND project_id = :projectId
+            RETURNING *
+            """, nativeQuery = true)
+    Optional<Task> updateCustomFieldsReturning(@Param("id") UUID id,
+                                               @Param("projectId") UUID projectId,
+                                               @Param("set") String set,
+                                               @Param("remove") String remove);
+
+    /**
+     * Cuelga una tarea (con todo su subárbol) de otro padre, o la hace raíz con null,
+     * y devuelve la fila actualizada en UNA sentencia. Los triggers de V16 mueven la clausura.
+     */
+    @Query(value = """
+            UPDATE core_schema.tasks
+               SET parent_id = :parentId, updated_at = CURRENT_TIMESTAMP
+             WHERE id = :id
+            RETURNING *
+            """, nativeQuery = true)
+    Optional<Task> reparentReturning(@Param("id") UUID id, @Param("parentId") UUID parentId);
+
+    /**
+     * Subárbol de una tarea (ella incluida) por la tabla de clausura: una lectura por índice.
+     * Orden: nivel, y dentro de cada nivel el del tablero (rank, id).
+     */
+    @Query(value = """
+            SELECT t.*
+              FROM core_schema.task_closure c
+              JOIN core_schema.tasks t ON t.id = c.descendant_id
+             WHERE c.ancestor_id = :id
+             ORDER BY c.depth, t.rank, t.id
+            """, nativeQuery = true)
+    List<Task> findSubtree(@Param("id") UUID id);
+
+    /**
+     * Elimina una tarea y todas sus subtareas en UNA sentencia.
+     * 
+     * SQL:
+     * DELETE FROM tasks WHERE id IN (descendientes de ? en task_closure) RETURNING id, project_id
+     * 
+     * Sin @Modifying: el RETURNING produce un result set (como updateStatusReturning).
+     * 
+     * @return filas [id, project_id] borradas (vacío = la tarea no existía)
+     */
+    @Query(value = """
+            DELETE FROM core_schema.tasks
+             WHERE id IN (SELECT c.descendant_id FROM core_schema.task_closure c WHERE c.ancestor_id = :id)
+            RETURNING id, project_id
+            """, nativeQuery = true)
+    List<Object[]> deleteSubtreeReturningIds(@Param("id") UUID id);
+
+    /**
+     * Subárboles de varias tareas (cada una incluida) por la tabla de clausura, en UNA lectura.
+     * 
+     * Columnas: ancestor_id, descendant_id
+     */
+    @Query(value = """
+            SELECT c.ancestor_id, c.descendant_id
+              FROM core_schema.task_closure c
+             WHERE c.ancestor_id IN (:ids)
+            """, nativeQuery = true)
+    List<Object[]> findSubtreeIds(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Elimina varias tareas con todas sus subtareas en UNA sentencia (operaciones masivas).
+     * 
+     * SQL:
+     * DELETE FROM tasks WHERE id IN (descendientes de ?, ?, ... en task_closure) RETURNING id
+     * 
+     * @return ids borrados
+     */
+    @Query(value = """
+            DELETE FROM core_schema.tasks
+             WHERE id IN (SELECT c.descendant_id FROM core_schema.task_closure c WHERE c.ancestor_id IN (:ids))
+            RETURNING id
+            """, nativeQuery = true)
+    List<UUID> deleteSubtreesReturningIds(@Param("ids") Collection<UUID> ids);
 }
@@ -0,0 +1,144 @@
+package com.plandai.coreservice.repositories;
+
+import com.plandai.coreservice.config.JsonbFunctionContributor;
+import com.plandai.coreservice.dto.TaskFilterDto;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Specifications para consultas dinámicas de Task.
+ * Son genéricas: ArchivedTask tiene los mismos atributos y se filtra igual.
+ *
+ * Cada filtro se traduce a una condición SQL: ningún filtro se aplica en memoria.
+ * Los índices que sirven a estas combinaciones están en la migración V6.
+ *
+ * Ejemplo:
+ * taskRepository.findAll(TaskSpecifications.matching(filter), sort)
+ * → SELECT ... FROM tasks WHERE project_id = ? AND status IN (?, ?) AND lower(title) LIKE ? ...
+ */
+public final class TaskSpecifications {
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    private TaskSpecifications() {
+    }
+
+    /**
+     * Combina con AND todos los filtros presentes en el DTO.
+     */
+    public static <T> Specification<T> matching(TaskFilterDto filter) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+
+            if (filter.getWorkspaceId() != null) {
+                predicates.add(TaskSpecifications.<T>inWorkspace(filter.getWorkspaceId()).toPredicate(root, query, cb));
+            }
+            if (filter.getProjectId() != null) {
+                predicates.add(TaskSpecifications.<T>inProject(filter.getProjectId()).toPredicate(root, query, cb));
+            }
+            if (filter.getAssignedTo() != null) {
+                predicates.add(TaskSpecifications.<T>assignedTo(filter.getAssignedTo()).toPredicate(root, query, cb));
+            }
+            if (filter.getStatus() != null && !filter.getStatus().isEmpty()) {
+                predicates.add(root.get("status").in(filter.getStatus()));
+            }
+            if (filter.getPriority() != null && !filter.getPriority().isEmpty()) {
+                predicates.add(root.get("priority").in(filter.getPriority()));
+            }
+            if (filter.getDueFrom() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("dueDate"), filter.getDueFrom()));
+            }
+            if (filter.getDueTo() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("dueDate"), filter.getDueTo()));
+            }
+            if (filter.getQ() != null && !filter.getQ().isBlank()) {
+                predicates.add(TaskSpecifications.<T>textMatches(filter.getQ()).toPredicate(root, query, cb));
+            }
+
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+    public static <T> Specification<T> inProject(UUID projectId) {
+        return (root, query, cb) -> cb.equal(root.get("project").get("id"), projectId);
+    }
+
+    public static <T> Specification<T> inWorkspace(UUID workspaceId) {
+        return (root, query, cb) -> cb.equal(root.get("project").get("workspace").get("id"), workspaceId);
+    }
+
+    /**
+     * id IN (...) o, con exclude, id NOT IN (...) (resultado de un filtro de etiquetas).
+     * La lista vacía no genera SQL: ninguna tarea o todas, respectivamente.
+     */
+    public static <T> Specification<T> idMatches(Collection<UUID> ids, boolean exclude) {
+        return (root, query, cb) -> {
+            if (ids.isEmpty()) {
+                return exclude ? cb.conjunction() : cb.disjunction();
+            }
+            Predicate in = root.get("id").in(ids);
+            return exclude ? cb.not(in) : in;
+        };
+    }
+
+    /**
+     * custom_fields @@ 'jsonpath' (servido por el índice GIN jsonb_path_ops de V19).
+     */
+    public static <T> Specification<T> customFieldsMatch(String jsonPath) {
+        return (root, query, cb) -> cb.isTrue(cb.function(JsonbFunctionContributor.JSONB_PATH_MATCH, Boolean.class,
+                root.get("customFields"), cb.literal(jsonPath)));
+    }
+
+    /**
+     * Ordena por el valor de un campo personalizado (las tareas sin él, al final en ascendente)
+     * y después por creación e id, como el listado normal. No filtra nada.
+     */
+    public static <T> Specification<T> orderByCustomField(String key, boolean numeric, boolean descending) {
+        return (root, query, cb) -> {
+            Expression<String> text = cb.function("jsonb_extract_path_text", String.class,
+                    root.get("customFields"), cb.literal(key));
+            Expression<?> value = numeric ? text.as(BigDecimal.class) : text;
+            query.orderBy(descending ? cb.desc(value) : cb.asc(value),
+                    cb.asc(root.get("createdAt")), cb.asc(root.get("id")));
+            return null;
+        };
+    }
+
+    public static <T> Specification<T> assignedTo(UUID userId) {
+        return (root, query, cb) -> cb.equal(root.get("assignedTo"), userId);
+    }
+
+    /**
+     * lower(title) LIKE %texto% OR lower(description) LIKE %texto%
+     * (servido por los índices GIN de trigramas de V6).
+     */
+    public static <T> Specification<T> textMatches(String text) {
+        String pattern = "%" + escapeLike(text.trim().toLowerCase(Locale.ROOT)) + "%";
+        return (root, query, cb) -> cb.or(
+                cb.like(cb.lower(root.get("title")), pattern, LIKE_ESCAPE),
+                cb.like(cb.lower(root.get("description")), pattern, LIKE_ESCAPE)
+        );
+    }
+
+    /**
+     * Escapa los comodines de LIKE para buscar el texto literal.
+     */
+    static String escapeLike(String text) {
+        StringBuilder escaped = new StringBuilder(text.length());
+        for (char c : text.toCharArray()) {
+            if (c == '%' || c == '_' || c == LIKE_ESCAPE) {
+                escaped.append(LIKE_ESCAPE);
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+}
@@ -0,0 +1,65 @@
+package com.plandai.coreservice.repositories;
+
+import com.plandai.coreservice.entities.TimeEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Repositorio para la entidad TimeEntry.
+ *
+ * Iniciar y parar temporizadores son UNA sentencia cada una (sin SELECT previo):
+ * el índice único parcial de V17 decide qué petición gana si llegan a la vez.
+ */
+@Repository
+public interface TimeEntryRepository extends JpaRepository<TimeEntry, UUID> {
+
+    /**
+     * Inicia un temporizador sobre una tarea viva y devuelve la entrada creada.
+     *
+     * Optional vacío = la tarea no existe o el usuario ya tiene un temporizador en marcha
+     * (ON CONFLICT sobre idx_time_entries_running).
+     */
+    @Query(value = """
+            INSERT INTO core_schema.time_entries (id, task_id, project_id, user_id, started_at)
+            SELECT :id, t.id, t.project_id, :userId, CURRENT_TIMESTAMP
+              FROM core_schema.tasks t
+             WHERE t.id = :taskId
+            ON CONFLICT (user_id) WHERE ended_at IS NULL DO NOTHING
+            RETURNING *
+            """, nativeQuery = true)
+    Optional<TimeEntry> startReturning(@Param("id") UUID id,
+                                       @Param("taskId") UUID taskId,
+                                       @Param("userId") UUID userId);
+
+    /**
+     * Para el temporizador en marcha del usuario y devuelve la entrada terminada.
+     * Optional vacío = no tenía ninguno en marcha.
+     */
+    @Query(value = """
+            UPDATE core_schema.time_entries
+               SET ended_at = CURRENT_TIMESTAMP
+             WHERE user_id = :userId AND ended_at IS NULL
+            RETURNING *
+            """, nativeQuery = true)
+    Optional<TimeEntry> stopReturning(@Param("userId") UUID userId);
+
+    /**
+     * Temporizador en marcha del usuario (lee idx_time_entries_running).
+     */
+    Optional<TimeEntry> findByUserIdAndEndedAtIsNull(UUID userId);
+
+    /**
+     * Elimina una entrada del usuario en UNA sentencia.
+     *
+     * @return filas borradas (0 = no existe o es de otro usuario)
+     */
+    @Modifying
+    @Query("DELETE FROM TimeEntry e WHERE e.id = :id AND e.userId = :userId")
+    int deleteByIdAndUserIdReturningCount(@Param("id") UUID id, @Param("userId") UUID userId);
+}
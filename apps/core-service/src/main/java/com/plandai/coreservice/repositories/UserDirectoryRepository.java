@@ -0,0 +1,17 @@
+package com.plandai.coreservice.repositories;
+
+import com.plandai.coreservice.entities.UserDirectoryEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+/**
+ * Repositorio para la entidad UserDirectoryEntry.
+ *
+ * Las lecturas usan findAllById (un único SELECT ... WHERE user_id IN (...)).
+ * Las escrituras son upserts por lotes en UserDirectoryService.
+ */
+@Repository
+public interface UserDirectoryRepository extends JpaRepository<UserDirectoryEntry, UUID> {
+}
@@ -2,6 +2,7 @@ package com.plandai.coreservice.repositories;
 
 import com.plandai.coreservice.entities.Workspace;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -23,7 +24,7 @@ import java.util.UUID;
  * - count()                  → SELECT COUNT(*) FROM workspaces
  */
 @Repository
-public interface WorkspaceRepository extends JpaRepository<Workspace, UUID> {
+public interface WorkspaceRepository extends JpaRepository<Workspace, UUID>, JpaSpecificationExecutor<Workspace> {
 
     /**
      * Busca todos los workspaces de un usuario específico.
@@ -2,6 +2,9 @@ package com.plandai.coreservice.repository;
 
 import com.plandai.coreservice.model.Budget;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -16,4 +19,9 @@ public interface BudgetRepository extends JpaRepository<Budget, UUID> {
     Optional<Budget> findByUserIdAndCategoryIdAndMonthYear(UUID userId, UUID categoryId, String monthYear);
     
     List<Budget> findByUserIdOrderByMonthYearDesc(UUID userId);
+
+    // DELETE por id en una sola sentencia; devuelve las filas borradas (0 = no existía)
+    @Modifying
+    @Query("DELETE FROM Budget x WHERE x.id = :id")
+    int deleteByIdReturningCount(@Param("id") UUID id);
 }
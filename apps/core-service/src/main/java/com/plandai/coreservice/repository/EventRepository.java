@@ -2,6 +2,10 @@ package com.plandai.coreservice.repository;
 
 import com.plandai.coreservice.model.Event;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
@@ -9,7 +13,7 @@ import java.util.List;
 import java.util.UUID;
 
 @Repository
-public interface EventRepository extends JpaRepository<Event, UUID> {
+public interface EventRepository extends JpaRepository<Event, UUID>, JpaSpecificationExecutor<Event> {
     
     List<Event> findByUserIdOrderByStartTimeAsc(UUID userId);
     
@@ -17,4 +21,15 @@ public interface EventRepository extends JpaRepository<Event, UUID> {
             UUID userId, LocalDateTime start, LocalDateTime end);
     
     List<Event> findByProjectIdOrderByStartTimeAsc(UUID projectId);
+
+    // Eventos del usuario que se solapan con [start, end)
+    @Query("SELECT x FROM Event x WHERE x.userId = :userId AND x.startTime < :end AND x.endTime > :start"
+            + " ORDER BY x.startTime")
+    List<Event> findOverlapping(@Param("userId") UUID userId, @Param("start") LocalDateTime start,
+                                @Param("end") LocalDateTime end);
+
+    // DELETE por id en una sola sentencia; devuelve las filas borradas (0 = no existía)
+    @Modifying
+    @Query("DELETE FROM Event x WHERE x.id = :id")
+    int deleteByIdReturningCount(@Param("id") UUID id);
 }
@@ -2,7 +2,10 @@ package com.plandai.coreservice.repository;
 
 import com.plandai.coreservice.model.Expense;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
@@ -11,7 +14,7 @@ import java.util.List;
 import java.util.UUID;
 
 @Repository
-public interface ExpenseRepository extends JpaRepository<Expense, UUID> {
+public interface ExpenseRepository extends JpaRepository<Expense, UUID>, JpaSpecificationExecutor<Expense> {
     
     List<Expense> findByUserIdOrderByExpenseDateDesc(UUID userId);
     
@@ -26,4 +29,9 @@ public interface ExpenseRepository extends JpaRepository<Expense, UUID> {
     
     @Query("SELECT SUM(e.amount) FROM Expense e WHERE e.userId = :userId AND e.category.id = :categoryId AND e.expenseDate BETWEEN :start AND :end")
     BigDecimal sumAmountByCategoryAndDateRange(UUID userId, UUID categoryId, LocalDate start, LocalDate end);
+
+    // DELETE por id en una sola sentencia; devuelve las filas borradas (0 = no existía)
+    @Modifying
+    @Query("DELETE FROM Expense x WHERE x.id = :id")
+    int deleteByIdReturningCount(@Param("id") UUID id);
 }
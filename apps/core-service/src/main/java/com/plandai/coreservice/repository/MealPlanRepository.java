@@ -2,6 +2,10 @@ package com.plandai.coreservice.repository;
 
 import com.plandai.coreservice.model.MealPlan;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
@@ -10,7 +14,7 @@ import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface MealPlanRepository extends JpaRepository<MealPlan, UUID> {
+public interface MealPlanRepository extends JpaRepository<MealPlan, UUID>, JpaSpecificationExecutor<MealPlan> {
     
     List<MealPlan> findByUserIdAndMealDateBetweenOrderByMealDateAsc(
             UUID userId, LocalDate start, LocalDate end);
@@ -20,4 +24,9 @@ public interface MealPlanRepository extends JpaRepository<MealPlan, UUID> {
     
     Optional<MealPlan> findByUserIdAndMealDateAndMealType(
             UUID userId, LocalDate mealDate, com.plandai.coreservice.model.Meal.MealType mealType);
+
+    // DELETE por id en una sola sentencia; devuelve las filas borradas (0 = no existía)
+    @Modifying
+    @Query("DELETE FROM MealPlan x WHERE x.id = :id")
+    int deleteByIdReturningCount(@Param("id") UUID id);
 }
@@ -2,13 +2,14 @@ package com.plandai.coreservice.repository;
 
 import com.plandai.coreservice.model.Meal;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.UUID;
 
 @Repository
-public interface MealRepository extends JpaRepository<Meal, UUID> {
+public interface MealRepository extends JpaRepository<Meal, UUID>, JpaSpecificationExecutor<Meal> {
     
     // Recetas públicas (userId = null) o del usuario
     List<Meal> findByUserIdIsNullOrUserIdOrderByNameAsc(UUID userId);
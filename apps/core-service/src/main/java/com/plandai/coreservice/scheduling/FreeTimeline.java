@@ -0,0 +1,138 @@
+package com.plandai.coreservice.scheduling;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Tiempo libre de un usuario en un horizonte, en huecos de duración fija (slots).
+ *
+ * Solo hay slots dentro del horario laboral y fuera de los eventos ocupados. Se numeran
+ * seguidos (0, 1, 2...) aunque en el calendario haya noches o reuniones entre ellos:
+ * el solver trabaja sobre esa línea "comprimida" y aquí se traduce de vuelta a horas.
+ */
+public final class FreeTimeline {
+
+    /**
+     * Intervalo ocupado [start, end).
+     */
+    public record Busy(LocalDateTime start, LocalDateTime end) {
+    }
+
+    /**
+     * Bloque continuo del calendario [start, end).
+     */
+    public record Block(LocalDateTime start, LocalDateTime end) {
+    }
+
+    private final List<LocalDateTime> starts;
+    private final Duration slot;
+
+    /**
+     * nextBreak[k]: primer slot después de k que no empieza donde acaba el anterior (o size()).
+     */
+    private final int[] nextBreak;
+
+    private FreeTimeline(List<LocalDateTime> starts, Duration slot) {
+        this.starts = starts;
+        this.slot = slot;
+        this.nextBreak = new int[starts.size()];
+        int next = starts.size();
+        for (int k = starts.size() - 1; k >= 0; k--) {
+            nextBreak[k] = next;
+            if (k > 0 && !starts.get(k - 1).plus(slot).equals(starts.get(k))) {
+                next = k;
+            }
+        }
+    }
+
+    /**
+     * Slots libres desde "from" (redondeado al siguiente slot del horario) durante "days" días.
+     *
+     * @param busy eventos ocupados del usuario en el horizonte, en cualquier orden
+     */
+    public static FreeTimeline build(LocalDateTime from, int days, LocalTime workStart, LocalTime workEnd,
+                                     Set<DayOfWeek> workDays, List<Busy> busy, int slotMinutes) {
+        Duration slot = Duration.ofMinutes(slotMinutes);
+        List<Busy> sorted = busy.stream().sorted(Comparator.comparing(Busy::start)).toList();
+        List<LocalDateTime> starts = new ArrayList<>();
+        int busyIndex = 0;
+        LocalDateTime busyUntil = LocalDateTime.MIN;
+
+        LocalDate lastDay = from.toLocalDate().plusDays(days - 1L);
+        for (LocalDate day = from.toLocalDate(); !day.isAfter(lastDay); day = day.plusDays(1)) {
+            if (!workDays.contains(day.getDayOfWeek())) {
+                continue;
+            }
+            LocalDateTime dayStart = day.atTime(workStart);
+            LocalDateTime dayEnd = day.atTime(workEnd);
+            for (LocalDateTime start = dayStart; !start.plus(slot).isAfter(dayEnd); start = start.plus(slot)) {
+                LocalDateTime end = start.plus(slot);
+                if (start.isBefore(from)) {
+                    continue;
+                }
+                // Barrido: los ocupados que empiezan antes del fin del slot ya no sirven para los siguientes
+                while (busyIndex < sorted.size() && sorted.get(busyIndex).start().isBefore(end)) {
+                    if (sorted.get(busyIndex).end().isAfter(busyUntil)) {
+                        busyUntil = sorted.get(busyIndex).end();
+                    }
+                    busyIndex++;
+                }
+                if (!busyUntil.isAfter(start)) {
+                    starts.add(start);
+                }
+            }
+        }
+        return new FreeTimeline(List.copyOf(starts), slot);
+    }
+
+    public int size() {
+        return starts.size();
+    }
+
+    public LocalDateTime slotStart(int k) {
+        return starts.get(k);
+    }
+
+    /**
+     * Slots que terminan no más tarde de "limit" (los primeros, porque están en orden).
+     */
+    public int slotsEndingBy(LocalDateTime limit) {
+        int low = 0;
+        int high = starts.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (starts.get(middle).plus(slot).isAfter(limit)) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Primer slot después de k que no sigue en el calendario al anterior (o size()).
+     */
+    int nextBreak(int k) {
+        return nextBreak[k];
+    }
+
+    /**
+     * Los slots [from, to) como bloques continuos del calendario.
+     */
+    public List<Block> blocks(int from, int to) {
+        List<Block> blocks = new ArrayList<>();
+        for (int k = from; k < to; k = Math.min(nextBreak[k], to)) {
+            int end = Math.min(nextBreak[k], to);
+            blocks.add(new Block(starts.get(k), starts.get(end - 1).plus(slot)));
+        }
+        return blocks;
+    }
+}
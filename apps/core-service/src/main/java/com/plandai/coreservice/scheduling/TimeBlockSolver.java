@@ -0,0 +1,203 @@
+package com.plandai.coreservice.scheduling;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Reparte tareas en el tiempo libre (FreeTimeline) antes de su fecha límite.
+ *
+ * Una solución es un orden de las tareas: se colocan seguidas sobre los slots libres y la
+ * que no cabe antes de su límite se queda sin planificar (no ocupa nada). Se compara por:
+ * 1. Trabajo sin planificar (slots x peso), lo primero.
+ * 2. Después, terminar antes lo importante (fin x peso) y partir poco las tareas:
+ *    cada trozo de más cuesta FRAGMENT_COST, y el doble si es más corto que el bloque mínimo.
+ *
+ * - Solución inicial voraz: fecha límite más próxima primero (a igualdad, más peso primero).
+ * - Búsqueda local con tiempo máximo: intercambiar dos tareas o mover una a otra posición,
+ *   aceptando el cambio si no empeora. Solo se reevalúa desde la primera posición tocada
+ *   (el estado de cada prefijo se guarda).
+ */
+public final class TimeBlockSolver {
+
+    /**
+     * Coste de partir una tarea en un trozo más, en unidades de "slot x peso".
+     */
+    static final long FRAGMENT_COST = 16;
+
+    /**
+     * Tarea a planificar.
+     *
+     * @param slots    duración en slots
+     * @param deadline slots libres disponibles antes de su límite (como mucho size() de la línea)
+     * @param weight   importancia (mayor = antes y con preferencia si no cabe todo)
+     */
+    public record Job(int slots, int deadline, int weight) {
+    }
+
+    /**
+     * @param starts     primer slot de cada tarea, en el orden de la lista de entrada (-1 = sin planificar)
+     * @param iterations movimientos probados por la búsqueda local
+     */
+    public record Solution(int[] starts, long iterations) {
+    }
+
+    private record Score(long unscheduled, long penalty) implements Comparable<Score> {
+
+        private static final Comparator<Score> ORDER = Comparator.comparingLong(Score::unscheduled)
+                .thenComparingLong(Score::penalty);
+
+        @Override
+        public int compareTo(Score other) {
+            return ORDER.compare(this, other);
+        }
+    }
+
+    private final Job[] jobs;
+    private final FreeTimeline timeline;
+    private final int minBlockSlots;
+
+    // Estado antes de cada posición del orden actual: slot libre siguiente y coste acumulado
+    private final int[] cursorAt;
+    private final long[] unscheduledAt;
+    private final long[] penaltyAt;
+
+    private TimeBlockSolver(List<Job> jobs, FreeTimeline timeline, int minBlockSlots) {
+        this.jobs = jobs.toArray(Job[]::new);
+        this.timeline = timeline;
+        this.minBlockSlots = minBlockSlots;
+        this.cursorAt = new int[this.jobs.length + 1];
+        this.unscheduledAt = new long[this.jobs.length + 1];
+        this.penaltyAt = new long[this.jobs.length + 1];
+    }
+
+    /**
+     * @param budget tiempo máximo de búsqueda local (la solución voraz se devuelve siempre)
+     * @param seed   semilla de los movimientos aleatorios (misma semilla y mismas iteraciones = mismo resultado)
+     */
+    public static Solution solve(List<Job> jobs, FreeTimeline timeline, int minBlockSlots, Duration budget,
+                                 long seed) {
+        return new TimeBlockSolver(jobs, timeline, minBlockSlots).run(budget, seed);
+    }
+
+    private Solution run(Duration budget, long seed) {
+        int n = jobs.length;
+        int[] order = IntStream.range(0, n).boxed()
+                .sorted(Comparator.<Integer>comparingInt(job -> jobs[job].deadline())
+                        .thenComparing(job -> -jobs[job].weight())
+                        .thenComparingInt(job -> jobs[job].slots()))
+                .mapToInt(Integer::intValue)
+                .toArray();
+        Score current = evaluate(order, 0, true);
+
+        long iterations = 0;
+        if (n > 1) {
+            long stopAt = System.nanoTime() + budget.toNanos();
+            SplittableRandom random = new SplittableRandom(seed);
+            int[] candidate = new int[n];
+            while (current.unscheduled() + current.penalty() > 0 && System.nanoTime() < stopAt) {
+                iterations++;
+                int i = random.nextInt(n);
+                int j = random.nextInt(n);
+                if (i == j) {
+                    continue;
+                }
+                System.arraycopy(order, 0, candidate, 0, n);
+                if (random.nextBoolean()) {
+                    candidate[i] = order[j];
+                    candidate[j] = order[i];
+                } else {
+                    move(candidate, i, j);
+                }
+                int from = Math.min(i, j);
+                Score score = evaluate(candidate, from, false);
+                if (score.compareTo(current) <= 0) {
+                    int[] previous = order;
+                    order = candidate;
+                    candidate = previous;
+                    current = evaluate(order, from, true);
+                }
+            }
+        }
+        return new Solution(starts(order), iterations);
+    }
+
+    /**
+     * Coste del orden desde la posición "from", partiendo del estado guardado del prefijo.
+     *
+     * @param store guardar el estado de cada posición (el orden pasa a ser el actual)
+     */
+    private Score evaluate(int[] order, int from, boolean store) {
+        int cursor = cursorAt[from];
+        long unscheduled = unscheduledAt[from];
+        long penalty = penaltyAt[from];
+        for (int k = from; k < order.length; k++) {
+            if (store) {
+                cursorAt[k] = cursor;
+                unscheduledAt[k] = unscheduled;
+                penaltyAt[k] = penalty;
+            }
+            Job job = jobs[order[k]];
+            int end = cursor + job.slots();
+            if (end > job.deadline()) {
+                unscheduled += (long) job.weight() * job.slots();
+            } else {
+                penalty += (long) job.weight() * end + FRAGMENT_COST * fragments(cursor, end);
+                cursor = end;
+            }
+        }
+        if (store) {
+            cursorAt[order.length] = cursor;
+            unscheduledAt[order.length] = unscheduled;
+            penaltyAt[order.length] = penalty;
+        }
+        return new Score(unscheduled, penalty);
+    }
+
+    /**
+     * Trozos de más de una tarea en [start, end), contando doble los más cortos que el bloque mínimo.
+     */
+    private int fragments(int start, int end) {
+        int chunks = 0;
+        int tiny = 0;
+        for (int k = start; k < end; ) {
+            int next = Math.min(timeline.nextBreak(k), end);
+            chunks++;
+            if (next - k < minBlockSlots) {
+                tiny++;
+            }
+            k = next;
+        }
+        return chunks == 1 ? 0 : chunks - 1 + tiny;
+    }
+
+    private int[] starts(int[] order) {
+        int[] starts = new int[jobs.length];
+        int cursor = 0;
+        for (int job : order) {
+            int end = cursor + jobs[job].slots();
+            if (end > jobs[job].deadline()) {
+                starts[job] = -1;
+            } else {
+                starts[job] = cursor;
+                cursor = end;
+            }
+        }
+        return starts;
+    }
+
+    /**
+     * Saca el elemento de la posición "from" y lo inserta en "to".
+     */
+    private static void move(int[] order, int from, int to) {
+        int value = order[from];
+        if (from < to) {
+            System.arraycopy(order, from + 1, order, from, to - from);
+        } else {
+            System.arraycopy(order, to, order, to + 1, from - to);
+        }
+        order[to] = value;
+    }
+}
@@ -0,0 +1,25 @@
+package com.plandai.coreservice.security;
+
+import java.security.Principal;
+import java.util.UUID;
+
+/**
+ * Usuario autenticado que se guarda como principal en el SecurityContext.
+ *
+ * Se construye una sola vez al verificar el JWT (el UUID ya viene parseado),
+ * así que controllers y servicios no vuelven a derivar la identidad.
+ *
+ * @param userId      ID del usuario en Auth Service
+ * @param email       email del usuario (puede ser null)
+ * @param displayName nombre para mostrar (puede ser null)
+ */
+public record AuthenticatedUser(UUID userId, String email, String displayName) implements Principal {
+
+    /**
+     * Spring Security usa getName() como identificador del principal.
+     */
+    @Override
+    public String getName() {
+        return userId.toString();
+    }
+}
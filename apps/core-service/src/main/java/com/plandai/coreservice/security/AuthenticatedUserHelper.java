@@ -13,20 +13,28 @@ import java.util.UUID;
 public class AuthenticatedUserHelper {
 
     /**
-     * Obtiene el userId del usuario autenticado actual como UUID
-     * @return userId extraído del JWT, o null si no está autenticado
+     * Obtiene el usuario autenticado actual (principal tipado creado por JwtAuthenticationFilter)
+     * @return usuario autenticado, o null si no está autenticado
      */
-    public UUID getCurrentUserId() {
+    public AuthenticatedUser getCurrentUser() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        
-        if (authentication != null && authentication.getPrincipal() instanceof String) {
-            String userIdStr = (String) authentication.getPrincipal();
-            return UUID.fromString(userIdStr);
+
+        if (authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser user) {
+            return user;
         }
-        
+
         return null;
     }
 
+    /**
+     * Obtiene el userId del usuario autenticado actual como UUID
+     * @return userId extraído del JWT, o null si no está autenticado
+     */
+    public UUID getCurrentUserId() {
+        AuthenticatedUser user = getCurrentUser();
+        return user != null ? user.userId() : null;
+    }
+
     /**
      * Obtiene el userId como String (para casos donde se necesite el formato original)
      */
@@ -0,0 +1,24 @@
+package com.plandai.coreservice.security;
+
+import io.swagger.v3.oas.annotations.Parameter;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Inyecta el AuthenticatedUser del JWT en un parámetro de un controller.
+ *
+ * Ejemplo:
+ * public ResponseEntity<List<Expense>> getExpenses(@CurrentUser AuthenticatedUser user) { ... }
+ *
+ * Se oculta en Swagger porque no es un parámetro de la petición.
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Parameter(hidden = true)
+public @interface CurrentUser {
+}
@@ -0,0 +1,39 @@
+package com.plandai.coreservice.security;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.security.authentication.AuthenticationCredentialsNotFoundException;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+/**
+ * Resuelve los parámetros anotados con @CurrentUser a partir del SecurityContext.
+ * Si no hay usuario autenticado se responde 401.
+ */
+@Component
+public class CurrentUserArgumentResolver implements HandlerMethodArgumentResolver {
+
+    private final AuthenticatedUserHelper authenticatedUserHelper;
+
+    public CurrentUserArgumentResolver(AuthenticatedUserHelper authenticatedUserHelper) {
+        this.authenticatedUserHelper = authenticatedUserHelper;
+    }
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return parameter.hasParameterAnnotation(CurrentUser.class)
+                && AuthenticatedUser.class.isAssignableFrom(parameter.getParameterType());
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        AuthenticatedUser user = authenticatedUserHelper.getCurrentUser();
+        if (user == null) {
+            throw new AuthenticationCredentialsNotFoundException("Se requiere un usuario autenticado");
+        }
+        return user;
+    }
+}
@@ -1,5 +1,6 @@
 package com.plandai.coreservice.security;
 
+import com.plandai.coreservice.services.UserDirectoryService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -16,6 +17,10 @@ import java.util.ArrayList;
 
 /**
  * Filtro que intercepta todas las peticiones HTTP para validar JWT
+ *
+ * El token se verifica una sola vez durante su vida gracias a VerifiedTokenCache:
+ * las peticiones siguientes con el mismo token reutilizan el resultado.
+ * Después se comprueba la revocación (Bloom filter en memoria, BD solo en posibles positivos).
  */
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
@@ -23,6 +28,15 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private UserDirectoryService userDirectoryService;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
@@ -30,41 +44,42 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         // Extraer el token del header Authorization
         String authorizationHeader = request.getHeader("Authorization");
 
-        String token = null;
-        String userId = null;
+        // Verificar que el header existe, tiene formato correcto y no hay autenticación previa
+        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+
+            String token = authorizationHeader.substring(7); // Remover "Bearer " prefix
 
-        // Verificar que el header existe y tiene formato correcto
-        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            token = authorizationHeader.substring(7); // Remover "Bearer " prefix
             try {
-                userId = jwtUtil.extractUserId(token);
-                logger.info("✅ UserId extraído del JWT: " + userId);
-            } catch (Exception e) {
-                logger.error("❌ Error extrayendo userId del token: " + e.getMessage(), e);
-            }
-        }
+                // Un único parseo por token (o ninguno si ya está en caché)
+                String tokenDigest = VerifiedTokenCache.digest(token);
+                VerifiedToken verified = verifiedTokenCache.resolve(tokenDigest, token, jwtUtil::verify);
+
+                // Token revocado: no se autentica (la cadena responderá 401)
+                if (tokenRevocationService.isRevoked(TokenRevocationService.revocationKey(tokenDigest, verified))) {
+                    logger.warn("Token JWT revocado para userId: " + verified.userId());
+                    filterChain.doFilter(request, response);
+                    return;
+                }
+
+                AuthenticatedUser user = verified.user();
+
+                // Crear objeto de autenticación con el principal tipado (se crea una vez por token)
+                UsernamePasswordAuthenticationToken authToken =
+                    new UsernamePasswordAuthenticationToken(user, null, new ArrayList<>());
 
-        // Si tenemos userId y no hay autenticación previa, validar el token
-        if (userId != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            
-            if (jwtUtil.validateToken(token)) {
-                // Extraer información adicional del token
-                String email = jwtUtil.extractEmail(token);
-                String name = jwtUtil.extractName(token);
-
-                // Crear objeto de autenticación
-                UsernamePasswordAuthenticationToken authToken = 
-                    new UsernamePasswordAuthenticationToken(userId, null, new ArrayList<>());
-                
                 // Agregar detalles adicionales
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                
+
                 // Establecer autenticación en el contexto de seguridad
                 SecurityContextHolder.getContext().setAuthentication(authToken);
-                
-                logger.debug("JWT válido para userId: " + userId + " (" + email + ")");
-            } else {
-                logger.warn("Token JWT inválido o expirado");
+
+                // Alimentar el directorio local (no-op si los datos no cambiaron)
+                userDirectoryService.recordSeen(user);
+
+                logger.debug("JWT válido para userId: " + user.userId() + " (" + user.email() + ")");
+            } catch (Exception e) {
+                logger.warn("Token JWT inválido o expirado: " + e.getMessage());
             }
         }
 
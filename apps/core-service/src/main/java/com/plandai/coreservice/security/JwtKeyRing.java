@@ -0,0 +1,202 @@
+package com.plandai.coreservice.security;
+
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.security.Keys;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKey;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.Key;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Anillo de claves HMAC para verificar JWT con rotación sin downtime.
+ *
+ * - Las claves se construyen UNA vez (al arrancar o al recargar), nunca por petición.
+ * - La clave se elige en O(1) por el header "kid" del token.
+ * - Los tokens sin "kid" (formato actual del Auth Service) usan jwt.secret.
+ * - Una recarga construye un snapshot inmutable nuevo y lo publica con un swap atómico:
+ *   las peticiones en curso no bloquean ni prueban claves una a una.
+ *
+ * Configuración:
+ * - jwt.keys: lista "kid:secret,kid2:secret2" (los secrets no pueden contener comas)
+ * - jwt.keys-file: fichero .properties (kid=secret) que se vuelve a leer cuando cambia
+ *
+ * Rotación típica con el Auth Service (.NET):
+ * 1. Añadir la clave nueva al anillo (los tokens viejos siguen validando)
+ * 2. El Auth Service empieza a firmar con el nuevo kid
+ * 3. Cuando expiran los tokens viejos, retirar la clave antigua
+ */
+@Component
+@Slf4j
+public class JwtKeyRing extends LocatorAdapter<Key> {
+
+    /**
+     * Snapshot inmutable de las claves activas.
+     */
+    private record Snapshot(Map<String, SecretKey> keysByKid, SecretKey defaultKey) {
+    }
+
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+    private final String defaultSecret;
+    private final Map<String, String> configuredSecrets;
+    private final Path keysFile;
+    private volatile FileTime keysFileLastModified;
+
+    @Autowired(required = false)
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Autowired
+    public JwtKeyRing(@Value("${jwt.secret}") String defaultSecret,
+                      @Value("${jwt.keys:}") String keys,
+                      @Value("${jwt.keys-file:}") String keysFile) {
+        this.defaultSecret = defaultSecret;
+        this.configuredSecrets = parseKeys(keys);
+        this.keysFile = keysFile == null || keysFile.isBlank() ? null : Path.of(keysFile);
+
+        Map<String, String> secrets = new HashMap<>(configuredSecrets);
+        if (this.keysFile != null) {
+            secrets.putAll(readKeysFile());
+        }
+        this.snapshot.set(buildSnapshot(secrets));
+        log.info("🔑 JwtKeyRing inicializado con {} clave(s) con kid", secrets.size());
+    }
+
+    /**
+     * Anillo con una única clave por defecto (sin kid).
+     */
+    public static JwtKeyRing ofSecret(String secret) {
+        return new JwtKeyRing(secret, "", "");
+    }
+
+    /**
+     * Devuelve la clave para un kid (null = clave por defecto).
+     *
+     * @throws JwtException si el kid no está en el anillo
+     */
+    public SecretKey resolve(String kid) {
+        Snapshot current = snapshot.get();
+        if (kid == null) {
+            if (current.defaultKey() == null) {
+                throw new JwtException("El token no indica kid y no hay clave por defecto");
+            }
+            return current.defaultKey();
+        }
+
+        SecretKey key = current.keysByKid().get(kid);
+        if (key == null) {
+            throw new JwtException("kid desconocido: " + kid);
+        }
+        return key;
+    }
+
+    /**
+     * Usado por el JwtParser de jjwt para localizar la clave de cada token.
+     */
+    @Override
+    protected Key locate(JwsHeader header) {
+        return resolve(header.getKeyId());
+    }
+
+    /**
+     * Reemplaza las claves con kid por las indicadas (la clave por defecto se mantiene).
+     * Si alguna clave no es válida se conserva el snapshot anterior.
+     */
+    public void reload(Map<String, String> secretsByKid) {
+        Snapshot next = buildSnapshot(secretsByKid);
+        Snapshot previous = snapshot.getAndSet(next);
+
+        boolean keysRemoved = !next.keysByKid().keySet().containsAll(previous.keysByKid().keySet());
+        if (keysRemoved && verifiedTokenCache != null) {
+            // Los tokens firmados con claves retiradas no deben seguir siendo válidos desde caché
+            verifiedTokenCache.clear();
+        }
+        log.info("🔑 JwtKeyRing recargado: kids activos {}", next.keysByKid().keySet());
+    }
+
+    /**
+     * Kids actualmente cargados.
+     */
+    public Set<String> kids() {
+        return snapshot.get().keysByKid().keySet();
+    }
+
+    /**
+     * Vuelve a leer jwt.keys-file si su fecha de modificación ha cambiado.
+     */
+    @Scheduled(fixedDelayString = "${jwt.keys-reload-interval-ms:30000}")
+    public void reloadIfKeysFileChanged() {
+        if (keysFile == null) {
+            return;
+        }
+        try {
+            FileTime modified = Files.getLastModifiedTime(keysFile);
+            if (modified.equals(keysFileLastModified)) {
+                return;
+            }
+            Map<String, String> secrets = new HashMap<>(configuredSecrets);
+            secrets.putAll(readKeysFile());
+            reload(secrets);
+        } catch (IOException | RuntimeException e) {
+            log.error("❌ No se pudo recargar el fichero de claves JWT {}: {}", keysFile, e.getMessage());
+        }
+    }
+
+    private Snapshot buildSnapshot(Map<String, String> secretsByKid) {
+        Map<String, SecretKey> keys = new HashMap<>();
+        secretsByKid.forEach((kid, secret) -> keys.put(kid, toKey(secret)));
+        SecretKey defaultKey = defaultSecret == null || defaultSecret.isBlank() ? null : toKey(defaultSecret);
+        return new Snapshot(Map.copyOf(keys), defaultKey);
+    }
+
+    private Map<String, String> readKeysFile() {
+        try {
+            FileTime modified = Files.getLastModifiedTime(keysFile);
+            Properties properties = new Properties();
+            try (Reader reader = Files.newBufferedReader(keysFile, StandardCharsets.UTF_8)) {
+                properties.load(reader);
+            }
+            keysFileLastModified = modified;
+
+            Map<String, String> secrets = new HashMap<>();
+            properties.stringPropertyNames().forEach(kid -> secrets.put(kid, properties.getProperty(kid).trim()));
+            return secrets;
+        } catch (IOException e) {
+            throw new IllegalStateException("No se pudo leer jwt.keys-file: " + keysFile, e);
+        }
+    }
+
+    private static Map<String, String> parseKeys(String keys) {
+        Map<String, String> secrets = new HashMap<>();
+        if (keys == null || keys.isBlank()) {
+            return secrets;
+        }
+        for (String entry : keys.split(",")) {
+            int separator = entry.indexOf(':');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Formato inválido en jwt.keys (se espera kid:secret)");
+            }
+            secrets.put(entry.substring(0, separator).trim(), entry.substring(separator + 1).trim());
+        }
+        return secrets;
+    }
+
+    private static SecretKey toKey(String secret) {
+        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+    }
+}
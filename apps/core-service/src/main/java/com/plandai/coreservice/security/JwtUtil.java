@@ -1,23 +1,30 @@
 package com.plandai.coreservice.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import javax.crypto.SecretKey;
-import java.nio.charset.StandardCharsets;
 import java.util.Date;
+import java.util.UUID;
 import java.util.function.Function;
 
 /**
  * Utilidad para validar y extraer información de JWT tokens
  * Debe usar el MISMO secret que Auth Service
+ *
+ * La clave de cada token se obtiene del JwtKeyRing por su header "kid".
  */
 @Component
 public class JwtUtil {
 
+    private static final String CLAIM_USER_ID = "http://schemas.xmlsoap.org/ws/2005/05/identity/claims/nameidentifier";
+    private static final String CLAIM_EMAIL = "http://schemas.xmlsoap.org/ws/2005/05/identity/claims/emailaddress";
+    private static final String CLAIM_NAME = "http://schemas.xmlsoap.org/ws/2005/05/identity/claims/name";
+
     @Value("${jwt.secret}")
     private String secret;
 
@@ -27,25 +34,58 @@ public class JwtUtil {
     @Value("${jwt.audience:PlandIA.Client}")
     private String audience;
 
+    @Autowired(required = false)
+    private JwtKeyRing keyRing;
+
+    /**
+     * Parser construido una sola vez (las claves viven precalculadas en el JwtKeyRing).
+     * Se inicializa de forma perezosa porque los @Value se inyectan después del constructor.
+     */
+    private volatile JwtParser parser;
+
+    /**
+     * Verifica el token UNA sola vez y devuelve todos los claims que necesitamos.
+     * Lanza JwtException si la firma, issuer, audience o expiración no son válidos.
+     */
+    public VerifiedToken verify(String token) {
+        Claims claims = extractAllClaims(token);
+
+        String userId = claims.get(CLAIM_USER_ID, String.class);
+        if (userId == null) {
+            throw new JwtException("El token no contiene el claim de userId");
+        }
+        if (claims.getExpiration() == null) {
+            throw new JwtException("El token no contiene fecha de expiración");
+        }
+
+        return new VerifiedToken(
+                UUID.fromString(userId),
+                claims.get(CLAIM_EMAIL, String.class),
+                claims.get(CLAIM_NAME, String.class),
+                claims.getExpiration().toInstant(),
+                claims.getId()
+        );
+    }
+
     /**
      * Extrae el userId del token JWT (como String UUID)
      */
     public String extractUserId(String token) {
-        return extractClaim(token, claims -> claims.get("http://schemas.xmlsoap.org/ws/2005/05/identity/claims/nameidentifier", String.class));
+        return extractClaim(token, claims -> claims.get(CLAIM_USER_ID, String.class));
     }
 
     /**
      * Extrae el email del token JWT
      */
     public String extractEmail(String token) {
-        return extractClaim(token, claims -> claims.get("http://schemas.xmlsoap.org/ws/2005/05/identity/claims/emailaddress", String.class));
+        return extractClaim(token, claims -> claims.get(CLAIM_EMAIL, String.class));
     }
 
     /**
      * Extrae el nombre del token JWT
      */
     public String extractName(String token) {
-        return extractClaim(token, claims -> claims.get("http://schemas.xmlsoap.org/ws/2005/05/identity/claims/name", String.class));
+        return extractClaim(token, claims -> claims.get(CLAIM_NAME, String.class));
     }
 
     /**
@@ -67,15 +107,33 @@ public class JwtUtil {
      * Extrae todos los claims del token
      */
     private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .requireIssuer(issuer)
-                .requireAudience(audience)
-                .build()
+        return getParser()
                 .parseSignedClaims(token)
                 .getPayload();
     }
 
+    /**
+     * Devuelve el parser cacheado (thread-safe e inmutable según jjwt).
+     */
+    private JwtParser getParser() {
+        JwtParser current = parser;
+        if (current == null) {
+            synchronized (this) {
+                current = parser;
+                if (current == null) {
+                    JwtKeyRing ring = keyRing != null ? keyRing : JwtKeyRing.ofSecret(secret);
+                    current = Jwts.parser()
+                            .keyLocator(ring)
+                            .requireIssuer(issuer)
+                            .requireAudience(audience)
+                            .build();
+                    parser = current;
+                }
+            }
+        }
+        return current;
+    }
+
     /**
      * Verifica si el token ha expirado
      */
@@ -93,12 +151,4 @@ public class JwtUtil {
             return false;
         }
     }
-
-    /**
-     * Genera la clave de firma desde el secret
-     */
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = secret.getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
-    }
 }
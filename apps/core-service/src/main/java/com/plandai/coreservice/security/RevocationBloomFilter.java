@@ -0,0 +1,118 @@
+package com.plandai.coreservice.security;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter de claves de tokens revocados.
+ *
+ * - Sin falsos negativos: si una clave se añadió, mightContain devuelve true.
+ * - Falsos positivos acotados por el dimensionado (capacidad y fpp objetivo):
+ *   solo esos casos acaban consultando la tabla revoked_tokens.
+ * - add() es thread-safe (CAS sobre AtomicLongArray) para que una revocación
+ *   se vea en el filtro activo sin esperar a la siguiente reconstrucción.
+ */
+final class RevocationBloomFilter {
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+    private final int capacity;
+
+    private RevocationBloomFilter(long bitCount, int hashCount, int capacity) {
+        this.bitCount = bitCount;
+        this.hashCount = hashCount;
+        this.capacity = capacity;
+        this.words = new AtomicLongArray((int) ((bitCount + 63) >>> 6));
+    }
+
+    /**
+     * Crea un filtro dimensionado para "capacity" claves con una tasa de falsos
+     * positivos objetivo "fpp" (m = -n·ln p / ln²2, k = m/n·ln 2).
+     */
+    static RevocationBloomFilter create(int capacity, double fpp) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("La capacidad del Bloom filter debe ser positiva");
+        }
+        if (fpp <= 0 || fpp >= 1) {
+            throw new IllegalArgumentException("La tasa de falsos positivos debe estar entre 0 y 1");
+        }
+        long bits = (long) Math.ceil(-capacity * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+        bits = Math.max(64, bits);
+        int hashes = Math.max(1, (int) Math.round((double) bits / capacity * Math.log(2)));
+        return new RevocationBloomFilter(bits, hashes, capacity);
+    }
+
+    void add(String key) {
+        long hash = hash64(key);
+        long h1 = hash;
+        long h2 = mix64(hash ^ 0x9E3779B97F4A7C15L) | 1L;
+        for (int i = 0; i < hashCount; i++) {
+            setBit(Math.floorMod(h1 + i * h2, bitCount));
+        }
+    }
+
+    boolean mightContain(String key) {
+        long hash = hash64(key);
+        long h1 = hash;
+        long h2 = mix64(hash ^ 0x9E3779B97F4A7C15L) | 1L;
+        for (int i = 0; i < hashCount; i++) {
+            if (!getBit(Math.floorMod(h1 + i * h2, bitCount))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Tasa de falsos positivos esperada con el llenado actual: (bits a 1 / m)^k.
+     */
+    double expectedFalsePositiveRate() {
+        long setBits = 0;
+        for (int i = 0; i < words.length(); i++) {
+            setBits += Long.bitCount(words.get(i));
+        }
+        return Math.pow((double) setBits / bitCount, hashCount);
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    long bitCount() {
+        return bitCount;
+    }
+
+    private void setBit(long index) {
+        int word = (int) (index >>> 6);
+        long mask = 1L << index;
+        long current;
+        do {
+            current = words.get(word);
+            if ((current & mask) != 0) {
+                return;
+            }
+        } while (!words.compareAndSet(word, current, current | mask));
+    }
+
+    private boolean getBit(long index) {
+        return (words.get((int) (index >>> 6)) & (1L << index)) != 0;
+    }
+
+    /**
+     * FNV-1a de 64 bits sobre los chars, con mezcla final para repartir los bits.
+     */
+    private static long hash64(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return mix64(hash);
+    }
+
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return z ^ (z >>> 33);
+    }
+}
@@ -0,0 +1,210 @@
+package com.plandai.coreservice.security;
+
+import com.plandai.coreservice.repositories.RevokedTokenRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Revocación de tokens JWT antes de su expiración.
+ *
+ * Camino caliente (cada petición autenticada):
+ * 1. Bloom filter en memoria: si dice "no", el token no está revocado (sin tocar la BD).
+ * 2. Solo en un posible positivo se consulta revoked_tokens por PK.
+ *
+ * - La clave de revocación es "jti:<jti>" si el token trae jti, o "sha:<digest>" si no.
+ * - Cada fila vive hasta el exp del token; después se purga.
+ * - El filtro se reconstruye periódicamente desde la tabla (solo revocaciones vigentes),
+ *   así se mantiene pequeño y cada nodo recoge las revocaciones hechas en otros nodos.
+ *   Entre reconstrucciones, un token revocado en OTRO nodo sigue siendo aceptado aquí
+ *   (ventana máxima = jwt.revocation.rebuild-interval-ms).
+ *
+ * Métricas (Micrometer):
+ * - auth.revocation.checks{result=bloom_miss|false_positive|revoked}
+ * - auth.revocation.lookup (latencia de la consulta a BD)
+ * - auth.revocation.bloom.false_positive_ratio (observada) y auth.revocation.bloom.expected_fpp
+ */
+@Service
+@Slf4j
+public class TokenRevocationService {
+
+    static final String JTI_PREFIX = "jti:";
+    static final String DIGEST_PREFIX = "sha:";
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final JwtUtil jwtUtil;
+    private final Clock clock;
+    private final int minCapacity;
+    private final double falsePositiveRate;
+
+    private final AtomicReference<RevocationBloomFilter> filter = new AtomicReference<>();
+    private final Object filterLock = new Object();
+
+    private final Counter bloomMisses;
+    private final Counter falsePositives;
+    private final Counter revokedHits;
+    private final Timer lookupTimer;
+
+    @Autowired
+    public TokenRevocationService(RevokedTokenRepository revokedTokenRepository,
+                                  VerifiedTokenCache verifiedTokenCache,
+                                  JwtUtil jwtUtil,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${jwt.revocation.bloom.min-capacity:10000}") int minCapacity,
+                                  @Value("${jwt.revocation.bloom.fpp:0.01}") double falsePositiveRate) {
+        this(revokedTokenRepository, verifiedTokenCache, jwtUtil, meterRegistry,
+                minCapacity, falsePositiveRate, Clock.systemUTC());
+    }
+
+    TokenRevocationService(RevokedTokenRepository revokedTokenRepository,
+                           VerifiedTokenCache verifiedTokenCache,
+                           JwtUtil jwtUtil,
+                           MeterRegistry meterRegistry,
+                           int minCapacity,
+                           double falsePositiveRate,
+                           Clock clock) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.jwtUtil = jwtUtil;
+        this.minCapacity = minCapacity;
+        this.falsePositiveRate = falsePositiveRate;
+        this.clock = clock;
+        // Arranca vacío: la primera reconstrucción programada carga la tabla
+        this.filter.set(RevocationBloomFilter.create(minCapacity, falsePositiveRate));
+
+        this.bloomMisses = checksCounter(meterRegistry, "bloom_miss");
+        this.falsePositives = checksCounter(meterRegistry, "false_positive");
+        this.revokedHits = checksCounter(meterRegistry, "revoked");
+        this.lookupTimer = Timer.builder("auth.revocation.lookup")
+                .description("Latencia de la consulta a revoked_tokens tras un positivo del Bloom filter")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        Gauge.builder("auth.revocation.bloom.false_positive_ratio", this, TokenRevocationService::observedFalsePositiveRatio)
+                .description("Falsos positivos / tokens no revocados comprobados")
+                .register(meterRegistry);
+        Gauge.builder("auth.revocation.bloom.expected_fpp", filter, ref -> ref.get().expectedFalsePositiveRate())
+                .description("Tasa de falsos positivos esperada con el llenado actual del filtro")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Clave de revocación de un token: su jti si lo tiene, o el digest SHA-256 del token.
+     */
+    public static String revocationKey(String tokenDigest, VerifiedToken verified) {
+        String tokenId = verified.tokenId();
+        return tokenId != null && !tokenId.isBlank() ? JTI_PREFIX + tokenId : DIGEST_PREFIX + tokenDigest;
+    }
+
+    /**
+     * Indica si el token con esa clave está revocado.
+     * Si la consulta a BD falla se trata como revocado (fail-closed): solo afecta
+     * a los positivos del filtro, no al resto de peticiones.
+     */
+    public boolean isRevoked(String revocationKey) {
+        if (!filter.get().mightContain(revocationKey)) {
+            bloomMisses.increment();
+            return false;
+        }
+
+        boolean revoked;
+        Timer.Sample sample = Timer.start();
+        try {
+            revoked = revokedTokenRepository.existsByTokenKeyAndExpiresAtAfter(revocationKey, now());
+        } catch (RuntimeException e) {
+            log.error("❌ Error consultando revoked_tokens, se rechaza el token: {}", e.getMessage());
+            return true;
+        } finally {
+            sample.stop(lookupTimer);
+        }
+
+        if (revoked) {
+            revokedHits.increment();
+        } else {
+            falsePositives.increment();
+        }
+        return revoked;
+    }
+
+    /**
+     * Revoca un token hasta su expiración (idempotente).
+     *
+     * @return el token verificado que se ha revocado
+     * @throws io.jsonwebtoken.JwtException si el token no es válido
+     */
+    public VerifiedToken revoke(String token) {
+        String tokenDigest = VerifiedTokenCache.digest(token);
+        VerifiedToken verified = verifiedTokenCache.resolve(tokenDigest, token, jwtUtil::verify);
+        String key = revocationKey(tokenDigest, verified);
+
+        // El insert hace commit antes de añadir al filtro: una reconstrucción concurrente
+        // o ya ve la fila, o se ejecuta después y el add cae en el filtro nuevo
+        revokedTokenRepository.insertIfAbsent(key, verified.userId(),
+                LocalDateTime.ofInstant(verified.expiresAt(), ZoneOffset.UTC));
+        synchronized (filterLock) {
+            filter.get().add(key);
+        }
+        verifiedTokenCache.invalidate(token);
+
+        log.info("🚫 Token revocado para userId {} hasta {}", verified.userId(), verified.expiresAt());
+        return verified;
+    }
+
+    /**
+     * Purga las revocaciones expiradas y reconstruye el filtro solo con las vigentes.
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.rebuild-interval-ms:30000}")
+    public void rebuild() {
+        try {
+            LocalDateTime now = now();
+            int purged = revokedTokenRepository.deleteExpired(now);
+
+            synchronized (filterLock) {
+                List<String> activeKeys = revokedTokenRepository.findActiveTokenKeys(now);
+                // Holgura x2 para absorber las revocaciones hasta la siguiente reconstrucción
+                int capacity = Math.max(minCapacity, activeKeys.size() * 2);
+                RevocationBloomFilter next = RevocationBloomFilter.create(capacity, falsePositiveRate);
+                activeKeys.forEach(next::add);
+                filter.set(next);
+
+                log.debug("Bloom filter de revocación reconstruido: {} claves activas, {} purgadas",
+                        activeKeys.size(), purged);
+            }
+        } catch (RuntimeException e) {
+            // Se mantiene el filtro anterior (nunca perdemos revocaciones ya cargadas)
+            log.error("❌ No se pudo reconstruir el Bloom filter de revocación: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Falsos positivos observados sobre el total de comprobaciones de tokens no revocados.
+     */
+    double observedFalsePositiveRatio() {
+        double negatives = bloomMisses.count() + falsePositives.count();
+        return negatives == 0 ? 0.0 : falsePositives.count() / negatives;
+    }
+
+    private LocalDateTime now() {
+        return LocalDateTime.ofInstant(Instant.now(clock), ZoneOffset.UTC);
+    }
+
+    private static Counter checksCounter(MeterRegistry registry, String result) {
+        return Counter.builder("auth.revocation.checks")
+                .description("Comprobaciones de revocación por resultado")
+                .tag("result", result)
+                .register(registry);
+    }
+}
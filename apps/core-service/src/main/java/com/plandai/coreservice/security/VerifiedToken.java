@@ -0,0 +1,42 @@
+package com.plandai.coreservice.security;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Resultado inmutable de verificar un JWT una sola vez.
+ * Contiene el principal ya construido y la expiración del token.
+ *
+ * @param user      usuario autenticado (UUID ya parseado, email y nombre)
+ * @param expiresAt instante de expiración (claim exp)
+ * @param tokenId   claim jti si el token lo incluye (null si no)
+ */
+public record VerifiedToken(AuthenticatedUser user, Instant expiresAt, String tokenId) {
+
+    public VerifiedToken(UUID userId, String email, String name, Instant expiresAt) {
+        this(userId, email, name, expiresAt, null);
+    }
+
+    public VerifiedToken(UUID userId, String email, String name, Instant expiresAt, String tokenId) {
+        this(new AuthenticatedUser(userId, email, name), expiresAt, tokenId);
+    }
+
+    public UUID userId() {
+        return user.userId();
+    }
+
+    public String email() {
+        return user.email();
+    }
+
+    public String name() {
+        return user.displayName();
+    }
+
+    /**
+     * Indica si el token ya expiró respecto al instante dado.
+     */
+    public boolean isExpiredAt(Instant now) {
+        return !expiresAt.isAfter(now);
+    }
+}
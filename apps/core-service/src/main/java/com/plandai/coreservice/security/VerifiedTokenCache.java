@@ -0,0 +1,130 @@
+package com.plandai.coreservice.security;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Caché de tokens ya verificados.
+ *
+ * Cada token se parsea y se verifica (firma HMAC) una sola vez durante su vida:
+ * las peticiones siguientes con el mismo token solo calculan un SHA-256 y hacen
+ * un lookup en un ConcurrentHashMap.
+ *
+ * - La clave es el digest SHA-256 del token (nunca guardamos el token en claro).
+ * - Cada entrada caduca en el "exp" del propio token.
+ * - El tamaño está acotado: si se llena se purgan las entradas expiradas y,
+ *   si sigue llena, el token simplemente no se cachea (se verifica en cada petición).
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    });
+
+    private final Map<String, VerifiedToken> entries = new ConcurrentHashMap<>();
+    private final int maxEntries;
+    private final Clock clock;
+
+    @Autowired
+    public VerifiedTokenCache(@Value("${jwt.cache.max-entries:10000}") int maxEntries) {
+        this(maxEntries, Clock.systemUTC());
+    }
+
+    VerifiedTokenCache(int maxEntries, Clock clock) {
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+    }
+
+    /**
+     * Devuelve el token verificado desde la caché o lo verifica con el verifier
+     * y lo guarda hasta su expiración.
+     *
+     * @throws io.jsonwebtoken.JwtException si el verifier rechaza el token
+     */
+    public VerifiedToken resolve(String token, Function<String, VerifiedToken> verifier) {
+        return resolve(digest(token), token, verifier);
+    }
+
+    /**
+     * Igual que {@link #resolve(String, Function)} pero con el digest ya calculado
+     * (el filtro lo reutiliza también para comprobar la revocación).
+     */
+    public VerifiedToken resolve(String key, String token, Function<String, VerifiedToken> verifier) {
+        Instant now = clock.instant();
+
+        VerifiedToken cached = entries.get(key);
+        if (cached != null) {
+            if (!cached.isExpiredAt(now)) {
+                return cached;
+            }
+            entries.remove(key, cached);
+        }
+
+        VerifiedToken verified = verifier.apply(token);
+        if (verified.isExpiredAt(now)) {
+            // jjwt ya valida exp, pero no cacheamos nada que esté en el límite
+            return verified;
+        }
+
+        if (entries.size() >= maxEntries) {
+            purgeExpired(now);
+        }
+        if (entries.size() < maxEntries) {
+            entries.put(key, verified);
+        }
+        return verified;
+    }
+
+    /**
+     * Elimina un token concreto de la caché (por ejemplo al revocarlo).
+     */
+    public void invalidate(String token) {
+        entries.remove(digest(token));
+    }
+
+    /**
+     * Vacía la caché (por ejemplo al retirar una clave de firma).
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Número de tokens cacheados actualmente (incluye expirados aún no purgados).
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Elimina todas las entradas cuyo exp ya pasó.
+     */
+    public void purgeExpired(Instant now) {
+        entries.values().removeIf(token -> token.isExpiredAt(now));
+    }
+
+    /**
+     * SHA-256 del token en Base64 URL-safe (43 caracteres).
+     */
+    public static String digest(String token) {
+        MessageDigest md = SHA_256.get();
+        byte[] hash = md.digest(token.getBytes(StandardCharsets.UTF_8));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+    }
+}
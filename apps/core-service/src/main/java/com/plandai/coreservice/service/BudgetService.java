@@ -61,10 +61,10 @@ public class BudgetService {
 
     @Transactional
     public void deleteBudget(UUID id) {
-        if (!budgetRepository.existsById(id)) {
+        log.info("Deleting budget: {}", id);
+        // Una sola sentencia (sin existsById + deleteById)
+        if (budgetRepository.deleteByIdReturningCount(id) == 0) {
             throw new ResourceNotFoundException("Budget", id);
         }
-        log.info("Deleting budget: {}", id);
-        budgetRepository.deleteById(id);
     }
 }
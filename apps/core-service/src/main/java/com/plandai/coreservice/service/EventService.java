@@ -1,14 +1,25 @@
 package com.plandai.coreservice.service;
 
+import com.plandai.coreservice.activity.ActivityEntityType;
+import com.plandai.coreservice.activity.ActivityRecorder;
+import com.plandai.coreservice.activity.FieldDiff;
+import com.plandai.coreservice.changes.EventChange;
 import com.plandai.coreservice.exception.ResourceNotFoundException;
 import com.plandai.coreservice.model.Event;
+import com.plandai.coreservice.pagination.CursorPage;
+import com.plandai.coreservice.pagination.KeysetPagination;
+import com.plandai.coreservice.pagination.KeysetSort;
 import com.plandai.coreservice.repository.EventRepository;
+import jakarta.persistence.criteria.Predicate;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
@@ -17,12 +28,27 @@ import java.util.UUID;
 @Slf4j
 public class EventService {
 
+    private static final KeysetSort<Event, LocalDateTime> EVENTS_BY_START =
+            KeysetSort.asc("startTime", Event::getStartTime, LocalDateTime::parse, Event::getId);
+
     private final EventRepository eventRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ActivityRecorder activityRecorder;
 
     @Transactional
     public Event createEvent(Event event) {
         log.info("Creating new event: {}", event.getTitle());
-        return eventRepository.save(event);
+        Event saved = eventRepository.save(event);
+        eventPublisher.publishEvent(EventChange.saved(saved));
+        activityRecorder.created(ActivityEntityType.EVENT, saved.getId(), null, projectId(saved), FieldDiff.of()
+                .field("title", null, saved.getTitle())
+                .field("description", null, saved.getDescription())
+                .field("startTime", null, saved.getStartTime())
+                .field("endTime", null, saved.getEndTime())
+                .field("eventType", null, saved.getEventType())
+                .field("location", null, saved.getLocation())
+                .field("isAllDay", null, saved.getIsAllDay()));
+        return saved;
     }
 
     @Transactional(readOnly = true)
@@ -46,42 +72,79 @@ public class EventService {
         return eventRepository.findByProjectIdOrderByStartTimeAsc(projectId);
     }
 
+    // Si se indica proyecto se listan sus eventos; si no, los del usuario
+    @Transactional(readOnly = true)
+    public CursorPage<Event> getEventsPage(UUID userId, UUID projectId, LocalDateTime start, LocalDateTime end,
+                                           String cursor, Integer limit) {
+        Specification<Event> filter = (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (projectId != null) {
+                predicates.add(cb.equal(root.get("project").get("id"), projectId));
+            } else {
+                predicates.add(cb.equal(root.get("userId"), userId));
+            }
+            if (start != null && end != null) {
+                predicates.add(cb.between(root.get("startTime"), start, end));
+            }
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+        return KeysetPagination.page(eventRepository, filter, EVENTS_BY_START, cursor, limit);
+    }
+
     @Transactional
     public Event updateEvent(UUID id, Event eventDetails) {
         Event event = getEventById(id);
-        
+        FieldDiff diff = FieldDiff.of();
+
         if (eventDetails.getTitle() != null) {
+            diff.field("title", event.getTitle(), eventDetails.getTitle());
             event.setTitle(eventDetails.getTitle());
         }
         if (eventDetails.getDescription() != null) {
+            diff.field("description", event.getDescription(), eventDetails.getDescription());
             event.setDescription(eventDetails.getDescription());
         }
         if (eventDetails.getStartTime() != null) {
+            diff.field("startTime", event.getStartTime(), eventDetails.getStartTime());
             event.setStartTime(eventDetails.getStartTime());
         }
         if (eventDetails.getEndTime() != null) {
+            diff.field("endTime", event.getEndTime(), eventDetails.getEndTime());
             event.setEndTime(eventDetails.getEndTime());
         }
         if (eventDetails.getEventType() != null) {
+            diff.field("eventType", event.getEventType(), eventDetails.getEventType());
             event.setEventType(eventDetails.getEventType());
         }
         if (eventDetails.getLocation() != null) {
+            diff.field("location", event.getLocation(), eventDetails.getLocation());
             event.setLocation(eventDetails.getLocation());
         }
         if (eventDetails.getIsAllDay() != null) {
+            diff.field("isAllDay", event.getIsAllDay(), eventDetails.getIsAllDay());
             event.setIsAllDay(eventDetails.getIsAllDay());
         }
 
         log.info("Updating event: {}", id);
-        return eventRepository.save(event);
+        Event saved = eventRepository.save(event);
+        eventPublisher.publishEvent(EventChange.saved(saved));
+        activityRecorder.updated(ActivityEntityType.EVENT, id, null, projectId(saved), diff);
+        return saved;
     }
 
     @Transactional
     public void deleteEvent(UUID id) {
-        if (!eventRepository.existsById(id)) {
+        log.info("Deleting event: {}", id);
+        // Una sola sentencia (sin existsById + deleteById)
+        if (eventRepository.deleteByIdReturningCount(id) == 0) {
             throw new ResourceNotFoundException("Event", id);
         }
-        log.info("Deleting event: {}", id);
-        eventRepository.deleteById(id);
+        eventPublisher.publishEvent(EventChange.deleted(id));
+        activityRecorder.deleted(ActivityEntityType.EVENT, id, null, null);
+    }
+
+    // Los eventos personales no tienen proyecto (ni workspace)
+    private static UUID projectId(Event event) {
+        return event.getProject() != null ? event.getProject().getId() : null;
     }
 }
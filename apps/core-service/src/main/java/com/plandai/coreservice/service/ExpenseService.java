@@ -1,16 +1,25 @@
 package com.plandai.coreservice.service;
 
+import com.plandai.coreservice.activity.ActivityEntityType;
+import com.plandai.coreservice.activity.ActivityRecorder;
+import com.plandai.coreservice.activity.FieldDiff;
 import com.plandai.coreservice.exception.ResourceNotFoundException;
 import com.plandai.coreservice.model.Expense;
 import com.plandai.coreservice.model.ExpenseCategory;
+import com.plandai.coreservice.pagination.CursorPage;
+import com.plandai.coreservice.pagination.KeysetPagination;
+import com.plandai.coreservice.pagination.KeysetSort;
 import com.plandai.coreservice.repository.ExpenseRepository;
+import jakarta.persistence.criteria.Predicate;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
@@ -19,13 +28,28 @@ import java.util.UUID;
 @Slf4j
 public class ExpenseService {
 
+    // Más recientes primero; el id desempata gastos del mismo día
+    private static final KeysetSort<Expense, LocalDate> EXPENSES_BY_DATE_DESC =
+            KeysetSort.desc("expenseDate", Expense::getExpenseDate, LocalDate::parse, Expense::getId);
+
     private final ExpenseRepository expenseRepository;
     private final ExpenseCategoryService expenseCategoryService;
+    private final ActivityRecorder activityRecorder;
 
     @Transactional
     public Expense createExpense(Expense expense) {
         log.info("Creating expense: {} for user: {}", expense.getAmount(), expense.getUserId());
-        return expenseRepository.save(expense);
+        Expense saved = expenseRepository.save(expense);
+        // Gastos personales: sin workspace, solo aparecen en el feed del usuario
+        activityRecorder.created(ActivityEntityType.EXPENSE, saved.getId(), null, null, FieldDiff.of()
+                .field("amount", null, saved.getAmount())
+                .field("description", null, saved.getDescription())
+                .field("expenseDate", null, saved.getExpenseDate())
+                .field("paymentMethod", null, saved.getPaymentMethod())
+                .field("categoryId", null, categoryId(saved.getCategory()))
+                .field("isRecurring", null, saved.getIsRecurring())
+                .field("recurrencePeriod", null, saved.getRecurrencePeriod()));
+        return saved;
     }
 
     @Transactional(readOnly = true)
@@ -39,6 +63,23 @@ public class ExpenseService {
         return expenseRepository.findByUserIdOrderByExpenseDateDesc(userId);
     }
 
+    @Transactional(readOnly = true)
+    public CursorPage<Expense> getExpensesPage(UUID userId, UUID categoryId, LocalDate startDate, LocalDate endDate,
+                                               String cursor, Integer limit) {
+        Specification<Expense> filter = (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            predicates.add(cb.equal(root.get("userId"), userId));
+            if (categoryId != null) {
+                predicates.add(cb.equal(root.get("category").get("id"), categoryId));
+            }
+            if (startDate != null && endDate != null) {
+                predicates.add(cb.between(root.get("expenseDate"), startDate, endDate));
+            }
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+        return KeysetPagination.page(expenseRepository, filter, EXPENSES_BY_DATE_DESC, cursor, limit);
+    }
+
     @Transactional(readOnly = true)
     public List<Expense> getExpensesByUserIdAndDateRange(UUID userId, LocalDate startDate, LocalDate endDate) {
         return expenseRepository.findByUserIdAndExpenseDateBetweenOrderByExpenseDateDesc(userId, startDate, endDate);
@@ -64,39 +105,54 @@ public class ExpenseService {
     @Transactional
     public Expense updateExpense(UUID id, Expense expenseDetails) {
         Expense expense = getExpenseById(id);
-        
+        FieldDiff diff = FieldDiff.of();
+
         if (expenseDetails.getAmount() != null) {
+            diff.field("amount", expense.getAmount(), expenseDetails.getAmount());
             expense.setAmount(expenseDetails.getAmount());
         }
         if (expenseDetails.getDescription() != null) {
+            diff.field("description", expense.getDescription(), expenseDetails.getDescription());
             expense.setDescription(expenseDetails.getDescription());
         }
         if (expenseDetails.getExpenseDate() != null) {
+            diff.field("expenseDate", expense.getExpenseDate(), expenseDetails.getExpenseDate());
             expense.setExpenseDate(expenseDetails.getExpenseDate());
         }
         if (expenseDetails.getPaymentMethod() != null) {
+            diff.field("paymentMethod", expense.getPaymentMethod(), expenseDetails.getPaymentMethod());
             expense.setPaymentMethod(expenseDetails.getPaymentMethod());
         }
         if (expenseDetails.getCategory() != null) {
+            diff.field("categoryId", categoryId(expense.getCategory()), categoryId(expenseDetails.getCategory()));
             expense.setCategory(expenseDetails.getCategory());
         }
         if (expenseDetails.getIsRecurring() != null) {
+            diff.field("isRecurring", expense.getIsRecurring(), expenseDetails.getIsRecurring());
             expense.setIsRecurring(expenseDetails.getIsRecurring());
         }
         if (expenseDetails.getRecurrencePeriod() != null) {
+            diff.field("recurrencePeriod", expense.getRecurrencePeriod(), expenseDetails.getRecurrencePeriod());
             expense.setRecurrencePeriod(expenseDetails.getRecurrencePeriod());
         }
 
         log.info("Updating expense: {}", id);
-        return expenseRepository.save(expense);
+        Expense saved = expenseRepository.save(expense);
+        activityRecorder.updated(ActivityEntityType.EXPENSE, id, null, null, diff);
+        return saved;
     }
 
     @Transactional
     public void deleteExpense(UUID id) {
-        if (!expenseRepository.existsById(id)) {
+        log.info("Deleting expense: {}", id);
+        // Una sola sentencia (sin existsById + deleteById)
+        if (expenseRepository.deleteByIdReturningCount(id) == 0) {
             throw new ResourceNotFoundException("Expense", id);
         }
-        log.info("Deleting expense: {}", id);
-        expenseRepository.deleteById(id);
+        activityRecorder.deleted(ActivityEntityType.EXPENSE, id, null, null);
+    }
+
+    private static UUID categoryId(ExpenseCategory category) {
+        return category != null ? category.getId() : null;
     }
 }
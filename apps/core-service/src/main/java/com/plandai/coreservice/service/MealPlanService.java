@@ -2,13 +2,19 @@ package com.plandai.coreservice.service;
 
 import com.plandai.coreservice.exception.ResourceNotFoundException;
 import com.plandai.coreservice.model.MealPlan;
+import com.plandai.coreservice.pagination.CursorPage;
+import com.plandai.coreservice.pagination.KeysetPagination;
+import com.plandai.coreservice.pagination.KeysetSort;
 import com.plandai.coreservice.repository.MealPlanRepository;
+import jakarta.persistence.criteria.Predicate;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
@@ -17,6 +23,9 @@ import java.util.UUID;
 @Slf4j
 public class MealPlanService {
 
+    private static final KeysetSort<MealPlan, LocalDate> MEAL_PLANS_BY_DATE =
+            KeysetSort.asc("mealDate", MealPlan::getMealDate, LocalDate::parse, MealPlan::getId);
+
     private final MealPlanRepository mealPlanRepository;
 
     @Transactional
@@ -37,6 +46,20 @@ public class MealPlanService {
         return mealPlanRepository.findByUserIdAndMealDateBetweenOrderByMealDateAsc(userId, startDate, endDate);
     }
 
+    @Transactional(readOnly = true)
+    public CursorPage<MealPlan> getMealPlansPage(UUID userId, LocalDate startDate, LocalDate endDate,
+                                                 String cursor, Integer limit) {
+        Specification<MealPlan> filter = (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            predicates.add(cb.equal(root.get("userId"), userId));
+            if (startDate != null && endDate != null) {
+                predicates.add(cb.between(root.get("mealDate"), startDate, endDate));
+            }
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+        return KeysetPagination.page(mealPlanRepository, filter, MEAL_PLANS_BY_DATE, cursor, limit);
+    }
+
     @Transactional(readOnly = true)
     public List<MealPlan> getMealPlansByDate(UUID userId, LocalDate date) {
         return mealPlanRepository.findByUserIdAndMealDateOrderByMealTypeAsc(userId, date);
@@ -68,10 +91,10 @@ public class MealPlanService {
 
     @Transactional
     public void deleteMealPlan(UUID id) {
-        if (!mealPlanRepository.existsById(id)) {
+        log.info("Deleting meal plan: {}", id);
+        // Una sola sentencia (sin existsById + deleteById)
+        if (mealPlanRepository.deleteByIdReturningCount(id) == 0) {
             throw new ResourceNotFoundException("MealPlan", id);
         }
-        log.info("Deleting meal plan: {}", id);
-        mealPlanRepository.deleteById(id);
     }
 }
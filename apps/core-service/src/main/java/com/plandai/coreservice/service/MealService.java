@@ -2,13 +2,20 @@ package com.plandai.coreservice.service;
 
 import com.plandai.coreservice.exception.ResourceNotFoundException;
 import com.plandai.coreservice.model.Meal;
+import com.plandai.coreservice.pagination.CursorPage;
+import com.plandai.coreservice.pagination.KeysetPagination;
+import com.plandai.coreservice.pagination.KeysetSort;
 import com.plandai.coreservice.repository.MealRepository;
+import jakarta.persistence.criteria.Predicate;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Function;
 import java.util.UUID;
 
 @Service
@@ -16,6 +23,9 @@ import java.util.UUID;
 @Slf4j
 public class MealService {
 
+    private static final KeysetSort<Meal, String> MEALS_BY_NAME =
+            KeysetSort.asc("name", Meal::getName, Function.identity(), Meal::getId);
+
     private final MealRepository mealRepository;
 
     @Transactional
@@ -37,6 +47,28 @@ public class MealService {
         return mealRepository.findByUserIdIsNullOrUserIdOrderByNameAsc(userId);
     }
 
+    // Mismos criterios que el listado completo: públicas, favoritas, por tipo o disponibles
+    @Transactional(readOnly = true)
+    public CursorPage<Meal> getMealsPage(UUID userId, Meal.MealType mealType, boolean favoritesOnly,
+                                         boolean publicOnly, String cursor, Integer limit) {
+        Specification<Meal> filter = (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (publicOnly || userId == null) {
+                predicates.add(cb.isNull(root.get("userId")));
+            } else if (favoritesOnly) {
+                predicates.add(cb.equal(root.get("userId"), userId));
+                predicates.add(cb.isTrue(root.get("isFavorite")));
+            } else if (mealType != null) {
+                predicates.add(cb.equal(root.get("userId"), userId));
+                predicates.add(cb.equal(root.get("mealType"), mealType));
+            } else {
+                predicates.add(cb.or(cb.isNull(root.get("userId")), cb.equal(root.get("userId"), userId)));
+            }
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+        return KeysetPagination.page(mealRepository, filter, MEALS_BY_NAME, cursor, limit);
+    }
+
     @Transactional(readOnly = true)
     public List<Meal> getPublicMeals() {
         return mealRepository.findByUserIdIsNullOrderByNameAsc();
@@ -0,0 +1,125 @@
+package com.plandai.coreservice.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.plandai.coreservice.activity.ActivityAction;
+import com.plandai.coreservice.activity.ActivityEntityType;
+import com.plandai.coreservice.dto.ActivityDto;
+import com.plandai.coreservice.pagination.Cursor;
+import com.plandai.coreservice.pagination.CursorPage;
+import com.plandai.coreservice.pagination.KeysetPagination;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Feeds de actividad (lo más reciente primero) por workspace y por usuario.
+ *
+ * Paginación por cursor (occurred_at, id) sobre los índices de V14: cada página
+ * lee solo "limit" filas del principio de cada partición (Merge Append), sin OFFSET.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ActivityFeedService {
+
+    private static final String SELECT = """
+            SELECT id, occurred_at, workspace_id, actor_id, entity_type, entity_id, action, changes
+              FROM core_schema.activity_log
+            """;
+
+    private static final String WORKSPACE_FIRST_SQL = SELECT + """
+             WHERE workspace_id = ?
+             ORDER BY occurred_at DESC, id DESC
+             LIMIT ?
+            """;
+
+    private static final String WORKSPACE_AFTER_SQL = SELECT + """
+             WHERE workspace_id = ? AND (occurred_at, id) < (?, ?)
+             ORDER BY occurred_at DESC, id DESC
+             LIMIT ?
+            """;
+
+    private static final String ACTOR_FIRST_SQL = SELECT + """
+             WHERE actor_id = ?
+             ORDER BY occurred_at DESC, id DESC
+             LIMIT ?
+            """;
+
+    private static final String ACTOR_AFTER_SQL = SELECT + """
+             WHERE actor_id = ? AND (occurred_at, id) < (?, ?)
+             ORDER BY occurred_at DESC, id DESC
+             LIMIT ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Actividad de un workspace: el propio workspace, sus proyectos, tareas y eventos.
+     */
+    public CursorPage<ActivityDto> getWorkspaceFeed(UUID workspaceId, String cursor, Integer limit) {
+        log.info("🕘 Obteniendo actividad del workspace: {}", workspaceId);
+        return page(WORKSPACE_FIRST_SQL, WORKSPACE_AFTER_SQL, workspaceId, cursor, limit);
+    }
+
+    /**
+     * Cambios hechos por un usuario (incluye sus gastos, que no tienen workspace).
+     */
+    public CursorPage<ActivityDto> getUserFeed(UUID userId, String cursor, Integer limit) {
+        log.info("🕘 Obteniendo actividad del usuario: {}", userId);
+        return page(ACTOR_FIRST_SQL, ACTOR_AFTER_SQL, userId, cursor, limit);
+    }
+
+    private CursorPage<ActivityDto> page(String firstSql, String afterSql, UUID ownerId, String cursor,
+                                         Integer limit) {
+        int pageSize = KeysetPagination.clampLimit(limit);
+        Cursor after = Cursor.decode(cursor);
+
+        List<ActivityDto> rows = after == null
+                ? jdbcTemplate.query(firstSql, this::toDto, ownerId, pageSize + 1)
+                : jdbcTemplate.query(afterSql, this::toDto, ownerId, Timestamp.valueOf(parseKey(after)),
+                        after.id(), pageSize + 1);
+
+        if (rows.size() <= pageSize) {
+            return new CursorPage<>(rows, null);
+        }
+        List<ActivityDto> page = List.copyOf(rows.subList(0, pageSize));
+        ActivityDto last = page.get(pageSize - 1);
+        return new CursorPage<>(page, new Cursor(last.occurredAt().toString(), last.id()).encode());
+    }
+
+    private static LocalDateTime parseKey(Cursor cursor) {
+        try {
+            return LocalDateTime.parse(cursor.key());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Cursor inválido", e);
+        }
+    }
+
+    private ActivityDto toDto(ResultSet rs, int rowNum) throws SQLException {
+        String changes = rs.getString("changes");
+        try {
+            return new ActivityDto(
+                    rs.getObject("id", UUID.class),
+                    rs.getTimestamp("occurred_at").toLocalDateTime(),
+                    rs.getObject("workspace_id", UUID.class),
+                    rs.getObject("actor_id", UUID.class),
+                    ActivityEntityType.valueOf(rs.getString("entity_type")),
+                    rs.getObject("entity_id", UUID.class),
+                    ActivityAction.valueOf(rs.getString("action")),
+                    changes != null ? objectMapper.readTree(changes) : null);
+        } catch (JsonProcessingException e) {
+            throw new SQLException("Diff de actividad ilegible", e);
+        }
+    }
+}
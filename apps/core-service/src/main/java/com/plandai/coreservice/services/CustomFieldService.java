@@ -0,0 +1,270 @@
+package com.plandai.coreservice.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.plandai.coreservice.customfields.CustomFieldFilter;
+import com.plandai.coreservice.customfields.CustomFieldQuery;
+import com.plandai.coreservice.customfields.CustomFieldValues;
+import com.plandai.coreservice.dto.TaskFilterDto;
+import com.plandai.coreservice.entities.CustomFieldDefinition;
+import com.plandai.coreservice.entities.CustomFieldDefinition.FieldType;
+import com.plandai.coreservice.exception.ResourceNotFoundException;
+import com.plandai.coreservice.repositories.CustomFieldDefinitionRepository;
+import com.plandai.coreservice.repositories.ProjectRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Servicio de campos personalizados de tareas.
+ *
+ * - Cada proyecto define sus campos (custom_field_definitions, V19); los valores van en
+ *   tasks.custom_fields y se validan contra esas definiciones al escribirlos.
+ * - Los filtros ?cf=clave:operador:valor se validan igual y se traducen a jsonpath
+ *   (custom_fields @@ ...), que resuelve el índice GIN sin leer tareas de más.
+ */
+@Service
+@Slf4j
+public class CustomFieldService {
+
+    private static final String STRIP_KEY_SQL = """
+            UPDATE core_schema.tasks SET custom_fields = custom_fields - ?
+             WHERE project_id = ? AND jsonb_exists(custom_fields, ?)
+            """;
+
+    private static final String STRIP_ARCHIVED_KEY_SQL = """
+            UPDATE core_schema.tasks_archive SET custom_fields = custom_fields - ?
+             WHERE project_id = ? AND jsonb_exists(custom_fields, ?)
+            """;
+
+    private static final int MAX_OPTIONS = 100;
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    /**
+     * Cambio parcial validado: claves a poner (ya normalizadas) y claves a quitar (valor null).
+     * Las claves a quitar no necesitan definición: así se limpian valores de campos que ya no existen.
+     */
+    public record ValuesPatch(Map<String, Object> set, List<String> remove) {
+
+        public boolean isEmpty() {
+            return set.isEmpty() && remove.isEmpty();
+        }
+
+        /**
+         * Parámetros de TaskRepository.updateCustomFieldsReturning (objeto y array JSON).
+         */
+        public String setJson() {
+            return toJson(set);
+        }
+
+        public String removeJson() {
+            return toJson(remove);
+        }
+    }
+
+    private final CustomFieldDefinitionRepository definitionRepository;
+    private final ProjectRepository projectRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final int maxPerProject;
+
+    public CustomFieldService(CustomFieldDefinitionRepository definitionRepository,
+                              ProjectRepository projectRepository,
+                              JdbcTemplate jdbcTemplate,
+                              @Value("${custom-fields.max-per-project:50}") int maxPerProject) {
+        this.definitionRepository = definitionRepository;
+        this.projectRepository = projectRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.maxPerProject = maxPerProject;
+    }
+
+    /**
+     * Define un campo nuevo en un proyecto.
+     *
+     * @throws IllegalArgumentException si la clave ya existe, se supera el máximo por proyecto
+     *                                  o un SELECT no trae opciones
+     */
+    @Transactional
+    public CustomFieldDefinition createDefinition(UUID projectId, CustomFieldDefinition definition) {
+        log.info("🧩 Creando campo personalizado: {} ({}) en proyecto: {}",
+                definition.getKey(), definition.getType(), projectId);
+        if (!projectRepository.existsById(projectId)) {
+            throw new ResourceNotFoundException("Proyecto", projectId);
+        }
+        if (definitionRepository.existsByProjectIdAndKey(projectId, definition.getKey())) {
+            throw new IllegalArgumentException("Ya existe un campo con la clave '" + definition.getKey() + "'");
+        }
+        if (definitionRepository.findByProjectIdOrderByKeyAsc(projectId).size() >= maxPerProject) {
+            throw new IllegalArgumentException("Un proyecto no puede tener más de " + maxPerProject + " campos");
+        }
+        if (definition.getType() == FieldType.SELECT) {
+            List<String> options = definition.getOptions() == null ? List.of()
+                    : List.copyOf(new LinkedHashSet<>(definition.getOptions()));
+            if (options.isEmpty() || options.size() > MAX_OPTIONS
+                    || options.stream().anyMatch(option -> option == null || option.isBlank()
+                    || option.length() > CustomFieldValues.MAX_TEXT_LENGTH)) {
+                throw new IllegalArgumentException(
+                        "Un campo SELECT necesita entre 1 y " + MAX_OPTIONS + " opciones no vacías");
+            }
+            definition.setOptions(options);
+        } else {
+            definition.setOptions(null);
+        }
+        definition.setId(null);
+        definition.setProjectId(projectId);
+        CustomFieldDefinition saved = definitionRepository.save(definition);
+        log.info("✅ Campo personalizado creado con ID: {}", saved.getId());
+        return saved;
+    }
+
+    /**
+     * Elimina un campo y quita su valor de las tareas del proyecto (también las archivadas).
+     */
+    @Transactional
+    public void deleteDefinition(UUID projectId, UUID id) {
+        log.info("🗑️ Eliminando campo personalizado: {} del proyecto: {}", id, projectId);
+        CustomFieldDefinition definition = definitionRepository.findById(id)
+                .filter(found -> found.getProjectId().equals(projectId))
+                .orElseThrow(() -> new ResourceNotFoundException("Campo personalizado", id));
+        definitionRepository.delete(definition);
+        String key = definition.getKey();
+        int tasks = jdbcTemplate.update(STRIP_KEY_SQL, key, definition.getProjectId(), key);
+        jdbcTemplate.update(STRIP_ARCHIVED_KEY_SQL, key, definition.getProjectId(), key);
+        log.info("✅ Campo personalizado eliminado ({} tareas tenían valor)", tasks);
+    }
+
+    @Transactional(readOnly = true)
+    public List<CustomFieldDefinition> getDefinitions(UUID projectId) {
+        log.info("🧩 Obteniendo campos personalizados del proyecto: {}", projectId);
+        return definitionRepository.findByProjectIdOrderByKeyAsc(projectId);
+    }
+
+    /**
+     * Valores de una tarea nueva, validados y en forma canónica (las claves con null se ignoran).
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> validateValues(UUID projectId, Map<String, Object> values) {
+        if (values == null || values.isEmpty()) {
+            return new HashMap<>();
+        }
+        return normalizeValues(definitionsByKey(projectId), values);
+    }
+
+    /**
+     * Definiciones de varios proyectos por clave, con una sola consulta (altas masivas).
+     */
+    @Transactional(readOnly = true)
+    public Map<UUID, Map<String, CustomFieldDefinition>> definitionsByProject(Collection<UUID> projectIds) {
+        if (projectIds.isEmpty()) {
+            return Map.of();
+        }
+        return definitionRepository.findByProjectIdIn(projectIds).stream()
+                .collect(Collectors.groupingBy(CustomFieldDefinition::getProjectId,
+                        Collectors.toMap(CustomFieldDefinition::getKey, Function.identity())));
+    }
+
+    /**
+     * Como validateValues con las definiciones ya cargadas. Estático (fuera del proxy
+     * transaccional): un valor inválido no marca la transacción para rollback.
+     *
+     * @throws IllegalArgumentException si una clave no está definida o su valor no es válido
+     */
+    static Map<String, Object> normalizeValues(Map<String, CustomFieldDefinition> definitions,
+                                               Map<String, Object> values) {
+        Map<String, Object> normalized = new HashMap<>();
+        if (values == null) {
+            return normalized;
+        }
+        values.forEach((key, value) -> {
+            if (value != null) {
+                normalized.put(key, CustomFieldValues.normalize(definition(definitions, key), value));
+            }
+        });
+        return normalized;
+    }
+
+    /**
+     * Cambio parcial de una tarea, validado: claves de "patch" con valor a null = quitar.
+     */
+    @Transactional(readOnly = true)
+    public ValuesPatch validatePatch(UUID projectId, Map<String, Object> patch) {
+        Map<String, CustomFieldDefinition> definitions = definitionsByKey(projectId);
+        Map<String, Object> set = new LinkedHashMap<>();
+        List<String> remove = patch.entrySet().stream()
+                .filter(entry -> entry.getValue() == null)
+                .map(Map.Entry::getKey)
+                .toList();
+        patch.forEach((key, value) -> {
+            if (value != null) {
+                set.put(key, CustomFieldValues.normalize(definition(definitions, key), value));
+            }
+        });
+        return new ValuesPatch(set, remove);
+    }
+
+    /**
+     * Filtros y orden por campos personalizados del listado (null si no hay ninguno).
+     *
+     * @throws IllegalArgumentException si falta projectId o algún filtro no es válido para su campo
+     */
+    @Transactional(readOnly = true)
+    public CustomFieldQuery query(TaskFilterDto filter) {
+        boolean hasFilters = filter.getCf() != null && !filter.getCf().isEmpty();
+        boolean hasSort = filter.getCfSort() != null && !filter.getCfSort().isBlank();
+        if (!hasFilters && !hasSort) {
+            return null;
+        }
+        if (filter.getProjectId() == null) {
+            throw new IllegalArgumentException("Para filtrar u ordenar por campos personalizados indica projectId");
+        }
+        Map<String, CustomFieldDefinition> definitions = definitionsByKey(filter.getProjectId());
+        List<String> jsonPaths = hasFilters
+                ? filter.getCf().stream().map(text -> CustomFieldFilter.parse(text).toJsonPath(definitions)).toList()
+                : List.of();
+        if (!hasSort) {
+            return new CustomFieldQuery(jsonPaths, null, false, false);
+        }
+
+        String[] sort = filter.getCfSort().trim().split(":", 2);
+        boolean descending = sort.length == 2 && sort[1].equalsIgnoreCase("desc");
+        if (sort.length == 2 && !descending && !sort[1].equalsIgnoreCase("asc")) {
+            throw new IllegalArgumentException("Orden no válido en cfSort (asc o desc): " + filter.getCfSort());
+        }
+        CustomFieldDefinition definition = definition(definitions, sort[0]);
+        return new CustomFieldQuery(jsonPaths, definition.getKey(), definition.getType() == FieldType.NUMBER,
+                descending);
+    }
+
+    private static String toJson(Object value) {
+        try {
+            return JSON.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar el valor de los campos personalizados", e);
+        }
+    }
+
+    private Map<String, CustomFieldDefinition> definitionsByKey(UUID projectId) {
+        return definitionRepository.findByProjectIdOrderByKeyAsc(projectId).stream()
+                .collect(Collectors.toMap(CustomFieldDefinition::getKey, Function.identity()));
+    }
+
+    private static CustomFieldDefinition definition(Map<String, CustomFieldDefinition> definitions, String key) {
+        CustomFieldDefinition definition = definitions.get(key);
+        if (definition == null) {
+            throw new IllegalArgumentException("El proyecto no tiene el campo personalizado '" + key + "'");
+        }
+        return definition;
+    }
+}
@@ -1,5 +1,8 @@
 package com.plandai.coreservice.services;
 
+import com.plandai.coreservice.activity.ActivityEntityType;
+import com.plandai.coreservice.activity.ActivityRecorder;
+import com.plandai.coreservice.activity.FieldDiff;
 import com.plandai.coreservice.entities.Project;
 import com.plandai.coreservice.entities.Workspace;
 import com.plandai.coreservice.repositories.ProjectRepository;
@@ -21,6 +24,7 @@ public class ProjectService {
 
     private final ProjectRepository projectRepository;
     private final WorkspaceService workspaceService;  // Inyectamos otro servicio
+    private final ActivityRecorder activityRecorder;
 
     /**
      * Crea un nuevo proyecto dentro de un workspace.
@@ -47,6 +51,10 @@ public class ProjectService {
         project.setWorkspace(workspace);
 
         Project savedProject = projectRepository.save(project);
+        activityRecorder.created(ActivityEntityType.PROJECT, savedProject.getId(), workspaceId, null,
+                FieldDiff.of()
+                        .field("name", null, savedProject.getName())
+                        .field("description", null, savedProject.getDescription()));
         log.info("✅ Proyecto creado exitosamente con ID: {}", savedProject.getId());
         return savedProject;
     }
@@ -90,12 +98,16 @@ public class ProjectService {
         log.info("🔄 Actualizando proyecto: {}", id);
 
         Project existingProject = getProjectById(id);
+        FieldDiff diff = FieldDiff.of()
+                .field("name", existingProject.getName(), updatedProject.getName())
+                .field("description", existingProject.getDescription(), updatedProject.getDescription());
 
         // Actualizar campos
         existingProject.setName(updatedProject.getName());
         existingProject.setDescription(updatedProject.getDescription());
 
         Project saved = projectRepository.save(existingProject);
+        activityRecorder.updated(ActivityEntityType.PROJECT, id, saved.getWorkspace().getId(), null, diff);
         log.info("✅ Proyecto actualizado: {}", saved.getName());
         return saved;
     }
@@ -115,6 +127,7 @@ public class ProjectService {
         }
 
         projectRepository.deleteById(id);
+        activityRecorder.deleted(ActivityEntityType.PROJECT, id, null, null);
         log.info("✅ Proyecto eliminado exitosamente");
     }
 
@@ -0,0 +1,195 @@
+package com.plandai.coreservice.services;
+
+import com.plandai.coreservice.entities.ProjectTaskStats;
+import com.plandai.coreservice.exception.ResourceNotFoundException;
+import com.plandai.coreservice.repositories.ProjectRepository;
+import com.plandai.coreservice.repositories.ProjectTaskStatsRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Servicio de estadísticas de tareas por proyecto.
+ *
+ * - Lectura en O(1) por proyecto: una fila de project_task_stats (mantenida por trigger, V8).
+ *   Incluye las tareas archivadas: archivar o restaurar no cambia los contadores (V26).
+ * - Reconciliación periódica: recalcula los contadores reales por lotes de proyectos
+ *   y corrige solo las filas que difieren (incluye las tareas que vencen con el paso de los días).
+ */
+@Service
+@Slf4j
+public class ProjectTaskStatsService {
+
+    /**
+     * Bloquea las filas del lote para que ningún trigger concurrente escriba entre el
+     * recálculo y la corrección (los writers esperan y aplican su delta después).
+     */
+    private static final String LOCK_SQL = """
+            SELECT project_id FROM core_schema.project_task_stats
+             WHERE project_id IN (:ids)
+             ORDER BY project_id
+               FOR UPDATE
+            """;
+
+    /**
+     * Recalcula el lote y escribe solo las filas con deriva (o que faltan).
+     * Las tareas archivadas siguen contando (V26). Devuelve los proyectos corregidos.
+     */
+    private static final String RECONCILE_SQL = """
+            INSERT INTO core_schema.project_task_stats AS s
+                (project_id, total_count, todo_count, in_progress_count, done_count,
+                 low_count, medium_count, high_count, urgent_count, overdue_count,
+                 last_activity_at, updated_at)
+            SELECT p.id,
+                   count(t.id),
+                   count(t.id) FILTER (WHERE t.status = 'TO_DO'),
+                   count(t.id) FILTER (WHERE t.status = 'IN_PROGRESS'),
+                   count(t.id) FILTER (WHERE t.status = 'DONE'),
+                   count(t.id) FILTER (WHERE t.priority = 'LOW'),
+                   count(t.id) FILTER (WHERE t.priority = 'MEDIUM'),
+                   count(t.id) FILTER (WHERE t.priority = 'HIGH'),
+                   count(t.id) FILTER (WHERE t.priority = 'URGENT'),
+                   count(t.id) FILTER (WHERE t.status <> 'DONE' AND t.due_date < CURRENT_DATE),
+                   max(t.updated_at),
+                   CURRENT_TIMESTAMP
+              FROM core_schema.projects p
+              LEFT JOIN (SELECT id, project_id, status, priority, due_date, updated_at
+                           FROM core_schema.tasks
+                          UNION ALL
+                         SELECT id, project_id, status, priority, due_date, updated_at
+                           FROM core_schema.tasks_archive) t ON t.project_id = p.id
+             WHERE p.id IN (:ids)
+             GROUP BY p.id
+            ON CONFLICT (project_id) DO UPDATE SET
+                total_count = EXCLUDED.total_count,
+                todo_count = EXCLUDED.todo_count,
+                in_progress_count = EXCLUDED.in_progress_count,
+                done_count = EXCLUDED.done_count,
+                low_count = EXCLUDED.low_count,
+                medium_count = EXCLUDED.medium_count,
+                high_count = EXCLUDED.high_count,
+                urgent_count = EXCLUDED.urgent_count,
+                overdue_count = EXCLUDED.overdue_count,
+                last_activity_at = COALESCE(s.last_activity_at, EXCLUDED.last_activity_at),
+                updated_at = CURRENT_TIMESTAMP
+             WHERE (s.total_count, s.todo_count, s.in_progress_count, s.done_count,
+                    s.low_count, s.medium_count, s.high_count, s.urgent_count, s.overdue_count)
+                   IS DISTINCT FROM
+                   (EXCLUDED.total_count, EXCLUDED.todo_count, EXCLUDED.in_progress_count, EXCLUDED.done_count,
+                    EXCLUDED.low_count, EXCLUDED.medium_count, EXCLUDED.high_count, EXCLUDED.urgent_count,
+                    EXCLUDED.overdue_count)
+            RETURNING s.project_id
+            """;
+
+    private final ProjectTaskStatsRepository statsRepository;
+    private final ProjectRepository projectRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter driftRepaired;
+    private final int batchSize;
+
+    public ProjectTaskStatsService(ProjectTaskStatsRepository statsRepository,
+                                   ProjectRepository projectRepository,
+                                   NamedParameterJdbcTemplate namedJdbcTemplate,
+                                   TransactionTemplate transactionTemplate,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${project-stats.reconcile.batch-size:500}") int batchSize) {
+        this.statsRepository = statsRepository;
+        this.projectRepository = projectRepository;
+        this.namedJdbcTemplate = namedJdbcTemplate;
+        this.jdbcTemplate = namedJdbcTemplate.getJdbcTemplate();
+        this.transactionTemplate = transactionTemplate;
+        this.driftRepaired = Counter.builder("project.stats.drift_repaired")
+                .description("Proyectos cuyas estadísticas corrigió la reconciliación")
+                .register(meterRegistry);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Obtiene las estadísticas de un proyecto.
+     */
+    @Transactional(readOnly = true)
+    public ProjectTaskStats getStats(UUID projectId) {
+        log.info("📊 Obteniendo estadísticas del proyecto: {}", projectId);
+        return statsRepository.findById(projectId).orElseGet(() -> {
+            if (!projectRepository.existsById(projectId)) {
+                throw new ResourceNotFoundException("Proyecto", projectId);
+            }
+            return ProjectTaskStats.empty(projectId);
+        });
+    }
+
+    /**
+     * Obtiene las estadísticas de todos los proyectos de un workspace.
+     * Los proyectos sin ninguna tarea escrita todavía no tienen fila.
+     */
+    @Transactional(readOnly = true)
+    public List<ProjectTaskStats> getStatsByWorkspace(UUID workspaceId) {
+        log.info("📊 Obteniendo estadísticas de los proyectos del workspace: {}", workspaceId);
+        return statsRepository.findByWorkspaceId(workspaceId);
+    }
+
+    /**
+     * Número total de tareas de un proyecto sin COUNT(*).
+     */
+    @Transactional(readOnly = true)
+    public long countTasks(UUID projectId) {
+        return statsRepository.findById(projectId).map(ProjectTaskStats::getTotalCount).orElse(0L);
+    }
+
+    /**
+     * Recalcula las estadísticas de todos los proyectos y corrige la deriva.
+     *
+     * Se ejecuta poco después de medianoche: es cuando cambian las tareas vencidas.
+     * Cada lote va en su propia transacción para no bloquear muchas filas a la vez.
+     *
+     * @return número de proyectos corregidos
+     */
+    @Scheduled(cron = "${project-stats.reconcile.cron:0 10 0 * * *}")
+    public int reconcile() {
+        List<UUID> projectIds = jdbcTemplate.queryForList(
+                "SELECT id FROM core_schema.projects ORDER BY id", UUID.class);
+
+        int repaired = 0;
+        for (int from = 0; from < projectIds.size(); from += batchSize) {
+            List<UUID> batch = projectIds.subList(from, Math.min(from + batchSize, projectIds.size()));
+            try {
+                Integer fixed = transactionTemplate.execute(status -> reconcileBatch(batch));
+                repaired += fixed == null ? 0 : fixed;
+            } catch (RuntimeException e) {
+                // Por ejemplo un deadlock con un writer: el lote se reintenta en la próxima ejecución
+                log.error("❌ Error reconciliando estadísticas de {} proyecto(s): {}", batch.size(), e.getMessage());
+            }
+        }
+
+        if (repaired > 0) {
+            driftRepaired.increment(repaired);
+            log.warn("⚠️ Estadísticas de tareas corregidas en {} proyecto(s)", repaired);
+        } else {
+            log.info("✅ Estadísticas de tareas sin deriva ({} proyectos)", projectIds.size());
+        }
+        return repaired;
+    }
+
+    private int reconcileBatch(List<UUID> projectIds) {
+        Map<String, Object> params = Map.of("ids", projectIds);
+        namedJdbcTemplate.queryForList(LOCK_SQL, params, UUID.class);
+        List<UUID> repaired = namedJdbcTemplate.queryForList(RECONCILE_SQL, params, UUID.class);
+        if (!repaired.isEmpty()) {
+            log.debug("Estadísticas corregidas: {}", repaired);
+        }
+        return repaired.size();
+    }
+}
@@ -0,0 +1,414 @@
+package com.plandai.coreservice.services;
+
+import com.plandai.coreservice.dto.TaskFilterDto;
+import com.plandai.coreservice.entities.SavedView;
+import com.plandai.coreservice.entities.Task;
+import com.plandai.coreservice.exception.ResourceNotFoundException;
+import com.plandai.coreservice.pagination.CursorPage;
+import com.plandai.coreservice.pagination.KeysetPagination;
+import com.plandai.coreservice.repositories.SavedViewRepository;
+import com.plandai.coreservice.repositories.TaskRepository;
+import com.plandai.coreservice.repositories.TaskSpecifications;
+import com.plandai.coreservice.stream.TaskDelta;
+import com.plandai.coreservice.stream.TaskStreamGap;
+import com.plandai.coreservice.views.TaskFacts;
+import com.plandai.coreservice.views.ViewFilter;
+import com.plandai.coreservice.views.ViewResultSet;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Servicio de vistas guardadas de tareas.
+ *
+ * - Cada usuario guarda filtros con nombre (saved_views, V20). Contar y paginar una vista
+ *   no consulta la base de datos: los ids que la cumplen están en memoria (ViewResultSet).
+ * - La primera consulta de una vista la calcula entera con una SELECT de ids; a partir de
+ *   ahí cada cambio de tarea (TaskDelta, del trigger de V11: cualquier nodo y cualquier
+ *   camino de escritura) se comprueba en memoria contra las vistas cargadas.
+ * - Solo cuando un cambio mete o saca una tarea de una vista se relee esa fila por clave
+ *   primaria y se decide con su estado actual: así un aviso que llega con retraso respecto
+ *   a la carga no deja la vista mal.
+ * - Se recalculan enteras si su filtro cambia, si es relativa a hoy (vencidas, próximos
+ *   días) y ha cambiado el día, o si se han perdido avisos (TaskStreamGap). Las que nadie
+ *   consulta en un tiempo se liberan.
+ */
+@Service
+@Slf4j
+public class SavedViewService {
+
+    private static final String TASK_SQL = """
+            SELECT t.project_id, p.workspace_id, t.status, t.priority, t.due_date, t.assigned_to, t.created_at
+              FROM core_schema.tasks t
+              JOIN core_schema.projects p ON p.id = t.project_id
+             WHERE t.id = ?
+            """;
+
+    private static final String PROJECT_WORKSPACE_SQL =
+            "SELECT workspace_id FROM core_schema.projects WHERE id = ?";
+
+    /**
+     * Estado actual de una tarea, leído por clave primaria.
+     */
+    private record CurrentTask(TaskFacts facts, UUID workspaceId, LocalDateTime createdAt) {
+    }
+
+    /**
+     * Resultado en memoria de una vista para un filtro y un día. Mientras se carga
+     * (ready = false) los avisos solo apuntan qué tareas han cambiado, y la carga las relee al terminar.
+     * Las consultas que llegan durante la carga esperan a "loaded" en lugar de lanzar otra.
+     */
+    private static final class CachedView {
+
+        private final ViewFilter filter;
+        private final LocalDate day;
+        private final ViewResultSet results = new ViewResultSet();
+        private final Set<UUID> pending = new HashSet<>();
+        private final CompletableFuture<ViewResultSet> loaded = new CompletableFuture<>();
+        private boolean ready;
+        private volatile long lastUsedMillis;
+
+        private CachedView(ViewFilter filter, LocalDate day, long nowMillis) {
+            this.filter = filter;
+            this.day = day;
+            this.lastUsedMillis = nowMillis;
+        }
+
+        private boolean isValid(ViewFilter current, LocalDate today) {
+            return filter.equals(current) && (!filter.isRelative() || day.equals(today));
+        }
+    }
+
+    private final SavedViewRepository savedViewRepository;
+    private final TaskRepository taskRepository;
+    private final EntityManager entityManager;
+    private final JdbcTemplate jdbcTemplate;
+    private final Clock clock;
+    private final long idleMillis;
+    private final int maxCached;
+    private final int maxSize;
+    private final Map<UUID, CachedView> views = new ConcurrentHashMap<>();
+
+    /**
+     * Workspace de cada proyecto (un proyecto no cambia de workspace).
+     */
+    private final Map<UUID, UUID> projectWorkspaces = new ConcurrentHashMap<>();
+
+    @Autowired
+    public SavedViewService(SavedViewRepository savedViewRepository,
+                            TaskRepository taskRepository,
+                            EntityManager entityManager,
+                            JdbcTemplate jdbcTemplate,
+                            @Value("${views.cache.idle-ttl:PT30M}") String idleTtl,
+                            @Value("${views.cache.max-views:1000}") int maxCached,
+                            @Value("${views.max-size:10000}") int maxSize) {
+        this(savedViewRepository, taskRepository, entityManager, jdbcTemplate, Clock.systemDefaultZone(),
+                Duration.parse(idleTtl), maxCached, maxSize);
+    }
+
+    SavedViewService(SavedViewRepository savedViewRepository, TaskRepository taskRepository,
+                     EntityManager entityManager, JdbcTemplate jdbcTemplate, Clock clock, Duration idleTtl,
+                     int maxCached, int maxSize) {
+        this.savedViewRepository = savedViewRepository;
+        this.taskRepository = taskRepository;
+        this.entityManager = entityManager;
+        this.jdbcTemplate = jdbcTemplate;
+        this.clock = clock;
+        this.idleMillis = idleTtl.toMillis();
+        this.maxCached = maxCached;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Guarda una vista nueva del usuario y calcula su resultado.
+     *
+     * @throws IllegalArgumentException si el nombre ya existe, el filtro no es válido
+     *                                  o abarca más tareas de las permitidas
+     */
+    @Transactional
+    public SavedView createView(UUID userId, SavedView view) {
+        log.info("🔖 Creando vista: {} para usuario: {}", view.getName(), userId);
+        view.getFilter().validate();
+        if (savedViewRepository.existsByUserIdAndNameIgnoreCase(userId, view.getName().trim())) {
+            throw new IllegalArgumentException("Ya tienes una vista llamada '" + view.getName().trim() + "'");
+        }
+        view.setId(null);
+        view.setUserId(userId);
+        view.setName(view.getName().trim());
+        SavedView saved = savedViewRepository.save(view);
+        load(saved.getId(), saved.getFilter(), LocalDate.now(clock));
+        log.info("✅ Vista creada con ID: {}", saved.getId());
+        return saved;
+    }
+
+    /**
+     * Cambia el nombre y el filtro de una vista (el resultado se recalcula).
+     */
+    @Transactional
+    public SavedView updateView(UUID userId, UUID id, SavedView details) {
+        log.info("🔄 Actualizando vista: {}", id);
+        details.getFilter().validate();
+        SavedView view = getView(userId, id);
+        String name = details.getName().trim();
+        if (!view.getName().equalsIgnoreCase(name)
+                && savedViewRepository.existsByUserIdAndNameIgnoreCase(userId, name)) {
+            throw new IllegalArgumentException("Ya tienes una vista llamada '" + name + "'");
+        }
+        view.setName(name);
+        view.setFilter(details.getFilter());
+        SavedView saved = savedViewRepository.save(view);
+        load(saved.getId(), saved.getFilter(), LocalDate.now(clock));
+        log.info("✅ Vista actualizada");
+        return saved;
+    }
+
+    @Transactional
+    public void deleteView(UUID userId, UUID id) {
+        log.info("🗑️ Eliminando vista: {}", id);
+        savedViewRepository.delete(getView(userId, id));
+        views.remove(id);
+        log.info("✅ Vista eliminada");
+    }
+
+    @Transactional(readOnly = true)
+    public List<SavedView> getViews(UUID userId) {
+        log.info("🔖 Obteniendo vistas del usuario: {}", userId);
+        return savedViewRepository.findByUserIdOrderByNameAsc(userId);
+    }
+
+    /**
+     * Vista del usuario (404 si no existe o es de otro usuario).
+     */
+    @Transactional(readOnly = true)
+    public SavedView getView(UUID userId, UUID id) {
+        return savedViewRepository.findByIdAndUserId(id, userId)
+                .orElseThrow(() -> new ResourceNotFoundException("Vista", id));
+    }
+
+    /**
+     * Número de tareas que cumplen la vista.
+     */
+    @Transactional(readOnly = true)
+    public int countTasks(UUID userId, UUID id) {
+        log.info("🔖 Contando tareas de la vista: {}", id);
+        return results(getView(userId, id)).size();
+    }
+
+    /**
+     * Página de tareas de la vista, en el orden y con los cursores del listado paginado de tareas.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<Task> getTasksPage(UUID userId, UUID id, String cursor, Integer limit) {
+        log.info("🔖 Obteniendo tareas de la vista: {}, cursor: {}", id, cursor);
+        CursorPage<UUID> ids = results(getView(userId, id)).page(cursor, KeysetPagination.clampLimit(limit));
+        Map<UUID, Task> tasks = taskRepository.findAllById(ids.items()).stream()
+                .collect(Collectors.toMap(Task::getId, Function.identity()));
+        // Una tarea borrada entre la lectura de ids y la de filas simplemente no aparece
+        List<Task> items = ids.items().stream().map(tasks::get).filter(Objects::nonNull).toList();
+        return new CursorPage<>(items, ids.next());
+    }
+
+    /**
+     * Comprueba cada cambio de tarea contra las vistas cargadas. Se ejecuta en el hilo de eventos
+     * de PgNotificationListener (no en el de LISTEN): puede releer filas sin frenar los avisos.
+     * Si algo falla la vista se descarta y se recalcula al consultarla.
+     */
+    @EventListener
+    public void onTaskDelta(TaskDelta delta) {
+        if (views.isEmpty()) {
+            return;
+        }
+        LocalDate today = LocalDate.now(clock);
+        TaskFacts facts = delta.op() == TaskDelta.Op.DELETED ? null : TaskFacts.of(delta);
+        AtomicReference<Optional<CurrentTask>> current = new AtomicReference<>();
+
+        views.forEach((viewId, cached) -> {
+            synchronized (cached) {
+                if (!cached.ready) {
+                    cached.pending.add(delta.taskId());
+                    return;
+                }
+            }
+            if (cached.filter.isRelative() && !cached.day.equals(today)) {
+                views.remove(viewId, cached);
+                return;
+            }
+            try {
+                boolean matches = facts != null && cached.filter.matches(facts, this::workspaceOf, today);
+                if (matches != cached.results.contains(delta.taskId())) {
+                    reconcile(cached, delta.taskId(), today,
+                            current.updateAndGet(read -> read != null ? read : currentTask(delta.taskId())));
+                }
+            } catch (RuntimeException e) {
+                log.warn("⚠️ Vista {} descartada al aplicar un cambio de tarea: {}", viewId, e.getMessage());
+                views.remove(viewId, cached);
+            }
+        });
+    }
+
+    /**
+     * Se han perdido avisos de cambios: ninguna vista cargada es fiable.
+     */
+    @EventListener(TaskStreamGap.class)
+    public void onStreamGap() {
+        log.warn("⚠️ Avisos de cambios perdidos: se descartan {} vistas cargadas", views.size());
+        views.clear();
+    }
+
+    /**
+     * Libera las vistas que nadie ha consultado últimamente y, si siguen siendo
+     * demasiadas, las usadas hace más tiempo.
+     */
+    @Scheduled(fixedDelayString = "${views.cache.evict-interval-ms:60000}")
+    public void evictIdle() {
+        long now = clock.millis();
+        views.values().removeIf(cached -> now - cached.lastUsedMillis > idleMillis);
+        int excess = views.size() - maxCached;
+        if (excess > 0) {
+            views.entrySet().stream()
+                    .sorted(Comparator.comparingLong(entry -> entry.getValue().lastUsedMillis))
+                    .limit(excess)
+                    .toList()
+                    .forEach(entry -> views.remove(entry.getKey(), entry.getValue()));
+        }
+    }
+
+    /**
+     * Resultado de la vista: el de memoria si sigue valiendo, si no se recalcula.
+     * Solo una petición recalcula cada vista; las demás esperan a esa carga y comparten su resultado.
+     */
+    private ViewResultSet results(SavedView view) {
+        LocalDate today = LocalDate.now(clock);
+        CachedView fresh = new CachedView(view.getFilter(), today, clock.millis());
+        CachedView cached = views.compute(view.getId(), (id, current) ->
+                current != null && current.isValid(view.getFilter(), today) ? current : fresh);
+        if (cached == fresh) {
+            return load(view.getId(), fresh);
+        }
+        cached.lastUsedMillis = clock.millis();
+        try {
+            return cached.loaded.join();
+        } catch (CompletionException e) {
+            // El mismo error que la carga compartida (por ejemplo, vista demasiado grande)
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    /**
+     * Recalcula la vista aunque haya una cargada (su filtro acaba de cambiar).
+     */
+    private ViewResultSet load(UUID viewId, ViewFilter filter, LocalDate today) {
+        CachedView cached = new CachedView(filter, today, clock.millis());
+        views.put(viewId, cached);
+        return load(viewId, cached);
+    }
+
+    /**
+     * Recálculo completo: los ids que cumplen el filtro hoy, en una SELECT.
+     * La vista se registra antes de consultar para no perder los cambios que lleguen mientras tanto.
+     *
+     * @throws IllegalArgumentException si abarca más tareas de las permitidas
+     */
+    private ViewResultSet load(UUID viewId, CachedView cached) {
+        ViewFilter filter = cached.filter;
+        LocalDate today = cached.day;
+        try {
+            TaskFilterDto query = filter.toTaskFilter(today);
+            if (query != null) {
+                long started = System.nanoTime();
+                List<Tuple> rows = selectIds(query);
+                if (rows.size() > maxSize) {
+                    throw new IllegalArgumentException(
+                            "La vista abarca más de " + maxSize + " tareas; acótala con más filtros");
+                }
+                rows.forEach(row -> cached.results.add(row.get(0, UUID.class), row.get(1, LocalDateTime.class)));
+                log.debug("Vista {} calculada: {} tareas en {} ms",
+                        viewId, rows.size(), (System.nanoTime() - started) / 1_000_000);
+            }
+
+            while (true) {
+                Set<UUID> touched;
+                synchronized (cached) {
+                    if (cached.pending.isEmpty()) {
+                        cached.ready = true;
+                        cached.loaded.complete(cached.results);
+                        return cached.results;
+                    }
+                    touched = Set.copyOf(cached.pending);
+                    cached.pending.clear();
+                }
+                touched.forEach(taskId -> reconcile(cached, taskId, today, currentTask(taskId)));
+            }
+        } catch (RuntimeException e) {
+            views.remove(viewId, cached);
+            cached.loaded.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private List<Tuple> selectIds(TaskFilterDto query) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> criteria = cb.createTupleQuery();
+        Root<Task> root = criteria.from(Task.class);
+        criteria.multiselect(root.get("id"), root.get("createdAt"))
+                .where(TaskSpecifications.<Task>matching(query).toPredicate(root, criteria, cb));
+        return entityManager.createQuery(criteria).setMaxResults(maxSize + 1).getResultList();
+    }
+
+    /**
+     * Decide si la tarea está en la vista con su estado actual (vacío = ya no existe).
+     */
+    private void reconcile(CachedView cached, UUID taskId, LocalDate today, Optional<CurrentTask> task) {
+        if (task.isPresent()
+                && cached.filter.matches(task.get().facts(), projectId -> task.get().workspaceId(), today)) {
+            cached.results.add(taskId, task.get().createdAt());
+        } else {
+            cached.results.remove(taskId);
+        }
+    }
+
+    private Optional<CurrentTask> currentTask(UUID taskId) {
+        return jdbcTemplate.query(TASK_SQL, (rs, rowNum) -> new CurrentTask(
+                new TaskFacts(rs.getObject(1, UUID.class),
+                        Task.TaskStatus.valueOf(rs.getString(3)),
+                        Task.TaskPriority.valueOf(rs.getString(4)),
+                        rs.getObject(5, LocalDate.class),
+                        rs.getObject(6, UUID.class)),
+                rs.getObject(2, UUID.class),
+                rs.getObject(7, LocalDateTime.class)), taskId).stream().findFirst();
+    }
+
+    private UUID workspaceOf(UUID projectId) {
+        return projectWorkspaces.computeIfAbsent(projectId, id ->
+                jdbcTemplate.queryForList(PROJECT_WORKSPACE_SQL, UUID.class, id).stream().findFirst().orElse(null));
+    }
+}
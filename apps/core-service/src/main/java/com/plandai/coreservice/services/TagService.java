@@ -0,0 +1,325 @@
+package com.plandai.coreservice.services;
+
+import com.plandai.coreservice.entities.Tag;
+import com.plandai.coreservice.exception.ResourceNotFoundException;
+import com.plandai.coreservice.repositories.TagRepository;
+import com.plandai.coreservice.repositories.WorkspaceRepository;
+import com.plandai.coreservice.tags.TagExpression;
+import com.plandai.coreservice.tags.TagIndex;
+import com.plandai.coreservice.tags.TagMatch;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Servicio de etiquetas de tareas.
+ *
+ * - Etiquetas y asignaciones viven en tags y task_tags (V18); los filtros por expresión
+ *   ("backend AND NOT bloqueada") se evalúan con un índice de bits por workspace
+ *   (TagIndex), cargado con dos SELECT la primera vez que se consulta.
+ * - Cada cambio de etiquetas sube la versión del workspace en la misma transacción
+ *   (un UPSERT que además serializa esos cambios). Antes de usar el índice se compara
+ *   con esa versión (una lectura por clave primaria): lo cambiado desde otro nodo obliga
+ *   a recargarlo.
+ * - Las asignaciones hechas aquí se aplican al índice tras el commit sin recargarlo.
+ *   Las que quitan los triggers de V18 (tarea borrada o movida a otro workspace) también
+ *   suben la versión (V25), así que todos los nodos recargan.
+ */
+@Service
+@Slf4j
+public class TagService {
+
+    private static final String BUMP_VERSION_SQL = """
+            INSERT INTO core_schema.task_tag_versions (workspace_id, version) VALUES (?, 1)
+            ON CONFLICT (workspace_id) DO UPDATE SET version = core_schema.task_tag_versions.version + 1
+            RETURNING version
+            """;
+
+    private static final String VERSION_SQL =
+            "SELECT version FROM core_schema.task_tag_versions WHERE workspace_id = ?";
+
+    private static final String TAGS_SQL = "SELECT id, name FROM core_schema.tags WHERE workspace_id = ?";
+
+    private static final String ASSIGNMENTS_SQL = """
+            SELECT tt.task_id, tt.tag_id
+              FROM core_schema.task_tags tt
+              JOIN core_schema.tags g ON g.id = tt.tag_id
+             WHERE g.workspace_id = ?
+            """;
+
+    private static final String TASK_WORKSPACE_SQL = """
+            SELECT p.workspace_id
+              FROM core_schema.tasks t
+              JOIN core_schema.projects p ON p.id = t.project_id
+             WHERE t.id = ?
+            """;
+
+    private static final String INSERT_SQL = """
+            INSERT INTO core_schema.task_tags (task_id, tag_id) VALUES (?, ?)
+            ON CONFLICT (task_id, tag_id) DO NOTHING
+            """;
+
+    private static final String DELETE_SQL = "DELETE FROM core_schema.task_tags WHERE task_id = ? AND tag_id = ?";
+
+    /**
+     * Índice cargado y cuándo se cargó (el TTL solo libera memoria: los cambios los detecta la versión).
+     */
+    private record CachedIndex(TagIndex index, long loadedAtMillis) {
+    }
+
+    private final TagRepository tagRepository;
+    private final WorkspaceRepository workspaceRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final Clock clock;
+    private final long ttlMillis;
+    private final int maxIds;
+    private final Map<UUID, CachedIndex> indexes = new ConcurrentHashMap<>();
+
+    @Autowired
+    public TagService(TagRepository tagRepository,
+                      WorkspaceRepository workspaceRepository,
+                      JdbcTemplate jdbcTemplate,
+                      @Value("${tags.index.ttl:PT30M}") String ttl,
+                      @Value("${tags.filter.max-ids:10000}") int maxIds) {
+        this(tagRepository, workspaceRepository, jdbcTemplate, Clock.systemDefaultZone(), Duration.parse(ttl), maxIds);
+    }
+
+    TagService(TagRepository tagRepository, WorkspaceRepository workspaceRepository, JdbcTemplate jdbcTemplate,
+               Clock clock, Duration ttl, int maxIds) {
+        this.tagRepository = tagRepository;
+        this.workspaceRepository = workspaceRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.clock = clock;
+        this.ttlMillis = ttl.toMillis();
+        this.maxIds = maxIds;
+    }
+
+    /**
+     * Crea una etiqueta en un workspace.
+     *
+     * @throws IllegalArgumentException si ya existe ese nombre (sin distinguir mayúsculas)
+     */
+    @Transactional
+    public Tag createTag(UUID workspaceId, Tag tag) {
+        log.info("🏷️ Creando etiqueta: {} en workspace: {}", tag.getName(), workspaceId);
+        if (!workspaceRepository.existsById(workspaceId)) {
+            throw new ResourceNotFoundException("Workspace", workspaceId);
+        }
+        tag.setName(tag.getName().trim());
+        if (tagRepository.existsByWorkspaceIdAndNameIgnoreCase(workspaceId, tag.getName())) {
+            log.warn("⚠️ Intento de crear etiqueta duplicada: {} en workspace: {}", tag.getName(), workspaceId);
+            throw new IllegalArgumentException("Ya existe una etiqueta con ese nombre en este workspace");
+        }
+        tag.setId(null);
+        tag.setWorkspaceId(workspaceId);
+        Tag saved = tagRepository.save(tag);
+        bumpVersion(workspaceId);
+        log.info("✅ Etiqueta creada con ID: {}", saved.getId());
+        return saved;
+    }
+
+    /**
+     * Cambia nombre y color de una etiqueta (las tareas la conservan).
+     */
+    @Transactional
+    public Tag updateTag(UUID id, Tag updated) {
+        log.info("🔄 Actualizando etiqueta: {}", id);
+        Tag tag = getTagById(id);
+        String name = updated.getName().trim();
+        if (!name.equalsIgnoreCase(tag.getName())
+                && tagRepository.existsByWorkspaceIdAndNameIgnoreCase(tag.getWorkspaceId(), name)) {
+            throw new IllegalArgumentException("Ya existe una etiqueta con ese nombre en este workspace");
+        }
+        tag.setName(name);
+        tag.setColor(updated.getColor());
+        Tag saved = tagRepository.save(tag);
+        bumpVersion(tag.getWorkspaceId());
+        log.info("✅ Etiqueta actualizada");
+        return saved;
+    }
+
+    /**
+     * Elimina una etiqueta; se quita de todas sus tareas (ON DELETE CASCADE).
+     */
+    @Transactional
+    public void deleteTag(UUID id) {
+        log.info("🗑️ Eliminando etiqueta: {}", id);
+        Tag tag = getTagById(id);
+        tagRepository.delete(tag);
+        bumpVersion(tag.getWorkspaceId());
+        log.info("✅ Etiqueta eliminada");
+    }
+
+    @Transactional(readOnly = true)
+    public Tag getTagById(UUID id) {
+        return tagRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Etiqueta", id));
+    }
+
+    @Transactional(readOnly = true)
+    public List<Tag> getTagsByWorkspace(UUID workspaceId) {
+        log.info("🏷️ Obteniendo etiquetas del workspace: {}", workspaceId);
+        return tagRepository.findByWorkspaceIdOrderByNameAsc(workspaceId);
+    }
+
+    @Transactional(readOnly = true)
+    public List<Tag> getTaskTags(UUID taskId) {
+        log.info("🏷️ Obteniendo etiquetas de la tarea: {}", taskId);
+        workspaceOfTask(taskId);
+        return tagRepository.findByTaskId(taskId);
+    }
+
+    /**
+     * Pone una etiqueta a una tarea. Idempotente: si ya la tenía no hace nada.
+     *
+     * @throws IllegalArgumentException si la etiqueta es de otro workspace
+     */
+    @Transactional
+    public void tagTask(UUID taskId, UUID tagId) {
+        log.info("🏷️ Etiquetando tarea {} con {}", taskId, tagId);
+        UUID workspaceId = sameWorkspace(taskId, tagId);
+        if (jdbcTemplate.update(INSERT_SQL, taskId, tagId) == 0) {
+            log.info("✅ La tarea ya tenía la etiqueta");
+            return;
+        }
+        long version = bumpVersion(workspaceId);
+        afterCommit(() -> apply(workspaceId, version, index -> index.tag(taskId, tagId, version)));
+        log.info("✅ Etiqueta añadida");
+    }
+
+    /**
+     * Quita una etiqueta de una tarea (404 si no la tenía).
+     */
+    @Transactional
+    public void untagTask(UUID taskId, UUID tagId) {
+        log.info("🏷️ Quitando etiqueta {} de la tarea {}", tagId, taskId);
+        UUID workspaceId = sameWorkspace(taskId, tagId);
+        if (jdbcTemplate.update(DELETE_SQL, taskId, tagId) == 0) {
+            throw new ResourceNotFoundException("Etiqueta de tarea", taskId + " → " + tagId);
+        }
+        long version = bumpVersion(workspaceId);
+        afterCommit(() -> apply(workspaceId, version, index -> index.untag(taskId, tagId, version)));
+        log.info("✅ Etiqueta quitada");
+    }
+
+    /**
+     * Evalúa una expresión de etiquetas en un workspace (ver TagExpression y TagMatch).
+     *
+     * @throws IllegalArgumentException si la expresión no es válida o el resultado
+     *                                  tiene más tareas de las que se pasan a SQL
+     */
+    @Transactional(readOnly = true)
+    public TagMatch match(UUID workspaceId, String expression) {
+        TagExpression parsed = TagExpression.parse(expression);
+        TagMatch match = index(workspaceId, currentVersion(workspaceId)).evaluate(parsed);
+        log.debug("Expresión de etiquetas '{}' en workspace {}: {} tareas ({})", expression, workspaceId,
+                match.taskIds().size(), match.exclude() ? "excluidas" : "incluidas");
+        if (match.taskIds().size() > maxIds) {
+            throw new IllegalArgumentException(
+                    "La expresión de etiquetas abarca demasiadas tareas; acótala con más etiquetas o filtros");
+        }
+        return match;
+    }
+
+    /**
+     * Libera los índices de workspaces que nadie ha consultado últimamente.
+     */
+    @Scheduled(fixedDelayString = "${tags.index.evict-interval-ms:60000}")
+    public void evictExpired() {
+        long now = clock.millis();
+        indexes.values().removeIf(cached -> now - cached.loadedAtMillis() > ttlMillis);
+    }
+
+    /**
+     * Índice del workspace en la versión indicada; si el de la caché no vale se carga.
+     */
+    private TagIndex index(UUID workspaceId, long version) {
+        CachedIndex cached = indexes.get(workspaceId);
+        if (cached != null
+                && cached.index().version() == version
+                && clock.millis() - cached.loadedAtMillis() <= ttlMillis) {
+            return cached.index();
+        }
+
+        long started = System.nanoTime();
+        List<TagIndex.TagRef> tags = jdbcTemplate.query(TAGS_SQL, (rs, rowNum) ->
+                new TagIndex.TagRef(rs.getObject(1, UUID.class), rs.getString(2)), workspaceId);
+        List<TagIndex.Assignment> assignments = jdbcTemplate.query(ASSIGNMENTS_SQL, (rs, rowNum) ->
+                new TagIndex.Assignment(rs.getObject(1, UUID.class), rs.getObject(2, UUID.class)), workspaceId);
+        TagIndex index = TagIndex.build(version, tags, assignments);
+        log.debug("Índice de etiquetas del workspace {} cargado: {} etiquetas, {} asignaciones en {} ms",
+                workspaceId, tags.size(), assignments.size(), (System.nanoTime() - started) / 1_000_000);
+
+        indexes.merge(workspaceId, new CachedIndex(index, clock.millis()), (current, fresh) ->
+                fresh.index().version() >= current.index().version() ? fresh : current);
+        return index;
+    }
+
+    /**
+     * Aplica al índice en caché un cambio confirmado que lo deja en "version";
+     * si el índice no estaba justo en la anterior (otro cambio se ha cruzado) se descarta.
+     */
+    private void apply(UUID workspaceId, long version, Consumer<TagIndex> change) {
+        CachedIndex cached = indexes.get(workspaceId);
+        if (cached == null) {
+            return;
+        }
+        synchronized (cached.index()) {
+            if (cached.index().version() == version - 1) {
+                change.accept(cached.index());
+                return;
+            }
+        }
+        indexes.remove(workspaceId, cached);
+    }
+
+    private long bumpVersion(UUID workspaceId) {
+        return jdbcTemplate.queryForObject(BUMP_VERSION_SQL, Long.class, workspaceId);
+    }
+
+    private long currentVersion(UUID workspaceId) {
+        List<Long> versions = jdbcTemplate.queryForList(VERSION_SQL, Long.class, workspaceId);
+        return versions.isEmpty() ? 0 : versions.get(0);
+    }
+
+    private UUID workspaceOfTask(UUID taskId) {
+        return jdbcTemplate.queryForList(TASK_WORKSPACE_SQL, UUID.class, taskId).stream()
+                .findFirst()
+                .orElseThrow(() -> new ResourceNotFoundException("Tarea", taskId));
+    }
+
+    private UUID sameWorkspace(UUID taskId, UUID tagId) {
+        UUID workspaceId = workspaceOfTask(taskId);
+        if (!workspaceId.equals(getTagById(tagId).getWorkspaceId())) {
+            throw new IllegalArgumentException("La etiqueta pertenece a otro workspace");
+        }
+        return workspaceId;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,223 @@
+package com.plandai.coreservice.services;
+
+import com.plandai.coreservice.activity.ActivityEntityType;
+import com.plandai.coreservice.activity.ActivityRecorder;
+import com.plandai.coreservice.activity.FieldDiff;
+import com.plandai.coreservice.changes.TaskChange;
+import com.plandai.coreservice.entities.Task;
+import com.plandai.coreservice.exception.ResourceNotFoundException;
+import com.plandai.coreservice.repositories.TaskRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Archivo de tareas completadas: mueve las DONE antiguas de tasks a tasks_archive.
+ *
+ * - Candidatas: status = 'DONE' y updated_at anterior a task-archive.min-age
+ *   (índice parcial de V15). El reequilibrado de rank no toca updated_at.
+ * - Lotes de task-archive.chunk-size filas, cada uno en su propia transacción
+ *   (DELETE ... RETURNING + INSERT en UNA sentencia) y con una pausa entre lotes
+ *   para no competir con el tráfico. FOR UPDATE SKIP LOCKED salta las tareas
+ *   que alguien está editando en ese momento.
+ * - Una tarea con subtareas vivas no se archiva (se quedarían sin padre): primero
+ *   se archivan las hojas y el padre cae en una ejecución posterior.
+ * - Cada tarea archivada publica TaskChange.deleted: los índices en memoria
+ *   (dependencias, recordatorios) la olvidan como si se hubiera borrado.
+ * - Una tarea archivada sigue contando en las estadísticas del proyecto, y sus
+ *   dependencias se guardan aparte y vuelven al restaurarla (V26).
+ *
+ * Las archivadas se leen con includeArchived (TaskService) y se restauran con restoreTask.
+ */
+@Service
+@Slf4j
+public class TaskArchiveService {
+
+    /**
+     * Marca la transacción como archivado: los contadores de estadísticas no cambian y las
+     * dependencias de las tareas borradas se guardan en task_dependencies_archive (V26).
+     */
+    private static final String ARCHIVAL_MODE_SQL = "SELECT set_config('plandai.task_archival', 'on', true)";
+
+    private static final String ARCHIVAL_MODE_OFF_SQL = "SELECT set_config('plandai.task_archival', '', true)";
+
+    private static final String ARCHIVE_CHUNK_SQL = """
+            WITH moved AS (
+                DELETE FROM core_schema.tasks
+                 WHERE id IN (SELECT t.id FROM core_schema.tasks t
+                               WHERE t.status = 'DONE' AND t.updated_at < ?
+                                 AND NOT EXISTS (SELECT 1 FROM core_schema.tasks c
+                                                  WHERE c.parent_id = t.id)
+                               ORDER BY t.updated_at
+                               LIMIT ?
+                                 FOR UPDATE OF t SKIP LOCKED)
+                RETURNING id, title, description, status, priority, due_date, assigned_to, estimated_minutes,
+                          rank, parent_id, custom_fields, project_id, created_at, updated_at
+            )
+            INSERT INTO core_schema.tasks_archive
+                (id, title, description, status, priority, due_date, assigned_to, estimated_minutes,
+                 rank, parent_id, custom_fields, project_id, created_at, updated_at, archived_at)
+            SELECT id, title, description, status, priority, due_date, assigned_to, estimated_minutes,
+                   rank, parent_id, custom_fields, project_id, created_at, updated_at, CURRENT_TIMESTAMP
+              FROM moved
+            RETURNING id, project_id
+            """;
+
+    /**
+     * Al restaurar se actualiza updated_at: si no, el siguiente lote la volvería a archivar.
+     * Vuelve bajo su padre solo si este sigue vivo en el mismo proyecto; si no, como raíz.
+     */
+    private static final String RESTORE_SQL = """
+            WITH moved AS (
+                DELETE FROM core_schema.tasks_archive WHERE id = ?
+                RETURNING id, title, description, status, priority, due_date, assigned_to, estimated_minutes,
+                          rank, parent_id, custom_fields, project_id, created_at
+            )
+            INSERT INTO core_schema.tasks
+                (id, title, description, status, priority, due_date, assigned_to, estimated_minutes,
+                 rank, parent_id, custom_fields, project_id, created_at, updated_at)
+            SELECT m.id, m.title, m.description, m.status, m.priority, m.due_date, m.assigned_to,
+                   m.estimated_minutes, m.rank, p.id, m.custom_fields, m.project_id, m.created_at, CURRENT_TIMESTAMP
+              FROM moved m
+              LEFT JOIN core_schema.tasks p ON p.id = m.parent_id AND p.project_id = m.project_id
+            RETURNING id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskRepository taskRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ActivityRecorder activityRecorder;
+    private final TaskDependencyService taskDependencyService;
+    private final Counter tasksArchived;
+    private final Clock clock;
+    private final Duration minAge;
+    private final int chunkSize;
+    private final long pauseMs;
+    private final int maxChunks;
+
+    @Autowired
+    public TaskArchiveService(JdbcTemplate jdbcTemplate,
+                              TransactionTemplate transactionTemplate,
+                              TaskRepository taskRepository,
+                              ApplicationEventPublisher eventPublisher,
+                              ActivityRecorder activityRecorder,
+                              TaskDependencyService taskDependencyService,
+                              MeterRegistry meterRegistry,
+                              @Value("${task-archive.min-age:P90D}") String minAge,
+                              @Value("${task-archive.chunk-size:500}") int chunkSize,
+                              @Value("${task-archive.pause-ms:200}") long pauseMs,
+                              @Value("${task-archive.max-chunks:1000}") int maxChunks) {
+        this(jdbcTemplate, transactionTemplate, taskRepository, eventPublisher, activityRecorder,
+                taskDependencyService, meterRegistry, Clock.systemDefaultZone(), Duration.parse(minAge), chunkSize, pauseMs, maxChunks);
+    }
+
+    TaskArchiveService(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                       TaskRepository taskRepository, ApplicationEventPublisher eventPublisher,
+                       ActivityRecorder activityRecorder, TaskDependencyService taskDependencyService,
+                       MeterRegistry meterRegistry, Clock clock,
+                       Duration minAge, int chunkSize, long pauseMs, int maxChunks) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.taskRepository = taskRepository;
+        this.eventPublisher = eventPublisher;
+        this.activityRecorder = activityRecorder;
+        this.taskDependencyService = taskDependencyService;
+        this.clock = clock;
+        this.minAge = minAge;
+        this.chunkSize = chunkSize;
+        this.pauseMs = pauseMs;
+        this.maxChunks = maxChunks;
+        this.tasksArchived = Counter.builder("tasks.archived")
+                .description("Tareas completadas movidas a tasks_archive")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Archiva las tareas DONE sin cambios desde hace más de min-age.
+     * Como mucho max-chunks lotes por ejecución; lo que quede sigue en la próxima.
+     *
+     * @return número de tareas archivadas
+     */
+    @Scheduled(cron = "${task-archive.cron:0 10 3 * * *}")
+    public int archiveCompleted() {
+        LocalDateTime cutoff = LocalDateTime.now(clock).minus(minAge);
+        log.info("🗄️ Archivando tareas completadas sin cambios desde {}", cutoff);
+
+        int total = 0;
+        for (int chunk = 0; chunk < maxChunks; chunk++) {
+            int moved = transactionTemplate.execute(status -> archiveChunk(cutoff));
+            total += moved;
+            if (moved < chunkSize) {
+                break;
+            }
+            try {
+                Thread.sleep(pauseMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        if (total > 0) {
+            log.info("✅ {} tareas archivadas", total);
+        }
+        return total;
+    }
+
+    private int archiveChunk(LocalDateTime cutoff) {
+        jdbcTemplate.queryForObject(ARCHIVAL_MODE_SQL, String.class);
+        List<UUID[]> moved = jdbcTemplate.query(ARCHIVE_CHUNK_SQL,
+                (rs, rowNum) -> new UUID[]{rs.getObject("id", UUID.class), rs.getObject("project_id", UUID.class)},
+                Timestamp.valueOf(cutoff), chunkSize);
+
+        for (UUID[] row : moved) {
+            eventPublisher.publishEvent(TaskChange.deleted(row[0]));
+            activityRecorder.updated(ActivityEntityType.TASK, row[0], null, row[1],
+                    FieldDiff.of().field("archived", false, true));
+        }
+        tasksArchived.increment(moved.size());
+        return moved.size();
+    }
+
+    /**
+     * Devuelve una tarea archivada a tasks (misma columna y posición que tenía)
+     * junto con las dependencias que tenía con tareas vivas.
+     */
+    @Transactional
+    public Task restoreTask(UUID id) {
+        log.info("♻️ Restaurando tarea archivada: {}", id);
+
+        // La tarea ya contaba en las estadísticas: el INSERT no la vuelve a sumar
+        jdbcTemplate.queryForObject(ARCHIVAL_MODE_SQL, String.class);
+        List<UUID> restoredIds = jdbcTemplate.queryForList(RESTORE_SQL, UUID.class, id);
+        jdbcTemplate.queryForObject(ARCHIVAL_MODE_OFF_SQL, String.class);
+        if (restoredIds.isEmpty()) {
+            throw new ResourceNotFoundException("Tarea archivada", id);
+        }
+        taskDependencyService.restoreArchived(id);
+        Task restored = taskRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Tarea", id));
+        eventPublisher.publishEvent(TaskChange.saved(restored));
+        activityRecorder.updated(ActivityEntityType.TASK, id, null, restored.getProject().getId(),
+                FieldDiff.of().field("archived", true, false));
+
+        log.info("✅ Tarea restaurada");
+        return restored;
+    }
+}
@@ -0,0 +1,165 @@
+package com.plandai.coreservice.services;
+
+import com.plandai.coreservice.dto.BoardColumnDto;
+import com.plandai.coreservice.dto.TaskBoardDto;
+import com.plandai.coreservice.dto.TaskCardDto;
+import com.plandai.coreservice.dto.UserSummaryDto;
+import com.plandai.coreservice.entities.Task;
+import com.plandai.coreservice.exception.ResourceNotFoundException;
+import com.plandai.coreservice.ordering.RankKeys;
+import com.plandai.coreservice.pagination.Cursor;
+import com.plandai.coreservice.pagination.CursorPage;
+import com.plandai.coreservice.pagination.KeysetPagination;
+import com.plandai.coreservice.repositories.ProjectRepository;
+import com.plandai.coreservice.repositories.TaskRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Servicio del tablero Kanban de un proyecto.
+ * 
+ * - El tablero completo sale de UNA consulta con funciones de ventana
+ *   (primeras N tarjetas por estado + total de cada columna).
+ * - Cada columna se pagina después de forma independiente con su propio cursor
+ *   (rank, id): el orden manual de las tarjetas (ver TaskRankService).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TaskBoardService {
+
+    /**
+     * Tarjetas por columna si el cliente no indica "limit".
+     */
+    public static final int DEFAULT_COLUMN_SIZE = 20;
+
+    private final TaskRepository taskRepository;
+    private final ProjectRepository projectRepository;
+    private final UserDirectoryService userDirectoryService;
+
+    /**
+     * Fila de la consulta del tablero (mismo orden de columnas que TaskRepository.findBoard).
+     */
+    private record CardRow(UUID id, String title, Task.TaskPriority priority, LocalDate dueDate,
+                           UUID assignedTo, Task.TaskStatus status, String rank, long total) {
+    }
+
+    /**
+     * Obtiene el tablero de un proyecto: una columna por estado con su total y sus primeras tarjetas.
+     */
+    @Transactional(readOnly = true)
+    public TaskBoardDto getBoard(UUID projectId, Integer limit) {
+        int perColumn = columnSize(limit);
+        log.info("📋 Obteniendo tablero del proyecto {} ({} tarjetas por columna)", projectId, perColumn);
+
+        List<CardRow> rows = taskRepository.findBoard(projectId, perColumn).stream()
+                .map(TaskBoardService::toRow)
+                .toList();
+        if (rows.isEmpty()) {
+            // Tablero vacío: distinguir "proyecto sin tareas" de "proyecto inexistente"
+            requireProject(projectId);
+        }
+
+        Map<Task.TaskStatus, List<CardRow>> byStatus = new EnumMap<>(Task.TaskStatus.class);
+        rows.forEach(row -> byStatus.computeIfAbsent(row.status(), status -> new ArrayList<>()).add(row));
+        Map<UUID, UserSummaryDto> users = assignees(rows);
+
+        List<BoardColumnDto> columns = new ArrayList<>();
+        for (Task.TaskStatus status : Task.TaskStatus.values()) {
+            List<CardRow> columnRows = byStatus.getOrDefault(status, List.of());
+            long count = columnRows.isEmpty() ? 0 : columnRows.get(0).total();
+            String next = count > columnRows.size() ? cursorAfter(columnRows) : null;
+            columns.add(new BoardColumnDto(status, count, toCards(columnRows, users), next));
+        }
+        return new TaskBoardDto(projectId, columns);
+    }
+
+    /**
+     * Carga más tarjetas de una columna del tablero a partir de su cursor.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<TaskCardDto> getColumnPage(UUID projectId, Task.TaskStatus status, String cursor, Integer limit) {
+        int pageSize = columnSize(limit);
+        log.info("📋 Obteniendo columna {} del tablero del proyecto {}", status, projectId);
+
+        Cursor after = Cursor.decode(cursor);
+        List<Object[]> raw = after == null
+                ? taskRepository.findBoardColumn(projectId, status.name(), pageSize + 1)
+                : taskRepository.findBoardColumnAfter(projectId, status.name(), parseRank(after),
+                        after.id(), pageSize + 1);
+        List<CardRow> rows = raw.stream().map(TaskBoardService::toRow).toList();
+        if (rows.isEmpty() && after == null) {
+            requireProject(projectId);
+        }
+
+        // Se pide una fila de más para saber si hay página siguiente sin contar
+        boolean hasNext = rows.size() > pageSize;
+        List<CardRow> pageRows = hasNext ? rows.subList(0, pageSize) : rows;
+        return new CursorPage<>(toCards(pageRows, assignees(pageRows)), hasNext ? cursorAfter(pageRows) : null);
+    }
+
+    private void requireProject(UUID projectId) {
+        if (!projectRepository.existsById(projectId)) {
+            throw new ResourceNotFoundException("Proyecto", projectId);
+        }
+    }
+
+    private Map<UUID, UserSummaryDto> assignees(List<CardRow> rows) {
+        return userDirectoryService.lookup(rows.stream()
+                .map(CardRow::assignedTo)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList());
+    }
+
+    private static List<TaskCardDto> toCards(List<CardRow> rows, Map<UUID, UserSummaryDto> users) {
+        return rows.stream()
+                .map(row -> new TaskCardDto(row.id(), row.title(), row.priority(), row.dueDate(), row.assignedTo(),
+                        row.assignedTo() == null ? null : users.get(row.assignedTo()), row.rank()))
+                .toList();
+    }
+
+    private static String cursorAfter(List<CardRow> rows) {
+        CardRow last = rows.get(rows.size() - 1);
+        return new Cursor(last.rank(), last.id()).encode();
+    }
+
+    private static String parseRank(Cursor cursor) {
+        if (!RankKeys.isValid(cursor.key())) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+        return cursor.key();
+    }
+
+    private static int columnSize(Integer limit) {
+        return limit == null ? DEFAULT_COLUMN_SIZE : KeysetPagination.clampLimit(limit);
+    }
+
+    private static CardRow toRow(Object[] columns) {
+        return new CardRow(
+                (UUID) columns[0],
+                (String) columns[1],
+                Task.TaskPriority.valueOf((String) columns[2]),
+                toLocalDate(columns[3]),
+                (UUID) columns[4],
+                Task.TaskStatus.valueOf((String) columns[5]),
+                (String) columns[6],
+                ((Number) columns[7]).longValue());
+    }
+
+    // El driver puede devolver tipos java.sql o java.time según la versión de Hibernate
+    private static LocalDate toLocalDate(Object value) {
+        return value instanceof Date date ? date.toLocalDate() : (LocalDate) value;
+    }
+}
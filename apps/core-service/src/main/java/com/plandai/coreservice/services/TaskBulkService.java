@@ -0,0 +1,445 @@
+package com.plandai.coreservice.services;
+
+import com.plandai.coreservice.activity.ActivityEntityType;
+import com.plandai.coreservice.activity.ActivityRecorder;
+import com.plandai.coreservice.activity.FieldDiff;
+import com.plandai.coreservice.changes.TaskChange;
+import com.plandai.coreservice.dto.TaskBulkRequestDto;
+import com.plandai.coreservice.dto.TaskBulkRequestDto.Operation;
+import com.plandai.coreservice.dto.TaskBulkResultDto;
+import com.plandai.coreservice.dto.TaskBulkResultDto.ItemResult;
+import com.plandai.coreservice.entities.CustomFieldDefinition;
+import com.plandai.coreservice.entities.Project;
+import com.plandai.coreservice.entities.Task;
+import com.plandai.coreservice.repositories.ProjectRepository;
+import com.plandai.coreservice.repositories.TaskRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Servicio para operaciones masivas sobre tareas en UNA transacción.
+ *
+ * Round-trips para N operaciones (en lugar de ~3N):
+ * 1. SELECT de todos los proyectos distintos implicados (WHERE id IN ...)
+ * 2. SELECT de todas las tareas implicadas, también las tareas padre (WHERE id IN ...)
+ *    y, si hay DELETE, de sus subárboles en task_closure
+ * 3. INSERT / UPDATE agrupados por JDBC batching al hacer flush
+ *    (hibernate.jdbc.batch_size + order_inserts/order_updates)
+ * 4. Un único DELETE ... RETURNING de todos los subárboles borrados
+ *
+ * DELETE borra el subárbol entero, igual que TaskService.deleteTask, y una operación
+ * posterior sobre cualquiera de esas tareas falla. CREATE con parentId
+ * y campos personalizados pasa las mismas comprobaciones que el alta individual
+ * (TaskHierarchyService y CustomFieldService); sin campos se guarda un objeto vacío.
+ * MOVE comprueba que los campos de la tarea valen también en el proyecto destino.
+ *
+ * Los errores de validación (proyecto o tarea inexistente, datos inválidos) se
+ * devuelven por elemento y no abortan el resto de operaciones.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TaskBulkService {
+
+    private final TaskRepository taskRepository;
+    private final ProjectRepository projectRepository;
+    private final Validator validator;
+    private final TaskRankService taskRankService;
+    private final TaskHierarchyService taskHierarchyService;
+    private final CustomFieldService customFieldService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ActivityRecorder activityRecorder;
+
+    /**
+     * Estado de una petición mientras se aplican sus operaciones.
+     */
+    private static final class Batch {
+
+        private final Map<UUID, Project> projects;
+        private final Map<UUID, Task> tasks;
+        private final Map<UUID, Map<String, CustomFieldDefinition>> definitions;
+        // Subárbol (raíz incluida) de cada tarea que borra alguna operación DELETE
+        private final Map<UUID, List<UUID>> subtrees;
+        private final List<Task> toCreate = new ArrayList<>();
+        // Tareas borradas (con sus subtareas) y, por operación DELETE, los ids que borró
+        private final Set<UUID> deleted = new HashSet<>();
+        private final Map<Integer, List<UUID>> deletedSubtrees = new HashMap<>();
+        // Cambios acumulados por tarea (varias operaciones sobre la misma tarea = una entrada)
+        private final Map<UUID, FieldDiff> diffs = new LinkedHashMap<>();
+        // Columna del tablero de cada tarea antes de cambiarle estado o proyecto
+        private final Map<UUID, TaskRankService.Column> columns = new LinkedHashMap<>();
+        // Resultado de comprobar cada tarea padre ("" = válida), una vez por padre
+        private final Map<UUID, String> parentErrors = new HashMap<>();
+
+        private Batch(Map<UUID, Project> projects, Map<UUID, Task> tasks,
+                      Map<UUID, Map<String, CustomFieldDefinition>> definitions, Map<UUID, List<UUID>> subtrees) {
+            this.projects = projects;
+            this.tasks = tasks;
+            this.definitions = definitions;
+            this.subtrees = subtrees;
+        }
+    }
+
+    @Transactional
+    public TaskBulkResultDto execute(TaskBulkRequestDto request) {
+        List<Operation> operations = request.getOperations();
+        log.info("📦 Ejecutando {} operaciones masivas sobre tareas", operations.size());
+
+        // 1. Cargar proyectos y tareas implicados con una consulta cada uno
+        Map<UUID, Project> projects = projectRepository.findAllById(distinct(operations, Operation::getProjectId))
+                .stream()
+                .collect(Collectors.toMap(Project::getId, project -> project));
+        Map<UUID, Task> tasks = taskRepository.findAllById(distinct(operations, Operation::getTaskId,
+                        Operation::getParentId))
+                .stream()
+                .collect(Collectors.toMap(Task::getId, task -> task));
+
+        // Definiciones de campos personalizados, solo de los proyectos con altas que traen valores
+        // y de los de origen y destino de las tareas con valores que se mueven
+        Set<UUID> withCustomFields = new HashSet<>();
+        for (Operation operation : operations) {
+            Task moved = tasks.get(operation.getTaskId());
+            if (operation.getType() == TaskBulkRequestDto.OperationType.CREATE && hasCustomFields(operation.getTask())
+                    && projects.containsKey(operation.getProjectId())) {
+                withCustomFields.add(operation.getProjectId());
+            } else if (operation.getType() == TaskBulkRequestDto.OperationType.MOVE && hasCustomFields(moved)
+                    && projects.containsKey(operation.getProjectId())) {
+                withCustomFields.add(operation.getProjectId());
+                withCustomFields.add(moved.getProject().getId());
+            }
+        }
+        Map<UUID, Map<String, CustomFieldDefinition>> definitions =
+                customFieldService.definitionsByProject(withCustomFields);
+
+        // Subárboles de las tareas a borrar, con una consulta a task_closure
+        Set<UUID> deleteRoots = operations.stream()
+                .filter(operation -> operation.getType() == TaskBulkRequestDto.OperationType.DELETE)
+                .map(Operation::getTaskId)
+                .filter(tasks::containsKey)
+                .collect(Collectors.toSet());
+        Map<UUID, List<UUID>> subtrees = deleteRoots.isEmpty() ? Map.of()
+                : taskRepository.findSubtreeIds(deleteRoots).stream()
+                .collect(Collectors.groupingBy(columns -> (UUID) columns[0],
+                        Collectors.mapping(columns -> (UUID) columns[1], Collectors.toList())));
+
+        // 2. Aplicar cambios en memoria (las tareas cargadas están gestionadas: dirty checking)
+        Batch batch = new Batch(projects, tasks, definitions, subtrees);
+        List<ItemResult> results = new ArrayList<>(operations.size());
+        for (int i = 0; i < operations.size(); i++) {
+            results.add(apply(i, operations.get(i), batch));
+        }
+
+        // Altas cuya tarea padre ha borrado una operación posterior
+        for (int i = 0; i < operations.size(); i++) {
+            Task task = operations.get(i).getTask();
+            if (results.get(i).isSuccess() && operations.get(i).getType() == TaskBulkRequestDto.OperationType.CREATE
+                    && task.getParentId() != null && batch.deleted.contains(task.getParentId())) {
+                results.set(i, ItemResult.error(i, null, "La tarea padre se elimina en esta misma operación"));
+                batch.toCreate.removeIf(created -> created == task);
+            }
+        }
+
+        // 3. Escrituras agrupadas: saveAll + flush al hacer commit
+        // (las tareas que cambian de columna y las nuevas van al final de la suya, en el orden de la petición)
+        taskRankService.appendRanks(toRank(batch));
+        taskRepository.saveAll(batch.toCreate);
+        if (!batch.deletedSubtrees.isEmpty()) {
+            deleteSubtrees(operations, batch);
+        }
+
+        // Los ids de las tareas nuevas se generan en el persist
+        for (int i = 0; i < operations.size(); i++) {
+            Operation operation = operations.get(i);
+            ItemResult result = results.get(i);
+            if (result.isSuccess() && operation.getType() == TaskBulkRequestDto.OperationType.CREATE) {
+                result.setTaskId(operation.getTask().getId());
+            }
+        }
+        publishChanges(operations, results, batch);
+        recordActivity(operations, results, batch);
+
+        int succeeded = (int) results.stream().filter(ItemResult::isSuccess).count();
+        log.info("✅ Operaciones masivas: {} correctas, {} con error", succeeded, results.size() - succeeded);
+        return new TaskBulkResultDto(succeeded, results.size() - succeeded, results);
+    }
+
+    /**
+     * Borra los subárboles de todas las operaciones DELETE correctas en una sentencia.
+     * Los cambios pendientes se escriben antes (un flush): el DELETE puede incluir tareas modificadas.
+     * Cada operación se queda con los ids que de verdad se han borrado.
+     */
+    private void deleteSubtrees(List<Operation> operations, Batch batch) {
+        Set<UUID> roots = batch.deletedSubtrees.keySet().stream()
+                .map(index -> operations.get(index).getTaskId())
+                .collect(Collectors.toSet());
+        taskRepository.flush();
+        Set<UUID> deleted = new HashSet<>(taskRepository.deleteSubtreesReturningIds(roots));
+        batch.deletedSubtrees.replaceAll((index, ids) -> ids.stream().filter(deleted::contains).toList());
+        log.info("🗑️ {} tareas eliminadas ({} subárboles)", deleted.size(), roots.size());
+    }
+
+    /**
+     * Publica un TaskChange por tarea afectada, también por cada subtarea borrada
+     * (los listeners lo reciben tras el commit).
+     */
+    private void publishChanges(List<Operation> operations, List<ItemResult> results, Batch batch) {
+        for (int i = 0; i < operations.size(); i++) {
+            Operation operation = operations.get(i);
+            if (!results.get(i).isSuccess()) {
+                continue;
+            }
+            switch (operation.getType()) {
+                case CREATE -> eventPublisher.publishEvent(TaskChange.saved(operation.getTask()));
+                case DELETE -> batch.deletedSubtrees.get(i)
+                        .forEach(taskId -> eventPublisher.publishEvent(TaskChange.deleted(taskId)));
+                default -> {
+                    if (!batch.deleted.contains(operation.getTaskId())) {
+                        eventPublisher.publishEvent(TaskChange.saved(batch.tasks.get(operation.getTaskId())));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Registra la actividad: altas, bajas (una por tarea del subárbol) y un diff por
+     * tarea modificada (y no borrada).
+     */
+    private void recordActivity(List<Operation> operations, List<ItemResult> results, Batch batch) {
+        for (int i = 0; i < operations.size(); i++) {
+            Operation operation = operations.get(i);
+            if (!results.get(i).isSuccess()) {
+                continue;
+            }
+            if (operation.getType() == TaskBulkRequestDto.OperationType.CREATE) {
+                Task task = operation.getTask();
+                activityRecorder.created(ActivityEntityType.TASK, task.getId(), null, task.getProject().getId(),
+                        TaskService.diff(null, task));
+            } else if (operation.getType() == TaskBulkRequestDto.OperationType.DELETE) {
+                // Las subtareas están siempre en el proyecto de su raíz
+                UUID projectId = batch.tasks.get(operation.getTaskId()).getProject().getId();
+                batch.deletedSubtrees.get(i).forEach(taskId ->
+                        activityRecorder.deleted(ActivityEntityType.TASK, taskId, null, projectId));
+            }
+        }
+        batch.diffs.forEach((taskId, diff) -> {
+            if (!batch.deleted.contains(taskId)) {
+                activityRecorder.updated(ActivityEntityType.TASK, taskId, null,
+                        batch.tasks.get(taskId).getProject().getId(), diff);
+            }
+        });
+    }
+
+    private ItemResult apply(int index, Operation operation, Batch batch) {
+        if (operation.getType() == TaskBulkRequestDto.OperationType.CREATE) {
+            return create(index, operation, batch);
+        }
+
+        UUID taskId = operation.getTaskId();
+        if (taskId == null) {
+            return ItemResult.error(index, null, "taskId es obligatorio");
+        }
+        if (batch.deleted.contains(taskId)) {
+            return ItemResult.error(index, taskId, "La tarea se elimina en esta misma operación");
+        }
+        Task task = batch.tasks.get(taskId);
+        if (task == null) {
+            return ItemResult.error(index, taskId, "Tarea no encontrada");
+        }
+
+        switch (operation.getType()) {
+            case UPDATE_STATUS -> {
+                if (operation.getStatus() == null) {
+                    return ItemResult.error(index, taskId, "status es obligatorio");
+                }
+                diff(batch.diffs, taskId).field("status", task.getStatus(), operation.getStatus());
+                batch.columns.putIfAbsent(taskId, column(task));
+                task.setStatus(operation.getStatus());
+            }
+            case REASSIGN -> {
+                diff(batch.diffs, taskId).field("assignedTo", task.getAssignedTo(), operation.getAssignedTo());
+                task.setAssignedTo(operation.getAssignedTo());
+            }
+            case MOVE -> {
+                Project project = batch.projects.get(operation.getProjectId());
+                if (project == null) {
+                    return ItemResult.error(index, taskId, "Proyecto no encontrado");
+                }
+                String error = customFieldsError(task, project, batch);
+                if (!error.isEmpty()) {
+                    return ItemResult.error(index, taskId, error);
+                }
+                diff(batch.diffs, taskId).field("projectId", task.getProject().getId(), project.getId());
+                batch.columns.putIfAbsent(taskId, column(task));
+                task.setProject(project);
+            }
+            case DELETE -> {
+                // Se borra al final (deleteSubtrees); las subtareas ya borradas por otra operación no se repiten
+                List<UUID> ids = batch.subtrees.getOrDefault(taskId, List.of(taskId)).stream()
+                        .filter(id -> !batch.deleted.contains(id))
+                        .toList();
+                batch.deleted.addAll(ids);
+                batch.deletedSubtrees.put(index, ids);
+            }
+            default -> {
+                return ItemResult.error(index, taskId, "Operación no soportada");
+            }
+        }
+        return ItemResult.ok(index, taskId);
+    }
+
+    private ItemResult create(int index, Operation operation, Batch batch) {
+        Task task = operation.getTask();
+        if (task == null) {
+            return ItemResult.error(index, null, "task es obligatorio");
+        }
+        Project project = batch.projects.get(operation.getProjectId());
+        if (project == null) {
+            return ItemResult.error(index, null, "Proyecto no encontrado");
+        }
+
+        Set<ConstraintViolation<Task>> violations = validator.validate(task);
+        if (!violations.isEmpty()) {
+            String message = violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+            return ItemResult.error(index, null, message);
+        }
+        UUID parentId = operation.getParentId();
+        if (parentId != null) {
+            String error = parentError(project, parentId, batch);
+            if (!error.isEmpty()) {
+                return ItemResult.error(index, null, error);
+            }
+        }
+        // Igual que TaskService.createTask: valores validados contra las definiciones del proyecto
+        Map<String, Object> customFields;
+        try {
+            customFields = CustomFieldService.normalizeValues(
+                    batch.definitions.getOrDefault(project.getId(), Map.of()), task.getCustomFields());
+        } catch (IllegalArgumentException e) {
+            return ItemResult.error(index, null, e.getMessage());
+        }
+
+        // Mismos valores por defecto que TaskService.createTask
+        task.setId(null);
+        task.setProject(project);
+        task.setParentId(parentId);
+        task.setCustomFields(customFields);
+        if (task.getStatus() == null) {
+            task.setStatus(Task.TaskStatus.TO_DO);
+        }
+        if (task.getPriority() == null) {
+            task.setPriority(Task.TaskPriority.MEDIUM);
+        }
+        batch.toCreate.add(task);
+        return ItemResult.ok(index, null);
+    }
+
+    /**
+     * Motivo por el que no se puede crear una subtarea de parentId en el proyecto ("" = se puede).
+     * Las tareas padre tienen que existir antes de la petición.
+     */
+    private String parentError(Project project, UUID parentId, Batch batch) {
+        if (batch.deleted.contains(parentId)) {
+            return "La tarea padre se elimina en esta misma operación";
+        }
+        Task parent = batch.tasks.get(parentId);
+        if (parent == null) {
+            return "Tarea padre no encontrada";
+        }
+        if (!parent.getProject().getId().equals(project.getId())) {
+            return "Una subtarea debe estar en el proyecto de su tarea padre";
+        }
+        return batch.parentErrors.computeIfAbsent(parentId, id -> {
+            try {
+                taskHierarchyService.checkNewSubtask(project.getId(), id);
+                return "";
+            } catch (IllegalArgumentException e) {
+                return e.getMessage();
+            }
+        });
+    }
+
+    /**
+     * Motivo por el que los campos personalizados de una tarea no valen en el proyecto destino
+     * ("" = valen). Se validaron con las definiciones de su proyecto y la columna no se reescribe
+     * al moverla: cada clave tiene que existir en el destino con el mismo tipo y su valor ser válido.
+     */
+    private static String customFieldsError(Task task, Project target, Batch batch) {
+        UUID source = task.getProject().getId();
+        if (!hasCustomFields(task) || source.equals(target.getId())) {
+            return "";
+        }
+        Map<String, CustomFieldDefinition> current = batch.definitions.getOrDefault(source, Map.of());
+        Map<String, CustomFieldDefinition> definitions = batch.definitions.getOrDefault(target.getId(), Map.of());
+        for (String key : task.getCustomFields().keySet()) {
+            CustomFieldDefinition definition = definitions.get(key);
+            if (definition == null
+                    || current.containsKey(key) && current.get(key).getType() != definition.getType()) {
+                return "El proyecto destino no tiene el campo personalizado '" + key + "' con el mismo tipo";
+            }
+        }
+        try {
+            CustomFieldService.normalizeValues(definitions, task.getCustomFields());
+            return "";
+        } catch (IllegalArgumentException e) {
+            return e.getMessage();
+        }
+    }
+
+    private static boolean hasCustomFields(Task task) {
+        return task != null && task.getCustomFields() != null && !task.getCustomFields().isEmpty();
+    }
+
+    /**
+     * Tareas a colocar al final de su columna: las que acaban en otra columna (y no se borran)
+     * y después las nuevas.
+     */
+    private static List<Task> toRank(Batch batch) {
+        List<Task> tasks = new ArrayList<>();
+        batch.columns.forEach((taskId, previous) -> {
+            Task task = batch.tasks.get(taskId);
+            if (!batch.deleted.contains(taskId) && !previous.equals(column(task))) {
+                tasks.add(task);
+            }
+        });
+        tasks.addAll(batch.toCreate);
+        return tasks;
+    }
+
+    private static TaskRankService.Column column(Task task) {
+        return new TaskRankService.Column(task.getProject().getId(), task.getStatus());
+    }
+
+    private static FieldDiff diff(Map<UUID, FieldDiff> diffs, UUID taskId) {
+        return diffs.computeIfAbsent(taskId, id -> FieldDiff.of());
+    }
+
+    @SafeVarargs
+    private static Set<UUID> distinct(List<Operation> operations, Function<Operation, UUID>... ids) {
+        return operations.stream()
+                .flatMap(operation -> Stream.of(ids).map(id -> id.apply(operation)))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(HashSet::new));
+    }
+}
@@ -0,0 +1,363 @@
+package com.plandai.coreservice.services;
+
+import com.plandai.coreservice.changes.TaskChange;
+import com.plandai.coreservice.dependencies.DependencyGraph;
+import com.plandai.coreservice.dto.DependencyGraphDto;
+import com.plandai.coreservice.entities.Task;
+import com.plandai.coreservice.exception.ResourceNotFoundException;
+import com.plandai.coreservice.repositories.ProjectRepository;
+import com.plandai.coreservice.repositories.TaskRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Date;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Servicio de dependencias entre tareas ("bloqueada por").
+ *
+ * - Las aristas viven en task_dependencies (V13); las consultas se resuelven con un
+ *   índice en memoria por proyecto (DependencyGraph), cargado con dos SELECT la primera vez.
+ * - Cada alta o baja de dependencias sube la versión del proyecto (trigger). Antes de usar
+ *   el índice se compara con esa versión (una lectura por clave primaria): los cambios
+ *   hechos desde otro nodo obligan a recargarlo.
+ * - Las altas se serializan por proyecto (FOR UPDATE sobre su versión) y rechazan ciclos
+ *   con el orden topológico incremental del índice.
+ * - Las escrituras de tareas (TaskChange tras el commit) actualizan o invalidan el índice.
+ */
+@Service
+@Slf4j
+public class TaskDependencyService {
+
+    private static final String ENSURE_VERSION_SQL = """
+            INSERT INTO core_schema.task_dependency_versions (project_id) VALUES (?)
+            ON CONFLICT (project_id) DO NOTHING
+            """;
+
+    private static final String LOCK_VERSION_SQL = """
+            SELECT version FROM core_schema.task_dependency_versions
+             WHERE project_id = ?
+               FOR UPDATE
+            """;
+
+    private static final String VERSION_SQL =
+            "SELECT version FROM core_schema.task_dependency_versions WHERE project_id = ?";
+
+    private static final String NODES_SQL = """
+            SELECT id, status, due_date FROM core_schema.tasks
+             WHERE project_id = ?
+             ORDER BY created_at, id
+            """;
+
+    private static final String EDGES_SQL =
+            "SELECT task_id, blocked_by FROM core_schema.task_dependencies WHERE project_id = ?";
+
+    private static final String INSERT_SQL = """
+            INSERT INTO core_schema.task_dependencies (task_id, blocked_by, project_id)
+            VALUES (?, ?, ?)
+            """;
+
+    private static final String DELETE_SQL = """
+            DELETE FROM core_schema.task_dependencies
+             WHERE task_id = ? AND blocked_by = ?
+            RETURNING project_id
+            """;
+
+    /**
+     * Aristas archivadas de la tarea cuyos dos extremos vuelven a estar vivos en el proyecto (V26).
+     */
+    private static final String RESTORE_ARCHIVED_SQL = """
+            DELETE FROM core_schema.task_dependencies_archive a
+             WHERE (a.task_id = ? OR a.blocked_by = ?)
+               AND EXISTS (SELECT 1 FROM core_schema.tasks t
+                            WHERE t.id = a.task_id AND t.project_id = a.project_id)
+               AND EXISTS (SELECT 1 FROM core_schema.tasks b
+                            WHERE b.id = a.blocked_by AND b.project_id = a.project_id)
+            RETURNING a.task_id, a.blocked_by, a.project_id
+            """;
+
+    /**
+     * Índice cargado y cuándo (los estados y fechas cambiados desde otros nodos
+     * no suben la versión: caducan con el TTL).
+     */
+    private record CachedGraph(DependencyGraph graph, long loadedAtMillis) {
+    }
+
+    private final TaskRepository taskRepository;
+    private final ProjectRepository projectRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final Clock clock;
+    private final long ttlMillis;
+    private final Map<UUID, CachedGraph> graphs = new ConcurrentHashMap<>();
+
+    @Autowired
+    public TaskDependencyService(TaskRepository taskRepository,
+                                 ProjectRepository projectRepository,
+                                 JdbcTemplate jdbcTemplate,
+                                 @Value("${dependencies.cache.ttl:PT2M}") String ttl) {
+        this(taskRepository, projectRepository, jdbcTemplate, Clock.systemDefaultZone(), Duration.parse(ttl));
+    }
+
+    TaskDependencyService(TaskRepository taskRepository, ProjectRepository projectRepository,
+                          JdbcTemplate jdbcTemplate, Clock clock, Duration ttl) {
+        this.taskRepository = taskRepository;
+        this.projectRepository = projectRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.clock = clock;
+        this.ttlMillis = ttl.toMillis();
+    }
+
+    /**
+     * Marca taskId como bloqueada por blockedById.
+     * Idempotente: si la dependencia ya existe no hace nada.
+     *
+     * @throws IllegalArgumentException si las tareas son de proyectos distintos o se formaría un ciclo
+     */
+    @Transactional
+    public void addDependency(UUID taskId, UUID blockedById) {
+        log.info("🔗 Añadiendo dependencia: {} bloqueada por {}", taskId, blockedById);
+        if (taskId.equals(blockedById)) {
+            throw new IllegalArgumentException("Una tarea no puede depender de sí misma");
+        }
+        UUID projectId = sameProject(taskId, blockedById);
+
+        // Serializa las altas del proyecto y da la versión que ve esta transacción
+        jdbcTemplate.update(ENSURE_VERSION_SQL, projectId);
+        long version = jdbcTemplate.queryForObject(LOCK_VERSION_SQL, Long.class, projectId);
+        DependencyGraph graph = graph(projectId, version, Set.of(taskId, blockedById));
+
+        if (graph.hasDependency(taskId, blockedById)) {
+            log.info("✅ La dependencia ya existía");
+            return;
+        }
+        List<UUID> cycle = graph.cycleIfAdded(taskId, blockedById);
+        if (!cycle.isEmpty()) {
+            log.warn("⚠️ Dependencia rechazada por ciclo: {}", cycle);
+            throw new IllegalArgumentException("La dependencia crearía un ciclo: " + cycle);
+        }
+
+        jdbcTemplate.update(INSERT_SQL, taskId, blockedById, projectId);
+        afterCommit(() -> {
+            graph.addDependency(taskId, blockedById, version + 1);
+            cache(projectId, new CachedGraph(graph, clock.millis()));
+        });
+        log.info("✅ Dependencia añadida");
+    }
+
+    /**
+     * Quita la dependencia "taskId bloqueada por blockedById".
+     */
+    @Transactional
+    public void removeDependency(UUID taskId, UUID blockedById) {
+        log.info("🔗 Quitando dependencia: {} bloqueada por {}", taskId, blockedById);
+        List<UUID> projects = jdbcTemplate.queryForList(DELETE_SQL, UUID.class, taskId, blockedById);
+        if (projects.isEmpty()) {
+            throw new ResourceNotFoundException("Dependencia", taskId + " → " + blockedById);
+        }
+        // La versión ya ha cambiado: la próxima lectura recarga el índice
+        afterCommit(() -> graphs.remove(projects.get(0)));
+        log.info("✅ Dependencia eliminada");
+    }
+
+    /**
+     * Devuelve a task_dependencies las aristas que tenía una tarea al archivarse (TaskArchiveService).
+     * Las que ya existen o cerrarían un ciclo con dependencias creadas mientras estaba
+     * archivada se descartan: restaurar nunca falla por ellas.
+     *
+     * @return número de dependencias restauradas
+     */
+    @Transactional
+    public int restoreArchived(UUID taskId) {
+        List<DependencyGraph.Edge> archived = new ArrayList<>();
+        UUID projectId = null;
+        for (Map<String, Object> row : jdbcTemplate.queryForList(RESTORE_ARCHIVED_SQL, taskId, taskId)) {
+            archived.add(new DependencyGraph.Edge((UUID) row.get("task_id"), (UUID) row.get("blocked_by")));
+            projectId = (UUID) row.get("project_id");
+        }
+        if (archived.isEmpty()) {
+            return 0;
+        }
+
+        jdbcTemplate.update(ENSURE_VERSION_SQL, projectId);
+        long version = jdbcTemplate.queryForObject(LOCK_VERSION_SQL, Long.class, projectId);
+        // Copia privada: si la transacción no llega a confirmarse la caché no ve las aristas añadidas
+        DependencyGraph graph = load(projectId, version);
+
+        List<Object[]> inserts = new ArrayList<>();
+        for (DependencyGraph.Edge edge : archived) {
+            if (graph.hasDependency(edge.taskId(), edge.blockedBy())) {
+                continue;
+            }
+            if (!graph.addDependency(edge.taskId(), edge.blockedBy(), version + inserts.size() + 1)) {
+                log.warn("⚠️ Dependencia archivada descartada por ciclo: {} bloqueada por {}",
+                        edge.taskId(), edge.blockedBy());
+                continue;
+            }
+            inserts.add(new Object[]{edge.taskId(), edge.blockedBy(), projectId});
+        }
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, inserts);
+        }
+
+        UUID restoredProject = projectId;
+        afterCommit(() -> graphs.remove(restoredProject));
+        log.info("🔗 {} dependencia(s) restaurada(s) con la tarea {}", inserts.size(), taskId);
+        return inserts.size();
+    }
+
+    /**
+     * Grafo de un proyecto: orden topológico, tareas bloqueadas y ruta crítica.
+     */
+    @Transactional(readOnly = true)
+    public DependencyGraphDto getProjectGraph(UUID projectId) {
+        log.info("🕸️ Obteniendo grafo de dependencias del proyecto: {}", projectId);
+        DependencyGraph graph = graph(projectId, currentVersion(projectId), Set.of());
+        if (graph.size() == 0 && !projectRepository.existsById(projectId)) {
+            throw new ResourceNotFoundException("Proyecto", projectId);
+        }
+        return new DependencyGraphDto(projectId, graph.topologicalOrder(), graph.blocked(),
+                graph.criticalPath(LocalDate.now(clock)));
+    }
+
+    /**
+     * Tareas abiertas que bloquean (directa o indirectamente) a una tarea, en orden topológico.
+     */
+    @Transactional(readOnly = true)
+    public List<UUID> getBlockers(UUID taskId) {
+        log.info("🕸️ Obteniendo bloqueadores de la tarea: {}", taskId);
+        UUID projectId = projectOf(taskId);
+        return graph(projectId, currentVersion(projectId), Set.of(taskId)).blockersOf(taskId);
+    }
+
+    /**
+     * Mantiene los índices al día tras cada escritura de tareas (TaskService, bulk, tablero).
+     * Estado y fecha límite se actualizan en sitio; altas, bajas y cambios de proyecto invalidan.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChange(TaskChange change) {
+        graphs.forEach((projectId, cached) -> {
+            DependencyGraph graph = cached.graph();
+            boolean inGraph = graph.contains(change.taskId());
+            if (!change.deleted() && projectId.equals(change.projectId()) && inGraph) {
+                graph.updateNode(change.taskId(), change.status() == Task.TaskStatus.DONE, change.dueDate());
+            } else if (inGraph || projectId.equals(change.projectId())) {
+                graphs.remove(projectId, cached);
+            }
+        });
+    }
+
+    /**
+     * Libera los índices caducados (proyectos que nadie ha consultado últimamente).
+     */
+    @Scheduled(fixedDelayString = "${dependencies.cache.evict-interval-ms:60000}")
+    public void evictExpired() {
+        long now = clock.millis();
+        graphs.values().removeIf(cached -> now - cached.loadedAtMillis() > ttlMillis);
+    }
+
+    /**
+     * Índice del proyecto en la versión indicada que contiene las tareas indicadas;
+     * si el de la caché no vale se carga de la base de datos.
+     */
+    private DependencyGraph graph(UUID projectId, long version, Set<UUID> taskIds) {
+        CachedGraph cached = graphs.get(projectId);
+        if (cached != null
+                && cached.graph().version() == version
+                && clock.millis() - cached.loadedAtMillis() <= ttlMillis
+                && taskIds.stream().allMatch(cached.graph()::contains)) {
+            return cached.graph();
+        }
+
+        DependencyGraph graph = load(projectId, version);
+        cache(projectId, new CachedGraph(graph, clock.millis()));
+        return graph;
+    }
+
+    /**
+     * Carga el índice del proyecto de la base de datos, sin pasar por la caché.
+     */
+    private DependencyGraph load(UUID projectId, long version) {
+        long started = System.nanoTime();
+        List<DependencyGraph.Node> nodes = jdbcTemplate.query(NODES_SQL, (rs, rowNum) -> {
+            Date dueDate = rs.getDate(3);
+            return new DependencyGraph.Node(rs.getObject(1, UUID.class),
+                    Task.TaskStatus.DONE.name().equals(rs.getString(2)),
+                    dueDate == null ? null : dueDate.toLocalDate());
+        }, projectId);
+        List<DependencyGraph.Edge> edges = jdbcTemplate.query(EDGES_SQL, (rs, rowNum) ->
+                new DependencyGraph.Edge(rs.getObject(1, UUID.class), rs.getObject(2, UUID.class)), projectId);
+        DependencyGraph graph = DependencyGraph.build(version, nodes, edges);
+        log.debug("Grafo de dependencias del proyecto {} cargado: {} tareas, {} dependencias en {} ms",
+                projectId, nodes.size(), edges.size(), (System.nanoTime() - started) / 1_000_000);
+        return graph;
+    }
+
+    /**
+     * Guarda el índice salvo que ya haya uno más reciente (otra transacción terminó antes).
+     */
+    private void cache(UUID projectId, CachedGraph candidate) {
+        graphs.merge(projectId, candidate, (current, fresh) ->
+                fresh.graph().version() >= current.graph().version() ? fresh : current);
+    }
+
+    private long currentVersion(UUID projectId) {
+        List<Long> versions = jdbcTemplate.queryForList(VERSION_SQL, Long.class, projectId);
+        return versions.isEmpty() ? 0 : versions.get(0);
+    }
+
+    private UUID sameProject(UUID taskId, UUID blockedById) {
+        Map<UUID, UUID> projects = new HashMap<>();
+        for (Object[] row : taskRepository.findRankRows(Set.of(taskId, blockedById))) {
+            projects.put((UUID) row[0], (UUID) row[1]);
+        }
+        UUID projectId = projects.get(taskId);
+        if (projectId == null) {
+            throw new ResourceNotFoundException("Tarea", taskId);
+        }
+        UUID blockerProjectId = projects.get(blockedById);
+        if (blockerProjectId == null) {
+            throw new ResourceNotFoundException("Tarea", blockedById);
+        }
+        if (!projectId.equals(blockerProjectId)) {
+            throw new IllegalArgumentException("Las dependencias solo pueden unir tareas del mismo proyecto");
+        }
+        return projectId;
+    }
+
+    private UUID projectOf(UUID taskId) {
+        return taskRepository.findRankRows(Set.of(taskId)).stream()
+                .map(row -> (UUID) row[1])
+                .findFirst()
+                .orElseThrow(() -> new ResourceNotFoundException("Tarea", taskId));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,219 @@
+package com.plandai.coreservice.services;
+
+import com.plandai.coreservice.activity.ActivityEntityType;
+import com.plandai.coreservice.activity.ActivityRecorder;
+import com.plandai.coreservice.activity.FieldDiff;
+import com.plandai.coreservice.changes.TaskChange;
+import com.plandai.coreservice.dto.SubtaskProgressDto;
+import com.plandai.coreservice.entities.Task;
+import com.plandai.coreservice.exception.ResourceNotFoundException;
+import com.plandai.coreservice.repositories.TaskRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Servicio de subtareas (jerarquía de tareas).
+ *
+ * - La jerarquía vive en tasks.parent_id y en la tabla de clausura task_closure (V16),
+ *   que mantienen los triggers: subárbol, nivel, altura y progreso acumulado son una
+ *   consulta por índice, nunca un recorrido recursivo.
+ * - Los cambios de jerarquía de un proyecto se serializan bloqueando su fila: dos
+ *   movimientos simultáneos no pueden crear un ciclo ni superar subtasks.max-depth.
+ * - Mover una tarea mueve su subárbol entero; borrarla borra su subárbol (TaskService).
+ */
+@Service
+@Slf4j
+public class TaskHierarchyService {
+
+    private static final String LOCK_PROJECT_SQL =
+            "SELECT id FROM core_schema.projects WHERE id = ? FOR NO KEY UPDATE";
+
+    /**
+     * Proyecto, padre, nivel (distancia a su raíz) y altura (niveles por debajo) de una tarea.
+     */
+    private static final String NODE_SQL = """
+            SELECT t.project_id, t.parent_id,
+                   (SELECT max(a.depth) FROM core_schema.task_closure a WHERE a.descendant_id = t.id),
+                   (SELECT max(d.depth) FROM core_schema.task_closure d WHERE d.ancestor_id = t.id)
+              FROM core_schema.tasks t
+             WHERE t.id = ?
+            """;
+
+    private static final String IS_DESCENDANT_SQL = """
+            SELECT count(*) FROM core_schema.task_closure
+             WHERE ancestor_id = ? AND descendant_id = ?
+            """;
+
+    private static final String PROGRESS_SQL = """
+            SELECT count(*),
+                   count(*) FILTER (WHERE c.depth > 0),
+                   count(*) FILTER (WHERE c.depth > 0 AND t.status = 'DONE'),
+                   bool_or(c.depth = 0 AND t.status = 'DONE')
+              FROM core_schema.task_closure c
+              JOIN core_schema.tasks t ON t.id = c.descendant_id
+             WHERE c.ancestor_id = ?
+            """;
+
+    /**
+     * Progreso de todas las tareas con subtareas de un proyecto: cada subtarea suma a
+     * cada uno de sus ancestros (idx_task_closure_descendant).
+     */
+    private static final String PROJECT_PROGRESS_SQL = """
+            SELECT c.ancestor_id, count(*), count(*) FILTER (WHERE t.status = 'DONE')
+              FROM core_schema.tasks t
+              JOIN core_schema.task_closure c ON c.descendant_id = t.id AND c.depth > 0
+             WHERE t.project_id = ?
+             GROUP BY c.ancestor_id
+            """;
+
+    private record Node(UUID projectId, UUID parentId, int depth, int height) {
+    }
+
+    private final TaskRepository taskRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ActivityRecorder activityRecorder;
+    private final int maxDepth;
+
+    public TaskHierarchyService(TaskRepository taskRepository,
+                                JdbcTemplate jdbcTemplate,
+                                ApplicationEventPublisher eventPublisher,
+                                ActivityRecorder activityRecorder,
+                                @Value("${subtasks.max-depth:4}") int maxDepth) {
+        this.taskRepository = taskRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        this.activityRecorder = activityRecorder;
+        this.maxDepth = maxDepth;
+    }
+
+    /**
+     * Comprueba que una tarea nueva del proyecto puede colgar de parentId.
+     * Se llama dentro de la transacción del alta (el bloqueo dura hasta su commit).
+     *
+     * No marca la transacción para rollback al rechazar: las altas masivas (TaskBulkService)
+     * lo devuelven como error del elemento y siguen con el resto.
+     *
+     * @throws IllegalArgumentException si el padre es de otro proyecto o se supera el máximo de niveles
+     */
+    @Transactional(noRollbackFor = IllegalArgumentException.class)
+    public void checkNewSubtask(UUID projectId, UUID parentId) {
+        lockProject(projectId);
+        Node parent = node(parentId);
+        if (!parent.projectId().equals(projectId)) {
+            throw new IllegalArgumentException("Una subtarea debe estar en el proyecto de su tarea padre");
+        }
+        checkDepth(parent.depth() + 1);
+    }
+
+    /**
+     * Cuelga una tarea, con todo su subárbol, de otra tarea del mismo proyecto
+     * (parentId = null la convierte en raíz). Una sola escritura: los triggers mueven la clausura.
+     *
+     * @throws IllegalArgumentException si se formaría un ciclo o se supera el máximo de niveles
+     */
+    @Transactional
+    public Task moveSubtree(UUID taskId, UUID parentId) {
+        log.info("🌳 Moviendo subárbol de la tarea {} bajo {}", taskId, parentId);
+
+        lockProject(node(taskId).projectId());
+        Node node = node(taskId);
+        if (parentId != null) {
+            if (parentId.equals(taskId)) {
+                throw new IllegalArgumentException("Una tarea no puede ser subtarea de sí misma");
+            }
+            Node parent = node(parentId);
+            if (!parent.projectId().equals(node.projectId())) {
+                throw new IllegalArgumentException("Una subtarea debe estar en el proyecto de su tarea padre");
+            }
+            if (isDescendant(taskId, parentId)) {
+                throw new IllegalArgumentException("Una tarea no puede colgar de una de sus propias subtareas");
+            }
+            checkDepth(parent.depth() + 1 + node.height());
+        }
+
+        if (Objects.equals(node.parentId(), parentId)) {
+            log.info("✅ La tarea ya estaba en esa posición de la jerarquía");
+            return taskRepository.findById(taskId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Tarea", taskId));
+        }
+        Task moved = taskRepository.reparentReturning(taskId, parentId)
+                .orElseThrow(() -> new ResourceNotFoundException("Tarea", taskId));
+        eventPublisher.publishEvent(TaskChange.saved(moved));
+        activityRecorder.updated(ActivityEntityType.TASK, taskId, null, node.projectId(),
+                FieldDiff.of().field("parentId", node.parentId(), parentId));
+
+        log.info("✅ Subárbol movido");
+        return moved;
+    }
+
+    /**
+     * Una tarea y todas sus subtareas (a cualquier nivel), por niveles.
+     * Cada tarea trae su parentId para reconstruir el árbol en el cliente.
+     */
+    @Transactional(readOnly = true)
+    public List<Task> getSubtree(UUID taskId) {
+        log.info("🌳 Obteniendo subárbol de la tarea: {}", taskId);
+        List<Task> subtree = taskRepository.findSubtree(taskId);
+        if (subtree.isEmpty()) {
+            throw new ResourceNotFoundException("Tarea", taskId);
+        }
+        return subtree;
+    }
+
+    /**
+     * Progreso acumulado de una tarea: subtareas a cualquier nivel y cuántas están DONE.
+     */
+    @Transactional(readOnly = true)
+    public SubtaskProgressDto getProgress(UUID taskId) {
+        return jdbcTemplate.queryForObject(PROGRESS_SQL, (rs, rowNum) -> {
+            if (rs.getLong(1) == 0) {
+                throw new ResourceNotFoundException("Tarea", taskId);
+            }
+            return SubtaskProgressDto.of(taskId, rs.getLong(2), rs.getLong(3), rs.getBoolean(4));
+        }, taskId);
+    }
+
+    /**
+     * Progreso acumulado de todas las tareas con subtareas de un proyecto (para el tablero).
+     */
+    @Transactional(readOnly = true)
+    public List<SubtaskProgressDto> getProjectProgress(UUID projectId) {
+        log.info("🌳 Obteniendo progreso de subtareas del proyecto: {}", projectId);
+        return jdbcTemplate.query(PROJECT_PROGRESS_SQL, (rs, rowNum) ->
+                SubtaskProgressDto.of(rs.getObject(1, UUID.class), rs.getLong(2), rs.getLong(3), false), projectId);
+    }
+
+    private void lockProject(UUID projectId) {
+        if (jdbcTemplate.queryForList(LOCK_PROJECT_SQL, UUID.class, projectId).isEmpty()) {
+            throw new ResourceNotFoundException("Proyecto", projectId);
+        }
+    }
+
+    private Node node(UUID taskId) {
+        return jdbcTemplate.query(NODE_SQL, (rs, rowNum) -> new Node(rs.getObject(1, UUID.class),
+                        rs.getObject(2, UUID.class), rs.getInt(3), rs.getInt(4)), taskId)
+                .stream()
+                .findFirst()
+                .orElseThrow(() -> new ResourceNotFoundException("Tarea", taskId));
+    }
+
+    private boolean isDescendant(UUID ancestorId, UUID taskId) {
+        return jdbcTemplate.queryForObject(IS_DESCENDANT_SQL, Long.class, ancestorId, taskId) > 0;
+    }
+
+    private void checkDepth(int levels) {
+        if (levels > maxDepth) {
+            throw new IllegalArgumentException(
+                    "Se superaría el máximo de " + maxDepth + " niveles de subtareas");
+        }
+    }
+}
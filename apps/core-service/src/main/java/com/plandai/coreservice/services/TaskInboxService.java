@@ -0,0 +1,100 @@
+package com.plandai.coreservice.services;
+
+import com.plandai.coreservice.dto.InboxItemDto;
+import com.plandai.coreservice.entities.Task;
+import com.plandai.coreservice.pagination.Cursor;
+import com.plandai.coreservice.pagination.CursorPage;
+import com.plandai.coreservice.repositories.TaskRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Bandeja de entrada priorizada del usuario autenticado.
+ *
+ * - La puntuación (prioridad + cercanía de la fecha límite + tiempo sin tocar) se calcula
+ *   en SQL y solo sobre las tareas abiertas del usuario (índice parcial de V10).
+ * - Paginación top-K por cursor (score, id). El cursor fija además el instante "asOf"
+ *   de la primera página: las puntuaciones no cambian mientras se pagina.
+ */
+@Service
+@Slf4j
+public class TaskInboxService {
+
+    public static final int DEFAULT_LIMIT = 20;
+    public static final int MAX_LIMIT = 100;
+
+    private static final char SEPARATOR = '|';
+
+    private final TaskRepository taskRepository;
+    private final Clock clock;
+
+    @Autowired
+    public TaskInboxService(TaskRepository taskRepository) {
+        this(taskRepository, Clock.systemDefaultZone());
+    }
+
+    TaskInboxService(TaskRepository taskRepository, Clock clock) {
+        this.taskRepository = taskRepository;
+        this.clock = clock;
+    }
+
+    /**
+     * Obtiene una página de la bandeja de entrada de un usuario (las más importantes primero).
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<InboxItemDto> getInbox(UUID userId, String cursor, Integer limit) {
+        int pageSize = limit == null ? DEFAULT_LIMIT : Math.max(1, Math.min(MAX_LIMIT, limit));
+        log.info("📥 Obteniendo bandeja de entrada del usuario {} ({} tareas)", userId, pageSize);
+
+        Cursor after = Cursor.decode(cursor);
+        List<Object[]> rows;
+        LocalDateTime asOf;
+        if (after == null) {
+            asOf = LocalDateTime.now(clock);
+            rows = taskRepository.findInbox(userId, asOf, pageSize + 1);
+        } else {
+            // Clave del cursor: "asOf|score"
+            String key = after.key();
+            int separator = key.lastIndexOf(SEPARATOR);
+            double score;
+            try {
+                asOf = LocalDateTime.parse(key.substring(0, Math.max(separator, 0)));
+                score = Double.parseDouble(key.substring(separator + 1));
+            } catch (DateTimeParseException | NumberFormatException e) {
+                throw new IllegalArgumentException("Cursor inválido", e);
+            }
+            rows = taskRepository.findInboxAfter(userId, asOf, score, after.id(), pageSize + 1);
+        }
+
+        List<InboxItemDto> items = rows.stream().map(TaskInboxService::toItem).toList();
+        if (items.size() <= pageSize) {
+            return new CursorPage<>(items, null);
+        }
+        List<InboxItemDto> page = items.subList(0, pageSize);
+        InboxItemDto last = page.get(pageSize - 1);
+        String next = new Cursor(asOf.toString() + SEPARATOR + last.score(), last.id()).encode();
+        return new CursorPage<>(List.copyOf(page), next);
+    }
+
+    private static InboxItemDto toItem(Object[] columns) {
+        Object dueDate = columns[4];
+        return new InboxItemDto(
+                (UUID) columns[0],
+                (String) columns[1],
+                Task.TaskStatus.valueOf((String) columns[2]),
+                Task.TaskPriority.valueOf((String) columns[3]),
+                dueDate instanceof Date date ? date.toLocalDate() : (LocalDate) dueDate,
+                (UUID) columns[5],
+                ((Number) columns[6]).doubleValue());
+    }
+}
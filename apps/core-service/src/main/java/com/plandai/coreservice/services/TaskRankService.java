@@ -0,0 +1,343 @@
+package com.plandai.coreservice.services;
+
+import com.plandai.coreservice.activity.ActivityEntityType;
+import com.plandai.coreservice.activity.ActivityRecorder;
+import com.plandai.coreservice.activity.FieldDiff;
+import com.plandai.coreservice.changes.TaskChange;
+import com.plandai.coreservice.dto.TaskMoveDto;
+import com.plandai.coreservice.dto.TaskRankDto;
+import com.plandai.coreservice.dto.TaskReorderDto;
+import com.plandai.coreservice.entities.Task;
+import com.plandai.coreservice.exception.ResourceNotFoundException;
+import com.plandai.coreservice.ordering.RankKeys;
+import com.plandai.coreservice.repositories.TaskRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Servicio de orden manual de las tarjetas del tablero (drag & drop).
+ *
+ * - Cada tarea tiene una clave fraccionaria "rank" (ver RankKeys) dentro de su columna
+ *   (proyecto + estado). Mover una tarjeta escribe UNA fila: la clave entre sus nuevas vecinas.
+ * - Reordenar un bloque de N tarjetas escribe solo esas N filas (JDBC batch).
+ * - Las claves crecen al insertar muchas veces en el mismo hueco: las columnas con claves
+ *   largas se marcan y un job las reequilibra en segundo plano (claves cortas y uniformes).
+ * - Al cambiar de columna por otras vías (PATCH status, PUT, bulk) la tarea pasa al final
+ *   de la columna de destino (appendRanks, o rank_after de V23 en SQL).
+ */
+@Service
+@Slf4j
+public class TaskRankService {
+
+    /**
+     * Bloquea la columna en su orden actual: nadie la mueve mientras se reescriben las claves.
+     */
+    private static final String LOCK_COLUMN_SQL = """
+            SELECT id FROM core_schema.tasks
+             WHERE project_id = ? AND status = ?
+             ORDER BY rank, id
+               FOR UPDATE
+            """;
+
+    private static final String LONG_RANK_COLUMNS_SQL = """
+            SELECT DISTINCT project_id, status FROM core_schema.tasks
+             WHERE length(rank) > ?
+            """;
+
+    /**
+     * Marca la transacción como reequilibrado: ni updated_at ni las estadísticas del proyecto
+     * se tocan (triggers de V24).
+     */
+    private static final String REBALANCE_MODE_SQL = "SELECT set_config('plandai.task_rank_rebalance', 'on', true)";
+
+    /**
+     * Solo cambia rank (en modo reequilibrado, ver REBALANCE_MODE_SQL).
+     */
+    private static final String REBALANCE_SQL = "UPDATE core_schema.tasks SET rank = ? WHERE id = ?";
+
+    private static final String REORDER_SQL = """
+            UPDATE core_schema.tasks
+               SET status = ?, rank = ?, updated_at = CURRENT_TIMESTAMP
+             WHERE id = ?
+            """;
+
+    /**
+     * Columna del tablero: proyecto + estado.
+     */
+    record Column(UUID projectId, Task.TaskStatus status) {
+    }
+
+    /**
+     * Fila de TaskRepository.findRankRows.
+     */
+    private record RankRow(UUID id, UUID projectId, Task.TaskStatus status, String rank, LocalDate dueDate) {
+    }
+
+    private final TaskRepository taskRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ActivityRecorder activityRecorder;
+    private final Counter columnsRebalanced;
+    private final int rebalanceLength;
+    private final Set<Column> pendingRebalance = ConcurrentHashMap.newKeySet();
+
+    public TaskRankService(TaskRepository taskRepository,
+                           JdbcTemplate jdbcTemplate,
+                           TransactionTemplate transactionTemplate,
+                           ApplicationEventPublisher eventPublisher,
+                           ActivityRecorder activityRecorder,
+                           MeterRegistry meterRegistry,
+                           @Value("${task-rank.rebalance.length:16}") int rebalanceLength) {
+        this.taskRepository = taskRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.activityRecorder = activityRecorder;
+        this.columnsRebalanced = Counter.builder("tasks.rank.rebalanced")
+                .description("Columnas del tablero cuyas claves de orden se han reequilibrado")
+                .register(meterRegistry);
+        this.rebalanceLength = rebalanceLength;
+    }
+
+    /**
+     * Asigna rank a tareas nuevas o que cambian de columna: al final de su columna, en el orden de la lista.
+     * Una consulta (max(rank) por índice) por columna distinta.
+     */
+    public void appendRanks(Collection<Task> tasks) {
+        Map<Column, String> lastRanks = new HashMap<>();
+        for (Task task : tasks) {
+            Column column = new Column(task.getProject().getId(), task.getStatus());
+            String last = lastRanks.containsKey(column)
+                    ? lastRanks.get(column)
+                    : taskRepository.findMaxRank(column.projectId(), column.status());
+            String rank = RankKeys.after(last);
+            task.setRank(rank);
+            lastRanks.put(column, rank);
+            checkLength(column, rank);
+        }
+    }
+
+    /**
+     * Mueve una tarjeta a otra posición (y opcionalmente a otra columna) del tablero.
+     *
+     * Dos sentencias: leer las claves de la tarea y sus vecinas, y un UPDATE ... RETURNING
+     * de la propia tarea. Las vecinas no se modifican.
+     */
+    @Transactional
+    public Task moveTask(UUID taskId, TaskMoveDto move) {
+        log.info("↕️ Moviendo tarea {} (estado: {}, tras: {}, antes de: {})", taskId, move.getStatus(),
+                move.getPreviousTaskId(), move.getNextTaskId());
+
+        Map<UUID, RankRow> rows = loadRows(idsOf(List.of(taskId), move.getPreviousTaskId(), move.getNextTaskId()));
+        RankRow task = require(rows, taskId);
+        Column column = new Column(task.projectId(), move.getStatus() != null ? move.getStatus() : task.status());
+        Set<UUID> moving = Set.of(taskId);
+
+        String rank = ranksFor(column,
+                neighbour(rows, move.getPreviousTaskId(), column, moving),
+                neighbour(rows, move.getNextTaskId(), column, moving), 1).get(0);
+
+        Task saved = taskRepository.moveReturning(taskId, column.status().name(), rank)
+                .orElseThrow(() -> new ResourceNotFoundException("Tarea", taskId));
+        eventPublisher.publishEvent(TaskChange.saved(saved));
+        // El orden dentro de la columna no es actividad; el cambio de columna sí
+        activityRecorder.updated(ActivityEntityType.TASK, taskId, null, task.projectId(),
+                FieldDiff.of().field("status", task.status(), column.status()));
+
+        log.info("✅ Tarea movida a {} (rank {})", column.status(), rank);
+        return saved;
+    }
+
+    /**
+     * Coloca varias tarjetas seguidas, en el orden indicado, en una columna del tablero.
+     * Solo se escriben las tareas indicadas (un UPDATE por tarea, enviados en un batch).
+     */
+    @Transactional
+    public List<TaskRankDto> reorderTasks(TaskReorderDto request) {
+        List<UUID> taskIds = request.getTaskIds();
+        log.info("↕️ Reordenando {} tareas (estado: {})", taskIds.size(), request.getStatus());
+
+        Set<UUID> moving = new HashSet<>(taskIds);
+        if (moving.size() != taskIds.size()) {
+            throw new IllegalArgumentException("La lista de tareas tiene elementos repetidos");
+        }
+        Map<UUID, RankRow> rows = loadRows(idsOf(taskIds, request.getPreviousTaskId(), request.getNextTaskId()));
+        RankRow first = require(rows, taskIds.get(0));
+        Column column = new Column(first.projectId(),
+                request.getStatus() != null ? request.getStatus() : first.status());
+        for (UUID taskId : taskIds) {
+            if (!require(rows, taskId).projectId().equals(column.projectId())) {
+                throw new IllegalArgumentException("Todas las tareas deben ser del mismo proyecto");
+            }
+        }
+
+        List<String> ranks = ranksFor(column,
+                neighbour(rows, request.getPreviousTaskId(), column, moving),
+                neighbour(rows, request.getNextTaskId(), column, moving), taskIds.size());
+
+        List<Object[]> batch = new ArrayList<>(taskIds.size());
+        List<TaskRankDto> result = new ArrayList<>(taskIds.size());
+        for (int i = 0; i < taskIds.size(); i++) {
+            UUID taskId = taskIds.get(i);
+            batch.add(new Object[]{column.status().name(), ranks.get(i), taskId});
+            result.add(new TaskRankDto(taskId, column.status(), ranks.get(i)));
+        }
+        jdbcTemplate.batchUpdate(REORDER_SQL, batch);
+        for (UUID taskId : taskIds) {
+            eventPublisher.publishEvent(new TaskChange(taskId, column.projectId(), false, column.status(),
+                    rows.get(taskId).dueDate()));
+            activityRecorder.updated(ActivityEntityType.TASK, taskId, null, column.projectId(),
+                    FieldDiff.of().field("status", rows.get(taskId).status(), column.status()));
+        }
+
+        log.info("✅ {} tareas reordenadas en {}", taskIds.size(), column.status());
+        return result;
+    }
+
+    /**
+     * Reequilibra las columnas marcadas (claves demasiado largas).
+     * Cada columna va en su propia transacción; si falla se reintenta en la próxima ejecución.
+     *
+     * @return número de columnas reequilibradas
+     */
+    @Scheduled(fixedDelayString = "${task-rank.rebalance.delay-ms:30000}")
+    public int rebalancePending() {
+        List<Column> columns = new ArrayList<>(pendingRebalance);
+        pendingRebalance.removeAll(columns);
+
+        int rebalanced = 0;
+        for (Column column : columns) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> rebalanceColumn(column));
+                rebalanced++;
+            } catch (RuntimeException e) {
+                log.error("❌ Error reequilibrando la columna {} del proyecto {}: {}",
+                        column.status(), column.projectId(), e.getMessage());
+                pendingRebalance.add(column);
+            }
+        }
+        columnsRebalanced.increment(rebalanced);
+        return rebalanced;
+    }
+
+    /**
+     * Barrido de respaldo: busca en la base de datos las columnas con claves largas
+     * (p. ej. las marcadas en otro nodo que se reinició) y las reequilibra.
+     */
+    @Scheduled(cron = "${task-rank.rebalance.sweep-cron:0 40 3 * * *}")
+    public int sweep() {
+        jdbcTemplate.query(LONG_RANK_COLUMNS_SQL, rs -> {
+            pendingRebalance.add(new Column(rs.getObject(1, UUID.class), Task.TaskStatus.valueOf(rs.getString(2))));
+        }, rebalanceLength);
+        return rebalancePending();
+    }
+
+    private void rebalanceColumn(Column column) {
+        jdbcTemplate.queryForObject(REBALANCE_MODE_SQL, String.class);
+        List<UUID> ids = jdbcTemplate.queryForList(LOCK_COLUMN_SQL, UUID.class,
+                column.projectId(), column.status().name());
+        List<String> ranks = RankKeys.spread(ids.size());
+        List<Object[]> batch = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            batch.add(new Object[]{ranks.get(i), ids.get(i)});
+        }
+        jdbcTemplate.batchUpdate(REBALANCE_SQL, batch);
+        log.info("🔀 Columna {} del proyecto {} reequilibrada ({} tareas)",
+                column.status(), column.projectId(), ids.size());
+    }
+
+    /**
+     * Claves para count tarjetas entre previous y next.
+     * Sin vecinas: al final de la columna, con claves consecutivas (las más cortas).
+     */
+    private List<String> ranksFor(Column column, RankRow previous, RankRow next, int count) {
+        List<String> ranks;
+        if (previous == null && next == null) {
+            ranks = new ArrayList<>(count);
+            String last = taskRepository.findMaxRank(column.projectId(), column.status());
+            for (int i = 0; i < count; i++) {
+                last = RankKeys.after(last);
+                ranks.add(last);
+            }
+        } else {
+            try {
+                ranks = RankKeys.between(previous == null ? null : previous.rank(),
+                        next == null ? null : next.rank(), count);
+            } catch (IllegalArgumentException e) {
+                // Vecinas con la misma clave (movimientos concurrentes) o enviadas al revés
+                pendingRebalance.add(column);
+                throw new IllegalArgumentException("Las tareas vecinas no están en orden; recarga la columna", e);
+            }
+        }
+        checkLength(column, ranks.get(ranks.size() - 1));
+        return ranks;
+    }
+
+    private void checkLength(Column column, String rank) {
+        if (rank.length() > rebalanceLength && pendingRebalance.add(column)) {
+            log.debug("Columna {} del proyecto {} marcada para reequilibrar", column.status(), column.projectId());
+        }
+    }
+
+    private RankRow neighbour(Map<UUID, RankRow> rows, UUID neighbourId, Column column, Set<UUID> moving) {
+        if (neighbourId == null) {
+            return null;
+        }
+        if (moving.contains(neighbourId)) {
+            throw new IllegalArgumentException("Una tarea no puede ser su propia vecina");
+        }
+        RankRow row = require(rows, neighbourId);
+        if (!row.projectId().equals(column.projectId()) || row.status() != column.status()) {
+            throw new IllegalArgumentException("La tarea vecina no está en la columna de destino");
+        }
+        return row;
+    }
+
+    private Map<UUID, RankRow> loadRows(Set<UUID> ids) {
+        return taskRepository.findRankRows(ids).stream()
+                .map(columns -> new RankRow((UUID) columns[0], (UUID) columns[1], (Task.TaskStatus) columns[2],
+                        (String) columns[3], (LocalDate) columns[4]))
+                .collect(Collectors.toMap(RankRow::id, Function.identity()));
+    }
+
+    private static RankRow require(Map<UUID, RankRow> rows, UUID taskId) {
+        RankRow row = rows.get(taskId);
+        if (row == null) {
+            throw new ResourceNotFoundException("Tarea", taskId);
+        }
+        return row;
+    }
+
+    private static Set<UUID> idsOf(List<UUID> taskIds, UUID previousTaskId, UUID nextTaskId) {
+        Set<UUID> ids = new HashSet<>(taskIds);
+        if (previousTaskId != null) {
+            ids.add(previousTaskId);
+        }
+        if (nextTaskId != null) {
+            ids.add(nextTaskId);
+        }
+        return ids;
+    }
+}
@@ -1,16 +1,39 @@
 package com.plandai.coreservice.services;
 
+import com.plandai.coreservice.activity.ActivityEntityType;
+import com.plandai.coreservice.activity.ActivityRecorder;
+import com.plandai.coreservice.activity.FieldDiff;
+import com.plandai.coreservice.changes.TaskChange;
+import com.plandai.coreservice.customfields.CustomFieldQuery;
+import com.plandai.coreservice.dto.TaskFilterDto;
+import com.plandai.coreservice.entities.ArchivedTask;
 import com.plandai.coreservice.entities.Project;
 import com.plandai.coreservice.entities.Task;
+import com.plandai.coreservice.exception.ResourceNotFoundException;
+import com.plandai.coreservice.pagination.Cursor;
+import com.plandai.coreservice.pagination.CursorPage;
+import com.plandai.coreservice.pagination.KeysetPagination;
+import com.plandai.coreservice.pagination.KeysetSort;
+import com.plandai.coreservice.repositories.ArchivedTaskRepository;
 import com.plandai.coreservice.repositories.TaskRepository;
+import com.plandai.coreservice.repositories.TaskSpecifications;
+import com.plandai.coreservice.tags.TagMatch;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 /**
  * Servicio de negocio para Task.
@@ -20,8 +43,32 @@ import java.util.UUID;
 @Slf4j
 public class TaskService {
 
+    /**
+     * Orden estable para paginar tareas: fecha de creación + id (índices de V5).
+     */
+    private static final KeysetSort<Task, LocalDateTime> TASKS_BY_CREATION =
+            KeysetSort.asc("createdAt", Task::getCreatedAt, LocalDateTime::parse, Task::getId);
+
+    private static final KeysetSort<ArchivedTask, LocalDateTime> ARCHIVED_BY_CREATION =
+            KeysetSort.asc("createdAt", ArchivedTask::getCreatedAt, LocalDateTime::parse, ArchivedTask::getId);
+
+    /**
+     * El mismo orden en memoria para mezclar vivas y archivadas. El id se compara como texto:
+     * es el orden de PostgreSQL para uuid (UUID.compareTo compara con signo).
+     */
+    private static final Comparator<Task> BY_CREATION = Comparator.comparing(Task::getCreatedAt)
+            .thenComparing(task -> task.getId().toString());
+
     private final TaskRepository taskRepository;
+    private final ArchivedTaskRepository archivedTaskRepository;
     private final ProjectService projectService;
+    private final ProjectTaskStatsService projectTaskStatsService;
+    private final TaskRankService taskRankService;
+    private final TaskHierarchyService taskHierarchyService;
+    private final TagService tagService;
+    private final CustomFieldService customFieldService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ActivityRecorder activityRecorder;
 
     /**
      * Crea una nueva tarea dentro de un proyecto.
@@ -29,16 +76,32 @@ public class TaskService {
      * Validaciones:
      * 1. El proyecto debe existir
      * 2. Si hay assignedTo, verificar que el usuario existe (futuro: integración con Auth Service)
+     * 
+     * La tarea se coloca al final de su columna del tablero.
      */
     @Transactional
     public Task createTask(UUID projectId, Task task) {
+        return createTask(projectId, null, task);
+    }
+
+    /**
+     * Crea una tarea, como subtarea de parentId si no es null.
+     * La tarea padre debe ser del mismo proyecto y no superar el máximo de niveles.
+     */
+    @Transactional
+    public Task createTask(UUID projectId, UUID parentId, Task task) {
         log.info("📝 Creando tarea: {} en proyecto: {}", task.getTitle(), projectId);
 
         // 1. Verificar que el proyecto existe
         Project project = projectService.getProjectById(projectId);
 
-        // 2. Asignar proyecto a la tarea
+        // 2. Asignar proyecto (y padre) a la tarea
         task.setProject(project);
+        if (parentId != null) {
+            taskHierarchyService.checkNewSubtask(projectId, parentId);
+        }
+        task.setParentId(parentId);
+        task.setCustomFields(customFieldService.validateValues(projectId, task.getCustomFields()));
 
         // 3. Establecer valores por defecto si no se proporcionaron
         if (task.getStatus() == null) {
@@ -47,8 +110,12 @@ public class TaskService {
         if (task.getPriority() == null) {
             task.setPriority(Task.TaskPriority.MEDIUM);
         }
+        taskRankService.appendRanks(List.of(task));
 
         Task savedTask = taskRepository.save(task);
+        eventPublisher.publishEvent(TaskChange.saved(savedTask));
+        activityRecorder.created(ActivityEntityType.TASK, savedTask.getId(), null, projectId,
+                diff(null, savedTask));
         log.info("✅ Tarea creada exitosamente con ID: {}", savedTask.getId());
         return savedTask;
     }
@@ -62,10 +129,24 @@ public class TaskService {
         return taskRepository.findById(id)
                 .orElseThrow(() -> {
                     log.error("❌ Tarea no encontrada: {}", id);
-                    return new IllegalArgumentException("Tarea no encontrada");
+                    return new ResourceNotFoundException("Tarea", id);
                 });
     }
 
+    /**
+     * Obtiene una tarea por ID buscando también en el archivo si includeArchived.
+     */
+    @Transactional(readOnly = true)
+    public Task getTaskById(UUID id, boolean includeArchived) {
+        if (!includeArchived) {
+            return getTaskById(id);
+        }
+        log.info("🔍 Buscando tarea con ID: {} (incluidas archivadas)", id);
+        return taskRepository.findById(id)
+                .or(() -> archivedTaskRepository.findById(id).map(ArchivedTask::toTask))
+                .orElseThrow(() -> new ResourceNotFoundException("Tarea", id));
+    }
+
     /**
      * Obtiene todas las tareas de un proyecto.
      */
@@ -122,6 +203,107 @@ public class TaskService {
         return taskRepository.findAll();
     }
 
+    /**
+     * Busca tareas combinando cualquier mezcla de filtros (todos en SQL).
+     * Sin filtros equivale a getAllTasks(). Con includeArchived se añaden las
+     * archivadas que cumplan los mismos filtros, en el mismo orden.
+     */
+    @Transactional(readOnly = true)
+    public List<Task> searchTasks(TaskFilterDto filter) {
+        log.info("🔍 Buscando tareas con filtros: {}", filter);
+        TagMatch tagMatch = tagMatch(filter);
+        CustomFieldQuery customFields = customFieldService.query(filter);
+        if (customFields != null && customFields.sorted()) {
+            if (filter.isIncludeArchived()) {
+                throw new IllegalArgumentException("El orden por campo personalizado no admite includeArchived");
+            }
+            // El orden lo pone la Specification (una expresión JSONB que Sort no sabe expresar)
+            Specification<Task> sorted = TaskService.<Task>specification(filter, tagMatch, customFields)
+                    .and(TaskSpecifications.orderByCustomField(customFields.sortKey(), customFields.sortNumeric(),
+                            customFields.sortDescending()));
+            return taskRepository.findAll(sorted, Sort.unsorted());
+        }
+        List<Task> tasks = taskRepository.findAll(specification(filter, tagMatch, customFields),
+                TASKS_BY_CREATION.toSort());
+        if (!filter.isIncludeArchived()) {
+            return tasks;
+        }
+        List<ArchivedTask> archived = archivedTaskRepository.findAll(specification(filter, tagMatch, customFields),
+                ARCHIVED_BY_CREATION.toSort());
+        return Stream.concat(tasks.stream(), archived.stream().map(ArchivedTask::toTask))
+                .sorted(BY_CREATION)
+                .toList();
+    }
+
+    /**
+     * Obtiene una página de tareas (paginación por cursor) con los mismos filtros que searchTasks.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<Task> getTasksPage(TaskFilterDto filter, String cursor, Integer limit) {
+        log.info("📋 Obteniendo página de tareas con filtros: {}", filter);
+        TagMatch tagMatch = tagMatch(filter);
+        CustomFieldQuery customFields = customFieldService.query(filter);
+        if (customFields != null && customFields.sorted()) {
+            throw new IllegalArgumentException("El orden por campo personalizado no admite paginación por cursor");
+        }
+        CursorPage<Task> live = KeysetPagination.page(taskRepository, specification(filter, tagMatch, customFields),
+                TASKS_BY_CREATION, cursor, limit);
+        if (!filter.isIncludeArchived()) {
+            return live;
+        }
+
+        // Misma clave de cursor en las dos tablas: se piden "limit" de cada una tras el
+        // cursor y se mezclan; los "limit" primeros de la mezcla son la página
+        CursorPage<ArchivedTask> archived = KeysetPagination.page(archivedTaskRepository,
+                specification(filter, tagMatch, customFields), ARCHIVED_BY_CREATION, cursor, limit);
+        List<Task> merged = Stream.concat(live.items().stream(), archived.items().stream().map(ArchivedTask::toTask))
+                .sorted(BY_CREATION)
+                .toList();
+        int pageSize = KeysetPagination.clampLimit(limit);
+        if (merged.size() <= pageSize && live.next() == null && archived.next() == null) {
+            return new CursorPage<>(merged, null);
+        }
+        List<Task> items = merged.subList(0, Math.min(pageSize, merged.size()));
+        Task last = items.get(items.size() - 1);
+        String next = new Cursor(String.valueOf(last.getCreatedAt()), last.getId()).encode();
+        return new CursorPage<>(List.copyOf(items), next);
+    }
+
+    /**
+     * Evalúa el filtro de etiquetas (null si no hay) en el workspace del filtro o de su proyecto.
+     */
+    private TagMatch tagMatch(TaskFilterDto filter) {
+        if (filter.getTags() == null || filter.getTags().isBlank()) {
+            return null;
+        }
+        UUID workspaceId = filter.getWorkspaceId();
+        if (workspaceId == null && filter.getProjectId() != null) {
+            workspaceId = projectService.getProjectById(filter.getProjectId()).getWorkspace().getId();
+        }
+        if (workspaceId == null) {
+            throw new IllegalArgumentException("Para filtrar por etiquetas indica workspaceId o projectId");
+        }
+        return tagService.match(workspaceId, filter.getTags());
+    }
+
+    /**
+     * Filtros del DTO más, si hay etiquetas, id IN / NOT IN con el resultado del índice
+     * y, si hay filtros de campos personalizados, un custom_fields @@ por cada uno.
+     */
+    private static <T> Specification<T> specification(TaskFilterDto filter, TagMatch tagMatch,
+                                                      CustomFieldQuery customFields) {
+        Specification<T> specification = TaskSpecifications.matching(filter);
+        if (tagMatch != null) {
+            specification = specification.and(TaskSpecifications.idMatches(tagMatch.taskIds(), tagMatch.exclude()));
+        }
+        if (customFields != null) {
+            for (String jsonPath : customFields.jsonPaths()) {
+                specification = specification.and(TaskSpecifications.customFieldsMatch(jsonPath));
+            }
+        }
+        return specification;
+    }
+
     /**
      * Actualiza una tarea existente.
      */
@@ -130,6 +312,8 @@ public class TaskService {
         log.info("🔄 Actualizando tarea: {}", id);
 
         Task existingTask = getTaskById(id);
+        FieldDiff diff = diff(existingTask, updatedTask);
+        Task.TaskStatus previousStatus = existingTask.getStatus();
 
         // Actualizar campos
         existingTask.setTitle(updatedTask.getTitle());
@@ -138,8 +322,15 @@ public class TaskService {
         existingTask.setPriority(updatedTask.getPriority());
         existingTask.setDueDate(updatedTask.getDueDate());
         existingTask.setAssignedTo(updatedTask.getAssignedTo());
+        existingTask.setEstimatedMinutes(updatedTask.getEstimatedMinutes());
+        // Cambio de columna: al final de la nueva
+        if (existingTask.getStatus() != previousStatus) {
+            taskRankService.appendRanks(List.of(existingTask));
+        }
 
         Task saved = taskRepository.save(existingTask);
+        eventPublisher.publishEvent(TaskChange.saved(saved));
+        activityRecorder.updated(ActivityEntityType.TASK, id, null, saved.getProject().getId(), diff);
         log.info("✅ Tarea actualizada: {}", saved.getTitle());
         return saved;
     }
@@ -148,55 +339,114 @@ public class TaskService {
      * Cambia el estado de una tarea.
      * 
      * Método específico para cambio de estado (común en APIs de tareas).
+     * Una sola sentencia (UPDATE ... RETURNING), sin SELECT previo.
      */
     @Transactional
     public Task updateTaskStatus(UUID id, Task.TaskStatus newStatus) {
         log.info("🔄 Cambiando estado de tarea {} a {}", id, newStatus);
 
-        Task task = getTaskById(id);
-        task.setStatus(newStatus);
+        Task saved = taskRepository.updateStatusReturning(id, newStatus.name())
+                .orElseThrow(() -> new ResourceNotFoundException("Tarea", id));
+        eventPublisher.publishEvent(TaskChange.saved(saved));
+        // Sin SELECT previo no se conoce el valor anterior: se registra como null
+        activityRecorder.updated(ActivityEntityType.TASK, id, null, saved.getProject().getId(),
+                FieldDiff.of().field("status", null, saved.getStatus()));
 
-        Task saved = taskRepository.save(task);
         log.info("✅ Estado actualizado a: {}", saved.getStatus());
         return saved;
     }
 
+    /**
+     * Cambia campos personalizados de una tarea: las claves con valor se ponen o sustituyen
+     * y las que vienen a null se quitan; el resto se conserva.
+     * Una sola sentencia de escritura (UPDATE ... RETURNING) sobre el JSON.
+     */
+    @Transactional
+    public Task updateCustomFields(UUID id, Map<String, Object> values) {
+        log.info("🧩 Actualizando campos personalizados de tarea {}: {}", id, values.keySet());
+
+        UUID projectId = taskRepository.findRankRows(Set.of(id)).stream()
+                .map(row -> (UUID) row[1])
+                .findFirst()
+                .orElseThrow(() -> new ResourceNotFoundException("Tarea", id));
+        CustomFieldService.ValuesPatch patch = customFieldService.validatePatch(projectId, values);
+        if (patch.isEmpty()) {
+            return getTaskById(id);
+        }
+
+        // Si la tarea cambia de proyecto entre la validación y el UPDATE no se escribe nada
+        Task saved = taskRepository.updateCustomFieldsReturning(id, projectId, patch.setJson(), patch.removeJson())
+                .orElseThrow(() -> new ResourceNotFoundException("Tarea", id));
+        eventPublisher.publishEvent(TaskChange.saved(saved));
+        activityRecorder.updated(ActivityEntityType.TASK, id, null, projectId,
+                FieldDiff.of().field("customFields", null, values));
+
+        log.info("✅ Campos personalizados actualizados");
+        return saved;
+    }
+
     /**
      * Asigna una tarea a un usuario.
+     * Una sola sentencia (UPDATE ... RETURNING), sin SELECT previo.
      */
     @Transactional
     public Task assignTask(UUID taskId, UUID userId) {
         log.info("👤 Asignando tarea {} al usuario {}", taskId, userId);
 
-        Task task = getTaskById(taskId);
-        task.setAssignedTo(userId);
+        Task saved = taskRepository.assignReturning(taskId, userId)
+                .orElseThrow(() -> new ResourceNotFoundException("Tarea", taskId));
+        eventPublisher.publishEvent(TaskChange.saved(saved));
+        activityRecorder.updated(ActivityEntityType.TASK, taskId, null, saved.getProject().getId(),
+                FieldDiff.of().field("assignedTo", null, saved.getAssignedTo()));
 
-        Task saved = taskRepository.save(task);
         log.info("✅ Tarea asignada exitosamente");
         return saved;
     }
 
     /**
-     * Elimina una tarea.
+     * Elimina una tarea junto con todas sus subtareas.
+     * Una sola sentencia (DELETE del subárbol por la tabla de clausura): 0 filas borradas = 404.
      */
     @Transactional
     public void deleteTask(UUID id) {
         log.info("🗑️ Eliminando tarea: {}", id);
 
-        if (!taskRepository.existsById(id)) {
+        List<Object[]> deleted = taskRepository.deleteSubtreeReturningIds(id);
+        if (deleted.isEmpty()) {
             log.error("❌ Intento de eliminar tarea inexistente: {}", id);
-            throw new IllegalArgumentException("Tarea no encontrada");
+            throw new ResourceNotFoundException("Tarea", id);
+        }
+        for (Object[] row : deleted) {
+            UUID taskId = (UUID) row[0];
+            eventPublisher.publishEvent(TaskChange.deleted(taskId));
+            activityRecorder.deleted(ActivityEntityType.TASK, taskId, null, (UUID) row[1]);
         }
 
-        taskRepository.deleteById(id);
-        log.info("✅ Tarea eliminada exitosamente");
+        log.info("✅ Tarea eliminada exitosamente ({} con sus subtareas)", deleted.size());
     }
 
     /**
      * Cuenta cuántas tareas tiene un proyecto.
+     * Lee project_task_stats (una fila) en lugar de hacer COUNT(*) sobre las tareas.
      */
     @Transactional(readOnly = true)
     public long countTasksByProject(UUID projectId) {
-        return taskRepository.countByProjectId(projectId);
+        return projectTaskStatsService.countTasks(projectId);
+    }
+
+    /**
+     * Campos editables que cambian entre dos versiones de una tarea.
+     * Con before = null da los valores iniciales de un alta.
+     */
+    static FieldDiff diff(Task before, Task after) {
+        boolean created = before == null;
+        return FieldDiff.of()
+                .field("title", created ? null : before.getTitle(), after.getTitle())
+                .field("description", created ? null : before.getDescription(), after.getDescription())
+                .field("status", created ? null : before.getStatus(), after.getStatus())
+                .field("priority", created ? null : before.getPriority(), after.getPriority())
+                .field("dueDate", created ? null : before.getDueDate(), after.getDueDate())
+                .field("assignedTo", created ? null : before.getAssignedTo(), after.getAssignedTo())
+                .field("estimatedMinutes", created ? null : before.getEstimatedMinutes(), after.getEstimatedMinutes());
     }
 }
@@ -0,0 +1,308 @@
+package com.plandai.coreservice.services;
+
+import com.plandai.coreservice.activity.ActivityEntityType;
+import com.plandai.coreservice.activity.ActivityRecorder;
+import com.plandai.coreservice.activity.FieldDiff;
+import com.plandai.coreservice.changes.EventChange;
+import com.plandai.coreservice.dto.TimeBlockDto;
+import com.plandai.coreservice.dto.TimeBlockPlanDto;
+import com.plandai.coreservice.dto.TimeBlockPlanDto.Reason;
+import com.plandai.coreservice.dto.TimeBlockRequestDto;
+import com.plandai.coreservice.entities.Task;
+import com.plandai.coreservice.exception.ResourceNotFoundException;
+import com.plandai.coreservice.model.Event;
+import com.plandai.coreservice.repositories.TaskRepository;
+import com.plandai.coreservice.repository.EventRepository;
+import com.plandai.coreservice.scheduling.FreeTimeline;
+import com.plandai.coreservice.scheduling.TimeBlockSolver;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Servicio de planificación automática: reparte las tareas abiertas de un usuario en los
+ * huecos libres de su calendario antes de su vencimiento.
+ *
+ * - Proponer no guarda nada. Las tareas (con estimación) se planifican sobre los huecos
+ *   del horario laboral que no ocupa ningún evento, en slots de scheduling.slot-minutes.
+ *   Lo que ya tienen reservado en bloques TASK_BLOCK se descuenta de la estimación.
+ * - El reparto lo hace TimeBlockSolver (voraz + búsqueda local) con un tiempo máximo
+ *   (scheduling.solver.time-budget-ms): la respuesta no depende del número de tareas.
+ * - Aceptar guarda los bloques elegidos como eventos TASK_BLOCK en un solo INSERT por lotes,
+ *   después de comprobar que siguen sin solaparse con el calendario. Dos aceptaciones del
+ *   mismo usuario se serializan (advisory lock de la transacción).
+ */
+@Service
+@Slf4j
+public class TimeBlockingService {
+
+    private static final String OPEN_TASKS_SQL = """
+            SELECT t.id, t.title, t.priority, t.due_date, t.estimated_minutes
+              FROM core_schema.tasks t
+             WHERE t.assigned_to = ? AND t.status <> 'DONE'
+             ORDER BY t.due_date NULLS LAST, t.created_at
+             LIMIT ?
+            """;
+
+    private static final String RESERVED_MINUTES_SQL = """
+            SELECT task_id, SUM(EXTRACT(EPOCH FROM end_time - start_time))::BIGINT / 60
+              FROM core_schema.events
+             WHERE user_id = ? AND event_type = 'TASK_BLOCK' AND task_id IS NOT NULL
+             GROUP BY task_id
+            """;
+
+    private static final String USER_LOCK_SQL = "SELECT pg_advisory_xact_lock(?)";
+
+    private record OpenTask(UUID id, String title, Task.TaskPriority priority, LocalDate dueDate,
+                            Integer estimatedMinutes) {
+    }
+
+    private final TaskRepository taskRepository;
+    private final EventRepository eventRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ActivityRecorder activityRecorder;
+    private final Clock clock;
+    private final int slotMinutes;
+    private final int maxHorizonDays;
+    private final int maxTasks;
+    private final Duration timeBudget;
+
+    @Autowired
+    public TimeBlockingService(TaskRepository taskRepository,
+                               EventRepository eventRepository,
+                               JdbcTemplate jdbcTemplate,
+                               ApplicationEventPublisher eventPublisher,
+                               ActivityRecorder activityRecorder,
+                               @Value("${scheduling.slot-minutes:15}") int slotMinutes,
+                               @Value("${scheduling.max-horizon-days:28}") int maxHorizonDays,
+                               @Value("${scheduling.max-tasks:500}") int maxTasks,
+                               @Value("${scheduling.solver.time-budget-ms:200}") long timeBudgetMs) {
+        this(taskRepository, eventRepository, jdbcTemplate, eventPublisher, activityRecorder,
+                Clock.systemDefaultZone(), slotMinutes, maxHorizonDays, maxTasks, Duration.ofMillis(timeBudgetMs));
+    }
+
+    TimeBlockingService(TaskRepository taskRepository, EventRepository eventRepository, JdbcTemplate jdbcTemplate,
+                        ApplicationEventPublisher eventPublisher, ActivityRecorder activityRecorder, Clock clock,
+                        int slotMinutes, int maxHorizonDays, int maxTasks, Duration timeBudget) {
+        this.taskRepository = taskRepository;
+        this.eventRepository = eventRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        this.activityRecorder = activityRecorder;
+        this.clock = clock;
+        this.slotMinutes = slotMinutes;
+        this.maxHorizonDays = maxHorizonDays;
+        this.maxTasks = maxTasks;
+        this.timeBudget = timeBudget;
+    }
+
+    /**
+     * Propone bloques para las tareas abiertas asignadas al usuario (hasta scheduling.max-tasks,
+     * las que vencen antes primero). No guarda nada.
+     *
+     * @throws IllegalArgumentException si el horizonte supera el máximo o la jornada no tiene sentido
+     */
+    @Transactional(readOnly = true)
+    public TimeBlockPlanDto propose(UUID userId, TimeBlockRequestDto request) {
+        log.info("🔖 Proponiendo bloques de tiempo para usuario: {} ({} días)", userId, request.getHorizonDays());
+        if (request.getHorizonDays() > maxHorizonDays) {
+            throw new IllegalArgumentException("El horizonte no puede superar " + maxHorizonDays + " días");
+        }
+        if (!request.getWorkStart().isBefore(request.getWorkEnd())) {
+            throw new IllegalArgumentException("La jornada debe empezar antes de terminar");
+        }
+
+        LocalDateTime now = LocalDateTime.now(clock);
+        LocalDate today = now.toLocalDate();
+        List<Event> events = eventRepository.findOverlapping(userId, today.atStartOfDay(),
+                today.plusDays(request.getHorizonDays()).atStartOfDay());
+        FreeTimeline timeline = FreeTimeline.build(now, request.getHorizonDays(), request.getWorkStart(),
+                request.getWorkEnd(), request.getWorkDays(), events.stream().map(TimeBlockingService::busy).toList(),
+                slotMinutes);
+
+        Set<UUID> only = request.getTaskIds() == null ? Set.of() : new HashSet<>(request.getTaskIds());
+        List<OpenTask> tasks = openTasks(userId).stream()
+                .filter(task -> only.isEmpty() || only.contains(task.id()))
+                .toList();
+        Map<UUID, Long> reserved = reservedMinutes(userId);
+
+        List<OpenTask> planned = new ArrayList<>();
+        List<TimeBlockSolver.Job> jobs = new ArrayList<>();
+        List<TimeBlockPlanDto.Unscheduled> unscheduled = new ArrayList<>();
+        for (OpenTask task : tasks) {
+            Reason reason = null;
+            long remaining = task.estimatedMinutes() == null ? 0
+                    : task.estimatedMinutes() - reserved.getOrDefault(task.id(), 0L);
+            int deadline = task.dueDate() == null ? timeline.size()
+                    : timeline.slotsEndingBy(task.dueDate().plusDays(1).atStartOfDay());
+            int slots = (int) ((remaining + slotMinutes - 1) / slotMinutes);
+            if (task.estimatedMinutes() == null) {
+                reason = Reason.NO_ESTIMATE;
+            } else if (remaining <= 0) {
+                reason = Reason.ALREADY_SCHEDULED;
+            } else if (task.dueDate() != null && task.dueDate().isBefore(today)) {
+                reason = Reason.PAST_DUE;
+            } else if (slots > deadline) {
+                reason = Reason.DOES_NOT_FIT;
+            }
+            if (reason != null) {
+                unscheduled.add(new TimeBlockPlanDto.Unscheduled(task.id(), task.title(), reason));
+            } else {
+                planned.add(task);
+                jobs.add(new TimeBlockSolver.Job(slots, deadline, 1 << task.priority().ordinal()));
+            }
+        }
+
+        long started = System.nanoTime();
+        int minBlockSlots = (request.getMinBlockMinutes() + slotMinutes - 1) / slotMinutes;
+        TimeBlockSolver.Solution solution = TimeBlockSolver.solve(jobs, timeline, minBlockSlots, timeBudget,
+                userId.getLeastSignificantBits());
+        long solveMillis = (System.nanoTime() - started) / 1_000_000;
+
+        List<TimeBlockDto> blocks = new ArrayList<>();
+        for (int i = 0; i < planned.size(); i++) {
+            OpenTask task = planned.get(i);
+            int start = solution.starts()[i];
+            if (start < 0) {
+                unscheduled.add(new TimeBlockPlanDto.Unscheduled(task.id(), task.title(), Reason.DOES_NOT_FIT));
+                continue;
+            }
+            timeline.blocks(start, start + jobs.get(i).slots()).forEach(block ->
+                    blocks.add(new TimeBlockDto(task.id(), task.title(), block.start(), block.end(), null)));
+        }
+        blocks.sort(Comparator.comparing(TimeBlockDto::start));
+        log.info("✅ Propuesta calculada: {} bloques, {} tareas sin planificar, {} iteraciones en {} ms",
+                blocks.size(), unscheduled.size(), solution.iterations(), solveMillis);
+        return new TimeBlockPlanDto(blocks, unscheduled, solution.iterations(), solveMillis);
+    }
+
+    /**
+     * Guarda los bloques como eventos TASK_BLOCK del usuario (todos o ninguno).
+     * Devuelve los bloques guardados con su evento.
+     *
+     * @throws ResourceNotFoundException si alguna tarea no existe
+     * @throws IllegalArgumentException  si un bloque no es válido, su tarea no está abierta y asignada
+     *                                   al usuario, o se solapa con otro bloque o con un evento
+     */
+    @Transactional
+    public List<TimeBlockDto> accept(UUID userId, List<TimeBlockDto> blocks) {
+        log.info("🔖 Aceptando {} bloques de tiempo para usuario: {}", blocks.size(), userId);
+        List<TimeBlockDto> sorted = blocks.stream().sorted(Comparator.comparing(TimeBlockDto::start)).toList();
+        for (int i = 0; i < sorted.size(); i++) {
+            TimeBlockDto block = sorted.get(i);
+            if (!block.start().isBefore(block.end())) {
+                throw new IllegalArgumentException("Cada bloque debe empezar antes de terminar");
+            }
+            if (i > 0 && sorted.get(i - 1).end().isAfter(block.start())) {
+                throw new IllegalArgumentException("Los bloques no pueden solaparse entre sí (" + block.start() + ")");
+            }
+        }
+
+        Set<UUID> taskIds = sorted.stream().map(TimeBlockDto::taskId).collect(Collectors.toSet());
+        Map<UUID, Task> tasks = taskRepository.findAllById(taskIds).stream()
+                .collect(Collectors.toMap(Task::getId, Function.identity()));
+        for (UUID taskId : taskIds) {
+            Task task = tasks.get(taskId);
+            if (task == null) {
+                throw new ResourceNotFoundException("Task", taskId);
+            }
+            if (!userId.equals(task.getAssignedTo()) || task.getStatus() == Task.TaskStatus.DONE) {
+                throw new IllegalArgumentException("La tarea " + taskId + " no está abierta y asignada al usuario");
+            }
+        }
+
+        // Desde aquí hasta el commit nadie más acepta bloques de este usuario
+        jdbcTemplate.queryForList(USER_LOCK_SQL, userId.getMostSignificantBits() ^ userId.getLeastSignificantBits());
+        List<FreeTimeline.Busy> busy = eventRepository.findOverlapping(userId,
+                        sorted.get(0).start().toLocalDate().atStartOfDay(),
+                        sorted.stream().map(TimeBlockDto::end).max(Comparator.naturalOrder()).orElseThrow())
+                .stream().map(TimeBlockingService::busy).toList();
+        for (TimeBlockDto block : sorted) {
+            for (FreeTimeline.Busy taken : busy) {
+                if (taken.start().isBefore(block.end()) && taken.end().isAfter(block.start())) {
+                    throw new IllegalArgumentException("El bloque de " + block.start()
+                            + " se solapa con un evento del calendario");
+                }
+            }
+        }
+
+        List<Event> events = sorted.stream().map(block -> {
+            Task task = tasks.get(block.taskId());
+            Event event = new Event();
+            event.setTitle(task.getTitle());
+            event.setStartTime(block.start());
+            event.setEndTime(block.end());
+            event.setEventType(Event.EventType.TASK_BLOCK);
+            event.setIsAllDay(false);
+            event.setUserId(userId);
+            event.setTaskId(task.getId());
+            event.setProject(task.getProject());
+            return event;
+        }).toList();
+        List<Event> saved = eventRepository.saveAll(events);
+
+        for (Event event : saved) {
+            eventPublisher.publishEvent(EventChange.saved(event));
+            activityRecorder.created(ActivityEntityType.EVENT, event.getId(), null,
+                    event.getProject() != null ? event.getProject().getId() : null, FieldDiff.of()
+                            .field("title", null, event.getTitle())
+                            .field("startTime", null, event.getStartTime())
+                            .field("endTime", null, event.getEndTime())
+                            .field("eventType", null, event.getEventType())
+                            .field("taskId", null, event.getTaskId()));
+        }
+        log.info("✅ {} bloques de tiempo guardados para {} tareas", saved.size(), taskIds.size());
+        return saved.stream()
+                .map(event -> new TimeBlockDto(event.getTaskId(), event.getTitle(), event.getStartTime(),
+                        event.getEndTime(), event.getId()))
+                .toList();
+    }
+
+    private List<OpenTask> openTasks(UUID userId) {
+        return jdbcTemplate.query(OPEN_TASKS_SQL, (rs, rowNum) -> new OpenTask(
+                rs.getObject(1, UUID.class),
+                rs.getString(2),
+                Task.TaskPriority.valueOf(rs.getString(3)),
+                rs.getObject(4, LocalDate.class),
+                rs.getObject(5, Integer.class)), userId, maxTasks);
+    }
+
+    private Map<UUID, Long> reservedMinutes(UUID userId) {
+        Map<UUID, Long> reserved = new HashMap<>();
+        jdbcTemplate.query(RESERVED_MINUTES_SQL, rs -> {
+            reserved.put(rs.getObject(1, UUID.class), rs.getLong(2));
+        }, userId);
+        return reserved;
+    }
+
+    /**
+     * Tiempo que ocupa un evento; los de todo el día ocupan los días enteros.
+     */
+    private static FreeTimeline.Busy busy(Event event) {
+        if (Boolean.TRUE.equals(event.getIsAllDay())) {
+            return new FreeTimeline.Busy(event.getStartTime().toLocalDate().atStartOfDay(),
+                    event.getEndTime().toLocalDate().plusDays(1).atStartOfDay());
+        }
+        return new FreeTimeline.Busy(event.getStartTime(), event.getEndTime());
+    }
+}
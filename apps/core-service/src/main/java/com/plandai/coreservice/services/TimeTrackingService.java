@@ -0,0 +1,315 @@
+package com.plandai.coreservice.services;
+
+import com.plandai.coreservice.dto.TimeEntryCreateDto;
+import com.plandai.coreservice.dto.TimeTotalDto;
+import com.plandai.coreservice.dto.TimesheetDto;
+import com.plandai.coreservice.dto.TimesheetRowDto;
+import com.plandai.coreservice.entities.TimeEntry;
+import com.plandai.coreservice.exception.ResourceNotFoundException;
+import com.plandai.coreservice.repositories.TaskRepository;
+import com.plandai.coreservice.repositories.TimeEntryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Servicio de registro de tiempo en tareas.
+ *
+ * - Temporizadores: iniciar y parar son una sentencia cada uno; el índice único parcial
+ *   de V17 garantiza un solo temporizador en marcha por usuario sin bloqueos en la aplicación.
+ * - Totales por tarea, proyecto y usuario: los mantiene el trigger de V17 (una fila por clave).
+ * - Hoja de horas semanal: una consulta agrupada por tarea y día sobre idx_time_entries_user_started.
+ * - Exportación CSV: cursor en servidor (fetch size) escrito directamente en la respuesta,
+ *   sin cargar las entradas en memoria.
+ */
+@Service
+@Slf4j
+public class TimeTrackingService {
+
+    private static final Duration MAX_MANUAL_ENTRY = Duration.ofHours(24);
+
+    private static final String TOTAL_SQL = """
+            SELECT total_seconds, entry_count FROM core_schema.time_totals
+             WHERE scope = ? AND scope_id = ?
+            """;
+
+    /**
+     * Agrupa primero (solo índice) y luego pone título a cada tarea, viva o archivada.
+     */
+    private static final String TIMESHEET_SQL = """
+            SELECT g.task_id, COALESCE(t.title, a.title) AS title, g.day, g.seconds
+              FROM (SELECT e.task_id, CAST(e.started_at AS date) AS day, sum(e.duration_seconds) AS seconds
+                      FROM core_schema.time_entries e
+                     WHERE e.user_id = ? AND e.started_at >= ? AND e.started_at < ?
+                       AND e.ended_at IS NOT NULL
+                     GROUP BY e.task_id, CAST(e.started_at AS date)) g
+              LEFT JOIN core_schema.tasks t ON t.id = g.task_id
+              LEFT JOIN core_schema.tasks_archive a ON a.id = g.task_id
+             ORDER BY title, g.task_id, g.day
+            """;
+
+    private static final String EXPORT_SQL = """
+            SELECT id, task_id, project_id, started_at, ended_at, duration_seconds, note
+              FROM core_schema.time_entries
+             WHERE user_id = ? AND started_at >= ? AND started_at < ?
+             ORDER BY started_at, id
+            """;
+
+    private static final String CSV_HEADER = "id,task_id,project_id,started_at,ended_at,duration_seconds,note\n";
+
+    private final TimeEntryRepository timeEntryRepository;
+    private final TaskRepository taskRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Clock clock;
+    private final int exportFetchSize;
+
+    @Autowired
+    public TimeTrackingService(TimeEntryRepository timeEntryRepository,
+                               TaskRepository taskRepository,
+                               JdbcTemplate jdbcTemplate,
+                               TransactionTemplate transactionTemplate,
+                               @Value("${time-tracking.export.fetch-size:1000}") int exportFetchSize) {
+        this(timeEntryRepository, taskRepository, jdbcTemplate, transactionTemplate, Clock.systemDefaultZone(),
+                exportFetchSize);
+    }
+
+    TimeTrackingService(TimeEntryRepository timeEntryRepository, TaskRepository taskRepository,
+                        JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate, Clock clock,
+                        int exportFetchSize) {
+        this.timeEntryRepository = timeEntryRepository;
+        this.taskRepository = taskRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnlyTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.readOnlyTransaction.setReadOnly(true);
+        this.clock = clock;
+        this.exportFetchSize = exportFetchSize;
+    }
+
+    /**
+     * Inicia un temporizador del usuario sobre una tarea.
+     * Con stopRunning = true para antes el que tuviera en marcha (cambio de tarea en un paso).
+     *
+     * @throws IllegalArgumentException si ya tiene un temporizador en marcha (y no se pide pararlo)
+     */
+    @Transactional
+    public TimeEntry startTimer(UUID userId, UUID taskId, boolean stopRunning) {
+        log.info("⏱️ Iniciando temporizador: usuario {} en tarea {}", userId, taskId);
+        if (stopRunning) {
+            timeEntryRepository.stopReturning(userId)
+                    .ifPresent(stopped -> log.info("⏹️ Temporizador anterior parado: {}", stopped.getId()));
+        }
+
+        return timeEntryRepository.startReturning(UUID.randomUUID(), taskId, userId)
+                .orElseThrow(() -> {
+                    if (!taskRepository.existsById(taskId)) {
+                        return new ResourceNotFoundException("Tarea", taskId);
+                    }
+                    log.warn("⚠️ El usuario {} ya tiene un temporizador en marcha", userId);
+                    return new IllegalArgumentException("Ya tienes un temporizador en marcha: páralo antes de iniciar otro");
+                });
+    }
+
+    /**
+     * Para el temporizador en marcha del usuario.
+     */
+    @Transactional
+    public TimeEntry stopTimer(UUID userId) {
+        log.info("⏹️ Parando temporizador del usuario {}", userId);
+        TimeEntry stopped = timeEntryRepository.stopReturning(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("Temporizador en marcha", userId));
+        log.info("✅ Temporizador parado: {} s", stopped.getDurationSeconds());
+        return stopped;
+    }
+
+    /**
+     * Temporizador en marcha del usuario, si lo hay.
+     */
+    @Transactional(readOnly = true)
+    public TimeEntry getRunningTimer(UUID userId) {
+        return timeEntryRepository.findByUserIdAndEndedAtIsNull(userId).orElse(null);
+    }
+
+    /**
+     * Registra una entrada manual (como mucho 24 horas).
+     */
+    @Transactional
+    public TimeEntry addEntry(UUID userId, TimeEntryCreateDto dto) {
+        log.info("⏱️ Registrando tiempo manual: usuario {} en tarea {}", userId, dto.getTaskId());
+        if (!dto.getEndedAt().isAfter(dto.getStartedAt())) {
+            throw new IllegalArgumentException("El fin debe ser posterior al inicio");
+        }
+        if (Duration.between(dto.getStartedAt(), dto.getEndedAt()).compareTo(MAX_MANUAL_ENTRY) > 0) {
+            throw new IllegalArgumentException("Una entrada de tiempo no puede superar las 24 horas");
+        }
+        UUID projectId = taskRepository.findRankRows(Set.of(dto.getTaskId())).stream()
+                .map(row -> (UUID) row[1])
+                .findFirst()
+                .orElseThrow(() -> new ResourceNotFoundException("Tarea", dto.getTaskId()));
+
+        TimeEntry entry = new TimeEntry();
+        entry.setTaskId(dto.getTaskId());
+        entry.setProjectId(projectId);
+        entry.setUserId(userId);
+        entry.setStartedAt(dto.getStartedAt());
+        entry.setEndedAt(dto.getEndedAt());
+        entry.setNote(dto.getNote());
+        TimeEntry saved = timeEntryRepository.save(entry);
+        log.info("✅ Tiempo registrado con ID: {}", saved.getId());
+        return saved;
+    }
+
+    /**
+     * Elimina una entrada del usuario (el trigger descuenta su tiempo de los totales).
+     */
+    @Transactional
+    public void deleteEntry(UUID userId, UUID entryId) {
+        log.info("🗑️ Eliminando entrada de tiempo: {}", entryId);
+        if (timeEntryRepository.deleteByIdAndUserIdReturningCount(entryId, userId) == 0) {
+            throw new ResourceNotFoundException("Entrada de tiempo", entryId);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public TimeTotalDto getTaskTotal(UUID taskId) {
+        return total("TASK", taskId);
+    }
+
+    @Transactional(readOnly = true)
+    public TimeTotalDto getProjectTotal(UUID projectId) {
+        return total("PROJECT", projectId);
+    }
+
+    @Transactional(readOnly = true)
+    public TimeTotalDto getUserTotal(UUID userId) {
+        return total("USER", userId);
+    }
+
+    /**
+     * Hoja de horas de la semana (lunes a domingo) que contiene el día indicado;
+     * sin día, la semana actual.
+     */
+    @Transactional(readOnly = true)
+    public TimesheetDto getWeeklyTimesheet(UUID userId, LocalDate day) {
+        LocalDate weekStart = (day != null ? day : LocalDate.now(clock))
+                .with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        log.info("🗓️ Obteniendo hoja de horas de {} para la semana del {}", userId, weekStart);
+
+        Map<UUID, String> titles = new LinkedHashMap<>();
+        Map<UUID, Map<LocalDate, Long>> byTask = new LinkedHashMap<>();
+        jdbcTemplate.query(TIMESHEET_SQL, resultSet -> {
+            UUID taskId = resultSet.getObject(1, UUID.class);
+            titles.put(taskId, resultSet.getString(2));
+            byTask.computeIfAbsent(taskId, id -> new LinkedHashMap<>())
+                    .put(resultSet.getObject(3, LocalDate.class), resultSet.getLong(4));
+        }, userId, Timestamp.valueOf(weekStart.atStartOfDay()), Timestamp.valueOf(weekStart.plusWeeks(1).atStartOfDay()));
+
+        Map<LocalDate, Long> daily = new LinkedHashMap<>();
+        for (int i = 0; i < 7; i++) {
+            daily.put(weekStart.plusDays(i), 0L);
+        }
+        List<TimesheetRowDto> rows = new ArrayList<>(byTask.size());
+        long total = 0;
+        for (Map.Entry<UUID, Map<LocalDate, Long>> task : byTask.entrySet()) {
+            long taskTotal = 0;
+            for (Map.Entry<LocalDate, Long> entry : task.getValue().entrySet()) {
+                daily.merge(entry.getKey(), entry.getValue(), Long::sum);
+                taskTotal += entry.getValue();
+            }
+            rows.add(new TimesheetRowDto(task.getKey(), titles.get(task.getKey()), task.getValue(), taskTotal));
+            total += taskTotal;
+        }
+        return new TimesheetDto(weekStart, rows, daily, total);
+    }
+
+    /**
+     * Escribe en CSV las entradas del usuario entre dos días (ambos incluidos).
+     * Las filas se leen con cursor en servidor y se escriben según llegan.
+     */
+    public void exportCsv(UUID userId, LocalDate from, LocalDate to, OutputStream out) {
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("La fecha final no puede ser anterior a la inicial");
+        }
+        log.info("📤 Exportando tiempo de {} entre {} y {}", userId, from, to);
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        int[] rows = {0};
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try {
+                writer.write(CSV_HEADER);
+                jdbcTemplate.query(connection -> {
+                    var statement = connection.prepareStatement(EXPORT_SQL);
+                    statement.setFetchSize(exportFetchSize);
+                    statement.setObject(1, userId);
+                    statement.setTimestamp(2, Timestamp.valueOf(from.atStartOfDay()));
+                    statement.setTimestamp(3, Timestamp.valueOf(to.plusDays(1).atStartOfDay()));
+                    return statement;
+                }, resultSet -> {
+                    Timestamp endedAt = resultSet.getTimestamp(5);
+                    Object duration = resultSet.getObject(6);
+                    try {
+                        writer.write(resultSet.getObject(1, UUID.class) + ","
+                                + resultSet.getObject(2, UUID.class) + ","
+                                + resultSet.getObject(3, UUID.class) + ","
+                                + resultSet.getTimestamp(4).toLocalDateTime() + ","
+                                + (endedAt == null ? "" : endedAt.toLocalDateTime()) + ","
+                                + (duration == null ? "" : duration) + ","
+                                + csv(resultSet.getString(7)) + "\n");
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    rows[0]++;
+                });
+                writer.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        log.info("✅ Exportadas {} entradas de tiempo", rows[0]);
+    }
+
+    private TimeTotalDto total(String scope, UUID scopeId) {
+        return jdbcTemplate.query(TOTAL_SQL, (rs, rowNum) ->
+                        new TimeTotalDto(scope, scopeId, rs.getLong(1), rs.getLong(2)), scope, scopeId)
+                .stream()
+                .findFirst()
+                .orElse(new TimeTotalDto(scope, scopeId, 0, 0));
+    }
+
+    /**
+     * Campo de texto CSV: entre comillas si contiene separadores, comillas o saltos de línea.
+     */
+    static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.contains(",") || value.contains("\"") || value.contains("\n") || value.contains("\r")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+}
@@ -0,0 +1,178 @@
+package com.plandai.coreservice.services;
+
+import com.plandai.coreservice.dto.UserSummaryDto;
+import com.plandai.coreservice.entities.Task;
+import com.plandai.coreservice.model.Event;
+import com.plandai.coreservice.repositories.UserDirectoryRepository;
+import com.plandai.coreservice.security.AuthenticatedUser;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Directorio local de usuarios alimentado desde los claims de los JWT.
+ *
+ * - Cada petición autenticada registra (userId, email, nombre) en una LRU en memoria.
+ *   Si los datos no han cambiado no se hace nada más.
+ * - Los cambios se acumulan y se escriben por lotes (upsert) en user_directory.
+ * - Para enriquecer listados: primero la LRU, y los que falten en UNA sola
+ *   consulta IN a user_directory. Nunca se llama al Auth Service.
+ */
+@Service
+@Slf4j
+public class UserDirectoryService {
+
+    private static final String UPSERT_SQL = """
+            INSERT INTO core_schema.user_directory (user_id, email, display_name, updated_at)
+            VALUES (?, ?, ?, ?)
+            ON CONFLICT (user_id) DO UPDATE
+               SET email = EXCLUDED.email,
+                   display_name = EXCLUDED.display_name,
+                   updated_at = EXCLUDED.updated_at
+             WHERE (user_directory.email, user_directory.display_name)
+                   IS DISTINCT FROM (EXCLUDED.email, EXCLUDED.display_name)
+            """;
+
+    private final UserDirectoryRepository userDirectoryRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<UUID, UserSummaryDto> cache;
+    private final Map<UUID, UserSummaryDto> pending = new ConcurrentHashMap<>();
+
+    public UserDirectoryService(UserDirectoryRepository userDirectoryRepository,
+                                JdbcTemplate jdbcTemplate,
+                                @Value("${user-directory.cache.max-entries:5000}") int maxEntries) {
+        this.userDirectoryRepository = userDirectoryRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, UserSummaryDto> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Registra los datos de un usuario visto en un token.
+     * Solo encola una escritura si son nuevos o han cambiado.
+     */
+    public void recordSeen(AuthenticatedUser user) {
+        UserSummaryDto summary = new UserSummaryDto(user.userId(), user.email(), user.displayName());
+        synchronized (cache) {
+            if (summary.equals(cache.get(user.userId()))) {
+                return;
+            }
+            cache.put(user.userId(), summary);
+        }
+        pending.put(user.userId(), summary);
+    }
+
+    /**
+     * Escribe por lotes los usuarios pendientes.
+     */
+    @Scheduled(fixedDelayString = "${user-directory.flush-interval-ms:5000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        List<UserSummaryDto> batch = new ArrayList<>(pending.size());
+        for (UUID userId : pending.keySet()) {
+            UserSummaryDto summary = pending.remove(userId);
+            if (summary != null) {
+                batch.add(summary);
+            }
+        }
+
+        try {
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            jdbcTemplate.batchUpdate(UPSERT_SQL, batch, batch.size(), (ps, summary) -> {
+                ps.setObject(1, summary.userId());
+                ps.setString(2, summary.email());
+                ps.setString(3, summary.displayName());
+                ps.setTimestamp(4, now);
+            });
+            log.debug("Directorio de usuarios: {} usuario(s) sincronizados", batch.size());
+        } catch (RuntimeException e) {
+            // Se reintentan en el siguiente ciclo (sin pisar datos más recientes)
+            batch.forEach(summary -> pending.putIfAbsent(summary.userId(), summary));
+            log.error("❌ Error sincronizando el directorio de usuarios: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Devuelve los datos de presentación de los usuarios indicados.
+     * Los que no estén en la LRU se cargan con una única consulta.
+     * Los usuarios nunca vistos no aparecen en el resultado.
+     */
+    public Map<UUID, UserSummaryDto> lookup(Collection<UUID> userIds) {
+        Map<UUID, UserSummaryDto> result = new HashMap<>();
+        Set<UUID> misses = new HashSet<>();
+
+        synchronized (cache) {
+            for (UUID userId : userIds) {
+                if (userId == null) {
+                    continue;
+                }
+                UserSummaryDto cached = cache.get(userId);
+                if (cached != null) {
+                    result.put(userId, cached);
+                } else {
+                    misses.add(userId);
+                }
+            }
+        }
+
+        if (!misses.isEmpty()) {
+            List<UserSummaryDto> loaded = userDirectoryRepository.findAllById(misses).stream()
+                    .map(entry -> new UserSummaryDto(entry.getUserId(), entry.getEmail(), entry.getDisplayName()))
+                    .toList();
+            synchronized (cache) {
+                // putIfAbsent: no pisar datos más recientes registrados desde un token
+                loaded.forEach(summary -> cache.putIfAbsent(summary.userId(), summary));
+            }
+            loaded.forEach(summary -> result.put(summary.userId(), summary));
+        }
+
+        return result;
+    }
+
+    /**
+     * Rellena task.assignee en un listado de tareas.
+     */
+    public List<Task> withAssignees(List<Task> tasks) {
+        Map<UUID, UserSummaryDto> users = lookup(tasks.stream()
+                .map(Task::getAssignedTo)
+                .filter(Objects::nonNull)
+                .toList());
+        tasks.forEach(task -> task.setAssignee(task.getAssignedTo() == null ? null : users.get(task.getAssignedTo())));
+        return tasks;
+    }
+
+    /**
+     * Rellena event.owner en un listado de eventos.
+     */
+    public List<Event> withOwners(List<Event> events) {
+        Map<UUID, UserSummaryDto> users = lookup(events.stream()
+                .map(Event::getUserId)
+                .filter(Objects::nonNull)
+                .toList());
+        events.forEach(event -> event.setOwner(users.get(event.getUserId())));
+        return events;
+    }
+}
@@ -0,0 +1,287 @@
+package com.plandai.coreservice.services;
+
+import com.plandai.coreservice.dto.WorkloadDto;
+import com.plandai.coreservice.entities.Task;
+import com.plandai.coreservice.exception.ResourceNotFoundException;
+import com.plandai.coreservice.repositories.WorkspaceRepository;
+import com.plandai.coreservice.stream.TaskDelta;
+import com.plandai.coreservice.stream.TaskStreamGap;
+import com.plandai.coreservice.workload.WorkloadIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Servicio de carga de trabajo por persona (tareas abiertas asignadas y esfuerzo estimado).
+ *
+ * - Cada workspace consultado tiene su índice en memoria (WorkloadIndex), cargado con una
+ *   SELECT que lee solo el índice parcial de V21. Las consultas no vuelven a la base de datos.
+ * - Lo mantienen los cambios de tareas de V11 (TaskDelta) en lugar de TaskChange: así
+ *   también llegan las escrituras hechas en otros nodos. Los que llegan mientras se carga
+ *   se guardan y se aplican después en orden.
+ * - Cada cierto tiempo se recarga entera (reconciliación): corrige lo que se haya podido
+ *   perder, avisa si había diferencias y libera los workspaces que nadie consulta.
+ */
+@Service
+@Slf4j
+public class WorkloadService {
+
+    private static final String OPEN_TASKS_SQL = """
+            SELECT t.id, t.assigned_to, t.priority, t.due_date, t.estimated_minutes
+              FROM core_schema.tasks t
+              JOIN core_schema.projects p ON p.id = t.project_id
+             WHERE p.workspace_id = ? AND t.status <> 'DONE' AND t.assigned_to IS NOT NULL
+            """;
+
+    private static final String PROJECT_WORKSPACE_SQL =
+            "SELECT workspace_id FROM core_schema.projects WHERE id = ?";
+
+    /**
+     * Índice de un workspace. Mientras se (re)carga, los cambios se aplican al índice
+     * actual y se guardan en "pending" para el nuevo.
+     */
+    private static final class CachedWorkload {
+
+        private final Object loadLock = new Object();
+        private final List<TaskDelta> pending = new ArrayList<>();
+        private volatile WorkloadIndex index;
+        private boolean loading;
+        private volatile long lastUsedMillis;
+    }
+
+    private final WorkspaceRepository workspaceRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final Clock clock;
+    private final long idleMillis;
+    private final int defaultEstimateMinutes;
+    private final Map<UUID, CachedWorkload> workloads = new ConcurrentHashMap<>();
+
+    /**
+     * Workspace de cada proyecto (un proyecto no cambia de workspace).
+     */
+    private final Map<UUID, UUID> projectWorkspaces = new ConcurrentHashMap<>();
+
+    @Autowired
+    public WorkloadService(WorkspaceRepository workspaceRepository,
+                           JdbcTemplate jdbcTemplate,
+                           @Value("${workload.idle-ttl:PT30M}") String idleTtl,
+                           @Value("${workload.default-estimate-minutes:60}") int defaultEstimateMinutes) {
+        this(workspaceRepository, jdbcTemplate, Clock.systemDefaultZone(), Duration.parse(idleTtl),
+                defaultEstimateMinutes);
+    }
+
+    WorkloadService(WorkspaceRepository workspaceRepository, JdbcTemplate jdbcTemplate, Clock clock,
+                    Duration idleTtl, int defaultEstimateMinutes) {
+        this.workspaceRepository = workspaceRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.clock = clock;
+        this.idleMillis = idleTtl.toMillis();
+        this.defaultEstimateMinutes = defaultEstimateMinutes;
+    }
+
+    /**
+     * Carga de cada persona con tareas abiertas en el workspace, de más a menos esfuerzo.
+     */
+    public List<WorkloadDto> getWorkload(UUID workspaceId) {
+        log.info("📊 Obteniendo carga de trabajo del workspace: {}", workspaceId);
+        return index(workspaceId).snapshot().stream()
+                .sorted(Comparator.comparingLong(this::effort).reversed()
+                        .thenComparing(load -> load.userId().toString()))
+                .toList();
+    }
+
+    /**
+     * Candidatos para asignar una tarea, del menos al más cargado (el primero es la sugerencia).
+     *
+     * El esfuerzo de una persona es la suma de sus estimaciones; las tareas sin estimar cuentan
+     * como workload.default-estimate-minutes. A igualdad, quien tenga menos tareas abiertas.
+     *
+     * @param candidates personas entre las que elegir (las que no tengan tareas cuentan con carga 0);
+     *                   vacío = las que ya tienen tareas abiertas en el workspace
+     */
+    public List<WorkloadDto> suggestAssignees(UUID workspaceId, Collection<UUID> candidates) {
+        log.info("📊 Sugiriendo asignado en workspace: {} entre {} candidatos", workspaceId,
+                candidates == null ? 0 : candidates.size());
+        WorkloadIndex index = index(workspaceId);
+        List<WorkloadDto> loads = candidates == null || candidates.isEmpty()
+                ? index.snapshot()
+                : new LinkedHashSet<>(candidates).stream().map(index::of).toList();
+        return loads.stream()
+                .sorted(Comparator.comparingLong(this::effort)
+                        .thenComparingLong(WorkloadDto::openTasks)
+                        .thenComparing(load -> load.userId().toString()))
+                .toList();
+    }
+
+    /**
+     * Aplica cada cambio de tarea a los workspaces cargados. Se ejecuta en el hilo de eventos
+     * de PgNotificationListener (no en el de LISTEN); solo toca memoria (y la primera vez,
+     * el workspace de un proyecto).
+     */
+    @EventListener
+    public void onTaskDelta(TaskDelta delta) {
+        if (workloads.isEmpty()) {
+            return;
+        }
+        UUID target = isOpenAndAssigned(delta) ? workspaceOf(delta.projectId()) : null;
+        workloads.forEach((workspaceId, cached) -> {
+            WorkloadIndex index;
+            synchronized (cached) {
+                if (cached.loading) {
+                    cached.pending.add(delta);
+                }
+                index = cached.index;
+            }
+            if (index != null) {
+                apply(index, delta, workspaceId.equals(target));
+            }
+        });
+    }
+
+    /**
+     * Se han perdido cambios: ningún índice cargado es fiable.
+     */
+    @EventListener(TaskStreamGap.class)
+    public void onStreamGap() {
+        log.warn("⚠️ Cambios de tareas perdidos: se descartan {} índices de carga", workloads.size());
+        workloads.clear();
+    }
+
+    /**
+     * Reconciliación: recarga los índices en uso desde la base de datos y libera los que
+     * nadie ha consultado últimamente.
+     */
+    @Scheduled(fixedDelayString = "${workload.reconcile-interval-ms:600000}")
+    public void reconcile() {
+        long now = clock.millis();
+        workloads.values().removeIf(cached -> now - cached.lastUsedMillis > idleMillis);
+        workloads.forEach((workspaceId, cached) -> {
+            try {
+                WorkloadIndex previous = cached.index;
+                WorkloadIndex fresh = load(workspaceId, cached, true);
+                if (previous != null) {
+                    int drift = drift(previous.entries(), fresh.entries());
+                    if (drift > 0) {
+                        log.warn("⚠️ Carga de trabajo del workspace {} corregida: {} tareas no cuadraban",
+                                workspaceId, drift);
+                    }
+                }
+            } catch (RuntimeException e) {
+                log.warn("⚠️ No se pudo reconciliar la carga del workspace {}: {}", workspaceId, e.getMessage());
+                workloads.remove(workspaceId, cached);
+            }
+        });
+    }
+
+    private long effort(WorkloadDto load) {
+        return load.estimatedMinutes() + load.unestimatedTasks() * defaultEstimateMinutes;
+    }
+
+    private WorkloadIndex index(UUID workspaceId) {
+        CachedWorkload cached = workloads.get(workspaceId);
+        if (cached == null) {
+            if (!workspaceRepository.existsById(workspaceId)) {
+                throw new ResourceNotFoundException("Workspace", workspaceId);
+            }
+            cached = workloads.computeIfAbsent(workspaceId, id -> new CachedWorkload());
+        }
+        cached.lastUsedMillis = clock.millis();
+        WorkloadIndex index = cached.index != null ? cached.index : load(workspaceId, cached, false);
+        index.rebucket(LocalDate.now(clock));
+        return index;
+    }
+
+    /**
+     * Carga el índice con una SELECT y le aplica, en orden, los cambios llegados mientras tanto.
+     *
+     * @param force recargar aunque ya haya índice (reconciliación)
+     */
+    private WorkloadIndex load(UUID workspaceId, CachedWorkload cached, boolean force) {
+        synchronized (cached.loadLock) {
+            if (!force && cached.index != null) {
+                return cached.index;
+            }
+            synchronized (cached) {
+                cached.loading = true;
+                cached.pending.clear();
+            }
+            try {
+                long started = System.nanoTime();
+                Map<UUID, WorkloadIndex.Entry> rows = new HashMap<>();
+                jdbcTemplate.query(OPEN_TASKS_SQL, rs -> {
+                    rows.put(rs.getObject(1, UUID.class), new WorkloadIndex.Entry(
+                            rs.getObject(2, UUID.class),
+                            Task.TaskPriority.valueOf(rs.getString(3)),
+                            rs.getObject(4, LocalDate.class),
+                            rs.getObject(5, Integer.class)));
+                }, workspaceId);
+                WorkloadIndex index = WorkloadIndex.build(LocalDate.now(clock), rows);
+                log.debug("Carga de trabajo del workspace {} calculada: {} tareas abiertas en {} ms",
+                        workspaceId, rows.size(), (System.nanoTime() - started) / 1_000_000);
+
+                while (true) {
+                    List<TaskDelta> replay;
+                    synchronized (cached) {
+                        if (cached.pending.isEmpty()) {
+                            cached.index = index;
+                            cached.loading = false;
+                            return index;
+                        }
+                        replay = List.copyOf(cached.pending);
+                        cached.pending.clear();
+                    }
+                    replay.forEach(delta -> apply(index, delta,
+                            isOpenAndAssigned(delta) && workspaceId.equals(workspaceOf(delta.projectId()))));
+                }
+            } catch (RuntimeException e) {
+                synchronized (cached) {
+                    cached.loading = false;
+                    cached.pending.clear();
+                }
+                throw e;
+            }
+        }
+    }
+
+    private static void apply(WorkloadIndex index, TaskDelta delta, boolean counts) {
+        index.put(delta.taskId(), counts
+                ? new WorkloadIndex.Entry(delta.assignedTo(), delta.priority(), delta.dueDate(), delta.estimatedMinutes())
+                : null);
+    }
+
+    private static boolean isOpenAndAssigned(TaskDelta delta) {
+        return delta.op() != TaskDelta.Op.DELETED
+                && delta.status() != Task.TaskStatus.DONE
+                && delta.assignedTo() != null;
+    }
+
+    private static int drift(Map<UUID, WorkloadIndex.Entry> cached, Map<UUID, WorkloadIndex.Entry> fresh) {
+        int differences = (int) fresh.entrySet().stream()
+                .filter(entry -> !Objects.equals(cached.get(entry.getKey()), entry.getValue()))
+                .count();
+        return differences + (int) cached.keySet().stream().filter(taskId -> !fresh.containsKey(taskId)).count();
+    }
+
+    private UUID workspaceOf(UUID projectId) {
+        return projectWorkspaces.computeIfAbsent(projectId, id ->
+                jdbcTemplate.queryForList(PROJECT_WORKSPACE_SQL, UUID.class, id).stream().findFirst().orElse(null));
+    }
+}
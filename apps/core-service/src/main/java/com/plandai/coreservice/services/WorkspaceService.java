@@ -1,13 +1,21 @@
 package com.plandai.coreservice.services;
 
+import com.plandai.coreservice.activity.ActivityEntityType;
+import com.plandai.coreservice.activity.ActivityRecorder;
+import com.plandai.coreservice.activity.FieldDiff;
 import com.plandai.coreservice.entities.Workspace;
 import com.plandai.coreservice.exception.ResourceNotFoundException;
+import com.plandai.coreservice.pagination.CursorPage;
+import com.plandai.coreservice.pagination.KeysetPagination;
+import com.plandai.coreservice.pagination.KeysetSort;
 import com.plandai.coreservice.repositories.WorkspaceRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -25,7 +33,14 @@ import java.util.UUID;
 @Slf4j  // Genera logger automáticamente: log.info(), log.error(), etc.
 public class WorkspaceService {
 
+    /**
+     * Orden estable para paginar workspaces: fecha de creación + id.
+     */
+    private static final KeysetSort<Workspace, LocalDateTime> WORKSPACES_BY_CREATION =
+            KeysetSort.asc("createdAt", Workspace::getCreatedAt, LocalDateTime::parse, Workspace::getId);
+
     private final WorkspaceRepository workspaceRepository;
+    private final ActivityRecorder activityRecorder;
 
     /**
      * Crea un nuevo workspace.
@@ -44,6 +59,10 @@ public class WorkspaceService {
         }
 
         Workspace savedWorkspace = workspaceRepository.save(workspace);
+        activityRecorder.created(ActivityEntityType.WORKSPACE, savedWorkspace.getId(), savedWorkspace.getId(), null,
+                FieldDiff.of()
+                        .field("name", null, savedWorkspace.getName())
+                        .field("description", null, savedWorkspace.getDescription()));
         log.info("✅ Workspace creado exitosamente con ID: {}", savedWorkspace.getId());
         return savedWorkspace;
     }
@@ -82,6 +101,18 @@ public class WorkspaceService {
         return workspaceRepository.findAll();
     }
 
+    /**
+     * Obtiene una página de workspaces (paginación por cursor).
+     * Si userId es null se pagina sobre todos (admin).
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<Workspace> getWorkspacesPage(UUID userId, String cursor, Integer limit) {
+        log.info("📋 Obteniendo página de workspaces - userId: {}", userId);
+        Specification<Workspace> filter = (root, query, cb) ->
+                userId != null ? cb.equal(root.get("userId"), userId) : cb.conjunction();
+        return KeysetPagination.page(workspaceRepository, filter, WORKSPACES_BY_CREATION, cursor, limit);
+    }
+
     /**
      * Actualiza un workspace existente.
      */
@@ -90,6 +121,9 @@ public class WorkspaceService {
         log.info("🔄 Actualizando workspace: {}", id);
 
         Workspace existingWorkspace = getWorkspaceById(id);
+        FieldDiff diff = FieldDiff.of()
+                .field("name", existingWorkspace.getName(), updatedWorkspace.getName())
+                .field("description", existingWorkspace.getDescription(), updatedWorkspace.getDescription());
 
         // Actualizar solo los campos permitidos
         existingWorkspace.setName(updatedWorkspace.getName());
@@ -98,7 +132,8 @@ public class WorkspaceService {
         // JPA detecta automáticamente los cambios y hace UPDATE en DB
         // No necesitas llamar a save() explícitamente dentro de @Transactional
         Workspace saved = workspaceRepository.save(existingWorkspace);
-        
+        activityRecorder.updated(ActivityEntityType.WORKSPACE, id, id, null, diff);
+
         log.info("✅ Workspace actualizado: {}", saved.getName());
         return saved;
     }
@@ -118,6 +153,7 @@ public class WorkspaceService {
         }
 
         workspaceRepository.deleteById(id);
+        activityRecorder.deleted(ActivityEntityType.WORKSPACE, id, id, null);
         log.info("✅ Workspace eliminado exitosamente");
     }
 }
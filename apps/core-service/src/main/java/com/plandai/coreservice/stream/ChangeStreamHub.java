@@ -0,0 +1,112 @@
+package com.plandai.coreservice.stream;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Reparto en memoria de cambios de tareas a los clientes SSE de este nodo.
+ *
+ * - Suscriptores agrupados por proyecto: publicar un cambio solo toca a los
+ *   suscriptores de los proyectos afectados.
+ * - Publicar nunca bloquea (ver SseSubscriber): los envíos se hacen en hilos
+ *   virtuales y solo mientras hay algo que enviar.
+ * - Heartbeat periódico para que proxies y balanceadores no cierren las conexiones inactivas.
+ *
+ * Los cambios llegan de PgNotificationListener (LISTEN/NOTIFY), así que cada nodo
+ * ve también los cambios hechos en los demás.
+ */
+@Component
+@Slf4j
+public class ChangeStreamHub {
+
+    private final Map<UUID, Set<SseSubscriber>> subscribersByProject = new ConcurrentHashMap<>();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final long emitterTimeoutMs;
+    private final int queueCapacity;
+
+    public ChangeStreamHub(MeterRegistry meterRegistry,
+                           @Value("${stream.sse.timeout-ms:1800000}") long emitterTimeoutMs,
+                           @Value("${stream.subscriber.queue-capacity:256}") int queueCapacity) {
+        this.emitterTimeoutMs = emitterTimeoutMs;
+        this.queueCapacity = queueCapacity;
+        Gauge.builder("stream.subscribers", this, ChangeStreamHub::subscriberCount)
+                .description("Clientes SSE conectados a este nodo")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Registra un cliente para los cambios de un proyecto.
+     */
+    public SseEmitter subscribe(UUID projectId) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        SseSubscriber subscriber = new SseSubscriber(projectId, emitter, queueCapacity, senders, this::unsubscribe);
+
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+        subscribersByProject.computeIfAbsent(projectId, id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+
+        // Primer evento inmediato: confirma la conexión al cliente
+        subscriber.requestHeartbeat();
+        log.debug("Cliente SSE suscrito al proyecto {}", projectId);
+        return emitter;
+    }
+
+    /**
+     * Entrega un cambio a los suscriptores del proyecto (y del proyecto de origen en un MOVED).
+     */
+    public void publish(TaskDelta delta) {
+        offer(delta.projectId(), delta);
+        if (delta.previousProjectId() != null && !delta.previousProjectId().equals(delta.projectId())) {
+            offer(delta.previousProjectId(), delta);
+        }
+    }
+
+    /**
+     * Pide a todos los clientes que recarguen (p. ej. tras perder la conexión LISTEN y con ella algún cambio).
+     */
+    public void resyncAll() {
+        subscribersByProject.values().forEach(subscribers -> subscribers.forEach(SseSubscriber::requestResync));
+    }
+
+    @Scheduled(fixedRateString = "${stream.heartbeat-interval-ms:15000}")
+    public void heartbeat() {
+        subscribersByProject.values().forEach(subscribers -> subscribers.forEach(SseSubscriber::requestHeartbeat));
+    }
+
+    public int subscriberCount() {
+        return subscribersByProject.values().stream().mapToInt(Set::size).sum();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        senders.shutdownNow();
+    }
+
+    private void offer(UUID projectId, TaskDelta delta) {
+        Set<SseSubscriber> subscribers = subscribersByProject.get(projectId);
+        if (subscribers != null) {
+            subscribers.forEach(subscriber -> subscriber.offer(delta));
+        }
+    }
+
+    private void unsubscribe(SseSubscriber subscriber) {
+        subscribersByProject.computeIfPresent(subscriber.projectId(), (id, subscribers) -> {
+            subscribers.remove(subscriber);
+            return subscribers.isEmpty() ? null : subscribers;
+        });
+    }
+}
@@ -0,0 +1,199 @@
+package com.plandai.coreservice.stream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Escucha los cambios de tareas publicados por PostgreSQL (LISTEN task_changes)
+ * y los reparte con ChangeStreamHub. Cada TaskDelta se publica además como evento de
+ * Spring para quien mantenga estado derivado de las tareas (vistas guardadas, carga de trabajo).
+ *
+ * - Conexión propia y dedicada (fuera del pool de Hikari): LISTEN necesita una sesión fija.
+ * - Un único hilo de plataforma espera notificaciones con getNotifications(timeout); solo
+ *   parsea el payload, lo entrega al hub (no bloquea) y lo encola para los eventos de Spring.
+ * - Los eventos los publica otro hilo ("pg-notify-events") desde una cola acotada y en orden:
+ *   los consumidores pueden consultar la base de datos sin frenar el LISTEN. Si la cola
+ *   se llena se vacía y se publica TaskStreamGap (los consumidores recalculan su estado).
+ * - Si la conexión cae se reconecta con espera y se pide "resync" a todos los clientes,
+ *   porque los NOTIFY emitidos mientras tanto se han perdido (y se publica TaskStreamGap).
+ */
+@Component
+@Slf4j
+public class PgNotificationListener {
+
+    public static final String CHANNEL = "task_changes";
+
+    private final DataSourceProperties dataSourceProperties;
+    private final ChangeStreamHub hub;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final int pollTimeoutMs;
+    private final long reconnectDelayMs;
+    private final BlockingQueue<Object> events;
+    private final Counter overflows;
+
+    private volatile boolean running;
+    private Thread thread;
+    private Thread eventThread;
+
+    public PgNotificationListener(DataSourceProperties dataSourceProperties,
+                                  ChangeStreamHub hub,
+                                  ApplicationEventPublisher eventPublisher,
+                                  ObjectMapper objectMapper,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${stream.notify.poll-timeout-ms:10000}") int pollTimeoutMs,
+                                  @Value("${stream.notify.reconnect-delay-ms:5000}") long reconnectDelayMs,
+                                  @Value("${stream.notify.event-queue-capacity:10000}") int eventQueueCapacity) {
+        this.dataSourceProperties = dataSourceProperties;
+        this.hub = hub;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.pollTimeoutMs = pollTimeoutMs;
+        this.reconnectDelayMs = reconnectDelayMs;
+        this.events = new ArrayBlockingQueue<>(eventQueueCapacity);
+        this.overflows = Counter.builder("stream.notify.events.overflow")
+                .description("Veces que se llenó la cola de eventos de cambios de tareas (se publica TaskStreamGap)")
+                .register(meterRegistry);
+        Gauge.builder("stream.notify.events.queue", events, BlockingQueue::size)
+                .description("Cambios de tareas pendientes de publicar como evento de Spring")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        running = true;
+        eventThread = Thread.ofPlatform().name("pg-notify-events").daemon(true).start(this::publishEvents);
+        thread = Thread.ofPlatform().name("pg-notify-listener").daemon(true).start(this::run);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+        }
+        if (eventThread != null) {
+            eventThread.interrupt();
+        }
+    }
+
+    private void run() {
+        boolean reconnecting = false;
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                log.info("📡 Escuchando cambios de tareas (LISTEN {})", CHANNEL);
+                if (reconnecting) {
+                    hub.resyncAll();
+                    enqueue(new TaskStreamGap());
+                }
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(pollTimeoutMs);
+                    if (notifications == null) {
+                        continue;
+                    }
+                    for (PGNotification notification : notifications) {
+                        dispatch(notification.getParameter());
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (!running) {
+                    return;
+                }
+                log.error("❌ Conexión LISTEN perdida, reintentando en {} ms: {}", reconnectDelayMs, e.getMessage());
+                reconnecting = true;
+                try {
+                    Thread.sleep(reconnectDelayMs);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    void dispatch(String payload) {
+        TaskDelta delta;
+        try {
+            delta = objectMapper.readValue(payload, TaskDelta.class);
+        } catch (Exception e) {
+            log.warn("⚠️ Notificación de tarea ignorada ({}): {}", e.getMessage(), payload);
+            return;
+        }
+        hub.publish(delta);
+        enqueue(delta);
+    }
+
+    /**
+     * Encola un evento sin bloquear. Con la cola llena los pendientes ya no sirven:
+     * se sustituyen por un TaskStreamGap y cada consumidor recalcula al consultarse.
+     */
+    private void enqueue(Object event) {
+        if (events.offer(event)) {
+            return;
+        }
+        events.clear();
+        overflows.increment();
+        log.warn("⚠️ Cola de eventos de cambios de tareas llena: se publica TaskStreamGap");
+        events.offer(new TaskStreamGap());
+        if (!(event instanceof TaskStreamGap)) {
+            events.offer(event);
+        }
+    }
+
+    private void publishEvents() {
+        while (running) {
+            try {
+                publishNext(events.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Publica un evento encolado; el fallo de un consumidor no detiene el reparto.
+     */
+    void publishNext(Object event) {
+        try {
+            eventPublisher.publishEvent(event);
+        } catch (RuntimeException e) {
+            log.error("❌ Error publicando {}: {}", event.getClass().getSimpleName(), e.getMessage());
+        }
+    }
+
+    /**
+     * Publica de forma síncrona lo que haya en la cola (tests).
+     */
+    void drainEvents() {
+        Object event;
+        while ((event = events.poll()) != null) {
+            publishNext(event);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.plandai.coreservice.stream;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+/**
+ * Un cliente SSE suscrito a un proyecto.
+ *
+ * - offer() nunca bloquea: deja el cambio en una cola acotada y, si no hay un
+ *   envío en curso, programa uno en el executor (hilo virtual). Un suscriptor
+ *   inactivo no ocupa ningún hilo.
+ * - Coalescencia: la cola guarda el último cambio por tarea. Un cliente lento
+ *   recibe el estado final, no cada paso intermedio.
+ * - Si aun así la cola se llena, se descarta y se envía un único "resync":
+ *   el cliente debe recargar el tablero.
+ */
+final class SseSubscriber {
+
+    static final String DELTA_EVENT = "task";
+    static final String RESYNC_EVENT = "resync";
+
+    private final UUID projectId;
+    private final SseEmitter emitter;
+    private final int capacity;
+    private final Executor executor;
+    private final Consumer<SseSubscriber> onClose;
+
+    private final Object lock = new Object();
+    private final LinkedHashMap<UUID, TaskDelta> pending = new LinkedHashMap<>();
+    private boolean resync;
+    private boolean heartbeat;
+    private boolean draining;
+    private boolean closed;
+
+    SseSubscriber(UUID projectId, SseEmitter emitter, int capacity, Executor executor, Consumer<SseSubscriber> onClose) {
+        this.projectId = projectId;
+        this.emitter = emitter;
+        this.capacity = capacity;
+        this.executor = executor;
+        this.onClose = onClose;
+    }
+
+    UUID projectId() {
+        return projectId;
+    }
+
+    void offer(TaskDelta delta) {
+        synchronized (lock) {
+            if (closed) {
+                return;
+            }
+            if (!pending.containsKey(delta.taskId()) && pending.size() >= capacity) {
+                pending.clear();
+                resync = true;
+            } else if (!resync) {
+                pending.put(delta.taskId(), delta);
+            }
+        }
+        scheduleDrain();
+    }
+
+    void requestResync() {
+        synchronized (lock) {
+            pending.clear();
+            resync = true;
+        }
+        scheduleDrain();
+    }
+
+    void requestHeartbeat() {
+        synchronized (lock) {
+            heartbeat = true;
+        }
+        scheduleDrain();
+    }
+
+    void close() {
+        synchronized (lock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            pending.clear();
+        }
+        onClose.accept(this);
+    }
+
+    private void scheduleDrain() {
+        synchronized (lock) {
+            if (closed || draining) {
+                return;
+            }
+            draining = true;
+        }
+        executor.execute(this::drain);
+    }
+
+    /**
+     * Envía todo lo pendiente. Solo hay un drain activo por suscriptor, así que
+     * los envíos al emitter nunca se solapan.
+     */
+    private void drain() {
+        while (true) {
+            List<TaskDelta> batch;
+            boolean sendResync;
+            boolean sendHeartbeat;
+            synchronized (lock) {
+                if (closed || (pending.isEmpty() && !resync && !heartbeat)) {
+                    draining = false;
+                    return;
+                }
+                sendResync = resync;
+                sendHeartbeat = heartbeat && !sendResync && pending.isEmpty();
+                batch = sendResync ? List.of() : new ArrayList<>(pending.values());
+                pending.clear();
+                resync = false;
+                heartbeat = false;
+            }
+
+            try {
+                if (sendResync) {
+                    emitter.send(SseEmitter.event().name(RESYNC_EVENT).data(projectId));
+                }
+                for (TaskDelta delta : batch) {
+                    emitter.send(SseEmitter.event().name(DELTA_EVENT).id(delta.taskId().toString()).data(delta));
+                }
+                if (sendHeartbeat) {
+                    emitter.send(SseEmitter.event().comment("keepalive"));
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Cliente desconectado (o emitter ya completado)
+                synchronized (lock) {
+                    draining = false;
+                }
+                emitter.completeWithError(e);
+                close();
+                return;
+            }
+        }
+    }
+}
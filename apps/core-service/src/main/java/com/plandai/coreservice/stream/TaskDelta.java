@@ -0,0 +1,45 @@
+package com.plandai.coreservice.stream;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.plandai.coreservice.entities.Task;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Cambio de una tarea enviado a los clientes suscritos a un proyecto.
+ *
+ * Lo genera el trigger de V11 (pg_notify) tras el commit, en cualquier nodo.
+ * Para el cliente:
+ * - CREATED / UPDATED: insertar o reemplazar la tarjeta
+ * - MOVED: si projectId es el proyecto suscrito, insertar; si no, retirarla
+ * - DELETED: retirarla (solo incluye taskId y projectId)
+ *
+ * @param previousProjectId proyecto de origen en un MOVED
+ * @param estimatedMinutes  esfuerzo estimado de la tarea (V21)
+ * @param rank              posición de la tarjeta en su columna (orden lexicográfico)
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record TaskDelta(
+        Op op,
+        UUID taskId,
+        UUID projectId,
+        UUID previousProjectId,
+        String title,
+        Task.TaskStatus status,
+        Task.TaskPriority priority,
+        LocalDate dueDate,
+        UUID assignedTo,
+        Integer estimatedMinutes,
+        String rank,
+        LocalDateTime updatedAt
+) {
+
+    public enum Op {
+        CREATED,
+        UPDATED,
+        MOVED,
+        DELETED
+    }
+}
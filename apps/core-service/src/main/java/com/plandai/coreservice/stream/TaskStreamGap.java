@@ -0,0 +1,8 @@
+package com.plandai.coreservice.stream;
+
+/**
+ * Evento: la conexión LISTEN se ha recuperado tras una caída y los TaskDelta de
+ * ese intervalo se han perdido. Quien mantenga estado a partir de ellos debe recalcularlo.
+ */
+public record TaskStreamGap() {
+}
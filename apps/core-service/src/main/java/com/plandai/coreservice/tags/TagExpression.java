@@ -0,0 +1,83 @@
+package com.plandai.coreservice.tags;
+
+import java.util.BitSet;
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * Expresión booleana sobre nombres de etiquetas, tal como llega en ?tags=...
+ *
+ * Gramática (AND liga más que OR; operadores sin distinguir mayúsculas):
+ *   expr   := term (OR term)*
+ *   term   := factor (AND factor)*
+ *   factor := NOT factor | '(' expr ')' | nombre | "nombre con espacios"
+ *
+ * Ejemplo: backend AND (urgente OR "cliente vip") AND NOT bloqueada
+ */
+public sealed interface TagExpression {
+
+    record Tag(String name) implements TagExpression {
+    }
+
+    record Not(TagExpression operand) implements TagExpression {
+    }
+
+    record And(TagExpression left, TagExpression right) implements TagExpression {
+    }
+
+    record Or(TagExpression left, TagExpression right) implements TagExpression {
+    }
+
+    /**
+     * Evalúa la expresión como operaciones de bits.
+     *
+     * @param tagBits  tareas con cada etiqueta (por nombre en minúsculas; null = ninguna)
+     * @param universe tareas consideradas (NOT x = universe - x)
+     */
+    default BitSet evaluate(Function<String, BitSet> tagBits, BitSet universe) {
+        return switch (this) {
+            case Tag tag -> {
+                BitSet bits = tagBits.apply(tag.name().toLowerCase(Locale.ROOT));
+                yield bits == null ? new BitSet() : (BitSet) bits.clone();
+            }
+            case Not not -> {
+                BitSet bits = (BitSet) universe.clone();
+                bits.andNot(not.operand().evaluate(tagBits, universe));
+                yield bits;
+            }
+            case And and -> {
+                BitSet bits = and.left().evaluate(tagBits, universe);
+                if (!bits.isEmpty()) {
+                    bits.and(and.right().evaluate(tagBits, universe));
+                }
+                yield bits;
+            }
+            case Or or -> {
+                BitSet bits = or.left().evaluate(tagBits, universe);
+                bits.or(or.right().evaluate(tagBits, universe));
+                yield bits;
+            }
+        };
+    }
+
+    /**
+     * ¿La cumple una tarea sin ninguna etiqueta? (p. ej. "NOT bloqueada" sí, "backend" no)
+     */
+    default boolean matchesUntagged() {
+        return switch (this) {
+            case Tag tag -> false;
+            case Not not -> !not.operand().matchesUntagged();
+            case And and -> and.left().matchesUntagged() && and.right().matchesUntagged();
+            case Or or -> or.left().matchesUntagged() || or.right().matchesUntagged();
+        };
+    }
+
+    /**
+     * Analiza una expresión.
+     *
+     * @throws IllegalArgumentException si está vacía, es demasiado larga o no sigue la gramática
+     */
+    static TagExpression parse(String text) {
+        return TagExpressionParser.parse(text);
+    }
+}
@@ -0,0 +1,135 @@
+package com.plandai.coreservice.tags;
+
+import com.plandai.coreservice.tags.TagExpression.And;
+import com.plandai.coreservice.tags.TagExpression.Not;
+import com.plandai.coreservice.tags.TagExpression.Or;
+import com.plandai.coreservice.tags.TagExpression.Tag;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Analizador de TagExpression: parte el texto en tokens y aplica descenso recursivo.
+ */
+final class TagExpressionParser {
+
+    static final int MAX_LENGTH = 500;
+
+    private final List<String> tokens;
+    private int position;
+
+    private TagExpressionParser(List<String> tokens) {
+        this.tokens = tokens;
+    }
+
+    static TagExpression parse(String text) {
+        if (text == null || text.isBlank()) {
+            throw new IllegalArgumentException("La expresión de etiquetas está vacía");
+        }
+        if (text.length() > MAX_LENGTH) {
+            throw new IllegalArgumentException(
+                    "La expresión de etiquetas no puede superar " + MAX_LENGTH + " caracteres");
+        }
+        TagExpressionParser parser = new TagExpressionParser(tokenize(text));
+        TagExpression expression = parser.expression();
+        if (!parser.atEnd()) {
+            throw new IllegalArgumentException("Expresión de etiquetas no válida cerca de '" + parser.peek() + "'");
+        }
+        return expression;
+    }
+
+    private TagExpression expression() {
+        TagExpression left = term();
+        while (accept("OR")) {
+            left = new Or(left, term());
+        }
+        return left;
+    }
+
+    private TagExpression term() {
+        TagExpression left = factor();
+        while (accept("AND")) {
+            left = new And(left, factor());
+        }
+        return left;
+    }
+
+    private TagExpression factor() {
+        if (accept("NOT")) {
+            return new Not(factor());
+        }
+        if (accept("(")) {
+            TagExpression inner = expression();
+            if (!accept(")")) {
+                throw new IllegalArgumentException("Expresión de etiquetas no válida: falta ')'");
+            }
+            return inner;
+        }
+        String token = next();
+        if (token.equals(")") || isOperator(token)) {
+            throw new IllegalArgumentException("Expresión de etiquetas no válida cerca de '" + token + "'");
+        }
+        String name = token.startsWith("\"") ? token.substring(1, token.length() - 1).trim() : token;
+        if (name.isEmpty()) {
+            throw new IllegalArgumentException("Expresión de etiquetas no válida: nombre vacío");
+        }
+        return new Tag(name);
+    }
+
+    private boolean accept(String expected) {
+        if (!atEnd() && tokens.get(position).equalsIgnoreCase(expected)) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    private String next() {
+        if (atEnd()) {
+            throw new IllegalArgumentException("Expresión de etiquetas incompleta");
+        }
+        return tokens.get(position++);
+    }
+
+    private String peek() {
+        return tokens.get(position);
+    }
+
+    private boolean atEnd() {
+        return position >= tokens.size();
+    }
+
+    private static boolean isOperator(String token) {
+        return token.equalsIgnoreCase("AND") || token.equalsIgnoreCase("OR") || token.equalsIgnoreCase("NOT");
+    }
+
+    private static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        int i = 0;
+        while (i < text.length()) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '(' || c == ')') {
+                tokens.add(String.valueOf(c));
+                i++;
+            } else if (c == '"') {
+                int end = text.indexOf('"', i + 1);
+                if (end < 0) {
+                    throw new IllegalArgumentException("Expresión de etiquetas no válida: falta cerrar comillas");
+                }
+                // Las comillas se conservan para distinguir "and" (etiqueta) de AND (operador)
+                tokens.add(text.substring(i, end + 1));
+                i = end + 1;
+            } else {
+                int start = i;
+                while (i < text.length() && !Character.isWhitespace(text.charAt(i))
+                        && "()\"".indexOf(text.charAt(i)) < 0) {
+                    i++;
+                }
+                tokens.add(text.substring(start, i));
+            }
+        }
+        return tokens;
+    }
+}
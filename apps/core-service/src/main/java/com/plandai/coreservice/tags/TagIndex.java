@@ -0,0 +1,154 @@
+package com.plandai.coreservice.tags;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Índice en memoria de las etiquetas de UN workspace.
+ *
+ * - Solo contiene tareas con alguna etiqueta; cada una es un ordinal (0..n-1) y cada
+ *   etiqueta un BitSet de ordinales. Con 100k asignaciones ocupa unos pocos MB.
+ * - Una expresión se evalúa con AND/OR/ANDNOT sobre esos bits (TagExpression).
+ * - Como las tareas sin etiquetas no están, el resultado se devuelve en la forma que
+ *   no las necesita (TagMatch): las que cumplen, o las etiquetadas que NO cumplen
+ *   si la expresión la cumple también una tarea sin etiquetas ("NOT bloqueada").
+ *
+ * Las tareas borradas o archivadas se quedan: sus ids ya no están en tasks y no cambian
+ * el resultado de ningún filtro, y las archivadas conservan sus etiquetas (V18).
+ *
+ * Los métodos son synchronized: las escrituras llegan tras el commit y evaluar
+ * son unas pocas operaciones sobre palabras de 64 bits.
+ */
+public final class TagIndex {
+
+    /**
+     * Etiqueta del workspace (solo lo que necesita el índice).
+     */
+    public record TagRef(UUID id, String name) {
+    }
+
+    /**
+     * Asignación: la tarea lleva la etiqueta.
+     */
+    public record Assignment(UUID taskId, UUID tagId) {
+    }
+
+    private final List<UUID> ids = new ArrayList<>();
+    private final Map<UUID, Integer> ordinals = new HashMap<>();
+    private final Map<UUID, BitSet> tasksByTag = new HashMap<>();
+    private final Map<String, UUID> tagsByName = new HashMap<>();
+
+    private long version;
+
+    private TagIndex(long version) {
+        this.version = version;
+    }
+
+    public static TagIndex build(long version, List<TagRef> tags, List<Assignment> assignments) {
+        TagIndex index = new TagIndex(version);
+        for (TagRef tag : tags) {
+            index.tagsByName.put(tag.name().toLowerCase(Locale.ROOT), tag.id());
+            index.tasksByTag.put(tag.id(), new BitSet());
+        }
+        for (Assignment assignment : assignments) {
+            BitSet tasks = index.tasksByTag.get(assignment.tagId());
+            if (tasks != null) {
+                tasks.set(index.ordinal(assignment.taskId()));
+            }
+        }
+        return index;
+    }
+
+    public synchronized long version() {
+        return version;
+    }
+
+    /**
+     * Número de tareas con alguna etiqueta.
+     */
+    public synchronized int size() {
+        return universe().cardinality();
+    }
+
+    /**
+     * Aplica una asignación ya confirmada; la versión pasa a la que dejó esa transacción.
+     */
+    public synchronized void tag(UUID taskId, UUID tagId, long newVersion) {
+        BitSet tasks = tasksByTag.get(tagId);
+        if (tasks != null) {
+            tasks.set(ordinal(taskId));
+        }
+        version = newVersion;
+    }
+
+    public synchronized void untag(UUID taskId, UUID tagId, long newVersion) {
+        Integer ordinal = ordinals.get(taskId);
+        BitSet tasks = tasksByTag.get(tagId);
+        if (ordinal != null && tasks != null) {
+            tasks.clear(ordinal);
+        }
+        version = newVersion;
+    }
+
+    public synchronized boolean contains(UUID taskId) {
+        return ordinals.containsKey(taskId);
+    }
+
+    /**
+     * Quita una tarea que ha pasado a otro workspace (el trigger de V18 le ha quitado
+     * las etiquetas). Su ordinal no se reutiliza: se compacta al recargar.
+     */
+    public synchronized boolean removeTask(UUID taskId) {
+        Integer ordinal = ordinals.remove(taskId);
+        if (ordinal == null) {
+            return false;
+        }
+        tasksByTag.values().forEach(tasks -> tasks.clear(ordinal));
+        ids.set(ordinal, null);
+        return true;
+    }
+
+    /**
+     * Evalúa una expresión; los nombres que no existen en el workspace no los lleva ninguna tarea.
+     */
+    public synchronized TagMatch evaluate(TagExpression expression) {
+        BitSet universe = universe();
+        BitSet matches = expression.evaluate(name -> {
+            UUID tagId = tagsByName.get(name);
+            return tagId == null ? null : tasksByTag.get(tagId);
+        }, universe);
+        matches.and(universe);
+
+        if (!expression.matchesUntagged()) {
+            return new TagMatch(false, toIds(matches));
+        }
+        universe.andNot(matches);
+        return new TagMatch(true, toIds(universe));
+    }
+
+    private BitSet universe() {
+        BitSet universe = new BitSet(ids.size());
+        tasksByTag.values().forEach(universe::or);
+        return universe;
+    }
+
+    private int ordinal(UUID taskId) {
+        return ordinals.computeIfAbsent(taskId, id -> {
+            ids.add(id);
+            return ids.size() - 1;
+        });
+    }
+
+    private List<UUID> toIds(BitSet bits) {
+        List<UUID> result = new ArrayList<>(bits.cardinality());
+        for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+            result.add(ids.get(i));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,14 @@
+package com.plandai.coreservice.tags;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Resultado de evaluar una expresión de etiquetas, listo para traducirse a SQL.
+ *
+ * - exclude = false → cumplen exactamente las tareas de taskIds (id IN (...))
+ * - exclude = true  → cumplen todas salvo las de taskIds (id NOT IN (...)); pasa cuando
+ *   la expresión la cumple una tarea sin etiquetas, que el índice no conoce
+ */
+public record TagMatch(boolean exclude, List<UUID> taskIds) {
+}
@@ -0,0 +1,24 @@
+package com.plandai.coreservice.views;
+
+import com.plandai.coreservice.entities.Task;
+import com.plandai.coreservice.stream.TaskDelta;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Los campos de una tarea que puede mirar un filtro de vista.
+ * Salen de un TaskDelta (cambios de V11) o de leer la fila de la tarea.
+ */
+public record TaskFacts(
+        UUID projectId,
+        Task.TaskStatus status,
+        Task.TaskPriority priority,
+        LocalDate dueDate,
+        UUID assignedTo
+) {
+
+    public static TaskFacts of(TaskDelta delta) {
+        return new TaskFacts(delta.projectId(), delta.status(), delta.priority(), delta.dueDate(), delta.assignedTo());
+    }
+}
@@ -0,0 +1,149 @@
+package com.plandai.coreservice.views;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.plandai.coreservice.dto.TaskFilterDto;
+import com.plandai.coreservice.entities.Task;
+
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Filtro de una vista guardada. Todos los campos son opcionales y se aplican a la vez (AND).
+ * Ejemplo: {"projectId": "uuid", "priority": ["HIGH", "URGENT"], "overdue": true}
+ *
+ * Son los filtros estructurados del listado de tareas (sin texto libre ni etiquetas): así
+ * una vista se puede comprobar en memoria contra cada cambio de tarea (matches) y, cuando
+ * hace falta, recalcular entera en SQL con el mismo significado (toTaskFilter).
+ *
+ * @param overdue       solo tareas vencidas: fecha límite anterior a hoy y sin completar
+ * @param dueWithinDays solo tareas con fecha límite entre hoy y dentro de N días
+ */
+public record ViewFilter(
+        UUID workspaceId,
+        UUID projectId,
+        UUID assignedTo,
+        Set<Task.TaskStatus> status,
+        Set<Task.TaskPriority> priority,
+        LocalDate dueFrom,
+        LocalDate dueTo,
+        boolean overdue,
+        Integer dueWithinDays
+) {
+
+    public static final int MAX_DUE_WITHIN_DAYS = 366;
+
+    public ViewFilter {
+        status = status == null ? Set.of() : Set.copyOf(status);
+        priority = priority == null ? Set.of() : Set.copyOf(priority);
+    }
+
+    /**
+     * @throws IllegalArgumentException si la vista no se acota a un workspace, proyecto o
+     *                                  asignado, o si los rangos de fechas no tienen sentido
+     */
+    public void validate() {
+        if (workspaceId == null && projectId == null && assignedTo == null) {
+            throw new IllegalArgumentException("Una vista necesita workspaceId, projectId o assignedTo");
+        }
+        if (dueFrom != null && dueTo != null && dueFrom.isAfter(dueTo)) {
+            throw new IllegalArgumentException("dueFrom no puede ser posterior a dueTo");
+        }
+        if (dueWithinDays != null && (dueWithinDays < 0 || dueWithinDays > MAX_DUE_WITHIN_DAYS)) {
+            throw new IllegalArgumentException("dueWithinDays debe estar entre 0 y " + MAX_DUE_WITHIN_DAYS);
+        }
+    }
+
+    /**
+     * ¿Depende el resultado del día de hoy? Entonces cambia al cambiar de día aunque no cambie ninguna tarea.
+     */
+    @JsonIgnore
+    public boolean isRelative() {
+        return overdue || dueWithinDays != null;
+    }
+
+    /**
+     * ¿Entra la tarea en la vista?
+     *
+     * @param workspaceOf workspace de un proyecto (solo se consulta si la vista filtra por workspace)
+     */
+    public boolean matches(TaskFacts task, Function<UUID, UUID> workspaceOf, LocalDate today) {
+        if (projectId != null && !projectId.equals(task.projectId())) {
+            return false;
+        }
+        if (assignedTo != null && !assignedTo.equals(task.assignedTo())) {
+            return false;
+        }
+        if (!status.isEmpty() && !status.contains(task.status())) {
+            return false;
+        }
+        if (!priority.isEmpty() && !priority.contains(task.priority())) {
+            return false;
+        }
+        if (overdue && task.status() == Task.TaskStatus.DONE) {
+            return false;
+        }
+        LocalDate from = effectiveDueFrom(today);
+        LocalDate to = effectiveDueTo(today);
+        if (from != null || to != null) {
+            LocalDate due = task.dueDate();
+            if (due == null || (from != null && due.isBefore(from)) || (to != null && due.isAfter(to))) {
+                return false;
+            }
+        }
+        return workspaceId == null || workspaceId.equals(workspaceOf.apply(task.projectId()));
+    }
+
+    /**
+     * El mismo filtro para el listado de tareas (recálculo completo en SQL), con las fechas
+     * relativas resueltas para "today".
+     *
+     * @return null si ninguna tarea puede entrar (por ejemplo vencidas con status=[DONE])
+     */
+    public TaskFilterDto toTaskFilter(LocalDate today) {
+        Set<Task.TaskStatus> statuses = status.isEmpty() ? EnumSet.allOf(Task.TaskStatus.class) : EnumSet.copyOf(status);
+        if (overdue) {
+            statuses.remove(Task.TaskStatus.DONE);
+        }
+        LocalDate from = effectiveDueFrom(today);
+        LocalDate to = effectiveDueTo(today);
+        if (statuses.isEmpty() || (from != null && to != null && from.isAfter(to))) {
+            return null;
+        }
+
+        TaskFilterDto filter = new TaskFilterDto();
+        filter.setWorkspaceId(workspaceId);
+        filter.setProjectId(projectId);
+        filter.setAssignedTo(assignedTo);
+        filter.setStatus(status.isEmpty() && !overdue ? null : statuses);
+        filter.setPriority(priority.isEmpty() ? null : priority);
+        filter.setDueFrom(from);
+        filter.setDueTo(to);
+        return filter;
+    }
+
+    private LocalDate effectiveDueFrom(LocalDate today) {
+        return dueWithinDays == null ? dueFrom : latest(dueFrom, today);
+    }
+
+    private LocalDate effectiveDueTo(LocalDate today) {
+        LocalDate to = dueTo;
+        if (overdue) {
+            to = earliest(to, today.minusDays(1));
+        }
+        if (dueWithinDays != null) {
+            to = earliest(to, today.plusDays(dueWithinDays));
+        }
+        return to;
+    }
+
+    private static LocalDate latest(LocalDate a, LocalDate b) {
+        return a == null || b.isAfter(a) ? b : a;
+    }
+
+    private static LocalDate earliest(LocalDate a, LocalDate b) {
+        return a == null || b.isBefore(a) ? b : a;
+    }
+}
@@ -0,0 +1,98 @@
+package com.plandai.coreservice.views;
+
+import com.plandai.coreservice.pagination.Cursor;
+import com.plandai.coreservice.pagination.CursorPage;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.UUID;
+
+/**
+ * Ids de las tareas que cumplen una vista, en el orden del listado de tareas
+ * (fecha de creación + id), para contar y paginar sin consultar la base de datos.
+ *
+ * Los cursores son los mismos que los de el listado paginado de tareas ("createdAt|id").
+ * Se modifica desde el hilo de notificaciones y se lee desde las peticiones: todos los
+ * métodos están sincronizados.
+ */
+public final class ViewResultSet {
+
+    private record Member(LocalDateTime createdAt, UUID id) {
+    }
+
+    /**
+     * El id se compara como texto: es el orden de PostgreSQL para uuid (UUID.compareTo compara con signo).
+     */
+    private static final Comparator<Member> ORDER = Comparator.comparing(Member::createdAt)
+            .thenComparing(member -> member.id().toString());
+
+    private final NavigableSet<Member> members = new TreeSet<>(ORDER);
+    private final Map<UUID, LocalDateTime> createdAtById = new HashMap<>();
+
+    /**
+     * @return true si la tarea no estaba
+     */
+    public synchronized boolean add(UUID taskId, LocalDateTime createdAt) {
+        LocalDateTime previous = createdAtById.put(taskId, createdAt);
+        if (previous != null) {
+            members.remove(new Member(previous, taskId));
+        }
+        members.add(new Member(createdAt, taskId));
+        return previous == null;
+    }
+
+    /**
+     * @return true si la tarea estaba
+     */
+    public synchronized boolean remove(UUID taskId) {
+        LocalDateTime createdAt = createdAtById.remove(taskId);
+        if (createdAt == null) {
+            return false;
+        }
+        members.remove(new Member(createdAt, taskId));
+        return true;
+    }
+
+    public synchronized boolean contains(UUID taskId) {
+        return createdAtById.containsKey(taskId);
+    }
+
+    public synchronized int size() {
+        return createdAtById.size();
+    }
+
+    /**
+     * Como mucho "limit" ids después del cursor, con el cursor de la página siguiente.
+     *
+     * @throws IllegalArgumentException si el cursor no es válido
+     */
+    public synchronized CursorPage<UUID> page(String cursor, int limit) {
+        Cursor after = Cursor.decode(cursor);
+        NavigableSet<Member> tail = members;
+        if (after != null) {
+            try {
+                tail = members.tailSet(new Member(LocalDateTime.parse(after.key()), after.id()), false);
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Cursor inválido", e);
+            }
+        }
+
+        List<UUID> ids = new ArrayList<>(Math.min(limit, tail.size()));
+        Iterator<Member> iterator = tail.iterator();
+        Member last = null;
+        while (ids.size() < limit && iterator.hasNext()) {
+            last = iterator.next();
+            ids.add(last.id());
+        }
+        String next = iterator.hasNext() ? new Cursor(last.createdAt().toString(), last.id()).encode() : null;
+        return new CursorPage<>(List.copyOf(ids), next);
+    }
+}
@@ -0,0 +1,23 @@
+package com.plandai.coreservice.workload;
+
+import java.time.LocalDate;
+
+/**
+ * Tramo de vencimiento de una tarea abierta respecto a hoy.
+ */
+public enum DueWindow {
+    OVERDUE,    // Fecha límite anterior a hoy
+    THIS_WEEK,  // Hoy o en los próximos 6 días
+    LATER,      // Más adelante
+    NO_DATE;    // Sin fecha límite
+
+    public static DueWindow of(LocalDate dueDate, LocalDate today) {
+        if (dueDate == null) {
+            return NO_DATE;
+        }
+        if (dueDate.isBefore(today)) {
+            return OVERDUE;
+        }
+        return dueDate.isAfter(today.plusDays(6)) ? LATER : THIS_WEEK;
+    }
+}
@@ -0,0 +1,152 @@
+package com.plandai.coreservice.workload;
+
+import com.plandai.coreservice.dto.WorkloadDto;
+import com.plandai.coreservice.entities.Task;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Carga de trabajo de un workspace en memoria: contadores por persona de tareas abiertas,
+ * por prioridad y por tramo de vencimiento, y minutos estimados.
+ *
+ * - Los contadores son LongAdder: leerlos (suma de celdas) no bloquea a quien los actualiza.
+ * - Guarda además lo que aporta cada tarea, para restarlo cuando cambie o se cierre:
+ *   un cambio es "la tarea ahora aporta esto" (put) y aplicarlo dos veces no descuadra nada.
+ * - Los tramos dependen de hoy; al cambiar de día se recalculan desde las tareas (rebucket).
+ * - Las escrituras están sincronizadas entre sí; una lectura concurrente puede ver un
+ *   cambio a medio aplicar entre dos contadores, nunca uno perdido.
+ */
+public final class WorkloadIndex {
+
+    /**
+     * Lo que aporta una tarea abierta y asignada.
+     */
+    public record Entry(UUID assignee, Task.TaskPriority priority, LocalDate dueDate, Integer estimatedMinutes) {
+    }
+
+    private static final Task.TaskPriority[] PRIORITIES = Task.TaskPriority.values();
+    private static final DueWindow[] WINDOWS = DueWindow.values();
+
+    private static final class Counters {
+        private final LongAdder open = new LongAdder();
+        private final LongAdder[] byPriority = adders(PRIORITIES.length);
+        private final LongAdder[] byWindow = adders(WINDOWS.length);
+        private final LongAdder minutes = new LongAdder();
+        private final LongAdder unestimated = new LongAdder();
+
+        private static LongAdder[] adders(int size) {
+            LongAdder[] adders = new LongAdder[size];
+            for (int i = 0; i < size; i++) {
+                adders[i] = new LongAdder();
+            }
+            return adders;
+        }
+    }
+
+    private final Map<UUID, Entry> tasks = new HashMap<>();
+    private final Map<UUID, Counters> assignees = new ConcurrentHashMap<>();
+    private LocalDate day;
+
+    private WorkloadIndex(LocalDate day) {
+        this.day = day;
+    }
+
+    public static WorkloadIndex build(LocalDate day, Map<UUID, Entry> tasks) {
+        WorkloadIndex index = new WorkloadIndex(day);
+        tasks.forEach(index::put);
+        return index;
+    }
+
+    /**
+     * Fija lo que aporta una tarea (null = nada: cerrada, sin asignar, borrada o de otro workspace).
+     */
+    public synchronized void put(UUID taskId, Entry entry) {
+        Entry previous = entry == null ? tasks.remove(taskId) : tasks.put(taskId, entry);
+        if (previous != null) {
+            count(previous, -1);
+        }
+        if (entry != null) {
+            count(entry, 1);
+        }
+    }
+
+    /**
+     * Pasa los tramos de vencimiento a "today" si ha cambiado el día.
+     */
+    public synchronized void rebucket(LocalDate today) {
+        if (today.equals(day)) {
+            return;
+        }
+        tasks.values().forEach(entry -> count(entry, -1));
+        day = today;
+        tasks.values().forEach(entry -> count(entry, 1));
+    }
+
+    public synchronized LocalDate day() {
+        return day;
+    }
+
+    /**
+     * Copia de lo que aporta cada tarea (para reconciliar con la base de datos).
+     */
+    public synchronized Map<UUID, Entry> entries() {
+        return Map.copyOf(tasks);
+    }
+
+    /**
+     * Carga de cada persona con alguna tarea abierta.
+     */
+    public List<WorkloadDto> snapshot() {
+        List<WorkloadDto> loads = new ArrayList<>(assignees.size());
+        assignees.forEach((userId, counters) -> {
+            long open = counters.open.sum();
+            if (open > 0) {
+                loads.add(toDto(userId, counters, open));
+            }
+        });
+        return loads;
+    }
+
+    /**
+     * Carga de una persona (todo a cero si no tiene tareas abiertas).
+     */
+    public WorkloadDto of(UUID userId) {
+        Counters counters = assignees.get(userId);
+        return counters == null ? toDto(userId, new Counters(), 0) : toDto(userId, counters, counters.open.sum());
+    }
+
+    private void count(Entry entry, int delta) {
+        Counters counters = assignees.computeIfAbsent(entry.assignee(), id -> new Counters());
+        counters.open.add(delta);
+        counters.byPriority[entry.priority().ordinal()].add(delta);
+        counters.byWindow[DueWindow.of(entry.dueDate(), day).ordinal()].add(delta);
+        if (entry.estimatedMinutes() == null) {
+            counters.unestimated.add(delta);
+        } else {
+            counters.minutes.add((long) delta * entry.estimatedMinutes());
+        }
+        if (delta < 0 && counters.open.sum() == 0) {
+            assignees.remove(entry.assignee());
+        }
+    }
+
+    private static WorkloadDto toDto(UUID userId, Counters counters, long open) {
+        Map<Task.TaskPriority, Long> byPriority = new EnumMap<>(Task.TaskPriority.class);
+        for (Task.TaskPriority priority : PRIORITIES) {
+            byPriority.put(priority, counters.byPriority[priority.ordinal()].sum());
+        }
+        Map<DueWindow, Long> byWindow = new EnumMap<>(DueWindow.class);
+        for (DueWindow window : WINDOWS) {
+            byWindow.put(window, counters.byWindow[window.ordinal()].sum());
+        }
+        return new WorkloadDto(userId, open, byPriority, byWindow, counters.minutes.sum(), counters.unestimated.sum());
+    }
+}
@@ -0,0 +1,9 @@
+-- Migración V10: Índice para la bandeja de entrada priorizada
+-- Fecha: 2025-12-01
+-- Descripción: GET /api/tasks/inbox puntúa solo las tareas ABIERTAS del usuario.
+-- El índice parcial excluye el histórico de tareas terminadas: un usuario con
+-- 50k tareas DONE y unas decenas abiertas solo lee esas decenas.
+
+CREATE INDEX IF NOT EXISTS idx_tasks_inbox
+    ON core_schema.tasks(assigned_to, priority, due_date)
+    WHERE status <> 'DONE';
@@ -0,0 +1,44 @@
+-- Migración V11: Notificación de cambios de tareas (LISTEN/NOTIFY)
+-- Fecha: 2025-12-02
+-- Descripción: Cada alta, cambio, movimiento o baja de una tarea publica un
+-- pequeño JSON en el canal "task_changes". PostgreSQL lo entrega a todos los
+-- nodos que escuchan SOLO tras el commit, así que los clientes SSE nunca ven
+-- cambios que luego se deshacen. Cubre todos los caminos de escritura (JPA,
+-- bulk, UPDATE ... RETURNING, DELETE por id, cascade al borrar un proyecto).
+-- La descripción no se envía (límite de 8000 bytes por notificación).
+
+CREATE OR REPLACE FUNCTION core_schema.notify_task_change()
+RETURNS TRIGGER AS $$
+DECLARE
+    payload JSON;
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        payload := json_build_object('op', 'DELETED', 'taskId', OLD.id, 'projectId', OLD.project_id);
+    ELSE
+        payload := json_build_object(
+            'op', CASE
+                      WHEN TG_OP = 'INSERT' THEN 'CREATED'
+                      WHEN OLD.project_id <> NEW.project_id THEN 'MOVED'
+                      ELSE 'UPDATED'
+                  END,
+            'taskId', NEW.id,
+            'projectId', NEW.project_id,
+            'previousProjectId', CASE WHEN TG_OP = 'UPDATE' AND OLD.project_id <> NEW.project_id
+                                      THEN OLD.project_id END,
+            'title', NEW.title,
+            'status', NEW.status,
+            'priority', NEW.priority,
+            'dueDate', NEW.due_date,
+            'assignedTo', NEW.assigned_to,
+            'updatedAt', NEW.updated_at);
+    END IF;
+    PERFORM pg_notify('task_changes', payload::TEXT);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS notify_task_change ON core_schema.tasks;
+CREATE TRIGGER notify_task_change
+    AFTER INSERT OR UPDATE OR DELETE ON core_schema.tasks
+    FOR EACH ROW
+    EXECUTE FUNCTION core_schema.notify_task_change();
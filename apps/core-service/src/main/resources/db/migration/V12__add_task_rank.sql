@@ -0,0 +1,98 @@
+-- Migración V12: Orden manual de tareas por clave fraccionaria
+-- Fecha: 2025-12-03
+-- Descripción: Cada tarea guarda "rank", una clave de texto en base 62 que
+-- ordena las tarjetas dentro de su columna (proyecto + estado). Entre dos
+-- claves siempre cabe otra, así que arrastrar una tarjeta reescribe UNA fila.
+-- La collation "C" compara byte a byte: el mismo orden que RankKeys en Java.
+-- El tablero pasa a ordenar por (rank, id), con su propio índice.
+
+ALTER TABLE core_schema.tasks ADD COLUMN IF NOT EXISTS rank VARCHAR(255) COLLATE "C";
+
+-- Reescribir solo el rank (reequilibrado) no es actividad sobre la tarea:
+-- ni toca updated_at ni las estadísticas del proyecto. El NOTIFY sí se envía,
+-- para que los clientes reordenen sus tarjetas.
+DROP TRIGGER IF EXISTS update_tasks_updated_at ON core_schema.tasks;
+CREATE TRIGGER update_tasks_updated_at
+    BEFORE UPDATE ON core_schema.tasks
+    FOR EACH ROW
+    WHEN ((to_jsonb(OLD) - 'rank') IS DISTINCT FROM (to_jsonb(NEW) - 'rank'))
+    EXECUTE FUNCTION core_schema.update_updated_at_column();
+
+DROP TRIGGER IF EXISTS maintain_project_task_stats ON core_schema.tasks;
+CREATE TRIGGER maintain_project_task_stats
+    AFTER INSERT OR DELETE ON core_schema.tasks
+    FOR EACH ROW
+    EXECUTE FUNCTION core_schema.maintain_project_task_stats();
+CREATE TRIGGER maintain_project_task_stats_update
+    AFTER UPDATE ON core_schema.tasks
+    FOR EACH ROW
+    WHEN ((to_jsonb(OLD) - 'rank') IS DISTINCT FROM (to_jsonb(NEW) - 'rank'))
+    EXECUTE FUNCTION core_schema.maintain_project_task_stats();
+
+-- Carga inicial: claves de 4 dígitos repartidas por columna en el orden actual
+-- del tablero (created_at, id). Mismo formato que RankKeys.spread.
+CREATE FUNCTION pg_temp.rank_key(p_value BIGINT)
+RETURNS TEXT AS $$
+DECLARE
+    v_digits CONSTANT TEXT := '0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz';
+    v_key TEXT := '';
+BEGIN
+    FOR i IN 1..4 LOOP
+        v_key := substr(v_digits, (p_value % 62)::INT + 1, 1) || v_key;
+        p_value := p_value / 62;
+    END LOOP;
+    RETURN rtrim(v_key, '0');
+END;
+$$ LANGUAGE plpgsql IMMUTABLE;
+
+ALTER TABLE core_schema.tasks DISABLE TRIGGER notify_task_change;
+
+UPDATE core_schema.tasks t
+   SET rank = pg_temp.rank_key(r.rn * 14776336 / (r.total + 1))
+  FROM (SELECT id,
+               row_number() OVER (PARTITION BY project_id, status ORDER BY created_at, id) AS rn,
+               count(*) OVER (PARTITION BY project_id, status) AS total
+          FROM core_schema.tasks) r
+ WHERE t.id = r.id
+   AND t.rank IS NULL;
+
+ALTER TABLE core_schema.tasks ENABLE TRIGGER notify_task_change;
+
+ALTER TABLE core_schema.tasks ALTER COLUMN rank SET NOT NULL;
+
+-- Tablero y "cargar más" por columna en orden de rank; sustituye a idx_tasks_board (V7)
+CREATE INDEX IF NOT EXISTS idx_tasks_rank
+    ON core_schema.tasks(project_id, status, rank, id);
+DROP INDEX IF EXISTS core_schema.idx_tasks_board;
+
+-- Los cambios enviados por SSE incluyen el rank para colocar la tarjeta
+CREATE OR REPLACE FUNCTION core_schema.notify_task_change()
+RETURNS TRIGGER AS $$
+DECLARE
+    payload JSON;
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        payload := json_build_object('op', 'DELETED', 'taskId', OLD.id, 'projectId', OLD.project_id);
+    ELSE
+        payload := json_build_object(
+            'op', CASE
+                      WHEN TG_OP = 'INSERT' THEN 'CREATED'
+                      WHEN OLD.project_id <> NEW.project_id THEN 'MOVED'
+                      ELSE 'UPDATED'
+                  END,
+            'taskId', NEW.id,
+            'projectId', NEW.project_id,
+            'previousProjectId', CASE WHEN TG_OP = 'UPDATE' AND OLD.project_id <> NEW.project_id
+                                      THEN OLD.project_id END,
+            'title', NEW.title,
+            'status', NEW.status,
+            'priority', NEW.priority,
+            'dueDate', NEW.due_date,
+            'assignedTo', NEW.assigned_to,
+            'rank', NEW.rank,
+            'updatedAt', NEW.updated_at);
+    END IF;
+    PERFORM pg_notify('task_changes', payload::TEXT);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
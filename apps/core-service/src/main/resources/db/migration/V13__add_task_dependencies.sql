@@ -0,0 +1,66 @@
+-- Migración V13: Dependencias entre tareas ("bloqueada por")
+-- Fecha: 2025-12-04
+-- Descripción: task_dependencies guarda las aristas (task_id está bloqueada por
+-- blocked_by) dentro de un mismo proyecto. El grafo se consulta desde un índice
+-- en memoria por proyecto (TaskDependencyService); la base de datos solo guarda
+-- las aristas y una versión por proyecto que cambia con cada alta o baja,
+-- para que cada nodo sepa si su índice está al día.
+
+CREATE TABLE IF NOT EXISTS core_schema.task_dependencies (
+    task_id UUID NOT NULL REFERENCES core_schema.tasks(id) ON DELETE CASCADE,
+    blocked_by UUID NOT NULL REFERENCES core_schema.tasks(id) ON DELETE CASCADE,
+    project_id UUID NOT NULL REFERENCES core_schema.projects(id) ON DELETE CASCADE,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (task_id, blocked_by),
+    CHECK (task_id <> blocked_by)
+);
+
+CREATE INDEX IF NOT EXISTS idx_task_dependencies_project ON core_schema.task_dependencies(project_id);
+CREATE INDEX IF NOT EXISTS idx_task_dependencies_blocked_by ON core_schema.task_dependencies(blocked_by);
+
+COMMENT ON TABLE core_schema.task_dependencies IS 'Blocked-by relationships between tasks of the same project';
+
+-- Versión del grafo de cada proyecto. Sirve también de cerrojo: las altas de
+-- dependencias de un proyecto se serializan con SELECT ... FOR UPDATE sobre su fila.
+-- Sin clave foránea: el borrado en cascada de un proyecto también pasa por el
+-- trigger y la fila huérfana que pueda quedar es inofensiva.
+CREATE TABLE IF NOT EXISTS core_schema.task_dependency_versions (
+    project_id UUID PRIMARY KEY,
+    version BIGINT NOT NULL DEFAULT 0
+);
+
+CREATE OR REPLACE FUNCTION core_schema.bump_task_dependency_version()
+RETURNS TRIGGER AS $$
+DECLARE
+    v_project_id UUID := CASE WHEN TG_OP = 'DELETE' THEN OLD.project_id ELSE NEW.project_id END;
+BEGIN
+    INSERT INTO core_schema.task_dependency_versions (project_id, version)
+    VALUES (v_project_id, 1)
+    ON CONFLICT (project_id) DO UPDATE
+        SET version = core_schema.task_dependency_versions.version + 1;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS bump_task_dependency_version ON core_schema.task_dependencies;
+CREATE TRIGGER bump_task_dependency_version
+    AFTER INSERT OR DELETE ON core_schema.task_dependencies
+    FOR EACH ROW
+    EXECUTE FUNCTION core_schema.bump_task_dependency_version();
+
+-- Las dependencias no cruzan proyectos: al mover una tarea de proyecto se eliminan las suyas
+CREATE OR REPLACE FUNCTION core_schema.drop_moved_task_dependencies()
+RETURNS TRIGGER AS $$
+BEGIN
+    DELETE FROM core_schema.task_dependencies
+     WHERE task_id = NEW.id OR blocked_by = NEW.id;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS drop_moved_task_dependencies ON core_schema.tasks;
+CREATE TRIGGER drop_moved_task_dependencies
+    AFTER UPDATE OF project_id ON core_schema.tasks
+    FOR EACH ROW
+    WHEN (OLD.project_id IS DISTINCT FROM NEW.project_id)
+    EXECUTE FUNCTION core_schema.drop_moved_task_dependencies();
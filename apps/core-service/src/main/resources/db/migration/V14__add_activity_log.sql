@@ -0,0 +1,51 @@
+-- Migración V14: Registro de actividad (solo inserciones) particionado por mes
+-- Fecha: 2025-12-05
+-- Descripción: activity_log guarda quién cambió qué y cuándo en workspaces,
+-- proyectos, tareas, eventos y gastos, con un diff compacto por campo
+-- ({"campo": [antes, después]}). Se escribe en lotes desde ActivityRecorder
+-- fuera de la petición. Particionado por RANGE (occurred_at) mensual: las
+-- particiones futuras las crea ActivityPartitionMaintainer y las antiguas se
+-- eliminan con DROP TABLE (sin DELETE masivo ni VACUUM posterior).
+
+CREATE TABLE IF NOT EXISTS core_schema.activity_log (
+    id UUID NOT NULL,
+    occurred_at TIMESTAMP NOT NULL,
+    workspace_id UUID,
+    actor_id UUID,
+    entity_type VARCHAR(20) NOT NULL,
+    entity_id UUID NOT NULL,
+    action VARCHAR(10) NOT NULL,
+    changes JSONB,
+    -- La clave de partición debe formar parte de la clave primaria
+    PRIMARY KEY (occurred_at, id)
+) PARTITION BY RANGE (occurred_at);
+
+COMMENT ON TABLE core_schema.activity_log IS 'Append-only activity log, one partition per month';
+COMMENT ON COLUMN core_schema.activity_log.workspace_id IS 'Workspace of the entity (NULL for personal data such as expenses)';
+COMMENT ON COLUMN core_schema.activity_log.actor_id IS 'User who made the change (NULL for system jobs)';
+COMMENT ON COLUMN core_schema.activity_log.changes IS 'Changed fields as {"field": [before, after]}';
+
+-- Feeds por keyset (occurred_at DESC, id DESC) por workspace y por usuario.
+-- Los índices del padre se crean en cada partición (actual y futuras).
+CREATE INDEX IF NOT EXISTS idx_activity_log_workspace
+    ON core_schema.activity_log(workspace_id, occurred_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_activity_log_actor
+    ON core_schema.activity_log(actor_id, occurred_at DESC, id DESC);
+-- Historial de una entidad (y workspace de las entidades ya borradas)
+CREATE INDEX IF NOT EXISTS idx_activity_log_entity
+    ON core_schema.activity_log(entity_id, occurred_at DESC);
+
+-- Particiones iniciales: mes actual y los tres siguientes
+DO $$
+DECLARE
+    v_month DATE;
+BEGIN
+    FOR i IN 0..3 LOOP
+        v_month := (date_trunc('month', CURRENT_DATE) + make_interval(months => i))::DATE;
+        EXECUTE format(
+            'CREATE TABLE IF NOT EXISTS core_schema.%I PARTITION OF core_schema.activity_log FOR VALUES FROM (%L) TO (%L)',
+            'activity_log_' || to_char(v_month, 'YYYYMM'),
+            v_month,
+            (v_month + INTERVAL '1 month')::DATE);
+    END LOOP;
+END $$;
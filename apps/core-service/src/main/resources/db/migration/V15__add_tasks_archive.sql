@@ -0,0 +1,92 @@
+-- Migración V15: Archivo de tareas completadas (tabla fría)
+-- Fecha: 2025-12-06
+-- Descripción: Las tareas DONE sin cambios desde hace más de
+-- task-archive.min-age pasan de tasks a tasks_archive en lotes pequeños
+-- (TaskArchiveService). tasks y sus índices quedan con las tareas vivas;
+-- las archivadas se consultan con includeArchived y se pueden restaurar.
+--
+-- Las estadísticas de proyecto cuentan solo las tareas de tasks. Las
+-- dependencias de una tarea archivada se eliminan (ON DELETE CASCADE): una
+-- tarea DONE ya no bloquea a nadie, y no vuelven al restaurarla.
+
+CREATE TABLE IF NOT EXISTS core_schema.tasks_archive (
+    id UUID PRIMARY KEY,
+    title VARCHAR(200) NOT NULL,
+    description VARCHAR(2000),
+    status VARCHAR(20) NOT NULL,
+    priority VARCHAR(20) NOT NULL,
+    due_date DATE,
+    assigned_to UUID,
+    rank VARCHAR(255) COLLATE "C" NOT NULL,
+    project_id UUID NOT NULL REFERENCES core_schema.projects(id) ON DELETE CASCADE,
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    archived_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Mismo orden que los listados de tareas (created_at, id)
+CREATE INDEX IF NOT EXISTS idx_tasks_archive_project_created_id
+    ON core_schema.tasks_archive(project_id, created_at, id);
+CREATE INDEX IF NOT EXISTS idx_tasks_archive_assigned_created_id
+    ON core_schema.tasks_archive(assigned_to, created_at, id);
+
+COMMENT ON TABLE core_schema.tasks_archive IS 'Completed tasks moved out of the hot tasks table';
+
+-- Candidatas a archivar: solo las DONE, por antigüedad de su último cambio
+CREATE INDEX IF NOT EXISTS idx_tasks_done_updated
+    ON core_schema.tasks(updated_at) WHERE status = 'DONE';
+
+-- Tras cada lote se borran filas de tasks: que autovacuum las recupere pronto
+-- para que la tabla caliente no crezca con huecos
+ALTER TABLE core_schema.tasks SET (autovacuum_vacuum_scale_factor = 0.05, autovacuum_analyze_scale_factor = 0.05);
+
+-- Archivar no es actividad del proyecto: con la variable de sesión
+-- plandai.task_archival = 'on' (SET LOCAL en la transacción del lote) los
+-- contadores se actualizan pero last_activity_at se conserva.
+CREATE OR REPLACE FUNCTION core_schema.apply_task_stats_delta(
+    p_project_id UUID, p_status VARCHAR, p_priority VARCHAR, p_due_date DATE, p_delta INT)
+RETURNS VOID AS $$
+DECLARE
+    v_overdue INT := CASE WHEN p_status <> 'DONE' AND p_due_date < CURRENT_DATE THEN p_delta ELSE 0 END;
+    v_archival BOOLEAN := coalesce(current_setting('plandai.task_archival', true), '') = 'on';
+BEGIN
+    IF p_delta > 0 THEN
+        INSERT INTO core_schema.project_task_stats AS s
+            (project_id, total_count, todo_count, in_progress_count, done_count,
+             low_count, medium_count, high_count, urgent_count, overdue_count,
+             last_activity_at, updated_at)
+        VALUES (p_project_id, 1,
+                (p_status = 'TO_DO')::INT, (p_status = 'IN_PROGRESS')::INT, (p_status = 'DONE')::INT,
+                (p_priority = 'LOW')::INT, (p_priority = 'MEDIUM')::INT,
+                (p_priority = 'HIGH')::INT, (p_priority = 'URGENT')::INT,
+                v_overdue, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)
+        ON CONFLICT (project_id) DO UPDATE SET
+            total_count = s.total_count + 1,
+            todo_count = s.todo_count + (p_status = 'TO_DO')::INT,
+            in_progress_count = s.in_progress_count + (p_status = 'IN_PROGRESS')::INT,
+            done_count = s.done_count + (p_status = 'DONE')::INT,
+            low_count = s.low_count + (p_priority = 'LOW')::INT,
+            medium_count = s.medium_count + (p_priority = 'MEDIUM')::INT,
+            high_count = s.high_count + (p_priority = 'HIGH')::INT,
+            urgent_count = s.urgent_count + (p_priority = 'URGENT')::INT,
+            overdue_count = s.overdue_count + v_overdue,
+            last_activity_at = CURRENT_TIMESTAMP,
+            updated_at = CURRENT_TIMESTAMP;
+    ELSE
+        -- Solo UPDATE: al borrar un proyecto (cascade) su fila de estadísticas ya puede no existir
+        UPDATE core_schema.project_task_stats s SET
+            total_count = GREATEST(s.total_count - 1, 0),
+            todo_count = GREATEST(s.todo_count - (p_status = 'TO_DO')::INT, 0),
+            in_progress_count = GREATEST(s.in_progress_count - (p_status = 'IN_PROGRESS')::INT, 0),
+            done_count = GREATEST(s.done_count - (p_status = 'DONE')::INT, 0),
+            low_count = GREATEST(s.low_count - (p_priority = 'LOW')::INT, 0),
+            medium_count = GREATEST(s.medium_count - (p_priority = 'MEDIUM')::INT, 0),
+            high_count = GREATEST(s.high_count - (p_priority = 'HIGH')::INT, 0),
+            urgent_count = GREATEST(s.urgent_count - (p_priority = 'URGENT')::INT, 0),
+            overdue_count = GREATEST(s.overdue_count + v_overdue, 0),
+            last_activity_at = CASE WHEN v_archival THEN s.last_activity_at ELSE CURRENT_TIMESTAMP END,
+            updated_at = CURRENT_TIMESTAMP
+        WHERE s.project_id = p_project_id;
+    END IF;
+END;
+$$ LANGUAGE plpgsql;
@@ -0,0 +1,123 @@
+-- Migración V16: Subtareas (jerarquía de tareas con tabla de clausura)
+-- Fecha: 2025-12-07
+-- Descripción: Cada tarea puede tener una tarea padre del mismo proyecto
+-- (tasks.parent_id). task_closure guarda TODOS los pares ancestro →
+-- descendiente con su distancia, incluido el par de cada tarea consigo misma
+-- (depth = 0). Así el subárbol, el número de descendientes y el progreso
+-- acumulado de una tarea son una sola consulta por índice, sin CTE recursivas.
+--
+-- Los triggers mantienen la clausura en todos los caminos de escritura (JPA,
+-- bulk, UPDATE ... RETURNING, restaurar del archivo). El límite de anidación
+-- lo aplica TaskHierarchyService (subtasks.max-depth).
+
+ALTER TABLE core_schema.tasks ADD COLUMN IF NOT EXISTS parent_id UUID
+    REFERENCES core_schema.tasks(id) ON DELETE SET NULL;
+ALTER TABLE core_schema.tasks ADD CONSTRAINT tasks_parent_not_self CHECK (parent_id <> id);
+
+CREATE INDEX IF NOT EXISTS idx_tasks_parent ON core_schema.tasks(parent_id) WHERE parent_id IS NOT NULL;
+
+CREATE TABLE IF NOT EXISTS core_schema.task_closure (
+    ancestor_id UUID NOT NULL REFERENCES core_schema.tasks(id) ON DELETE CASCADE,
+    descendant_id UUID NOT NULL REFERENCES core_schema.tasks(id) ON DELETE CASCADE,
+    depth INT NOT NULL,
+    PRIMARY KEY (ancestor_id, descendant_id)
+);
+
+-- La clave primaria sirve para los subárboles; este índice, para los ancestros
+CREATE INDEX IF NOT EXISTS idx_task_closure_descendant ON core_schema.task_closure(descendant_id, depth);
+
+COMMENT ON TABLE core_schema.task_closure IS 'Ancestor/descendant pairs of the task hierarchy (closure table)';
+
+-- Carga inicial: todas las tareas existentes son raíces
+INSERT INTO core_schema.task_closure (ancestor_id, descendant_id, depth)
+SELECT id, id, 0 FROM core_schema.tasks
+ON CONFLICT DO NOTHING;
+
+-- Las subtareas del archivo recuerdan su padre para volver a colgarse de él al restaurarlas
+ALTER TABLE core_schema.tasks_archive ADD COLUMN IF NOT EXISTS parent_id UUID;
+
+-- Garantías que no dependen del servicio: el padre es del mismo proyecto y no
+-- hay ciclos. Una tarea que cambia de proyecto (bulk MOVE) deja a su padre.
+CREATE OR REPLACE FUNCTION core_schema.check_task_parent()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'UPDATE' AND OLD.project_id IS DISTINCT FROM NEW.project_id
+       AND OLD.parent_id IS NOT DISTINCT FROM NEW.parent_id THEN
+        NEW.parent_id := NULL;
+    END IF;
+
+    IF NEW.parent_id IS NOT NULL THEN
+        IF NOT EXISTS (SELECT 1 FROM core_schema.tasks p
+                        WHERE p.id = NEW.parent_id AND p.project_id = NEW.project_id) THEN
+            RAISE EXCEPTION 'La tarea padre % no existe en el proyecto de la tarea %', NEW.parent_id, NEW.id;
+        END IF;
+        IF TG_OP = 'UPDATE' AND EXISTS (SELECT 1 FROM core_schema.task_closure c
+                                         WHERE c.ancestor_id = NEW.id AND c.descendant_id = NEW.parent_id) THEN
+            RAISE EXCEPTION 'La tarea % no puede colgar de su propia subtarea %', NEW.id, NEW.parent_id;
+        END IF;
+    END IF;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS check_task_parent ON core_schema.tasks;
+CREATE TRIGGER check_task_parent
+    BEFORE INSERT OR UPDATE OF parent_id, project_id ON core_schema.tasks
+    FOR EACH ROW
+    EXECUTE FUNCTION core_schema.check_task_parent();
+
+-- Alta: el par (tarea, tarea) + un par por cada ancestro del padre.
+-- Cambio de padre: el subárbol entero se desengancha de sus antiguos ancestros
+-- (los pares más lejanos que la raíz del subárbol) y se engancha a los del nuevo
+-- padre. Dos sentencias, sin recorrer el árbol fila a fila.
+-- Las bajas no necesitan nada: las claves foráneas borran los pares.
+CREATE OR REPLACE FUNCTION core_schema.maintain_task_closure()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO core_schema.task_closure (ancestor_id, descendant_id, depth)
+        SELECT NEW.id, NEW.id, 0
+        UNION ALL
+        SELECT c.ancestor_id, NEW.id, c.depth + 1
+          FROM core_schema.task_closure c
+         WHERE c.descendant_id = NEW.parent_id;
+        RETURN NULL;
+    END IF;
+
+    IF OLD.parent_id IS DISTINCT FROM NEW.parent_id THEN
+        DELETE FROM core_schema.task_closure l
+         USING core_schema.task_closure sub
+         WHERE sub.ancestor_id = NEW.id
+           AND l.descendant_id = sub.descendant_id
+           AND l.depth > sub.depth;
+
+        INSERT INTO core_schema.task_closure (ancestor_id, descendant_id, depth)
+        SELECT sup.ancestor_id, sub.descendant_id, sup.depth + sub.depth + 1
+          FROM core_schema.task_closure sup
+         CROSS JOIN core_schema.task_closure sub
+         WHERE sup.descendant_id = NEW.parent_id
+           AND sub.ancestor_id = NEW.id;
+    END IF;
+
+    -- Las subtareas que siguen en el proyecto anterior pasan a ser raíces
+    IF OLD.project_id IS DISTINCT FROM NEW.project_id THEN
+        UPDATE core_schema.tasks
+           SET parent_id = NULL
+         WHERE parent_id = NEW.id AND project_id <> NEW.project_id;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS maintain_task_closure ON core_schema.tasks;
+CREATE TRIGGER maintain_task_closure
+    AFTER INSERT ON core_schema.tasks
+    FOR EACH ROW
+    EXECUTE FUNCTION core_schema.maintain_task_closure();
+
+DROP TRIGGER IF EXISTS maintain_task_closure_update ON core_schema.tasks;
+CREATE TRIGGER maintain_task_closure_update
+    AFTER UPDATE OF parent_id, project_id ON core_schema.tasks
+    FOR EACH ROW
+    WHEN (OLD.parent_id IS DISTINCT FROM NEW.parent_id OR OLD.project_id IS DISTINCT FROM NEW.project_id)
+    EXECUTE FUNCTION core_schema.maintain_task_closure();
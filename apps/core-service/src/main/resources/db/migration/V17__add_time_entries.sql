@@ -0,0 +1,131 @@
+-- Migración V17: Registro de tiempo en tareas
+-- Fecha: 2025-12-08
+-- Descripción: time_entries guarda el tiempo dedicado a cada tarea, tanto de
+-- temporizadores (ended_at = NULL mientras corren) como manual. Un índice
+-- único parcial garantiza como mucho UN temporizador en marcha por usuario,
+-- también con peticiones simultáneas. Los totales por tarea, proyecto y
+-- usuario (time_totals) los mantiene un trigger en la misma transacción, así
+-- que leerlos es una fila por clave primaria aunque haya millones de entradas.
+--
+-- task_id no tiene clave foránea: al archivar una tarea (V15) sus entradas se
+-- conservan; al borrarla de verdad se borran con ella (trigger más abajo).
+
+CREATE TABLE IF NOT EXISTS core_schema.time_entries (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    task_id UUID NOT NULL,
+    project_id UUID NOT NULL REFERENCES core_schema.projects(id) ON DELETE CASCADE,
+    user_id UUID NOT NULL,
+    started_at TIMESTAMP NOT NULL,
+    ended_at TIMESTAMP,
+    duration_seconds BIGINT GENERATED ALWAYS AS
+        (CAST(EXTRACT(EPOCH FROM (ended_at - started_at)) AS BIGINT)) STORED,
+    note VARCHAR(500),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CHECK (ended_at IS NULL OR ended_at >= started_at)
+);
+
+-- Un temporizador en marcha por usuario (INSERT ... ON CONFLICT DO NOTHING lo respeta sin carreras)
+CREATE UNIQUE INDEX IF NOT EXISTS idx_time_entries_running
+    ON core_schema.time_entries(user_id) WHERE ended_at IS NULL;
+
+-- Hojas de horas y exportación: rango por usuario y fecha, leído solo del índice
+CREATE INDEX IF NOT EXISTS idx_time_entries_user_started
+    ON core_schema.time_entries(user_id, started_at) INCLUDE (task_id, ended_at, duration_seconds);
+CREATE INDEX IF NOT EXISTS idx_time_entries_task ON core_schema.time_entries(task_id);
+CREATE INDEX IF NOT EXISTS idx_time_entries_project ON core_schema.time_entries(project_id);
+
+COMMENT ON TABLE core_schema.time_entries IS 'Time logged against tasks (timers and manual entries)';
+
+-- Totales acumulados: scope = TASK, PROJECT o USER. Solo cuentan las entradas terminadas.
+CREATE TABLE IF NOT EXISTS core_schema.time_totals (
+    scope VARCHAR(10) NOT NULL,
+    scope_id UUID NOT NULL,
+    total_seconds BIGINT NOT NULL DEFAULT 0,
+    entry_count BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (scope, scope_id)
+);
+
+COMMENT ON TABLE core_schema.time_totals IS 'Incrementally maintained time totals per task, project and user';
+
+CREATE OR REPLACE FUNCTION core_schema.apply_time_total_delta(
+    p_scope VARCHAR, p_scope_id UUID, p_seconds BIGINT, p_entries INT)
+RETURNS VOID AS $$
+BEGIN
+    INSERT INTO core_schema.time_totals AS s (scope, scope_id, total_seconds, entry_count)
+    VALUES (p_scope, p_scope_id, GREATEST(p_seconds, 0), GREATEST(p_entries, 0))
+    ON CONFLICT (scope, scope_id) DO UPDATE SET
+        total_seconds = GREATEST(s.total_seconds + p_seconds, 0),
+        entry_count = GREATEST(s.entry_count + p_entries, 0),
+        updated_at = CURRENT_TIMESTAMP;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Resta la aportación anterior de la fila y suma la nueva (mismo orden de
+-- bloqueo siempre: tarea, proyecto, usuario). Cubre parar un temporizador,
+-- corregir una entrada, borrarla o moverla de proyecto.
+CREATE OR REPLACE FUNCTION core_schema.maintain_time_totals()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') AND OLD.duration_seconds IS NOT NULL THEN
+        PERFORM core_schema.apply_time_total_delta('TASK', OLD.task_id, -OLD.duration_seconds, -1);
+        PERFORM core_schema.apply_time_total_delta('PROJECT', OLD.project_id, -OLD.duration_seconds, -1);
+        PERFORM core_schema.apply_time_total_delta('USER', OLD.user_id, -OLD.duration_seconds, -1);
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') AND NEW.duration_seconds IS NOT NULL THEN
+        PERFORM core_schema.apply_time_total_delta('TASK', NEW.task_id, NEW.duration_seconds, 1);
+        PERFORM core_schema.apply_time_total_delta('PROJECT', NEW.project_id, NEW.duration_seconds, 1);
+        PERFORM core_schema.apply_time_total_delta('USER', NEW.user_id, NEW.duration_seconds, 1);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS maintain_time_totals ON core_schema.time_entries;
+CREATE TRIGGER maintain_time_totals
+    AFTER INSERT OR DELETE ON core_schema.time_entries
+    FOR EACH ROW
+    EXECUTE FUNCTION core_schema.maintain_time_totals();
+
+DROP TRIGGER IF EXISTS maintain_time_totals_update ON core_schema.time_entries;
+CREATE TRIGGER maintain_time_totals_update
+    AFTER UPDATE ON core_schema.time_entries
+    FOR EACH ROW
+    WHEN (OLD.duration_seconds IS DISTINCT FROM NEW.duration_seconds
+          OR OLD.task_id IS DISTINCT FROM NEW.task_id
+          OR OLD.project_id IS DISTINCT FROM NEW.project_id)
+    EXECUTE FUNCTION core_schema.maintain_time_totals();
+
+-- Borrar una tarea borra su tiempo; archivarla (plandai.task_archival = 'on') no
+CREATE OR REPLACE FUNCTION core_schema.drop_task_time_entries()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF coalesce(current_setting('plandai.task_archival', true), '') = 'on' THEN
+        RETURN NULL;
+    END IF;
+    DELETE FROM core_schema.time_entries WHERE task_id = OLD.id;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS drop_task_time_entries ON core_schema.tasks;
+CREATE TRIGGER drop_task_time_entries
+    AFTER DELETE ON core_schema.tasks
+    FOR EACH ROW
+    EXECUTE FUNCTION core_schema.drop_task_time_entries();
+
+-- El tiempo sigue a la tarea cuando cambia de proyecto (y los totales de proyecto con él)
+CREATE OR REPLACE FUNCTION core_schema.move_task_time_entries()
+RETURNS TRIGGER AS $$
+BEGIN
+    UPDATE core_schema.time_entries SET project_id = NEW.project_id WHERE task_id = NEW.id;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS move_task_time_entries ON core_schema.tasks;
+CREATE TRIGGER move_task_time_entries
+    AFTER UPDATE OF project_id ON core_schema.tasks
+    FOR EACH ROW
+    WHEN (OLD.project_id IS DISTINCT FROM NEW.project_id)
+    EXECUTE FUNCTION core_schema.move_task_time_entries();
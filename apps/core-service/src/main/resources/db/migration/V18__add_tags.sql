@@ -0,0 +1,78 @@
+-- Migración V18: Etiquetas de tareas
+-- Fecha: 2025-12-09
+-- Descripción: tags guarda las etiquetas de cada workspace y task_tags qué
+-- tareas llevan cada una. Los filtros por expresión de etiquetas ("backend AND
+-- NOT bloqueada") se evalúan con un índice en memoria por workspace (bits por
+-- etiqueta); task_tag_versions le dice cuándo recargarse: cada alta o baja de
+-- etiquetas sube la versión del workspace (en la misma transacción, desde
+-- TagService). Borrar tareas no la sube: los ids de tareas que ya no existen
+-- no cambian el resultado de ningún filtro.
+--
+-- task_tags.task_id no tiene clave foránea: al archivar una tarea (V15) sus
+-- etiquetas se conservan; al borrarla de verdad se borran con ella (trigger).
+
+CREATE TABLE IF NOT EXISTS core_schema.tags (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    workspace_id UUID NOT NULL REFERENCES core_schema.workspaces(id) ON DELETE CASCADE,
+    name VARCHAR(50) NOT NULL,
+    color VARCHAR(7),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT tags_name_not_empty CHECK (trim(name) <> '')
+);
+
+-- Nombres únicos por workspace sin distinguir mayúsculas (las expresiones tampoco distinguen)
+CREATE UNIQUE INDEX IF NOT EXISTS idx_tags_workspace_name
+    ON core_schema.tags(workspace_id, lower(name));
+
+CREATE TABLE IF NOT EXISTS core_schema.task_tags (
+    task_id UUID NOT NULL,
+    tag_id UUID NOT NULL REFERENCES core_schema.tags(id) ON DELETE CASCADE,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (task_id, tag_id)
+);
+
+-- Carga del índice de un workspace (por sus etiquetas) y borrado en cascada de una etiqueta
+CREATE INDEX IF NOT EXISTS idx_task_tags_tag ON core_schema.task_tags(tag_id, task_id);
+
+CREATE TABLE IF NOT EXISTS core_schema.task_tag_versions (
+    workspace_id UUID PRIMARY KEY REFERENCES core_schema.workspaces(id) ON DELETE CASCADE,
+    version BIGINT NOT NULL DEFAULT 0
+);
+
+-- Las etiquetas se borran con la tarea, salvo cuando se archiva
+CREATE OR REPLACE FUNCTION core_schema.drop_task_tags()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF coalesce(current_setting('plandai.task_archival', true), '') = 'on' THEN
+        RETURN NULL;
+    END IF;
+    DELETE FROM core_schema.task_tags WHERE task_id = OLD.id;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS drop_task_tags ON core_schema.tasks;
+CREATE TRIGGER drop_task_tags
+    AFTER DELETE ON core_schema.tasks
+    FOR EACH ROW
+    EXECUTE FUNCTION core_schema.drop_task_tags();
+
+-- Las etiquetas son del workspace: si la tarea pasa a un proyecto de otro workspace se le quitan
+CREATE OR REPLACE FUNCTION core_schema.drop_foreign_task_tags()
+RETURNS TRIGGER AS $$
+BEGIN
+    DELETE FROM core_schema.task_tags tt
+     USING core_schema.tags g
+     WHERE tt.task_id = NEW.id
+       AND g.id = tt.tag_id
+       AND g.workspace_id <> (SELECT p.workspace_id FROM core_schema.projects p WHERE p.id = NEW.project_id);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS drop_foreign_task_tags ON core_schema.tasks;
+CREATE TRIGGER drop_foreign_task_tags
+    AFTER UPDATE OF project_id ON core_schema.tasks
+    FOR EACH ROW
+    WHEN (OLD.project_id IS DISTINCT FROM NEW.project_id)
+    EXECUTE FUNCTION core_schema.drop_foreign_task_tags();
@@ -0,0 +1,36 @@
+-- Migración V19: Campos personalizados de tareas
+-- Fecha: 2025-12-10
+-- Descripción: cada proyecto define sus campos (puntos, cliente, sprint...) en
+-- custom_field_definitions y los valores van en tasks.custom_fields (JSONB),
+-- validados contra esas definiciones al escribirlos. Los filtros se traducen a
+-- custom_fields @@ '<jsonpath>', que sirve el índice GIN jsonb_path_ops.
+--
+-- Añadir la columna con un DEFAULT constante no reescribe la tabla. El índice
+-- GIN usa fastupdate: las filas nuevas de un UPDATE (p. ej. de estado, que no
+-- es HOT porque status está indexado) van a la lista pendiente y se integran en
+-- bloque, en lugar de rehacer las entradas del JSON en cada actualización.
+
+CREATE TABLE IF NOT EXISTS core_schema.custom_field_definitions (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    project_id UUID NOT NULL REFERENCES core_schema.projects(id) ON DELETE CASCADE,
+    key VARCHAR(40) NOT NULL CHECK (key ~ '^[a-z][a-z0-9_]*$'),
+    label VARCHAR(100) NOT NULL,
+    type VARCHAR(20) NOT NULL CHECK (type IN ('TEXT', 'NUMBER', 'DATE', 'BOOLEAN', 'SELECT')),
+    options JSONB,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT custom_field_definitions_project_key UNIQUE (project_id, key),
+    CONSTRAINT custom_field_definitions_select_options
+        CHECK (type <> 'SELECT' OR jsonb_typeof(options) = 'array')
+);
+
+ALTER TABLE core_schema.tasks
+    ADD COLUMN IF NOT EXISTS custom_fields JSONB NOT NULL DEFAULT '{}'::jsonb
+        CHECK (jsonb_typeof(custom_fields) = 'object');
+
+CREATE INDEX IF NOT EXISTS idx_tasks_custom_fields
+    ON core_schema.tasks USING GIN (custom_fields jsonb_path_ops)
+    WITH (fastupdate = on, gin_pending_list_limit = 1024);
+
+-- Las archivadas conservan sus valores (se filtran por proyecto: sin índice GIN)
+ALTER TABLE core_schema.tasks_archive
+    ADD COLUMN IF NOT EXISTS custom_fields JSONB NOT NULL DEFAULT '{}'::jsonb;
@@ -0,0 +1,26 @@
+-- Migración V20: Vistas guardadas de tareas
+-- Fecha: 2025-12-11
+-- Descripción: saved_views guarda los filtros con nombre de cada usuario
+-- ("Mis urgentes", "Vencidas del proyecto X"). El filtro va en JSONB con los
+-- mismos campos estructurados que el listado de tareas (proyecto, workspace,
+-- asignado, estados, prioridades, fechas límite, vencidas).
+--
+-- Los resultados no se guardan aquí: SavedViewService mantiene en memoria los
+-- ids de cada vista en uso y los actualiza con los cambios de tareas que
+-- publica el trigger de V11 (task_changes), sin repetir la consulta completa.
+
+CREATE TABLE IF NOT EXISTS core_schema.saved_views (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    user_id UUID NOT NULL,
+    name VARCHAR(100) NOT NULL,
+    filter JSONB NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT saved_views_name_not_empty CHECK (trim(name) <> '')
+);
+
+-- Nombres únicos por usuario sin distinguir mayúsculas; sirve también para listar sus vistas
+CREATE UNIQUE INDEX IF NOT EXISTS idx_saved_views_user_name
+    ON core_schema.saved_views(user_id, lower(name));
+
+COMMENT ON TABLE core_schema.saved_views IS 'Named task filters per user; result sets are maintained in memory';
@@ -0,0 +1,51 @@
+-- Migración V21: Estimación de tareas y carga de trabajo por persona
+-- Fecha: 2025-12-12
+-- Descripción: tasks.estimated_minutes guarda el esfuerzo estimado (opcional).
+-- La carga de cada persona (tareas abiertas por prioridad y vencimiento, minutos
+-- estimados) la mantiene WorkloadService en memoria con los cambios que publica
+-- notify_task_change, que ahora incluye la estimación. Un índice parcial sobre
+-- las tareas abiertas y asignadas permite cargarla (y reconciliarla) por
+-- workspace leyendo solo el índice.
+
+ALTER TABLE core_schema.tasks
+    ADD COLUMN IF NOT EXISTS estimated_minutes INTEGER
+        CONSTRAINT tasks_estimated_minutes_not_negative CHECK (estimated_minutes >= 0);
+
+ALTER TABLE core_schema.tasks_archive
+    ADD COLUMN IF NOT EXISTS estimated_minutes INTEGER;
+
+CREATE INDEX IF NOT EXISTS idx_tasks_open_assigned
+    ON core_schema.tasks(project_id) INCLUDE (id, assigned_to, priority, due_date, estimated_minutes)
+    WHERE status <> 'DONE' AND assigned_to IS NOT NULL;
+
+CREATE OR REPLACE FUNCTION core_schema.notify_task_change()
+RETURNS TRIGGER AS $$
+DECLARE
+    payload JSON;
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        payload := json_build_object('op', 'DELETED', 'taskId', OLD.id, 'projectId', OLD.project_id);
+    ELSE
+        payload := json_build_object(
+            'op', CASE
+                      WHEN TG_OP = 'INSERT' THEN 'CREATED'
+                      WHEN OLD.project_id <> NEW.project_id THEN 'MOVED'
+                      ELSE 'UPDATED'
+                  END,
+            'taskId', NEW.id,
+            'projectId', NEW.project_id,
+            'previousProjectId', CASE WHEN TG_OP = 'UPDATE' AND OLD.project_id <> NEW.project_id
+                                      THEN OLD.project_id END,
+            'title', NEW.title,
+            'status', NEW.status,
+            'priority', NEW.priority,
+            'dueDate', NEW.due_date,
+            'assignedTo', NEW.assigned_to,
+            'estimatedMinutes', NEW.estimated_minutes,
+            'rank', NEW.rank,
+            'updatedAt', NEW.updated_at);
+    END IF;
+    PERFORM pg_notify('task_changes', payload::TEXT);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
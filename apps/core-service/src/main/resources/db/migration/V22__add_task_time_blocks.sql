@@ -0,0 +1,24 @@
+-- Migración V22: Bloques de tiempo para tareas en el calendario
+-- Fecha: 2025-12-13
+-- Descripción: la planificación automática (TimeBlockingService) propone
+-- bloques de trabajo para las tareas abiertas de un usuario en sus huecos
+-- libres; los que acepta se guardan como eventos de tipo TASK_BLOCK con la
+-- tarea en events.task_id. Así el calendario los muestra como cualquier otro
+-- evento y la siguiente planificación descuenta lo ya reservado de cada tarea.
+--
+-- task_id no tiene clave foránea: al archivar una tarea (V15) sus bloques
+-- pasados se conservan en el calendario.
+
+ALTER TABLE core_schema.events
+    ADD COLUMN IF NOT EXISTS task_id UUID;
+
+ALTER TABLE core_schema.events DROP CONSTRAINT IF EXISTS events_event_type_check;
+ALTER TABLE core_schema.events ADD CONSTRAINT events_event_type_check
+    CHECK (event_type IN ('MEETING', 'CLASS', 'APPOINTMENT', 'REMINDER', 'DEADLINE', 'OTHER', 'TASK_BLOCK'));
+
+-- Ocupación de un usuario en un rango (planificar y comprobar conflictos al aceptar)
+CREATE INDEX IF NOT EXISTS idx_events_user_start_end
+    ON core_schema.events(user_id, start_time, end_time);
+
+CREATE INDEX IF NOT EXISTS idx_events_task
+    ON core_schema.events(task_id) WHERE task_id IS NOT NULL;
@@ -0,0 +1,25 @@
+-- Migración V23: Clave de orden "al final de la columna" en SQL
+-- Fecha: 2025-12-14
+-- Descripción: una tarea que cambia de columna (estado o proyecto) pasa al
+-- final de la columna de destino. Las vías de escritura con entidades usan
+-- RankKeys.after en Java; el cambio de estado en una sola sentencia
+-- (TaskRepository.updateStatusReturning) calcula la clave en el propio UPDATE
+-- con esta función, que da el mismo resultado que RankKeys.after.
+
+CREATE OR REPLACE FUNCTION core_schema.rank_after(p_key TEXT)
+RETURNS TEXT AS $$
+DECLARE
+    v_digits CONSTANT TEXT := '0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz';
+    v_last TEXT;
+BEGIN
+    -- Columna vacía: la clave del medio (RankKeys.between(null, null))
+    IF p_key IS NULL THEN
+        RETURN 'V';
+    END IF;
+    v_last := right(p_key, 1);
+    IF v_last = 'z' THEN
+        RETURN p_key || '1';
+    END IF;
+    RETURN left(p_key, -1) || substr(v_digits, strpos(v_digits, v_last) + 1, 1);
+END;
+$$ LANGUAGE plpgsql IMMUTABLE;
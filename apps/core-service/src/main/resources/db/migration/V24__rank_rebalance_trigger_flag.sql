@@ -0,0 +1,24 @@
+-- Migración V24: Reequilibrado de claves de orden sin serializar filas
+-- Fecha: 2025-12-15
+-- Descripción: V12 saltaba los triggers de updated_at y de estadísticas cuando
+-- solo cambia rank comparando la fila entera en JSON (to_jsonb(OLD) - 'rank'),
+-- dos serializaciones completas en cada UPDATE de tasks, con la descripción y
+-- los campos personalizados (V19) incluidos. Solo el reequilibrado de
+-- TaskRankService reescribe rank sin más cambios: marca su transacción con
+-- plandai.task_rank_rebalance = 'on' (SET LOCAL, como plandai.task_archival
+-- en V15) y los triggers comprueban solo esa variable.
+-- El NOTIFY se sigue enviando, para que los clientes reordenen sus tarjetas.
+
+DROP TRIGGER IF EXISTS update_tasks_updated_at ON core_schema.tasks;
+CREATE TRIGGER update_tasks_updated_at
+    BEFORE UPDATE ON core_schema.tasks
+    FOR EACH ROW
+    WHEN (coalesce(current_setting('plandai.task_rank_rebalance', true), '') <> 'on')
+    EXECUTE FUNCTION core_schema.update_updated_at_column();
+
+DROP TRIGGER IF EXISTS maintain_project_task_stats_update ON core_schema.tasks;
+CREATE TRIGGER maintain_project_task_stats_update
+    AFTER UPDATE ON core_schema.tasks
+    FOR EACH ROW
+    WHEN (coalesce(current_setting('plandai.task_rank_rebalance', true), '') <> 'on')
+    EXECUTE FUNCTION core_schema.maintain_project_task_stats();
@@ -0,0 +1,54 @@
+-- Migración V25: Los triggers de etiquetas suben la versión del workspace
+-- Fecha: 2025-12-16
+-- Descripción: drop_task_tags (tarea borrada) y drop_foreign_task_tags (tarea
+-- movida a otro workspace) de V18 quitaban filas de task_tags sin subir
+-- task_tag_versions, así que solo el nodo que hacía la escritura corregía su
+-- índice en memoria (TagService). Ahora ambos suben la versión de cada
+-- workspace al que le han quitado etiquetas, con el mismo UPSERT que
+-- TagService; todos los nodos recargan su índice en la siguiente consulta.
+-- Si no se quita ninguna fila no se escribe nada.
+--
+-- El JOIN con workspaces descarta los que se están borrando (cascada): su
+-- fila de versiones se borra con ellos.
+
+CREATE OR REPLACE FUNCTION core_schema.drop_task_tags()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF coalesce(current_setting('plandai.task_archival', true), '') = 'on' THEN
+        RETURN NULL;
+    END IF;
+    WITH removed AS (
+        DELETE FROM core_schema.task_tags tt
+         USING core_schema.tags g
+         WHERE tt.task_id = OLD.id
+           AND g.id = tt.tag_id
+        RETURNING g.workspace_id
+    )
+    INSERT INTO core_schema.task_tag_versions AS v (workspace_id, version)
+    SELECT DISTINCT r.workspace_id, 1
+      FROM removed r
+      JOIN core_schema.workspaces w ON w.id = r.workspace_id
+    ON CONFLICT (workspace_id) DO UPDATE SET version = v.version + 1;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION core_schema.drop_foreign_task_tags()
+RETURNS TRIGGER AS $$
+BEGIN
+    WITH removed AS (
+        DELETE FROM core_schema.task_tags tt
+         USING core_schema.tags g
+         WHERE tt.task_id = NEW.id
+           AND g.id = tt.tag_id
+           AND g.workspace_id <> (SELECT p.workspace_id FROM core_schema.projects p WHERE p.id = NEW.project_id)
+        RETURNING g.workspace_id
+    )
+    INSERT INTO core_schema.task_tag_versions AS v (workspace_id, version)
+    SELECT DISTINCT r.workspace_id, 1
+      FROM removed r
+      JOIN core_schema.workspaces w ON w.id = r.workspace_id
+    ON CONFLICT (workspace_id) DO UPDATE SET version = v.version + 1;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
@@ -0,0 +1,123 @@
+-- Migración V26: Archivar no cambia las estadísticas ni pierde dependencias
+-- Fecha: 2025-12-17
+-- Descripción: Hasta ahora (V15) archivar una tarea la restaba de
+-- project_task_stats y sus dependencias se borraban con el ON DELETE CASCADE
+-- de task_dependencies, sin volver al restaurarla.
+--
+-- - Estadísticas: con plandai.task_archival = 'on' (lote de archivado y
+--   restauración) los contadores no cambian; una tarea archivada sigue
+--   contando como DONE en su proyecto. Restaurar sí es actividad. La
+--   reconciliación (ProjectTaskStatsService) cuenta tasks y tasks_archive y
+--   devuelve a los contadores las tareas archivadas antes de esta migración.
+-- - Dependencias: antes de borrar una tarea archivándola, sus aristas se
+--   copian a task_dependencies_archive; restoreTask devuelve las que vuelven
+--   a tener ambos extremos vivos (TaskDependencyService.restoreArchived).
+--   Borrar de verdad una tarea o moverla de proyecto elimina también sus
+--   aristas archivadas.
+
+CREATE OR REPLACE FUNCTION core_schema.apply_task_stats_delta(
+    p_project_id UUID, p_status VARCHAR, p_priority VARCHAR, p_due_date DATE, p_delta INT)
+RETURNS VOID AS $$
+DECLARE
+    v_overdue INT := CASE WHEN p_status <> 'DONE' AND p_due_date < CURRENT_DATE THEN p_delta ELSE 0 END;
+BEGIN
+    IF coalesce(current_setting('plandai.task_archival', true), '') = 'on' THEN
+        IF p_delta > 0 THEN
+            UPDATE core_schema.project_task_stats s SET
+                last_activity_at = CURRENT_TIMESTAMP,
+                updated_at = CURRENT_TIMESTAMP
+            WHERE s.project_id = p_project_id;
+        END IF;
+        RETURN;
+    END IF;
+
+    IF p_delta > 0 THEN
+        INSERT INTO core_schema.project_task_stats AS s
+            (project_id, total_count, todo_count, in_progress_count, done_count,
+             low_count, medium_count, high_count, urgent_count, overdue_count,
+             last_activity_at, updated_at)
+        VALUES (p_project_id, 1,
+                (p_status = 'TO_DO')::INT, (p_status = 'IN_PROGRESS')::INT, (p_status = 'DONE')::INT,
+                (p_priority = 'LOW')::INT, (p_priority = 'MEDIUM')::INT,
+                (p_priority = 'HIGH')::INT, (p_priority = 'URGENT')::INT,
+                v_overdue, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)
+        ON CONFLICT (project_id) DO UPDATE SET
+            total_count = s.total_count + 1,
+            todo_count = s.todo_count + (p_status = 'TO_DO')::INT,
+            in_progress_count = s.in_progress_count + (p_status = 'IN_PROGRESS')::INT,
+            done_count = s.done_count + (p_status = 'DONE')::INT,
+            low_count = s.low_count + (p_priority = 'LOW')::INT,
+            medium_count = s.medium_count + (p_priority = 'MEDIUM')::INT,
+            high_count = s.high_count + (p_priority = 'HIGH')::INT,
+            urgent_count = s.urgent_count + (p_priority = 'URGENT')::INT,
+            overdue_count = s.overdue_count + v_overdue,
+            last_activity_at = CURRENT_TIMESTAMP,
+            updated_at = CURRENT_TIMESTAMP;
+    ELSE
+        -- Solo UPDATE: al borrar un proyecto (cascade) su fila de estadísticas ya puede no existir
+        UPDATE core_schema.project_task_stats s SET
+            total_count = GREATEST(s.total_count - 1, 0),
+            todo_count = GREATEST(s.todo_count - (p_status = 'TO_DO')::INT, 0),
+            in_progress_count = GREATEST(s.in_progress_count - (p_status = 'IN_PROGRESS')::INT, 0),
+            done_count = GREATEST(s.done_count - (p_status = 'DONE')::INT, 0),
+            low_count = GREATEST(s.low_count - (p_priority = 'LOW')::INT, 0),
+            medium_count = GREATEST(s.medium_count - (p_priority = 'MEDIUM')::INT, 0),
+            high_count = GREATEST(s.high_count - (p_priority = 'HIGH')::INT, 0),
+            urgent_count = GREATEST(s.urgent_count - (p_priority = 'URGENT')::INT, 0),
+            overdue_count = GREATEST(s.overdue_count + v_overdue, 0),
+            last_activity_at = CURRENT_TIMESTAMP,
+            updated_at = CURRENT_TIMESTAMP
+        WHERE s.project_id = p_project_id;
+    END IF;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Sin claves foráneas a tasks: uno de los extremos (o los dos) está en tasks_archive
+CREATE TABLE IF NOT EXISTS core_schema.task_dependencies_archive (
+    task_id UUID NOT NULL,
+    blocked_by UUID NOT NULL,
+    project_id UUID NOT NULL REFERENCES core_schema.projects(id) ON DELETE CASCADE,
+    created_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (task_id, blocked_by)
+);
+
+CREATE INDEX IF NOT EXISTS idx_task_dependencies_archive_blocked_by
+    ON core_schema.task_dependencies_archive(blocked_by);
+
+COMMENT ON TABLE core_schema.task_dependencies_archive IS 'Blocked-by relationships of archived tasks, restored with the task';
+
+-- BEFORE DELETE: las aristas aún existen (el cascade de task_dependencies va después)
+CREATE OR REPLACE FUNCTION core_schema.archive_task_dependencies()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF coalesce(current_setting('plandai.task_archival', true), '') = 'on' THEN
+        INSERT INTO core_schema.task_dependencies_archive (task_id, blocked_by, project_id, created_at)
+        SELECT d.task_id, d.blocked_by, d.project_id, d.created_at
+          FROM core_schema.task_dependencies d
+         WHERE d.task_id = OLD.id OR d.blocked_by = OLD.id
+        ON CONFLICT (task_id, blocked_by) DO NOTHING;
+    ELSE
+        DELETE FROM core_schema.task_dependencies_archive
+         WHERE task_id = OLD.id OR blocked_by = OLD.id;
+    END IF;
+    RETURN OLD;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS archive_task_dependencies ON core_schema.tasks;
+CREATE TRIGGER archive_task_dependencies
+    BEFORE DELETE ON core_schema.tasks
+    FOR EACH ROW
+    EXECUTE FUNCTION core_schema.archive_task_dependencies();
+
+-- Las dependencias no cruzan proyectos: al mover una tarea se eliminan también las archivadas
+CREATE OR REPLACE FUNCTION core_schema.drop_moved_task_dependencies()
+RETURNS TRIGGER AS $$
+BEGIN
+    DELETE FROM core_schema.task_dependencies
+     WHERE task_id = NEW.id OR blocked_by = NEW.id;
+    DELETE FROM core_schema.task_dependencies_archive
+     WHERE task_id = NEW.id OR blocked_by = NEW.id;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
@@ -0,0 +1,20 @@
+-- Migración V3: Revocación de tokens JWT
+-- Fecha: 2025-11-24
+-- Descripción: Tabla pequeña con los tokens revocados antes de su expiración.
+-- Cada nodo mantiene un Bloom filter en memoria y solo consulta esta tabla
+-- cuando el filtro indica un posible positivo.
+
+-- ============================================
+-- TABLA: revoked_tokens
+-- ============================================
+CREATE TABLE IF NOT EXISTS core_schema.revoked_tokens (
+    token_key VARCHAR(128) PRIMARY KEY, -- 'jti:<id>' o 'sha:<sha256 del token>'
+    user_id UUID NOT NULL,
+    expires_at TIMESTAMP NOT NULL,      -- exp del token: después ya no hace falta guardarlo
+    revoked_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Para purgar las entradas expiradas y reconstruir el filtro
+CREATE INDEX idx_revoked_tokens_expires_at ON core_schema.revoked_tokens(expires_at);
+
+COMMENT ON TABLE core_schema.revoked_tokens IS 'Tokens JWT revocados antes de su expiración (se purgan al pasar su exp)';
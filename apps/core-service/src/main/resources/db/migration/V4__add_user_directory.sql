@@ -0,0 +1,17 @@
+-- Migración V4: Directorio local de usuarios
+-- Fecha: 2025-11-25
+-- Descripción: Copia mínima (email, nombre) de los usuarios del Auth Service,
+-- alimentada desde los claims de los JWT que ya verificamos. Permite devolver
+-- los datos del asignado/propietario sin llamadas entre servicios.
+
+-- ============================================
+-- TABLA: user_directory
+-- ============================================
+CREATE TABLE IF NOT EXISTS core_schema.user_directory (
+    user_id UUID PRIMARY KEY,           -- Mismo id que en auth_schema
+    email VARCHAR(255),
+    display_name VARCHAR(200),
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+COMMENT ON TABLE core_schema.user_directory IS 'Datos de presentación de usuarios vistos en tokens JWT (no es la fuente de verdad)';
@@ -0,0 +1,42 @@
+-- Migración V5: Índices para paginación por cursor (keyset)
+-- Fecha: 2025-11-26
+-- Descripción: Cada listado paginado ordena por (clave, id) y continúa desde
+-- el último elemento visto. Con estos índices compuestos PostgreSQL empieza
+-- a leer directamente en la posición del cursor: la página N cuesta lo mismo
+-- que la página 1 (sin OFFSET).
+
+-- ============================================
+-- TASKS: orden (created_at, id)
+-- ============================================
+CREATE INDEX IF NOT EXISTS idx_tasks_project_created_id ON core_schema.tasks(project_id, created_at, id);
+CREATE INDEX IF NOT EXISTS idx_tasks_assigned_created_id ON core_schema.tasks(assigned_to, created_at, id);
+CREATE INDEX IF NOT EXISTS idx_tasks_created_id ON core_schema.tasks(created_at, id);
+
+-- ============================================
+-- EXPENSES: orden (expense_date DESC, id DESC)
+-- ============================================
+CREATE INDEX IF NOT EXISTS idx_expenses_user_date_id ON core_schema.expenses(user_id, expense_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_expenses_user_category_date_id ON core_schema.expenses(user_id, category_id, expense_date DESC, id DESC);
+
+-- ============================================
+-- EVENTS: orden (start_time, id)
+-- ============================================
+CREATE INDEX IF NOT EXISTS idx_events_user_start_id ON core_schema.events(user_id, start_time, id);
+CREATE INDEX IF NOT EXISTS idx_events_project_start_id ON core_schema.events(project_id, start_time, id);
+
+-- ============================================
+-- MEALS: orden (name, id)
+-- ============================================
+CREATE INDEX IF NOT EXISTS idx_meals_user_name_id ON core_schema.meals(user_id, name, id);
+-- Recetas públicas (user_id NULL) + del usuario: recorrido por nombre
+CREATE INDEX IF NOT EXISTS idx_meals_name_id ON core_schema.meals(name, id);
+
+-- ============================================
+-- MEAL_PLANS: orden (meal_date, id)
+-- ============================================
+CREATE INDEX IF NOT EXISTS idx_meal_plans_user_date_id ON core_schema.meal_plans(user_id, meal_date, id);
+
+-- ============================================
+-- WORKSPACES: orden (created_at, id)
+-- ============================================
+CREATE INDEX IF NOT EXISTS idx_workspaces_user_created_id ON core_schema.workspaces(user_id, created_at, id);
@@ -0,0 +1,40 @@
+-- Migración V6: Índices para el buscador de tareas con filtros combinados
+-- Fecha: 2025-11-27
+-- Descripción: GET /api/tasks combina proyecto, asignado, estados, prioridades,
+-- rango de fecha límite y texto, todo en SQL. Índices elegidos según los
+-- patrones reales de los clientes:
+--   1. Tablero de un proyecto filtrado por estado/prioridad
+--   2. "Mis tareas" pendientes ordenadas por fecha límite
+--   3. Vencimientos (due-soon / rango de fechas) de tareas sin terminar
+--   4. Urgentes sin terminar
+--   5. Búsqueda de texto (LIKE '%texto%') en título y descripción
+
+-- Trigramas para que LIKE '%texto%' use índice (extensión "trusted" desde PG 13)
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- 1. projectId + status IN (...) + priority IN (...)
+CREATE INDEX IF NOT EXISTS idx_tasks_project_status_priority
+    ON core_schema.tasks(project_id, status, priority);
+
+-- 2. assignedTo + status IN (...) + rango de due_date
+CREATE INDEX IF NOT EXISTS idx_tasks_assigned_status_due
+    ON core_schema.tasks(assigned_to, status, due_date);
+
+-- 3. Rango de fechas sobre tareas abiertas (las DONE son la mayoría con el tiempo)
+CREATE INDEX IF NOT EXISTS idx_tasks_open_due_date
+    ON core_schema.tasks(due_date)
+    WHERE status <> 'DONE' AND due_date IS NOT NULL;
+
+-- 4. Urgentes sin terminar (findUrgentIncompleteTasks)
+CREATE INDEX IF NOT EXISTS idx_tasks_open_priority
+    ON core_schema.tasks(priority)
+    WHERE status <> 'DONE';
+
+-- 5. Texto: lower(title) / lower(description) LIKE '%...%'
+CREATE INDEX IF NOT EXISTS idx_tasks_title_trgm
+    ON core_schema.tasks USING gin (lower(title) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_tasks_description_trgm
+    ON core_schema.tasks USING gin (lower(description) gin_trgm_ops);
+
+-- El índice simple por estado queda cubierto por los compuestos (baja selectividad)
+DROP INDEX IF EXISTS core_schema.idx_tasks_status;
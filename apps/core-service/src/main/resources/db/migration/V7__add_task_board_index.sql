@@ -0,0 +1,8 @@
+-- Migración V7: Índice para el tablero Kanban
+-- Fecha: 2025-11-28
+-- Descripción: GET /api/projects/{id}/board agrupa por estado y ordena cada
+-- columna por (created_at, id). Con este índice cada columna se lee en orden
+-- y "cargar más" (cursor por columna) empieza directamente tras la última tarjeta.
+
+CREATE INDEX IF NOT EXISTS idx_tasks_board
+    ON core_schema.tasks(project_id, status, created_at, id);
@@ -0,0 +1,122 @@
+-- Migración V8: Estadísticas de tareas por proyecto mantenidas de forma incremental
+-- Fecha: 2025-11-29
+-- Descripción: Contadores por estado y prioridad, tareas vencidas y última
+-- actividad de cada proyecto. Los mantiene un trigger en la MISMA transacción
+-- que la escritura de la tarea, así que cubre todos los caminos: JPA, bulk
+-- (saveAll/deleteAll), UPDATE ... RETURNING y DELETE por id.
+--
+-- overdue_count se evalúa con la fecha del momento de la escritura: las tareas
+-- que vencen con el paso de los días las corrige el job de reconciliación
+-- (ProjectTaskStatsService.reconcile), que también repara cualquier otra deriva.
+
+CREATE TABLE IF NOT EXISTS core_schema.project_task_stats (
+    project_id UUID PRIMARY KEY REFERENCES core_schema.projects(id) ON DELETE CASCADE,
+    total_count BIGINT NOT NULL DEFAULT 0,
+    todo_count BIGINT NOT NULL DEFAULT 0,
+    in_progress_count BIGINT NOT NULL DEFAULT 0,
+    done_count BIGINT NOT NULL DEFAULT 0,
+    low_count BIGINT NOT NULL DEFAULT 0,
+    medium_count BIGINT NOT NULL DEFAULT 0,
+    high_count BIGINT NOT NULL DEFAULT 0,
+    urgent_count BIGINT NOT NULL DEFAULT 0,
+    overdue_count BIGINT NOT NULL DEFAULT 0,
+    last_activity_at TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Aplica +1 / -1 de una tarea a las estadísticas de su proyecto
+CREATE OR REPLACE FUNCTION core_schema.apply_task_stats_delta(
+    p_project_id UUID, p_status VARCHAR, p_priority VARCHAR, p_due_date DATE, p_delta INT)
+RETURNS VOID AS $$
+DECLARE
+    v_overdue INT := CASE WHEN p_status <> 'DONE' AND p_due_date < CURRENT_DATE THEN p_delta ELSE 0 END;
+BEGIN
+    IF p_delta > 0 THEN
+        INSERT INTO core_schema.project_task_stats AS s
+            (project_id, total_count, todo_count, in_progress_count, done_count,
+             low_count, medium_count, high_count, urgent_count, overdue_count,
+             last_activity_at, updated_at)
+        VALUES (p_project_id, 1,
+                (p_status = 'TO_DO')::INT, (p_status = 'IN_PROGRESS')::INT, (p_status = 'DONE')::INT,
+                (p_priority = 'LOW')::INT, (p_priority = 'MEDIUM')::INT,
+                (p_priority = 'HIGH')::INT, (p_priority = 'URGENT')::INT,
+                v_overdue, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)
+        ON CONFLICT (project_id) DO UPDATE SET
+            total_count = s.total_count + 1,
+            todo_count = s.todo_count + (p_status = 'TO_DO')::INT,
+            in_progress_count = s.in_progress_count + (p_status = 'IN_PROGRESS')::INT,
+            done_count = s.done_count + (p_status = 'DONE')::INT,
+            low_count = s.low_count + (p_priority = 'LOW')::INT,
+            medium_count = s.medium_count + (p_priority = 'MEDIUM')::INT,
+            high_count = s.high_count + (p_priority = 'HIGH')::INT,
+            urgent_count = s.urgent_count + (p_priority = 'URGENT')::INT,
+            overdue_count = s.overdue_count + v_overdue,
+            last_activity_at = CURRENT_TIMESTAMP,
+            updated_at = CURRENT_TIMESTAMP;
+    ELSE
+        -- Solo UPDATE: al borrar un proyecto (cascade) su fila de estadísticas ya puede no existir
+        UPDATE core_schema.project_task_stats s SET
+            total_count = GREATEST(s.total_count - 1, 0),
+            todo_count = GREATEST(s.todo_count - (p_status = 'TO_DO')::INT, 0),
+            in_progress_count = GREATEST(s.in_progress_count - (p_status = 'IN_PROGRESS')::INT, 0),
+            done_count = GREATEST(s.done_count - (p_status = 'DONE')::INT, 0),
+            low_count = GREATEST(s.low_count - (p_priority = 'LOW')::INT, 0),
+            medium_count = GREATEST(s.medium_count - (p_priority = 'MEDIUM')::INT, 0),
+            high_count = GREATEST(s.high_count - (p_priority = 'HIGH')::INT, 0),
+            urgent_count = GREATEST(s.urgent_count - (p_priority = 'URGENT')::INT, 0),
+            overdue_count = GREATEST(s.overdue_count + v_overdue, 0),
+            last_activity_at = CURRENT_TIMESTAMP,
+            updated_at = CURRENT_TIMESTAMP
+        WHERE s.project_id = p_project_id;
+    END IF;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Trigger por fila: alta, baja, y en updates "quitar lo viejo + sumar lo nuevo"
+-- (cubre cambio de estado, de prioridad, de fecha límite y mover de proyecto)
+CREATE OR REPLACE FUNCTION core_schema.maintain_project_task_stats()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        PERFORM core_schema.apply_task_stats_delta(NEW.project_id, NEW.status, NEW.priority, NEW.due_date, 1);
+    ELSIF TG_OP = 'DELETE' THEN
+        PERFORM core_schema.apply_task_stats_delta(OLD.project_id, OLD.status, OLD.priority, OLD.due_date, -1);
+    ELSIF (OLD.project_id, OLD.status, OLD.priority, OLD.due_date)
+          IS DISTINCT FROM (NEW.project_id, NEW.status, NEW.priority, NEW.due_date) THEN
+        PERFORM core_schema.apply_task_stats_delta(OLD.project_id, OLD.status, OLD.priority, OLD.due_date, -1);
+        PERFORM core_schema.apply_task_stats_delta(NEW.project_id, NEW.status, NEW.priority, NEW.due_date, 1);
+    ELSE
+        -- Cambio de título, descripción, asignado...: solo cuenta como actividad
+        UPDATE core_schema.project_task_stats
+           SET last_activity_at = CURRENT_TIMESTAMP
+         WHERE project_id = NEW.project_id;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS maintain_project_task_stats ON core_schema.tasks;
+CREATE TRIGGER maintain_project_task_stats
+    AFTER INSERT OR UPDATE OR DELETE ON core_schema.tasks
+    FOR EACH ROW
+    EXECUTE FUNCTION core_schema.maintain_project_task_stats();
+
+-- Carga inicial con los datos existentes
+INSERT INTO core_schema.project_task_stats
+    (project_id, total_count, todo_count, in_progress_count, done_count,
+     low_count, medium_count, high_count, urgent_count, overdue_count, last_activity_at)
+SELECT p.id,
+       count(t.id),
+       count(t.id) FILTER (WHERE t.status = 'TO_DO'),
+       count(t.id) FILTER (WHERE t.status = 'IN_PROGRESS'),
+       count(t.id) FILTER (WHERE t.status = 'DONE'),
+       count(t.id) FILTER (WHERE t.priority = 'LOW'),
+       count(t.id) FILTER (WHERE t.priority = 'MEDIUM'),
+       count(t.id) FILTER (WHERE t.priority = 'HIGH'),
+       count(t.id) FILTER (WHERE t.priority = 'URGENT'),
+       count(t.id) FILTER (WHERE t.status <> 'DONE' AND t.due_date < CURRENT_DATE),
+       max(t.updated_at)
+  FROM core_schema.projects p
+  LEFT JOIN core_schema.tasks t ON t.project_id = p.id
+ GROUP BY p.id
+ON CONFLICT (project_id) DO NOTHING;
@@ -0,0 +1,17 @@
+-- Migración V9: Motor de recordatorios
+-- Fecha: 2025-11-30
+-- Descripción: ReminderScheduler mantiene en memoria (rueda de tiempo) los
+-- recordatorios de las próximas horas. Aquí se guarda hasta qué instante se
+-- ha disparado todo, para recuperar los que vencen con el servicio parado.
+
+-- Una sola fila (id = 1)
+CREATE TABLE IF NOT EXISTS core_schema.reminder_state (
+    id SMALLINT PRIMARY KEY CHECK (id = 1),
+    fired_through TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Carga de la ventana de eventos REMINDER por start_time (los demás tipos no se leen)
+CREATE INDEX IF NOT EXISTS idx_events_reminder_start
+    ON core_schema.events(start_time)
+    WHERE event_type = 'REMINDER';
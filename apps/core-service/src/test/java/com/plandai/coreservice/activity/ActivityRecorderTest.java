@@ -0,0 +1,132 @@
+package com.plandai.coreservice.activity;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.plandai.coreservice.security.AuthenticatedUserHelper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para ActivityRecorder y FieldDiff
+ * Valida: diffs compactos, escritura por lotes y descarte con la cola llena
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ActivityRecorder - Registro de actividad asíncrono")
+class ActivityRecorderTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private AuthenticatedUserHelper userHelper;
+
+    private SimpleMeterRegistry meterRegistry;
+    private final UUID actorId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    private ActivityRecorder recorder(int queueCapacity, int batchSize) {
+        Clock clock = Clock.fixed(Instant.parse("2025-12-05T10:00:00Z"), ZoneOffset.UTC);
+        return new ActivityRecorder(jdbcTemplate, transactionTemplate, userHelper, new ObjectMapper(), meterRegistry,
+                clock, queueCapacity, batchSize, 1000);
+    }
+
+    @Test
+    @DisplayName("El diff solo guarda campos cambiados y conserva el valor original al acumular")
+    void testFieldDiff() {
+        FieldDiff diff = FieldDiff.of()
+                .field("title", "A", "A")
+                .field("amount", new BigDecimal("10.0"), new BigDecimal("10.00"))
+                .field("status", "TO_DO", "IN_PROGRESS");
+        diff.field("status", "IN_PROGRESS", "DONE");
+
+        assertEquals(List.of("status"), List.copyOf(diff.changes().keySet()));
+        assertArrayEquals(new Object[]{"TO_DO", "DONE"}, diff.changes().get("status"));
+
+        // Volver al valor original elimina el campo
+        diff.field("status", "DONE", "TO_DO");
+        assertTrue(diff.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Debe escribir la cola en lotes de batch-size con el diff en JSON")
+    @SuppressWarnings("unchecked")
+    void testFlush_WritesInBatches() throws Exception {
+        // Arrange
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        when(userHelper.getCurrentUserId()).thenReturn(actorId);
+        ActivityRecorder recorder = recorder(100, 2);
+        UUID taskId = UUID.randomUUID();
+        UUID projectId = UUID.randomUUID();
+
+        // Act: fuera de transacción se encola directamente
+        recorder.updated(ActivityEntityType.TASK, taskId, null, projectId,
+                FieldDiff.of().field("status", "TO_DO", "DONE"));
+        recorder.updated(ActivityEntityType.TASK, taskId, null, projectId, FieldDiff.of());
+        recorder.deleted(ActivityEntityType.TASK, taskId, null, projectId);
+        recorder.created(ActivityEntityType.EXPENSE, UUID.randomUUID(), null, null,
+                FieldDiff.of().field("description", null, "Café"));
+        recorder.flush();
+
+        // Assert: 3 entradas (el diff vacío no se registra) → lotes de 2 + 1
+        ArgumentCaptor<BatchPreparedStatementSetter> batches = ArgumentCaptor.forClass(BatchPreparedStatementSetter.class);
+        verify(jdbcTemplate, times(2)).batchUpdate(eq(ActivityRecorder.INSERT_SQL), batches.capture());
+        assertEquals(2, batches.getAllValues().get(0).getBatchSize());
+        assertEquals(1, batches.getAllValues().get(1).getBatchSize());
+
+        PreparedStatement ps = mock(PreparedStatement.class);
+        batches.getAllValues().get(0).setValues(ps, 0);
+        verify(ps).setObject(4, projectId);
+        verify(ps).setObject(6, actorId);
+        verify(ps).setString(7, "TASK");
+        verify(ps).setString(9, "UPDATED");
+        verify(ps).setString(10, "{\"status\":[\"TO_DO\",\"DONE\"]}");
+        assertEquals(3.0, meterRegistry.counter("activity.log.written").count());
+    }
+
+    @Test
+    @DisplayName("Con la cola llena debe descartar y contar, sin fallar la petición")
+    void testRecord_QueueFull() {
+        // Arrange
+        ActivityRecorder recorder = recorder(1, 10);
+
+        // Act
+        recorder.deleted(ActivityEntityType.EVENT, UUID.randomUUID(), null, null);
+        assertDoesNotThrow(() -> recorder.deleted(ActivityEntityType.EVENT, UUID.randomUUID(), null, null));
+
+        // Assert
+        assertEquals(1.0, meterRegistry.counter("activity.log.dropped").count());
+        verifyNoInteractions(jdbcTemplate);
+    }
+}
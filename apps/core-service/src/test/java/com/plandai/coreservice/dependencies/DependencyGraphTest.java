@@ -0,0 +1,141 @@
+package com.plandai.coreservice.dependencies;
+
+import com.plandai.coreservice.dto.CriticalPathDto;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitarios para DependencyGraph
+ * Valida: rechazo incremental de ciclos, orden topológico, bloqueadas y ruta crítica
+ */
+@DisplayName("DependencyGraph - Índice de dependencias en memoria")
+class DependencyGraphTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 12, 4);
+
+    private static List<DependencyGraph.Node> nodes(List<UUID> ids) {
+        return ids.stream().map(id -> new DependencyGraph.Node(id, false, null)).toList();
+    }
+
+    private static List<UUID> ids(int count) {
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ids.add(UUID.randomUUID());
+        }
+        return ids;
+    }
+
+    @Test
+    @DisplayName("Debe rechazar exactamente las aristas que cierran un ciclo y mantener el orden")
+    void testAddDependency_RejectsCyclesIncrementally() {
+        // Arrange
+        Random random = new Random(7);
+        List<UUID> ids = ids(200);
+        DependencyGraph graph = DependencyGraph.build(0, nodes(ids), List.of());
+        Map<UUID, Set<UUID>> blocks = new HashMap<>();
+
+        // Act: aristas aleatorias comparadas con una búsqueda completa
+        for (int i = 0; i < 2_000; i++) {
+            UUID task = ids.get(random.nextInt(ids.size()));
+            UUID blocker = ids.get(random.nextInt(ids.size()));
+            if (task.equals(blocker)) {
+                continue;
+            }
+            boolean expectedCycle = reachable(blocks, task, blocker);
+            assertEquals(expectedCycle, !graph.cycleIfAdded(task, blocker).isEmpty());
+            assertEquals(!expectedCycle, graph.addDependency(task, blocker, i));
+            if (!expectedCycle) {
+                blocks.computeIfAbsent(blocker, key -> new HashSet<>()).add(task);
+            }
+        }
+
+        // Assert: cada tarea aparece después de todas las que la bloquean
+        List<UUID> order = graph.topologicalOrder();
+        assertEquals(ids.size(), order.size());
+        Map<UUID, Integer> position = new HashMap<>();
+        for (int i = 0; i < order.size(); i++) {
+            position.put(order.get(i), i);
+        }
+        blocks.forEach((blocker, tasks) -> tasks.forEach(task ->
+                assertTrue(position.get(blocker) < position.get(task), "Orden topológico roto")));
+    }
+
+    @Test
+    @DisplayName("Debe devolver el ciclo que formaría la nueva dependencia")
+    void testCycleIfAdded_ReturnsChain() {
+        // Arrange: a bloquea a b, b bloquea a c
+        List<UUID> ids = ids(3);
+        UUID a = ids.get(0);
+        UUID b = ids.get(1);
+        UUID c = ids.get(2);
+        DependencyGraph graph = DependencyGraph.build(0, nodes(ids), List.of(
+                new DependencyGraph.Edge(b, a), new DependencyGraph.Edge(c, b)));
+
+        // Act & Assert: "a bloqueada por c" cerraría a → b → c → a
+        assertEquals(List.of(a, b, c), graph.cycleIfAdded(a, c));
+        assertEquals(List.of(a, b), graph.blockersOf(c));
+        assertEquals(Map.of(b, List.of(a), c, List.of(b)), graph.blocked());
+    }
+
+    @Test
+    @DisplayName("Debe calcular la ruta crítica y su holgura a partir de las fechas límite")
+    void testCriticalPath_UsesDueDates() {
+        // Arrange: a → b → c (c vence en 2 días) y d suelta sin fecha; e ya terminada
+        List<UUID> ids = ids(5);
+        UUID a = ids.get(0);
+        UUID b = ids.get(1);
+        UUID c = ids.get(2);
+        UUID d = ids.get(3);
+        UUID e = ids.get(4);
+        DependencyGraph graph = DependencyGraph.build(0, List.of(
+                new DependencyGraph.Node(a, false, null),
+                new DependencyGraph.Node(b, false, null),
+                new DependencyGraph.Node(c, false, TODAY.plusDays(1)),
+                new DependencyGraph.Node(d, false, null),
+                new DependencyGraph.Node(e, true, null)
+        ), List.of(
+                new DependencyGraph.Edge(b, a),
+                new DependencyGraph.Edge(c, b),
+                new DependencyGraph.Edge(d, e)));
+
+        // Act
+        CriticalPathDto path = graph.criticalPath(TODAY);
+
+        // Assert: 3 días de trabajo para 2 días de plazo → un día de retraso
+        assertEquals(List.of(a, b, c), path.taskIds());
+        assertEquals(TODAY.plusDays(2), path.estimatedFinish());
+        assertEquals(-1, path.slackDays());
+        assertFalse(graph.blocked().containsKey(d), "Un bloqueador terminado ya no bloquea");
+    }
+
+    private static boolean reachable(Map<UUID, Set<UUID>> blocks, UUID from, UUID to) {
+        Deque<UUID> pending = new ArrayDeque<>(List.of(from));
+        Set<UUID> seen = new HashSet<>(pending);
+        while (!pending.isEmpty()) {
+            UUID node = pending.pop();
+            if (node.equals(to)) {
+                return true;
+            }
+            for (UUID next : blocks.getOrDefault(node, Set.of())) {
+                if (seen.add(next)) {
+                    pending.push(next);
+                }
+            }
+        }
+        return false;
+    }
+}
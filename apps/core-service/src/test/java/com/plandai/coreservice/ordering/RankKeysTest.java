@@ -0,0 +1,88 @@
+package com.plandai.coreservice.ordering;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitarios para RankKeys
+ * Valida: siempre hay clave entre dos vecinas, bloques ordenados y reequilibrado uniforme
+ */
+@DisplayName("RankKeys - Claves de orden fraccionarias")
+class RankKeysTest {
+
+    @Test
+    @DisplayName("Debe generar siempre una clave válida estrictamente entre sus vecinas")
+    void testBetween_AlwaysFitsBetweenNeighbours() {
+        // Arrange: una columna simulada en la que se insertan tarjetas en posiciones aleatorias
+        Random random = new Random(42);
+        List<String> column = new ArrayList<>(List.of(RankKeys.between(null, null)));
+
+        // Act
+        for (int i = 0; i < 2_000; i++) {
+            int position = random.nextInt(column.size() + 1);
+            String before = position == 0 ? null : column.get(position - 1);
+            String after = position == column.size() ? null : column.get(position);
+            column.add(position, RankKeys.between(before, after));
+        }
+
+        // Assert: el orden de inserción coincide con el orden lexicográfico
+        for (int i = 1; i < column.size(); i++) {
+            assertTrue(column.get(i - 1).compareTo(column.get(i)) < 0, "Orden roto en la posición " + i);
+            assertTrue(RankKeys.isValid(column.get(i)));
+        }
+    }
+
+    @Test
+    @DisplayName("Debe crecer despacio al añadir al final y al colocar bloques")
+    void testAfterAndBlocks_StayShort() {
+        // Act: 1000 tarjetas añadidas al final una tras otra
+        String last = null;
+        for (int i = 0; i < 1_000; i++) {
+            String next = RankKeys.after(last);
+            assertTrue(last == null || last.compareTo(next) < 0);
+            last = next;
+        }
+
+        // Act: un bloque de 1000 tarjetas entre dos vecinas
+        List<String> block = RankKeys.between("V", "W", 1_000);
+
+        // Assert
+        assertTrue(last.length() <= 20, "Añadir al final alarga la clave ~1 carácter cada 61 tarjetas");
+        assertEquals(1_000, block.size());
+        for (int i = 1; i < block.size(); i++) {
+            assertTrue(block.get(i - 1).compareTo(block.get(i)) < 0);
+        }
+        assertTrue(block.stream().allMatch(key -> key.compareTo("V") > 0 && key.compareTo("W") < 0));
+        assertTrue(block.stream().mapToInt(String::length).max().orElseThrow() <= 4, "Longitud ~log(n)");
+    }
+
+    @Test
+    @DisplayName("Debe reequilibrar con claves cortas, ordenadas y con hueco entre cada par")
+    void testSpread_ShortOrderedKeys() {
+        // Act
+        List<String> keys = RankKeys.spread(1_000);
+
+        // Assert
+        assertEquals(1_000, keys.size());
+        for (int i = 1; i < keys.size(); i++) {
+            assertTrue(keys.get(i - 1).compareTo(keys.get(i)) < 0);
+            assertNotNull(RankKeys.between(keys.get(i - 1), keys.get(i)));
+        }
+        assertTrue(keys.stream().allMatch(key -> RankKeys.isValid(key) && key.length() <= 2));
+    }
+
+    @Test
+    @DisplayName("Debe rechazar vecinas desordenadas o claves inválidas")
+    void testBetween_RejectsInvalidInput() {
+        assertThrows(IllegalArgumentException.class, () -> RankKeys.between("W", "V"));
+        assertThrows(IllegalArgumentException.class, () -> RankKeys.between("V", "V"));
+        assertThrows(IllegalArgumentException.class, () -> RankKeys.between("V0", null));
+        assertThrows(IllegalArgumentException.class, () -> RankKeys.between("V|", null));
+    }
+}
@@ -0,0 +1,99 @@
+package com.plandai.coreservice.pagination;
+
+import com.plandai.coreservice.model.Meal;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para la paginación por cursor
+ * Valida: formato del cursor, detección de página siguiente y cursores inválidos
+ */
+@DisplayName("KeysetPagination - Paginación por cursor")
+class KeysetPaginationTest {
+
+    private static final KeysetSort<Meal, String> BY_NAME =
+            KeysetSort.asc("name", Meal::getName, Function.identity(), Meal::getId);
+
+    private final Specification<Meal> anyMeal = (root, query, cb) -> cb.conjunction();
+
+    @SuppressWarnings("unchecked")
+    private JpaSpecificationExecutor<Meal> repositoryReturning(List<Meal> rows) {
+        JpaSpecificationExecutor<Meal> repository = mock(JpaSpecificationExecutor.class);
+        when(repository.findBy(any(Specification.class), any())).thenReturn(rows);
+        return repository;
+    }
+
+    private List<Meal> meals(int count) {
+        return IntStream.range(0, count).mapToObj(i -> {
+            Meal meal = new Meal();
+            meal.setId(UUID.randomUUID());
+            meal.setName("Receta " + i);
+            return meal;
+        }).toList();
+    }
+
+    @Test
+    @DisplayName("El cursor debe conservar clave e id aunque la clave contenga el separador")
+    void testCursor_RoundTrip() {
+        UUID id = UUID.randomUUID();
+        Cursor cursor = new Cursor("Pasta | tomate", id);
+
+        Cursor decoded = Cursor.decode(cursor.encode());
+
+        assertEquals("Pasta | tomate", decoded.key());
+        assertEquals(id, decoded.id());
+        assertNull(Cursor.decode(null));
+    }
+
+    @Test
+    @DisplayName("Debe devolver next apuntando al último elemento cuando hay más filas")
+    void testPage_HasNext() {
+        // Arrange: el repositorio devuelve limit + 1 filas
+        List<Meal> rows = meals(4);
+        JpaSpecificationExecutor<Meal> repository = repositoryReturning(rows);
+
+        // Act
+        CursorPage<Meal> page = KeysetPagination.page(repository, anyMeal, BY_NAME, null, 3);
+
+        // Assert
+        assertEquals(3, page.items().size());
+        Cursor next = Cursor.decode(page.next());
+        assertEquals("Receta 2", next.key());
+        assertEquals(rows.get(2).getId(), next.id());
+    }
+
+    @Test
+    @DisplayName("La última página no debe tener next")
+    void testPage_LastPage() {
+        JpaSpecificationExecutor<Meal> repository = repositoryReturning(meals(2));
+
+        CursorPage<Meal> page = KeysetPagination.page(repository, anyMeal, BY_NAME,
+                new Cursor("Receta 0", UUID.randomUUID()).encode(), 3);
+
+        assertEquals(2, page.items().size());
+        assertNull(page.next());
+    }
+
+    @Test
+    @DisplayName("Debe rechazar cursores manipulados y acotar el tamaño de página")
+    void testPage_InvalidCursorAndLimits() {
+        JpaSpecificationExecutor<Meal> repository = repositoryReturning(List.of());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> KeysetPagination.page(repository, anyMeal, BY_NAME, "no-es-un-cursor", 10));
+        assertEquals(KeysetPagination.MAX_LIMIT, KeysetPagination.clampLimit(100000));
+        assertEquals(1, KeysetPagination.clampLimit(0));
+        assertEquals(KeysetPagination.DEFAULT_LIMIT, KeysetPagination.clampLimit(null));
+    }
+}
@@ -0,0 +1,92 @@
+package com.plandai.coreservice.reminders;
+
+import com.plandai.coreservice.changes.TaskChange;
+import com.plandai.coreservice.entities.Task;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para ReminderScheduler
+ * Valida: los cambios que llegan mientras se carga la ventana mandan sobre lo leído por la consulta
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ReminderScheduler - Carga de la ventana de recordatorios")
+class ReminderSchedulerTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 12, 15);
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private ReminderNotifier notifier;
+
+    @Mock
+    private ResultSet resultSet;
+
+    private ReminderScheduler scheduler;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        Clock clock = Clock.fixed(Instant.parse("2025-12-15T00:00:00Z"), ZoneOffset.UTC);
+        scheduler = new ReminderScheduler(jdbcTemplate, transactionTemplate, notifier, new SimpleMeterRegistry(),
+                clock, 1000, Duration.ofHours(24), LocalTime.of(9, 0), 100);
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any(Consumer.class));
+    }
+
+    @Test
+    @DisplayName("Debe repetir al terminar la carga los cambios recibidos durante la consulta")
+    void testStart_ReplaysChangesDuringLoad() throws Exception {
+        // Arrange: mientras se leen las tareas, una se termina (la consulta aún ve la fila vieja)
+        // y otra pasa a vencer dentro de la ventana (la consulta no la ve)
+        UUID finished = UUID.randomUUID();
+        UUID moved = UUID.randomUUID();
+        when(resultSet.getObject(1, UUID.class)).thenReturn(finished);
+        when(resultSet.getObject(2, LocalDate.class)).thenReturn(TODAY);
+        doAnswer(invocation -> {
+            scheduler.onTaskChange(new TaskChange(finished, UUID.randomUUID(), false, Task.TaskStatus.DONE, TODAY));
+            scheduler.onTaskChange(new TaskChange(moved, UUID.randomUUID(), false, Task.TaskStatus.TO_DO, TODAY));
+            invocation.<RowCallbackHandler>getArgument(1).processRow(resultSet);
+            return null;
+        }).doNothing().when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+
+        // Act
+        scheduler.start();
+
+        // Assert: solo queda la tarea movida
+        assertEquals(1, scheduler.pending());
+        scheduler.onTaskChange(TaskChange.deleted(moved));
+        assertEquals(0, scheduler.pending());
+    }
+}
@@ -0,0 +1,111 @@
+package com.plandai.coreservice.reminders;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitarios para TimingWheel
+ * Valida: disparo puntual en todos los niveles, cancelación/reprogramación y vencidos
+ */
+@DisplayName("TimingWheel - Rueda de tiempo jerárquica")
+class TimingWheelTest {
+
+    private static final long TICK = 1000;
+    private static final long START = 1_700_000_000_000L;
+
+    @Test
+    @DisplayName("Debe disparar cada recordatorio en su tick aunque esté en un nivel superior")
+    void testAdvance_FiresOnTimeAcrossLevels() {
+        // Arrange: un vencimiento por nivel (64 s, 64^2 s, 64^3 s)
+        TimingWheel wheel = new TimingWheel(TICK, START, 16);
+        long[] offsets = {5, 100, 5_000, 300_000};
+        Map<UUID, Long> expected = new HashMap<>();
+        for (long offset : offsets) {
+            UUID id = UUID.randomUUID();
+            expected.put(id, START + offset * TICK);
+            assertTrue(wheel.schedule(ReminderKind.TASK_DUE, id, START + offset * TICK));
+        }
+
+        // Act: avanzar segundo a segundo anotando cuándo se dispara cada uno
+        Map<UUID, Long> firedAt = new HashMap<>();
+        for (long now = START; now <= START + 400_000 * TICK; now += TICK) {
+            long current = now;
+            wheel.advance(now, (kind, id, deadline) -> firedAt.put(id, current));
+        }
+
+        // Assert
+        assertEquals(expected, firedAt, "Cada recordatorio se dispara exactamente en su vencimiento");
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    @DisplayName("Debe respetar cancelaciones y reprogramaciones con muchos recordatorios")
+    void testScheduleAndCancel_ManyReminders() {
+        // Arrange
+        TimingWheel wheel = new TimingWheel(TICK, START, 16);
+        Random random = new Random(42);
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 50_000; i++) {
+            UUID id = UUID.randomUUID();
+            ids.add(id);
+            wheel.schedule(ReminderKind.EVENT_REMINDER, id, START + (1 + random.nextInt(86_400)) * TICK);
+        }
+        Set<UUID> cancelled = new HashSet<>();
+        for (int i = 0; i < ids.size(); i += 2) {
+            assertTrue(wheel.cancel(ReminderKind.EVENT_REMINDER, ids.get(i)));
+            cancelled.add(ids.get(i));
+        }
+        // Reprogramar no duplica y el mismo id con otro tipo es otro recordatorio
+        UUID moved = ids.get(1);
+        wheel.schedule(ReminderKind.EVENT_REMINDER, moved, START + 90_000 * TICK);
+        wheel.schedule(ReminderKind.TASK_DUE, moved, START + 10 * TICK);
+
+        // Act
+        List<UUID> fired = new ArrayList<>();
+        long movedFiredAt = -1;
+        for (long now = START; now <= START + 90_000 * TICK; now += TICK) {
+            int before = fired.size();
+            wheel.advance(now, (kind, id, deadline) -> fired.add(id));
+            if (fired.subList(before, fired.size()).contains(moved) && now > START + 10 * TICK) {
+                movedFiredAt = now;
+            }
+        }
+
+        // Assert
+        assertEquals(ids.size() / 2 + 1, fired.size(), "Los no cancelados + la copia TASK_DUE");
+        assertTrue(fired.stream().noneMatch(cancelled::contains), "Ningún cancelado se dispara");
+        assertEquals(START + 90_000 * TICK, movedFiredAt, "La reprogramación sustituye al vencimiento anterior");
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    @DisplayName("Debe disparar en el siguiente tick lo ya vencido y rechazar lo que excede el alcance")
+    void testSchedule_OverdueAndOutOfSpan() {
+        // Arrange
+        TimingWheel wheel = new TimingWheel(TICK, START, 16);
+        UUID overdue = UUID.randomUUID();
+        UUID tooFar = UUID.randomUUID();
+
+        // Act
+        wheel.schedule(ReminderKind.TASK_DUE, overdue, START - 3_600 * TICK);
+        boolean accepted = wheel.schedule(ReminderKind.TASK_DUE, tooFar, wheel.maxDeadlineMillis());
+        List<Long> deadlines = new ArrayList<>();
+        wheel.advance(START + TICK, (kind, id, deadline) -> deadlines.add(deadline));
+
+        // Assert
+        assertFalse(accepted);
+        assertEquals(List.of(START - 3_600 * TICK), deadlines, "Se entrega con su vencimiento original (para medir el retraso)");
+        assertEquals(0, wheel.size());
+    }
+}
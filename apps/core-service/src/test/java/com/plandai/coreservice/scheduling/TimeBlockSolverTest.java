@@ -0,0 +1,132 @@
+package com.plandai.coreservice.scheduling;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitarios para FreeTimeline y TimeBlockSolver
+ * Valida: huecos libres alrededor de eventos, vencimientos, prioridad, trozos y tiempo máximo
+ */
+@DisplayName("TimeBlockSolver - Planificación de bloques de tiempo")
+class TimeBlockSolverTest {
+
+    // Lunes
+    private static final LocalDateTime MONDAY = LocalDateTime.of(2025, 12, 15, 9, 0);
+    private static final Set<DayOfWeek> WEEKDAYS = EnumSet.range(DayOfWeek.MONDAY, DayOfWeek.FRIDAY);
+    private static final Duration BUDGET = Duration.ofMillis(200);
+
+    private static FreeTimeline morning(List<FreeTimeline.Busy> busy) {
+        return FreeTimeline.build(MONDAY, 1, LocalTime.of(9, 0), LocalTime.of(12, 0), WEEKDAYS, busy, 15);
+    }
+
+    @Test
+    @DisplayName("El tiempo libre salta eventos, fines de semana y lo que ya ha pasado")
+    void testFreeTimeline() {
+        // Arrange: reunión de 10:00 a 10:30
+        FreeTimeline timeline = morning(List.of(new FreeTimeline.Busy(MONDAY.plusHours(1), MONDAY.plusMinutes(90))));
+
+        // Assert: 9:00-10:00 y 10:30-12:00
+        assertEquals(10, timeline.size());
+        assertEquals(List.of(
+                new FreeTimeline.Block(MONDAY, MONDAY.plusHours(1)),
+                new FreeTimeline.Block(MONDAY.plusMinutes(90), MONDAY.plusHours(3))), timeline.blocks(0, 10));
+        assertEquals(6, timeline.slotsEndingBy(MONDAY.plusHours(2)));
+
+        // Desde el viernes a las 11:10: sábado y domingo no cuentan
+        FreeTimeline weekend = FreeTimeline.build(MONDAY.minusDays(3).plusMinutes(130), 3, LocalTime.of(9, 0),
+                LocalTime.of(12, 0), WEEKDAYS, List.of(), 15);
+        assertEquals(3, weekend.size());
+        assertEquals(MONDAY.minusDays(3).plusMinutes(135), weekend.slotStart(0));
+    }
+
+    @Test
+    @DisplayName("Si no cabe todo, se deja fuera lo menos importante aunque venza antes")
+    void testSolve_PrefersWeightOverDeadline() {
+        // Arrange: 8 slots; la voraz (vence antes primero) deja fuera la urgente
+        FreeTimeline timeline = FreeTimeline.build(MONDAY, 1, LocalTime.of(9, 0), LocalTime.of(11, 0), WEEKDAYS,
+                List.of(), 15);
+        List<TimeBlockSolver.Job> jobs = List.of(
+                new TimeBlockSolver.Job(6, 6, 1),
+                new TimeBlockSolver.Job(4, 8, 8));
+
+        // Act
+        TimeBlockSolver.Solution solution = TimeBlockSolver.solve(jobs, timeline, 2, BUDGET, 42);
+
+        // Assert
+        assertEquals(-1, solution.starts()[0]);
+        assertEquals(0, solution.starts()[1]);
+    }
+
+    @Test
+    @DisplayName("Evita partir tareas alrededor de un evento si pueden ir enteras")
+    void testSolve_AvoidsFragments() {
+        // Arrange: 4 slots libres, evento de 10:00 a 10:15, 7 slots libres
+        FreeTimeline timeline = morning(List.of(new FreeTimeline.Busy(MONDAY.plusHours(1), MONDAY.plusMinutes(75))));
+        List<TimeBlockSolver.Job> jobs = List.of(
+                new TimeBlockSolver.Job(3, timeline.size(), 1),
+                new TimeBlockSolver.Job(4, timeline.size(), 1));
+
+        // Act
+        TimeBlockSolver.Solution solution = TimeBlockSolver.solve(jobs, timeline, 2, BUDGET, 42);
+
+        // Assert: la de 4 slots llena el primer hueco y la de 3 va después del evento
+        assertEquals(4, solution.starts()[0]);
+        assertEquals(0, solution.starts()[1]);
+        assertEquals(1, timeline.blocks(4, 7).size());
+    }
+
+    @Test
+    @DisplayName("500 tareas en dos semanas: respeta vencimientos, no solapa y termina a tiempo")
+    void testSolve_LargeWithinBudget() {
+        // Arrange: dos semanas con reuniones al azar
+        Random random = new Random(7);
+        List<FreeTimeline.Busy> busy = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            LocalDateTime start = MONDAY.plusDays(random.nextInt(14)).plusMinutes(15L * random.nextInt(32));
+            busy.add(new FreeTimeline.Busy(start, start.plusMinutes(15L * (1 + random.nextInt(8)))));
+        }
+        FreeTimeline timeline = FreeTimeline.build(MONDAY, 14, LocalTime.of(9, 0), LocalTime.of(17, 0), WEEKDAYS,
+                busy, 15);
+        List<TimeBlockSolver.Job> jobs = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            jobs.add(new TimeBlockSolver.Job(1 + random.nextInt(8), 1 + random.nextInt(timeline.size()),
+                    1 << random.nextInt(4)));
+        }
+
+        // Act
+        long started = System.nanoTime();
+        TimeBlockSolver.Solution solution = TimeBlockSolver.solve(jobs, timeline, 2, BUDGET, 42);
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+
+        // Assert
+        assertTrue(elapsedMillis < 1000, "Tardó " + elapsedMillis + " ms");
+        assertTrue(solution.iterations() > 0);
+        boolean[] used = new boolean[timeline.size()];
+        int scheduled = 0;
+        for (int i = 0; i < jobs.size(); i++) {
+            int start = solution.starts()[i];
+            if (start < 0) {
+                continue;
+            }
+            scheduled++;
+            assertTrue(start + jobs.get(i).slots() <= jobs.get(i).deadline());
+            for (int k = start; k < start + jobs.get(i).slots(); k++) {
+                assertFalse(used[k], "Slot " + k + " usado dos veces");
+                used[k] = true;
+            }
+        }
+        assertTrue(scheduled > 0);
+    }
+}
@@ -0,0 +1,118 @@
+package com.plandai.coreservice.security;
+
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitarios para JwtKeyRing
+ * Valida: selección de clave por kid, clave por defecto y recarga atómica
+ */
+@DisplayName("JwtKeyRing - Rotación de claves JWT por kid")
+class JwtKeyRingTest {
+
+    private final String defaultSecret = "CAMBIAME_POR_UN_SECRET_SEGURO_DE_AL_MENOS_32_CARACTERES";
+    private final String secretV1 = "SECRET_V1_SUFICIENTEMENTE_LARGO_PARA_HS256_OK";
+    private final String secretV2 = "SECRET_V2_SUFICIENTEMENTE_LARGO_PARA_HS256_OK";
+    private final String testIssuer = "PlandIA.AuthService";
+    private final String testAudience = "PlandIA.Clients";
+    private final String testUserId = UUID.randomUUID().toString();
+
+    private JwtKeyRing keyRing;
+    private JwtUtil jwtUtil;
+
+    @BeforeEach
+    void setUp() {
+        keyRing = new JwtKeyRing(defaultSecret, "v1:" + secretV1, "");
+
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", defaultSecret);
+        ReflectionTestUtils.setField(jwtUtil, "issuer", testIssuer);
+        ReflectionTestUtils.setField(jwtUtil, "audience", testAudience);
+        ReflectionTestUtils.setField(jwtUtil, "keyRing", keyRing);
+    }
+
+    private String generateTestToken(String kid, String secret) {
+        SecretKey key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        var builder = Jwts.builder();
+        if (kid != null) {
+            builder.header().keyId(kid).and();
+        }
+        return builder
+                .claim("http://schemas.xmlsoap.org/ws/2005/05/identity/claims/nameidentifier", testUserId)
+                .issuer(testIssuer)
+                .audience().add(testAudience).and()
+                .issuedAt(new Date())
+                .expiration(new Date(System.currentTimeMillis() + 60000))
+                .signWith(key)
+                .compact();
+    }
+
+    @Test
+    @DisplayName("Debe validar tokens sin kid con la clave por defecto")
+    void testVerify_DefaultKey() {
+        String token = generateTestToken(null, defaultSecret);
+
+        assertEquals(UUID.fromString(testUserId), jwtUtil.verify(token).userId());
+    }
+
+    @Test
+    @DisplayName("Debe elegir la clave por el kid del header")
+    void testVerify_KeyByKid() {
+        String token = generateTestToken("v1", secretV1);
+
+        assertEquals(UUID.fromString(testUserId), jwtUtil.verify(token).userId());
+    }
+
+    @Test
+    @DisplayName("Debe rechazar tokens con kid desconocido")
+    void testVerify_UnknownKid() {
+        String token = generateTestToken("v9", secretV1);
+
+        assertThrows(JwtException.class, () -> jwtUtil.verify(token));
+    }
+
+    @Test
+    @DisplayName("Debe rechazar tokens firmados con otra clave aunque el kid exista")
+    void testVerify_WrongSecretForKid() {
+        String token = generateTestToken("v1", secretV2);
+
+        assertThrows(JwtException.class, () -> jwtUtil.verify(token));
+    }
+
+    @Test
+    @DisplayName("Debe aplicar la recarga sin reconstruir el parser")
+    void testReload_RotatesKeys() {
+        // Arrange: token con la clave nueva, que aún no está en el anillo
+        String tokenV2 = generateTestToken("v2", secretV2);
+        String tokenV1 = generateTestToken("v1", secretV1);
+        assertThrows(JwtException.class, () -> jwtUtil.verify(tokenV2));
+
+        // Act: rotación (v1 retirada, v2 añadida)
+        keyRing.reload(Map.of("v2", secretV2));
+
+        // Assert
+        assertEquals(UUID.fromString(testUserId), jwtUtil.verify(tokenV2).userId());
+        assertThrows(JwtException.class, () -> jwtUtil.verify(tokenV1));
+        assertEquals(java.util.Set.of("v2"), keyRing.kids());
+    }
+
+    @Test
+    @DisplayName("Debe rechazar formatos inválidos en jwt.keys")
+    void testParseKeys_InvalidFormat() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new JwtKeyRing(defaultSecret, "sin-separador", ""));
+    }
+}
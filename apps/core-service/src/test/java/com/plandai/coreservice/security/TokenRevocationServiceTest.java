@@ -0,0 +1,136 @@
+package com.plandai.coreservice.security;
+
+import com.plandai.coreservice.repositories.RevokedTokenRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para TokenRevocationService
+ * Valida: la BD solo se consulta en posibles positivos del Bloom filter y las métricas
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TokenRevocationService - Revocación con Bloom filter")
+class TokenRevocationServiceTest {
+
+    private static final Instant NOW = Instant.parse("2025-11-24T10:00:00Z");
+
+    @Mock
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Mock
+    private JwtUtil jwtUtil;
+
+    private SimpleMeterRegistry meterRegistry;
+    private TokenRevocationService service;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        service = new TokenRevocationService(revokedTokenRepository, new VerifiedTokenCache(100), jwtUtil,
+                meterRegistry, 1000, 0.01, Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    private double checks(String result) {
+        return meterRegistry.get("auth.revocation.checks").tag("result", result).counter().count();
+    }
+
+    @Test
+    @DisplayName("Un token no revocado no debe consultar la base de datos")
+    void testIsRevoked_BloomMissSkipsDatabase() {
+        // Act
+        boolean revoked = service.isRevoked("jti:" + UUID.randomUUID());
+
+        // Assert
+        assertFalse(revoked);
+        verifyNoInteractions(revokedTokenRepository);
+        assertEquals(1.0, checks("bloom_miss"));
+    }
+
+    @Test
+    @DisplayName("Debe revocar un token y rechazarlo consultando la base de datos")
+    void testRevoke_ThenIsRevoked() {
+        // Arrange
+        UUID userId = UUID.randomUUID();
+        VerifiedToken verified = new VerifiedToken(userId, "test@plandai.com", "Test User", NOW.plusSeconds(600), "abc");
+        when(jwtUtil.verify("token")).thenReturn(verified);
+        when(revokedTokenRepository.existsByTokenKeyAndExpiresAtAfter(eq("jti:abc"), any())).thenReturn(true);
+
+        // Act
+        service.revoke("token");
+        boolean revoked = service.isRevoked("jti:abc");
+
+        // Assert
+        assertTrue(revoked);
+        verify(revokedTokenRepository).insertIfAbsent("jti:abc", userId,
+                LocalDateTime.ofInstant(NOW.plusSeconds(600), ZoneOffset.UTC));
+        assertEquals(1.0, checks("revoked"));
+        assertEquals(1, meterRegistry.get("auth.revocation.lookup").timer().count());
+    }
+
+    @Test
+    @DisplayName("Un positivo del filtro que no está en la tabla cuenta como falso positivo")
+    void testIsRevoked_FalsePositiveCounted() {
+        // Arrange: la clave está en el filtro pero ya no en la tabla (p.ej. purgada)
+        when(revokedTokenRepository.findActiveTokenKeys(any())).thenReturn(List.of("jti:old"));
+        when(revokedTokenRepository.existsByTokenKeyAndExpiresAtAfter(anyString(), any())).thenReturn(false);
+        service.rebuild();
+
+        // Act
+        boolean revoked = service.isRevoked("jti:old");
+
+        // Assert
+        assertFalse(revoked);
+        assertEquals(1.0, checks("false_positive"));
+        assertEquals(1.0, service.observedFalsePositiveRatio());
+    }
+
+    @Test
+    @DisplayName("La clave usa el jti si existe y el digest del token si no")
+    void testRevocationKey() {
+        VerifiedToken withJti = new VerifiedToken(UUID.randomUUID(), null, null, NOW, "abc");
+        VerifiedToken withoutJti = new VerifiedToken(UUID.randomUUID(), null, null, NOW);
+
+        assertEquals("jti:abc", TokenRevocationService.revocationKey("digest", withJti));
+        assertEquals("sha:digest", TokenRevocationService.revocationKey("digest", withoutJti));
+    }
+
+    @Test
+    @DisplayName("El Bloom filter no debe tener falsos negativos y respetar su tasa de falsos positivos")
+    void testBloomFilter_NoFalseNegatives() {
+        // Arrange
+        RevocationBloomFilter filter = RevocationBloomFilter.create(10000, 0.01);
+        for (int i = 0; i < 10000; i++) {
+            filter.add("jti:revoked-" + i);
+        }
+
+        // Act
+        int falsePositives = 0;
+        for (int i = 0; i < 10000; i++) {
+            assertTrue(filter.mightContain("jti:revoked-" + i), "No puede haber falsos negativos");
+            if (filter.mightContain("jti:valid-" + i)) {
+                falsePositives++;
+            }
+        }
+
+        // Assert: 1% objetivo, margen para la variación aleatoria
+        assertTrue(falsePositives < 200, "Demasiados falsos positivos: " + falsePositives);
+    }
+}
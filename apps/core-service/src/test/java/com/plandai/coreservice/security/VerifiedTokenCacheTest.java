@@ -0,0 +1,184 @@
+package com.plandai.coreservice.security;
+
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitarios para VerifiedTokenCache
+ * Valida: un solo parseo por token, expiración por "exp" y límite de tamaño
+ */
+@DisplayName("VerifiedTokenCache - Caché de tokens verificados")
+class VerifiedTokenCacheTest {
+
+    private final String testSecret = "CAMBIAME_POR_UN_SECRET_SEGURO_DE_AL_MENOS_32_CARACTERES";
+    private final String testIssuer = "PlandIA.AuthService";
+    private final String testAudience = "PlandIA.Clients";
+
+    private JwtUtil jwtUtil;
+    private AtomicInteger verifications;
+    private Function<String, VerifiedToken> countingVerifier;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", testSecret);
+        ReflectionTestUtils.setField(jwtUtil, "issuer", testIssuer);
+        ReflectionTestUtils.setField(jwtUtil, "audience", testAudience);
+
+        verifications = new AtomicInteger();
+        countingVerifier = token -> {
+            verifications.incrementAndGet();
+            return jwtUtil.verify(token);
+        };
+    }
+
+    private String generateTestToken(String userId, long expirationMillis) {
+        SecretKey key = Keys.hmacShaKeyFor(testSecret.getBytes(StandardCharsets.UTF_8));
+        Date now = new Date();
+        return Jwts.builder()
+                .claim("http://schemas.xmlsoap.org/ws/2005/05/identity/claims/nameidentifier", userId)
+                .claim("http://schemas.xmlsoap.org/ws/2005/05/identity/claims/emailaddress", "test@plandai.com")
+                .claim("http://schemas.xmlsoap.org/ws/2005/05/identity/claims/name", "Test User")
+                .issuer(testIssuer)
+                .audience().add(testAudience).and()
+                .issuedAt(now)
+                .expiration(new Date(now.getTime() + expirationMillis))
+                .signWith(key)
+                .compact();
+    }
+
+    @Test
+    @DisplayName("Debe verificar cada token una sola vez aunque se use en muchas peticiones")
+    void testResolve_ParsesOnce() {
+        // Arrange
+        VerifiedTokenCache cache = new VerifiedTokenCache(100);
+        String userId = UUID.randomUUID().toString();
+        String token = generateTestToken(userId, 60000);
+
+        // Act
+        VerifiedToken first = null;
+        for (int i = 0; i < 50; i++) {
+            first = cache.resolve(token, countingVerifier);
+        }
+
+        // Assert
+        assertEquals(1, verifications.get(), "El token solo debe parsearse una vez");
+        assertEquals(UUID.fromString(userId), first.userId());
+        assertEquals("test@plandai.com", first.email());
+        assertEquals("Test User", first.name());
+    }
+
+    @Test
+    @DisplayName("Debe volver a verificar cuando la entrada cacheada ha expirado")
+    void testResolve_ExpiredEntryIsReverified() {
+        // Arrange: el token expira 60 segundos después de "ahora"
+        Instant now = Instant.parse("2025-11-20T10:00:00Z");
+        MutableClock clock = new MutableClock(now);
+        VerifiedTokenCache cache = new VerifiedTokenCache(100, clock);
+        VerifiedToken verified = new VerifiedToken(UUID.randomUUID(), null, null, now.plusSeconds(60));
+        Function<String, VerifiedToken> verifier = token -> {
+            verifications.incrementAndGet();
+            return verified;
+        };
+
+        // Act
+        cache.resolve("token", verifier);
+        cache.resolve("token", verifier);
+        clock.instant = now.plusSeconds(61);
+        cache.resolve("token", verifier);
+
+        // Assert
+        assertEquals(2, verifications.get(), "Tras el exp la entrada no debe reutilizarse");
+        assertEquals(0, cache.size(), "Los tokens expirados no deben quedarse en caché");
+    }
+
+    @Test
+    @DisplayName("No debe cachear tokens inválidos")
+    void testResolve_InvalidTokenNotCached() {
+        // Arrange
+        VerifiedTokenCache cache = new VerifiedTokenCache(100);
+        String token = generateTestToken(UUID.randomUUID().toString(), 60000);
+        String tamperedToken = token.substring(0, token.length() - 5) + "XXXXX";
+
+        // Act & Assert
+        assertThrows(JwtException.class, () -> cache.resolve(tamperedToken, countingVerifier));
+        assertThrows(JwtException.class, () -> cache.resolve(tamperedToken, countingVerifier));
+        assertEquals(2, verifications.get(), "Un token inválido debe rechazarse siempre");
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    @DisplayName("Debe respetar el tamaño máximo de la caché")
+    void testResolve_BoundedSize() {
+        // Arrange
+        VerifiedTokenCache cache = new VerifiedTokenCache(2);
+
+        // Act
+        for (int i = 0; i < 5; i++) {
+            cache.resolve(generateTestToken(UUID.randomUUID().toString(), 60000), countingVerifier);
+        }
+
+        // Assert
+        assertEquals(2, cache.size(), "La caché no debe superar su tamaño máximo");
+        assertEquals(5, verifications.get());
+    }
+
+    @Test
+    @DisplayName("Debe invalidar un token concreto")
+    void testInvalidate() {
+        // Arrange
+        VerifiedTokenCache cache = new VerifiedTokenCache(100);
+        String token = generateTestToken(UUID.randomUUID().toString(), 60000);
+        cache.resolve(token, countingVerifier);
+
+        // Act
+        cache.invalidate(token);
+        cache.resolve(token, countingVerifier);
+
+        // Assert
+        assertEquals(2, verifications.get(), "Tras invalidar, el token debe verificarse de nuevo");
+    }
+
+    /**
+     * Reloj manipulable para simular el paso del tiempo
+     */
+    private static class MutableClock extends Clock {
+        private Instant instant;
+
+        MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
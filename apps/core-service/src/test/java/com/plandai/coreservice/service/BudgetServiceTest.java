@@ -0,0 +1,58 @@
+package com.plandai.coreservice.service;
+
+import com.plandai.coreservice.exception.ResourceNotFoundException;
+import com.plandai.coreservice.repository.BudgetRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para BudgetService
+ * Valida: borrado en una sola llamada al repositorio y 404 si no borró filas
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("BudgetService - Borrado en una sola sentencia")
+class BudgetServiceTest {
+
+    @Mock
+    private BudgetRepository budgetRepository;
+
+    @InjectMocks
+    private BudgetService budgetService;
+
+    @Test
+    @DisplayName("Debe borrar con un único DELETE")
+    void testDeleteBudget_SingleStatement() {
+        // Arrange
+        UUID id = UUID.randomUUID();
+        when(budgetRepository.deleteByIdReturningCount(id)).thenReturn(1);
+
+        // Act
+        budgetService.deleteBudget(id);
+
+        // Assert
+        verify(budgetRepository).deleteByIdReturningCount(id);
+        verifyNoMoreInteractions(budgetRepository);
+    }
+
+    @Test
+    @DisplayName("Debe lanzar 404 si el DELETE no borró filas")
+    void testDeleteBudget_NotFound() {
+        // Arrange
+        UUID id = UUID.randomUUID();
+        when(budgetRepository.deleteByIdReturningCount(id)).thenReturn(0);
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> budgetService.deleteBudget(id));
+        verify(budgetRepository).deleteByIdReturningCount(id);
+        verifyNoMoreInteractions(budgetRepository);
+    }
+}
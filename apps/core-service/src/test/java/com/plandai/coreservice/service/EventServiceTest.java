@@ -0,0 +1,71 @@
+package com.plandai.coreservice.service;
+
+import com.plandai.coreservice.activity.ActivityEntityType;
+import com.plandai.coreservice.activity.ActivityRecorder;
+import com.plandai.coreservice.changes.EventChange;
+import com.plandai.coreservice.exception.ResourceNotFoundException;
+import com.plandai.coreservice.repository.EventRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para EventService
+ * Valida: borrado en una sola llamada al repositorio y 404 si no borró filas
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("EventService - Borrado en una sola sentencia")
+class EventServiceTest {
+
+    @Mock
+    private EventRepository eventRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ActivityRecorder activityRecorder;
+
+    @InjectMocks
+    private EventService eventService;
+
+    @Test
+    @DisplayName("Debe borrar con un único DELETE y publicar el cambio")
+    void testDeleteEvent_SingleStatement() {
+        // Arrange
+        UUID id = UUID.randomUUID();
+        when(eventRepository.deleteByIdReturningCount(id)).thenReturn(1);
+
+        // Act
+        eventService.deleteEvent(id);
+
+        // Assert
+        verify(eventRepository).deleteByIdReturningCount(id);
+        verifyNoMoreInteractions(eventRepository);
+        verify(eventPublisher).publishEvent(EventChange.deleted(id));
+        verify(activityRecorder).deleted(ActivityEntityType.EVENT, id, null, null);
+    }
+
+    @Test
+    @DisplayName("Debe lanzar 404 si el DELETE no borró filas, sin publicar nada")
+    void testDeleteEvent_NotFound() {
+        // Arrange
+        UUID id = UUID.randomUUID();
+        when(eventRepository.deleteByIdReturningCount(id)).thenReturn(0);
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> eventService.deleteEvent(id));
+        verify(eventRepository).deleteByIdReturningCount(id);
+        verifyNoMoreInteractions(eventRepository);
+        verifyNoInteractions(eventPublisher, activityRecorder);
+    }
+}
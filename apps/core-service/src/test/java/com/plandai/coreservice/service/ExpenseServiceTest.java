@@ -0,0 +1,68 @@
+package com.plandai.coreservice.service;
+
+import com.plandai.coreservice.activity.ActivityEntityType;
+import com.plandai.coreservice.activity.ActivityRecorder;
+import com.plandai.coreservice.exception.ResourceNotFoundException;
+import com.plandai.coreservice.repository.ExpenseRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para ExpenseService
+ * Valida: borrado en una sola llamada al repositorio y 404 si no borró filas
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ExpenseService - Borrado en una sola sentencia")
+class ExpenseServiceTest {
+
+    @Mock
+    private ExpenseRepository expenseRepository;
+
+    @Mock
+    private ExpenseCategoryService expenseCategoryService;
+
+    @Mock
+    private ActivityRecorder activityRecorder;
+
+    @InjectMocks
+    private ExpenseService expenseService;
+
+    @Test
+    @DisplayName("Debe borrar con un único DELETE y registrar la actividad")
+    void testDeleteExpense_SingleStatement() {
+        // Arrange
+        UUID id = UUID.randomUUID();
+        when(expenseRepository.deleteByIdReturningCount(id)).thenReturn(1);
+
+        // Act
+        expenseService.deleteExpense(id);
+
+        // Assert
+        verify(expenseRepository).deleteByIdReturningCount(id);
+        verifyNoMoreInteractions(expenseRepository);
+        verify(activityRecorder).deleted(ActivityEntityType.EXPENSE, id, null, null);
+    }
+
+    @Test
+    @DisplayName("Debe lanzar 404 si el DELETE no borró filas, sin registrar actividad")
+    void testDeleteExpense_NotFound() {
+        // Arrange
+        UUID id = UUID.randomUUID();
+        when(expenseRepository.deleteByIdReturningCount(id)).thenReturn(0);
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> expenseService.deleteExpense(id));
+        verify(expenseRepository).deleteByIdReturningCount(id);
+        verifyNoMoreInteractions(expenseRepository);
+        verifyNoInteractions(activityRecorder);
+    }
+}
@@ -0,0 +1,58 @@
+package com.plandai.coreservice.service;
+
+import com.plandai.coreservice.exception.ResourceNotFoundException;
+import com.plandai.coreservice.repository.MealPlanRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para MealPlanService
+ * Valida: borrado en una sola llamada al repositorio y 404 si no borró filas
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("MealPlanService - Borrado en una sola sentencia")
+class MealPlanServiceTest {
+
+    @Mock
+    private MealPlanRepository mealPlanRepository;
+
+    @InjectMocks
+    private MealPlanService mealPlanService;
+
+    @Test
+    @DisplayName("Debe borrar con un único DELETE")
+    void testDeleteMealPlan_SingleStatement() {
+        // Arrange
+        UUID id = UUID.randomUUID();
+        when(mealPlanRepository.deleteByIdReturningCount(id)).thenReturn(1);
+
+        // Act
+        mealPlanService.deleteMealPlan(id);
+
+        // Assert
+        verify(mealPlanRepository).deleteByIdReturningCount(id);
+        verifyNoMoreInteractions(mealPlanRepository);
+    }
+
+    @Test
+    @DisplayName("Debe lanzar 404 si el DELETE no borró filas")
+    void testDeleteMealPlan_NotFound() {
+        // Arrange
+        UUID id = UUID.randomUUID();
+        when(mealPlanRepository.deleteByIdReturningCount(id)).thenReturn(0);
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> mealPlanService.deleteMealPlan(id));
+        verify(mealPlanRepository).deleteByIdReturningCount(id);
+        verifyNoMoreInteractions(mealPlanRepository);
+    }
+}
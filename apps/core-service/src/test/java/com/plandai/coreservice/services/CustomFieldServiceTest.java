@@ -0,0 +1,150 @@
+package com.plandai.coreservice.services;
+
+import com.plandai.coreservice.customfields.CustomFieldQuery;
+import com.plandai.coreservice.dto.TaskFilterDto;
+import com.plandai.coreservice.entities.CustomFieldDefinition;
+import com.plandai.coreservice.entities.CustomFieldDefinition.FieldType;
+import com.plandai.coreservice.repositories.CustomFieldDefinitionRepository;
+import com.plandai.coreservice.repositories.ProjectRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para CustomFieldService
+ * Valida: validación de valores contra las definiciones y traducción de filtros a jsonpath
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CustomFieldService - Campos personalizados")
+class CustomFieldServiceTest {
+
+    @Mock
+    private CustomFieldDefinitionRepository definitionRepository;
+
+    @Mock
+    private ProjectRepository projectRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private CustomFieldService service;
+    private final UUID projectId = UUID.randomUUID();
+
+    private CustomFieldDefinition definition(String key, FieldType type, List<String> options) {
+        return new CustomFieldDefinition(UUID.randomUUID(), projectId, key, key, type, options, LocalDateTime.now());
+    }
+
+    @BeforeEach
+    void setUp() {
+        service = new CustomFieldService(definitionRepository, projectRepository, jdbcTemplate, 50);
+        lenient().when(definitionRepository.findByProjectIdOrderByKeyAsc(projectId)).thenReturn(List.of(
+                definition("billable", FieldType.BOOLEAN, null),
+                definition("client", FieldType.SELECT, List.of("ACME", "Globex")),
+                definition("deadline", FieldType.DATE, null),
+                definition("notes", FieldType.TEXT, null),
+                definition("points", FieldType.NUMBER, null)));
+    }
+
+    @Test
+    @DisplayName("Los valores se guardan en forma canónica y los null se ignoran al crear")
+    void testValidateValues_Normalizes() {
+        // Arrange
+        Map<String, Object> values = new HashMap<>();
+        values.put("points", 5);
+        values.put("client", "ACME");
+        values.put("deadline", "2025-12-31");
+        values.put("billable", true);
+        values.put("notes", null);
+
+        // Act
+        Map<String, Object> normalized = service.validateValues(projectId, values);
+
+        // Assert
+        assertEquals(Map.of("points", new BigDecimal("5"), "client", "ACME", "deadline", "2025-12-31",
+                "billable", true), normalized);
+    }
+
+    @Test
+    @DisplayName("Claves no definidas o valores de otro tipo se rechazan con IllegalArgumentException")
+    void testValidateValues_Rejects() {
+        List<Map<String, Object>> invalid = List.of(
+                Map.of("sprint", "S1"),
+                Map.of("points", "cinco"),
+                Map.of("client", "Initech"),
+                Map.of("deadline", "31/12/2025"),
+                Map.of("billable", "yes"),
+                Map.of("notes", "x".repeat(501)));
+        for (Map<String, Object> values : invalid) {
+            assertThrows(IllegalArgumentException.class, () -> service.validateValues(projectId, values),
+                    values.toString());
+        }
+    }
+
+    @Test
+    @DisplayName("Un cambio parcial separa las claves a poner de las que se quitan")
+    void testValidatePatch() {
+        // Arrange: quitar una clave no exige que siga definida
+        Map<String, Object> patch = new HashMap<>();
+        patch.put("points", 8.5);
+        patch.put("sprint", null);
+
+        // Act
+        CustomFieldService.ValuesPatch result = service.validatePatch(projectId, patch);
+
+        // Assert
+        assertEquals("{\"points\":8.5}", result.setJson());
+        assertEquals("[\"sprint\"]", result.removeJson());
+    }
+
+    @Test
+    @DisplayName("Los filtros se traducen a jsonpath con literales escapados y el orden por número")
+    void testQuery_JsonPath() {
+        // Arrange
+        TaskFilterDto filter = new TaskFilterDto();
+        filter.setProjectId(projectId);
+        filter.setCf(List.of("points:gte:5", "deadline:LT:2026-01-01", "notes:eq:dijo \"hola\"", "billable:ne:false"));
+        filter.setCfSort("points:desc");
+
+        // Act
+        CustomFieldQuery query = service.query(filter);
+
+        // Assert
+        assertEquals(List.of("$.points >= 5", "$.deadline < \"2026-01-01\"", "$.notes == \"dijo \\\"hola\\\"\"",
+                "$.billable != false"), query.jsonPaths());
+        assertEquals("points", query.sortKey());
+        assertTrue(query.sortNumeric());
+        assertTrue(query.sortDescending());
+    }
+
+    @Test
+    @DisplayName("Sin projectId, con operadores de rango en texto o con formato inválido el filtro falla")
+    void testQuery_Rejects() {
+        TaskFilterDto noProject = new TaskFilterDto();
+        noProject.setCf(List.of("points:eq:1"));
+        assertThrows(IllegalArgumentException.class, () -> service.query(noProject));
+
+        for (String cf : List.of("client:gt:ACME", "points", "points:like:5", "sprint:eq:S1")) {
+            TaskFilterDto filter = new TaskFilterDto();
+            filter.setProjectId(projectId);
+            filter.setCf(List.of(cf));
+            assertThrows(IllegalArgumentException.class, () -> service.query(filter), cf);
+        }
+
+        assertNull(service.query(new TaskFilterDto()));
+        verifyNoInteractions(jdbcTemplate);
+    }
+}
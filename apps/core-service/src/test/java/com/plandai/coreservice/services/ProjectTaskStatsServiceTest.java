@@ -0,0 +1,103 @@
+package com.plandai.coreservice.services;
+
+import com.plandai.coreservice.entities.ProjectTaskStats;
+import com.plandai.coreservice.exception.ResourceNotFoundException;
+import com.plandai.coreservice.repositories.ProjectRepository;
+import com.plandai.coreservice.repositories.ProjectTaskStatsRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para ProjectTaskStatsService
+ * Valida: lectura sin COUNT(*), proyectos sin fila y reconciliación por lotes
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ProjectTaskStatsService - Estadísticas de tareas por proyecto")
+class ProjectTaskStatsServiceTest {
+
+    @Mock
+    private ProjectTaskStatsRepository statsRepository;
+
+    @Mock
+    private ProjectRepository projectRepository;
+
+    @Mock
+    private NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ProjectTaskStatsService service;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        when(namedJdbcTemplate.getJdbcTemplate()).thenReturn(jdbcTemplate);
+        service = new ProjectTaskStatsService(statsRepository, projectRepository, namedJdbcTemplate,
+                transactionTemplate, meterRegistry, 2);
+    }
+
+    @Test
+    @DisplayName("Debe devolver estadísticas vacías para un proyecto sin tareas y 404 si no existe")
+    void testGetStats_MissingRow() {
+        // Arrange
+        UUID existing = UUID.randomUUID();
+        UUID missing = UUID.randomUUID();
+        when(statsRepository.findById(any())).thenReturn(Optional.empty());
+        when(projectRepository.existsById(existing)).thenReturn(true);
+        when(projectRepository.existsById(missing)).thenReturn(false);
+
+        // Act
+        ProjectTaskStats stats = service.getStats(existing);
+
+        // Assert
+        assertEquals(existing, stats.getProjectId());
+        assertEquals(0, stats.getTotalCount());
+        assertThrows(ResourceNotFoundException.class, () -> service.getStats(missing));
+    }
+
+    @Test
+    @DisplayName("Debe reconciliar por lotes y contar los proyectos corregidos")
+    @SuppressWarnings("unchecked")
+    void testReconcile_RepairsDriftInBatches() {
+        // Arrange: 3 proyectos con lotes de 2 → 2 transacciones; uno tenía deriva
+        List<UUID> projects = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+        when(jdbcTemplate.queryForList(anyString(), eq(UUID.class))).thenReturn(projects);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                ((TransactionCallback<Integer>) invocation.getArgument(0)).doInTransaction(null));
+        when(namedJdbcTemplate.queryForList(contains("FOR UPDATE"), anyMap(), eq(UUID.class)))
+                .thenAnswer(invocation -> ((Map<String, List<UUID>>) invocation.getArgument(1)).get("ids"));
+        when(namedJdbcTemplate.queryForList(contains("IS DISTINCT FROM"), anyMap(), eq(UUID.class)))
+                .thenReturn(List.of(projects.get(0)), List.of());
+
+        // Act
+        int repaired = service.reconcile();
+
+        // Assert
+        assertEquals(1, repaired);
+        verify(transactionTemplate, times(2)).execute(any());
+        assertEquals(1.0, meterRegistry.counter("project.stats.drift_repaired").count());
+    }
+}
@@ -0,0 +1,117 @@
+package com.plandai.coreservice.services;
+
+import com.plandai.coreservice.entities.SavedView;
+import com.plandai.coreservice.repositories.SavedViewRepository;
+import com.plandai.coreservice.repositories.TaskRepository;
+import com.plandai.coreservice.views.ViewFilter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaQuery;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para SavedViewService
+ * Valida: una sola carga por vista aunque lleguen varias consultas mientras se calcula
+ */
+@DisplayName("SavedViewService - Carga compartida de vistas")
+class SavedViewServiceTest {
+
+    private final UUID userId = UUID.randomUUID();
+    private final SavedViewRepository savedViewRepository = mock(SavedViewRepository.class);
+    private final EntityManager entityManager = mock(EntityManager.class, RETURNS_DEEP_STUBS);
+    @SuppressWarnings("unchecked")
+    private final TypedQuery<Tuple> query = mock(TypedQuery.class);
+
+    private SavedView view;
+    private SavedViewService service;
+
+    @BeforeEach
+    void setUp() {
+        view = new SavedView();
+        view.setId(UUID.randomUUID());
+        view.setUserId(userId);
+        view.setName("Proyecto");
+        view.setFilter(new ViewFilter(null, UUID.randomUUID(), null, null, null, null, null, false, null));
+        when(savedViewRepository.findByIdAndUserId(view.getId(), userId)).thenReturn(Optional.of(view));
+        when(entityManager.createQuery(any(CriteriaQuery.class))).thenReturn(query);
+        when(query.setMaxResults(anyInt())).thenReturn(query);
+
+        Clock clock = Clock.fixed(Instant.parse("2025-12-11T09:00:00Z"), ZoneOffset.UTC);
+        service = new SavedViewService(savedViewRepository, mock(TaskRepository.class), entityManager,
+                mock(JdbcTemplate.class), clock, Duration.ofMinutes(30), 1000, 10);
+    }
+
+    @Test
+    @DisplayName("Una consulta que llega durante la carga debe esperar a ella en lugar de lanzar otra")
+    void testCountTasks_SharesLoadInProgress() throws Exception {
+        // Arrange
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(query.getResultList()).thenAnswer(invocation -> {
+            loading.countDown();
+            assertTrue(release.await(5, TimeUnit.SECONDS));
+            return List.of();
+        });
+
+        // Act
+        CompletableFuture<Integer> first = CompletableFuture.supplyAsync(() -> service.countTasks(userId, view.getId()));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Integer> second = CompletableFuture.supplyAsync(() -> service.countTasks(userId, view.getId()));
+        Thread.sleep(100);
+        assertFalse(second.isDone(), "la segunda consulta espera a la carga en curso");
+        release.countDown();
+
+        // Assert
+        assertEquals(0, first.get(5, TimeUnit.SECONDS));
+        assertEquals(0, second.get(5, TimeUnit.SECONDS));
+        verify(query, times(1)).getResultList();
+    }
+
+    @Test
+    @DisplayName("Si la carga compartida falla, quien esperaba recibe el mismo error y la siguiente consulta recalcula")
+    void testCountTasks_SharedLoadFailure() throws Exception {
+        // Arrange
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(query.getResultList()).thenAnswer(invocation -> {
+            loading.countDown();
+            assertTrue(release.await(5, TimeUnit.SECONDS));
+            throw new IllegalStateException("conexión perdida");
+        }).thenReturn(List.of());
+
+        // Act
+        CompletableFuture<Integer> first = CompletableFuture.supplyAsync(() -> service.countTasks(userId, view.getId()));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Integer> second = CompletableFuture.supplyAsync(() -> service.countTasks(userId, view.getId()));
+        Thread.sleep(100);
+        release.countDown();
+
+        // Assert
+        Exception firstError = assertThrows(Exception.class, () -> first.get(5, TimeUnit.SECONDS));
+        Exception secondError = assertThrows(Exception.class, () -> second.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, firstError.getCause());
+        assertInstanceOf(IllegalStateException.class, secondError.getCause());
+        assertEquals(0, service.countTasks(userId, view.getId()));
+        verify(query, times(2)).getResultList();
+    }
+}
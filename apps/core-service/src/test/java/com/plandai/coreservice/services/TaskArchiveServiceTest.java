@@ -0,0 +1,155 @@
+package com.plandai.coreservice.services;
+
+import com.plandai.coreservice.activity.ActivityRecorder;
+import com.plandai.coreservice.changes.TaskChange;
+import com.plandai.coreservice.entities.Project;
+import com.plandai.coreservice.entities.Task;
+import com.plandai.coreservice.exception.ResourceNotFoundException;
+import com.plandai.coreservice.repositories.TaskRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para TaskArchiveService
+ * Valida: archivado por lotes con tope por ejecución y restauración de tareas con sus dependencias
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TaskArchiveService - Archivo de tareas completadas")
+class TaskArchiveServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ActivityRecorder activityRecorder;
+
+    @Mock
+    private TaskDependencyService taskDependencyService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private TaskArchiveService service;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        Clock clock = Clock.fixed(Instant.parse("2025-12-06T03:10:00Z"), ZoneOffset.UTC);
+        service = new TaskArchiveService(jdbcTemplate, transactionTemplate, taskRepository, eventPublisher,
+                activityRecorder, taskDependencyService, meterRegistry, clock, Duration.ofDays(90), 2, 0, 3);
+    }
+
+    private static List<UUID[]> rows(int count) {
+        return java.util.stream.IntStream.range(0, count)
+                .mapToObj(i -> new UUID[]{UUID.randomUUID(), UUID.randomUUID()})
+                .toList();
+    }
+
+    @Test
+    @DisplayName("Debe archivar por lotes hasta un lote incompleto, con la fecha de corte de min-age")
+    void testArchiveCompleted_StopsOnShortChunk() {
+        // Arrange
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<Integer>>getArgument(0).doInTransaction(null));
+        List<UUID[]> first = rows(2);
+        List<UUID[]> second = rows(1);
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(Timestamp.class), eq(2)))
+                .thenReturn((List) first, (List) second);
+
+        // Act
+        int archived = service.archiveCompleted();
+
+        // Assert
+        assertEquals(3, archived);
+        verify(jdbcTemplate, times(2)).query(anyString(), any(RowMapper.class),
+                eq(Timestamp.valueOf(LocalDateTime.of(2025, 9, 7, 3, 10))), eq(2));
+        verify(jdbcTemplate, times(2)).queryForObject(contains("plandai.task_archival"), eq(String.class));
+        verify(eventPublisher).publishEvent(TaskChange.deleted(first.get(0)[0]));
+        verify(eventPublisher).publishEvent(TaskChange.deleted(second.get(0)[0]));
+        verify(activityRecorder, times(3)).updated(any(), any(), isNull(), any(), any());
+        assertEquals(3.0, meterRegistry.counter("tasks.archived").count());
+    }
+
+    @Test
+    @DisplayName("Debe respetar max-chunks aunque queden candidatas")
+    void testArchiveCompleted_MaxChunks() {
+        // Arrange
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<Integer>>getArgument(0).doInTransaction(null));
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(Timestamp.class), eq(2)))
+                .thenAnswer(invocation -> rows(2));
+
+        // Act & Assert
+        assertEquals(6, service.archiveCompleted());
+        verify(transactionTemplate, times(3)).execute(any());
+    }
+
+    @Test
+    @DisplayName("Debe lanzar 404 al restaurar una tarea que no está archivada")
+    void testRestoreTask_NotArchived() {
+        // Arrange
+        UUID id = UUID.randomUUID();
+        when(jdbcTemplate.queryForList(anyString(), eq(UUID.class), eq(id))).thenReturn(List.of());
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> service.restoreTask(id));
+        verifyNoInteractions(taskRepository, eventPublisher, activityRecorder, taskDependencyService);
+    }
+
+    @Test
+    @DisplayName("Debe restaurar sin volver a contar la tarea y devolver sus dependencias")
+    void testRestoreTask_RestoresDependencies() {
+        // Arrange
+        UUID id = UUID.randomUUID();
+        Project project = new Project();
+        project.setId(UUID.randomUUID());
+        Task restored = new Task();
+        restored.setId(id);
+        restored.setProject(project);
+        when(jdbcTemplate.queryForList(anyString(), eq(UUID.class), eq(id))).thenReturn(List.of(id));
+        when(taskRepository.findById(id)).thenReturn(Optional.of(restored));
+
+        // Act
+        assertSame(restored, service.restoreTask(id));
+
+        // Assert
+        InOrder inOrder = inOrder(jdbcTemplate, taskDependencyService);
+        inOrder.verify(jdbcTemplate).queryForObject(contains("'on'"), eq(String.class));
+        inOrder.verify(jdbcTemplate).queryForList(contains("INSERT INTO core_schema.tasks"), eq(UUID.class), eq(id));
+        inOrder.verify(jdbcTemplate).queryForObject(contains("''"), eq(String.class));
+        inOrder.verify(taskDependencyService).restoreArchived(id);
+        verify(eventPublisher).publishEvent(TaskChange.saved(restored));
+    }
+}
@@ -0,0 +1,119 @@
+package com.plandai.coreservice.services;
+
+import com.plandai.coreservice.dto.BoardColumnDto;
+import com.plandai.coreservice.dto.TaskBoardDto;
+import com.plandai.coreservice.dto.TaskCardDto;
+import com.plandai.coreservice.dto.UserSummaryDto;
+import com.plandai.coreservice.entities.Task;
+import com.plandai.coreservice.exception.ResourceNotFoundException;
+import com.plandai.coreservice.pagination.Cursor;
+import com.plandai.coreservice.pagination.CursorPage;
+import com.plandai.coreservice.repositories.ProjectRepository;
+import com.plandai.coreservice.repositories.TaskRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para TaskBoardService
+ * Valida: agrupación por estado, totales por columna y cursor independiente por columna
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TaskBoardService - Tablero Kanban")
+class TaskBoardServiceTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private ProjectRepository projectRepository;
+
+    @Mock
+    private UserDirectoryService userDirectoryService;
+
+    @InjectMocks
+    private TaskBoardService taskBoardService;
+
+    private final UUID projectId = UUID.randomUUID();
+    private Object[] row(UUID id, String status, UUID assignedTo, int position, long total) {
+        return new Object[]{id, "Tarea " + position, "HIGH", Date.valueOf(LocalDate.of(2025, 12, 1)),
+                assignedTo, status, "V" + (position + 1), total};
+    }
+
+    @Test
+    @DisplayName("Debe construir una columna por estado con total, tarjetas y cursor")
+    void testGetBoard_GroupsByStatus() {
+        // Arrange: 3 tareas TO_DO (se devuelven 2) y 1 DONE
+        UUID userId = UUID.randomUUID();
+        UUID secondTodo = UUID.randomUUID();
+        when(taskRepository.findBoard(projectId, 2)).thenReturn(List.of(
+                row(UUID.randomUUID(), "DONE", null, 0, 1),
+                row(UUID.randomUUID(), "TO_DO", userId, 1, 3),
+                row(secondTodo, "TO_DO", null, 2, 3)));
+        UserSummaryDto user = new UserSummaryDto(userId, "ana@plandai.com", "Ana");
+        when(userDirectoryService.lookup(anyCollection())).thenReturn(Map.of(userId, user));
+
+        // Act
+        TaskBoardDto board = taskBoardService.getBoard(projectId, 2);
+
+        // Assert
+        assertEquals(Task.TaskStatus.values().length, board.columns().size(), "Una columna por estado");
+        BoardColumnDto todo = board.columns().get(Task.TaskStatus.TO_DO.ordinal());
+        assertEquals(3, todo.count());
+        assertEquals(2, todo.cards().size());
+        assertEquals(user, todo.cards().get(0).assignee());
+        assertEquals(secondTodo, Cursor.decode(todo.next()).id(), "El cursor apunta a la última tarjeta");
+
+        BoardColumnDto inProgress = board.columns().get(Task.TaskStatus.IN_PROGRESS.ordinal());
+        assertEquals(0, inProgress.count());
+        assertNull(inProgress.next());
+
+        BoardColumnDto done = board.columns().get(Task.TaskStatus.DONE.ordinal());
+        assertEquals(1, done.count());
+        assertNull(done.next(), "Columna completa: sin cursor");
+        verifyNoInteractions(projectRepository);
+    }
+
+    @Test
+    @DisplayName("Debe continuar una columna desde su cursor")
+    void testGetColumnPage_ContinuesFromCursor() {
+        // Arrange
+        UUID lastSeen = UUID.randomUUID();
+        String cursor = new Cursor("V1", lastSeen).encode();
+        when(taskRepository.findBoardColumnAfter(projectId, "TO_DO", "V1", lastSeen, 3))
+                .thenReturn(List.<Object[]>of(row(UUID.randomUUID(), "TO_DO", null, 1, 0)));
+        when(userDirectoryService.lookup(anyCollection())).thenReturn(Map.of());
+
+        // Act
+        CursorPage<TaskCardDto> page = taskBoardService.getColumnPage(projectId, Task.TaskStatus.TO_DO, cursor, 2);
+
+        // Assert
+        assertEquals(1, page.items().size());
+        assertNull(page.next(), "Última página de la columna");
+    }
+
+    @Test
+    @DisplayName("Debe lanzar 404 si el proyecto no existe")
+    void testGetBoard_ProjectNotFound() {
+        // Arrange
+        when(taskRepository.findBoard(any(), anyInt())).thenReturn(List.of());
+        when(projectRepository.existsById(projectId)).thenReturn(false);
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> taskBoardService.getBoard(projectId, null));
+    }
+}
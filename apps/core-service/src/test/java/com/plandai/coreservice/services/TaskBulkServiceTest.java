@@ -0,0 +1,380 @@
+package com.plandai.coreservice.services;
+
+import com.plandai.coreservice.activity.ActivityEntityType;
+import com.plandai.coreservice.activity.ActivityRecorder;
+import com.plandai.coreservice.changes.TaskChange;
+import com.plandai.coreservice.dto.TaskBulkRequestDto;
+import com.plandai.coreservice.dto.TaskBulkRequestDto.Operation;
+import com.plandai.coreservice.dto.TaskBulkRequestDto.OperationType;
+import com.plandai.coreservice.dto.TaskBulkResultDto;
+import com.plandai.coreservice.entities.CustomFieldDefinition;
+import com.plandai.coreservice.entities.Project;
+import com.plandai.coreservice.entities.Task;
+import com.plandai.coreservice.repositories.ProjectRepository;
+import com.plandai.coreservice.repositories.TaskRepository;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para TaskBulkService
+ * Valida: una consulta por tipo de entidad, resultados por elemento, escrituras agrupadas,
+ * borrado de subárboles, altas de subtareas y campos personalizados
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TaskBulkService - Operaciones masivas de tareas")
+class TaskBulkServiceTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private ProjectRepository projectRepository;
+
+    @Mock
+    private TaskRankService taskRankService;
+
+    @Mock
+    private TaskHierarchyService taskHierarchyService;
+
+    @Mock
+    private CustomFieldService customFieldService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ActivityRecorder activityRecorder;
+
+    private TaskBulkService taskBulkService;
+    private Project project;
+    private Task existingTask;
+
+    @BeforeEach
+    void setUp() {
+        Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+        taskBulkService = new TaskBulkService(taskRepository, projectRepository, validator, taskRankService,
+                taskHierarchyService, customFieldService, eventPublisher, activityRecorder);
+
+        project = new Project();
+        project.setId(UUID.randomUUID());
+        project.setName("Proyecto");
+
+        existingTask = new Task();
+        existingTask.setId(UUID.randomUUID());
+        existingTask.setTitle("Tarea existente");
+        existingTask.setProject(project);
+    }
+
+    private Operation create(UUID projectId, String title) {
+        Task task = new Task();
+        task.setTitle(title);
+        Operation operation = new Operation();
+        operation.setType(OperationType.CREATE);
+        operation.setProjectId(projectId);
+        operation.setTask(task);
+        return operation;
+    }
+
+    private Operation onTask(OperationType type, UUID taskId) {
+        Operation operation = new Operation();
+        operation.setType(type);
+        operation.setTaskId(taskId);
+        return operation;
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    @DisplayName("Debe cargar cada proyecto y tarea una sola vez y devolver resultados por elemento")
+    void testExecute_MixedOperations() {
+        // Arrange
+        UUID missingProject = UUID.randomUUID();
+        UUID missingTask = UUID.randomUUID();
+        when(projectRepository.findAllById(any())).thenReturn(List.of(project));
+        when(taskRepository.findAllById(any())).thenReturn(List.of(existingTask));
+
+        Operation updateStatus = onTask(OperationType.UPDATE_STATUS, existingTask.getId());
+        updateStatus.setStatus(Task.TaskStatus.DONE);
+
+        List<Operation> operations = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            operations.add(create(project.getId(), "Tarea importada " + i));
+        }
+        operations.add(create(missingProject, "Sin proyecto"));
+        operations.add(create(project.getId(), "x"));
+        operations.add(updateStatus);
+        operations.add(onTask(OperationType.DELETE, missingTask));
+
+        TaskBulkRequestDto request = new TaskBulkRequestDto();
+        request.setOperations(operations);
+
+        // Act
+        TaskBulkResultDto result = taskBulkService.execute(request);
+
+        // Assert
+        assertEquals(4, result.getSucceeded());
+        assertEquals(3, result.getFailed());
+        assertEquals("Proyecto no encontrado", result.getResults().get(3).getError());
+        assertFalse(result.getResults().get(4).isSuccess(), "El título demasiado corto debe fallar");
+        assertEquals("Tarea no encontrada", result.getResults().get(6).getError());
+        assertEquals(Task.TaskStatus.DONE, existingTask.getStatus());
+
+        ArgumentCaptor<Iterable<UUID>> projectIds = ArgumentCaptor.forClass(Iterable.class);
+        verify(projectRepository, times(1)).findAllById(projectIds.capture());
+        assertEquals(Set.of(project.getId(), missingProject), Set.copyOf((Collection<UUID>) projectIds.getValue()));
+        verify(taskRepository, times(1)).findAllById(any());
+
+        ArgumentCaptor<List<Task>> created = ArgumentCaptor.forClass(List.class);
+        verify(taskRepository).saveAll(created.capture());
+        assertEquals(3, created.getValue().size());
+        assertTrue(created.getValue().stream().allMatch(t -> t.getProject() == project
+                && t.getStatus() == Task.TaskStatus.TO_DO && t.getPriority() == Task.TaskPriority.MEDIUM));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    @DisplayName("Las tareas que cambian de columna pasan al final de la nueva, antes que las altas")
+    void testExecute_ColumnChangeAppendsRank() {
+        // Arrange: una tarea cambia de estado y otra vuelve a su columna original
+        existingTask.setStatus(Task.TaskStatus.TO_DO);
+        Task roundTrip = new Task();
+        roundTrip.setId(UUID.randomUUID());
+        roundTrip.setProject(project);
+        roundTrip.setStatus(Task.TaskStatus.TO_DO);
+        when(projectRepository.findAllById(any())).thenReturn(List.of(project));
+        when(taskRepository.findAllById(any())).thenReturn(List.of(existingTask, roundTrip));
+
+        Operation done = onTask(OperationType.UPDATE_STATUS, existingTask.getId());
+        done.setStatus(Task.TaskStatus.DONE);
+        Operation away = onTask(OperationType.UPDATE_STATUS, roundTrip.getId());
+        away.setStatus(Task.TaskStatus.IN_PROGRESS);
+        Operation back = onTask(OperationType.UPDATE_STATUS, roundTrip.getId());
+        back.setStatus(Task.TaskStatus.TO_DO);
+        Operation created = create(project.getId(), "Tarea nueva");
+        TaskBulkRequestDto request = new TaskBulkRequestDto();
+        request.setOperations(List.of(created, done, away, back));
+
+        // Act
+        taskBulkService.execute(request);
+
+        // Assert
+        ArgumentCaptor<Collection<Task>> ranked = ArgumentCaptor.forClass(Collection.class);
+        verify(taskRankService).appendRanks(ranked.capture());
+        assertEquals(List.of(existingTask, created.getTask()), List.copyOf(ranked.getValue()));
+    }
+
+    @Test
+    @DisplayName("MOVE rechaza por elemento las tareas con campos que el proyecto destino no define igual")
+    void testExecute_MoveValidatesCustomFields() {
+        // Arrange: "points" es NUMBER en origen y en "same", TEXT en "retyped" y no existe en "bare"
+        Project same = new Project();
+        same.setId(UUID.randomUUID());
+        Project retyped = new Project();
+        retyped.setId(UUID.randomUUID());
+        Project bare = new Project();
+        bare.setId(UUID.randomUUID());
+        existingTask.setCustomFields(new HashMap<>(Map.of("points", new BigDecimal("5"))));
+        when(projectRepository.findAllById(any())).thenReturn(List.of(same, retyped, bare));
+        when(taskRepository.findAllById(any())).thenReturn(List.of(existingTask));
+        when(customFieldService.definitionsByProject(Set.of(project.getId(), same.getId(), retyped.getId(),
+                bare.getId()))).thenReturn(Map.of(
+                project.getId(), Map.of("points", points(project, CustomFieldDefinition.FieldType.NUMBER)),
+                same.getId(), Map.of("points", points(same, CustomFieldDefinition.FieldType.NUMBER)),
+                retyped.getId(), Map.of("points", points(retyped, CustomFieldDefinition.FieldType.TEXT))));
+
+        TaskBulkRequestDto request = new TaskBulkRequestDto();
+        request.setOperations(List.of(move(bare), move(retyped), move(same)));
+
+        // Act
+        TaskBulkResultDto result = taskBulkService.execute(request);
+
+        // Assert
+        assertEquals(1, result.getSucceeded());
+        assertFalse(result.getResults().get(0).isSuccess());
+        assertFalse(result.getResults().get(1).isSuccess());
+        assertSame(same, existingTask.getProject());
+    }
+
+    private Operation move(Project target) {
+        Operation operation = onTask(OperationType.MOVE, existingTask.getId());
+        operation.setProjectId(target.getId());
+        return operation;
+    }
+
+    private static CustomFieldDefinition points(Project project, CustomFieldDefinition.FieldType type) {
+        return new CustomFieldDefinition(UUID.randomUUID(), project.getId(), "points", "Puntos", type, null,
+                LocalDateTime.now());
+    }
+
+    @Test
+    @DisplayName("No debe operar sobre una tarea ya eliminada en la misma petición")
+    void testExecute_OperationAfterDelete() {
+        // Arrange
+        when(projectRepository.findAllById(any())).thenReturn(List.of());
+        when(taskRepository.findAllById(any())).thenReturn(List.of(existingTask));
+
+        Operation reassign = onTask(OperationType.REASSIGN, existingTask.getId());
+        reassign.setAssignedTo(UUID.randomUUID());
+        TaskBulkRequestDto request = new TaskBulkRequestDto();
+        request.setOperations(List.of(onTask(OperationType.DELETE, existingTask.getId()), reassign));
+        when(taskRepository.findSubtreeIds(Set.of(existingTask.getId())))
+                .thenReturn(List.<Object[]>of(new Object[]{existingTask.getId(), existingTask.getId()}));
+        when(taskRepository.deleteSubtreesReturningIds(Set.of(existingTask.getId())))
+                .thenReturn(List.of(existingTask.getId()));
+
+        // Act
+        TaskBulkResultDto result = taskBulkService.execute(request);
+
+        // Assert
+        assertTrue(result.getResults().get(0).isSuccess());
+        assertFalse(result.getResults().get(1).isSuccess());
+        verify(taskRepository).deleteSubtreesReturningIds(Set.of(existingTask.getId()));
+    }
+
+    @Test
+    @DisplayName("DELETE borra el subárbol y publica un cambio y una actividad por cada tarea borrada")
+    void testExecute_DeleteSubtree() {
+        // Arrange: la subtarea borrada con su padre ya no admite operaciones
+        UUID subtask = UUID.randomUUID();
+        when(projectRepository.findAllById(any())).thenReturn(List.of());
+        when(taskRepository.findAllById(any())).thenReturn(List.of(existingTask));
+        when(taskRepository.findSubtreeIds(Set.of(existingTask.getId()))).thenReturn(List.of(
+                new Object[]{existingTask.getId(), existingTask.getId()}, new Object[]{existingTask.getId(), subtask}));
+        when(taskRepository.deleteSubtreesReturningIds(Set.of(existingTask.getId())))
+                .thenReturn(List.of(existingTask.getId(), subtask));
+
+        Operation updateSubtask = onTask(OperationType.UPDATE_STATUS, subtask);
+        updateSubtask.setStatus(Task.TaskStatus.DONE);
+        TaskBulkRequestDto request = new TaskBulkRequestDto();
+        request.setOperations(List.of(onTask(OperationType.DELETE, existingTask.getId()), updateSubtask));
+
+        // Act
+        TaskBulkResultDto result = taskBulkService.execute(request);
+
+        // Assert
+        assertEquals(1, result.getSucceeded());
+        assertEquals("La tarea se elimina en esta misma operación", result.getResults().get(1).getError());
+        verify(taskRepository, never()).deleteAll(any());
+        verify(eventPublisher).publishEvent(TaskChange.deleted(existingTask.getId()));
+        verify(eventPublisher).publishEvent(TaskChange.deleted(subtask));
+        verify(activityRecorder).deleted(ActivityEntityType.TASK, subtask, null, project.getId());
+    }
+
+    @Test
+    @DisplayName("Varios DELETE se resuelven con una lectura de la clausura, un flush y un solo DELETE")
+    void testExecute_DeletesBatched() {
+        // Arrange: la segunda operación borra un ancestro de la primera
+        Task parent = new Task();
+        parent.setId(UUID.randomUUID());
+        parent.setProject(project);
+        when(projectRepository.findAllById(any())).thenReturn(List.of());
+        when(taskRepository.findAllById(any())).thenReturn(List.of(existingTask, parent));
+        Set<UUID> roots = Set.of(existingTask.getId(), parent.getId());
+        when(taskRepository.findSubtreeIds(roots)).thenReturn(List.of(
+                new Object[]{existingTask.getId(), existingTask.getId()},
+                new Object[]{parent.getId(), parent.getId()},
+                new Object[]{parent.getId(), existingTask.getId()}));
+        when(taskRepository.deleteSubtreesReturningIds(roots)).thenReturn(List.of(existingTask.getId(), parent.getId()));
+
+        TaskBulkRequestDto request = new TaskBulkRequestDto();
+        request.setOperations(List.of(onTask(OperationType.DELETE, existingTask.getId()),
+                onTask(OperationType.DELETE, parent.getId())));
+
+        // Act
+        TaskBulkResultDto result = taskBulkService.execute(request);
+
+        // Assert: cada tarea se publica una sola vez
+        assertEquals(2, result.getSucceeded());
+        verify(taskRepository, times(1)).flush();
+        verify(taskRepository, times(1)).deleteSubtreesReturningIds(any());
+        verify(taskRepository, never()).deleteSubtreeReturningIds(any());
+        verify(eventPublisher, times(1)).publishEvent(TaskChange.deleted(existingTask.getId()));
+        verify(eventPublisher, times(1)).publishEvent(TaskChange.deleted(parent.getId()));
+    }
+
+    @Test
+    @DisplayName("CREATE con parentId crea subtareas y rechaza por elemento los padres no válidos")
+    void testExecute_CreateSubtasks() {
+        // Arrange
+        Project other = new Project();
+        other.setId(UUID.randomUUID());
+        when(projectRepository.findAllById(any())).thenReturn(List.of(project, other));
+        when(taskRepository.findAllById(any())).thenReturn(List.of(existingTask));
+
+        Operation child = create(project.getId(), "Subtarea uno");
+        child.setParentId(existingTask.getId());
+        Operation sibling = create(project.getId(), "Subtarea dos");
+        sibling.setParentId(existingTask.getId());
+        Operation otherProject = create(other.getId(), "En otro proyecto");
+        otherProject.setParentId(existingTask.getId());
+        Operation missingParent = create(project.getId(), "Sin padre");
+        missingParent.setParentId(UUID.randomUUID());
+        TaskBulkRequestDto request = new TaskBulkRequestDto();
+        request.setOperations(List.of(child, sibling, otherProject, missingParent));
+
+        // Act
+        TaskBulkResultDto result = taskBulkService.execute(request);
+
+        // Assert: el padre se comprueba una vez para todas sus subtareas
+        assertEquals(2, result.getSucceeded());
+        assertEquals(existingTask.getId(), child.getTask().getParentId());
+        assertEquals("Una subtarea debe estar en el proyecto de su tarea padre", result.getResults().get(2).getError());
+        assertEquals("Tarea padre no encontrada", result.getResults().get(3).getError());
+        verify(taskHierarchyService, times(1)).checkNewSubtask(project.getId(), existingTask.getId());
+    }
+
+    @Test
+    @DisplayName("CREATE valida los campos personalizados por elemento y guarda {} si vienen a null")
+    void testExecute_CreateValidatesCustomFields() {
+        // Arrange
+        CustomFieldDefinition points = new CustomFieldDefinition(UUID.randomUUID(), project.getId(), "points",
+                "Puntos", CustomFieldDefinition.FieldType.NUMBER, null, LocalDateTime.now());
+        when(projectRepository.findAllById(any())).thenReturn(List.of(project));
+        when(taskRepository.findAllById(any())).thenReturn(List.of());
+        when(customFieldService.definitionsByProject(Set.of(project.getId())))
+                .thenReturn(Map.of(project.getId(), Map.of("points", points)));
+
+        Operation valid = create(project.getId(), "Con puntos");
+        valid.getTask().setCustomFields(new HashMap<>(Map.of("points", 5)));
+        Operation undefined = create(project.getId(), "Campo no definido");
+        undefined.getTask().setCustomFields(new HashMap<>(Map.of("sprint", "S1")));
+        Operation wrongType = create(project.getId(), "Tipo incorrecto");
+        wrongType.getTask().setCustomFields(new HashMap<>(Map.of("points", "cinco")));
+        Operation nullFields = create(project.getId(), "Sin campos");
+        nullFields.getTask().setCustomFields(null);
+        TaskBulkRequestDto request = new TaskBulkRequestDto();
+        request.setOperations(List.of(valid, undefined, wrongType, nullFields));
+
+        // Act
+        TaskBulkResultDto result = taskBulkService.execute(request);
+
+        // Assert
+        assertEquals(2, result.getSucceeded());
+        assertFalse(result.getResults().get(1).isSuccess());
+        assertFalse(result.getResults().get(2).isSuccess());
+        assertEquals(Map.of("points", new BigDecimal("5")), valid.getTask().getCustomFields());
+        assertEquals(Map.of(), nullFields.getTask().getCustomFields());
+        verify(customFieldService, times(1)).definitionsByProject(any());
+    }
+}
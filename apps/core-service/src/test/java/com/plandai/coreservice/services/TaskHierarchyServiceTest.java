@@ -0,0 +1,118 @@
+package com.plandai.coreservice.services;
+
+import com.plandai.coreservice.activity.ActivityRecorder;
+import com.plandai.coreservice.dto.SubtaskProgressDto;
+import com.plandai.coreservice.repositories.TaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para TaskHierarchyService
+ * Valida: límite de niveles, rechazo de ciclos y progreso acumulado
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TaskHierarchyService - Subtareas con tabla de clausura")
+class TaskHierarchyServiceTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ActivityRecorder activityRecorder;
+
+    private TaskHierarchyService service;
+    private final UUID projectId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        service = new TaskHierarchyService(taskRepository, jdbcTemplate, eventPublisher, activityRecorder, 3);
+    }
+
+    /**
+     * Simula la fila de NODE_SQL de una tarea: proyecto, padre, nivel y altura.
+     */
+    private void givenNode(UUID taskId, UUID parentId, int depth, int height) {
+        when(jdbcTemplate.query(contains("max(a.depth)"), any(RowMapper.class), eq(taskId))).thenAnswer(invocation -> {
+            ResultSet rs = mock(ResultSet.class);
+            when(rs.getObject(1, UUID.class)).thenReturn(projectId);
+            when(rs.getObject(2, UUID.class)).thenReturn(parentId);
+            when(rs.getInt(3)).thenReturn(depth);
+            when(rs.getInt(4)).thenReturn(height);
+            return List.of(invocation.<RowMapper<?>>getArgument(1).mapRow(rs, 0));
+        });
+    }
+
+    private void givenProjectLock() {
+        when(jdbcTemplate.queryForList(contains("FOR NO KEY UPDATE"), eq(UUID.class), eq(projectId)))
+                .thenReturn(List.of(projectId));
+    }
+
+    @Test
+    @DisplayName("Debe rechazar un movimiento que supera el máximo de niveles contando la altura del subárbol")
+    void testMoveSubtree_MaxDepth() {
+        // Arrange: padre en el nivel 1 + la tarea + 2 niveles por debajo = 4 > 3
+        UUID taskId = UUID.randomUUID();
+        UUID parentId = UUID.randomUUID();
+        givenProjectLock();
+        givenNode(taskId, null, 0, 2);
+        givenNode(parentId, UUID.randomUUID(), 1, 0);
+        when(jdbcTemplate.queryForObject(contains("count(*)"), eq(Long.class), eq(taskId), eq(parentId)))
+                .thenReturn(0L);
+
+        // Act & Assert
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> service.moveSubtree(taskId, parentId));
+        assertTrue(e.getMessage().contains("3 niveles"));
+        verify(taskRepository, never()).reparentReturning(any(), any());
+    }
+
+    @Test
+    @DisplayName("Debe rechazar colgar una tarea de su propia subtarea")
+    void testMoveSubtree_Cycle() {
+        // Arrange
+        UUID taskId = UUID.randomUUID();
+        UUID descendantId = UUID.randomUUID();
+        givenProjectLock();
+        givenNode(taskId, null, 0, 1);
+        givenNode(descendantId, taskId, 1, 0);
+        when(jdbcTemplate.queryForObject(contains("count(*)"), eq(Long.class), eq(taskId), eq(descendantId)))
+                .thenReturn(1L);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> service.moveSubtree(taskId, descendantId));
+        verify(taskRepository, never()).reparentReturning(any(), any());
+        verifyNoInteractions(eventPublisher, activityRecorder);
+    }
+
+    @Test
+    @DisplayName("El progreso cuenta subtareas a cualquier nivel; sin subtareas refleja la propia tarea")
+    void testProgress() {
+        UUID taskId = UUID.randomUUID();
+
+        assertEquals(new SubtaskProgressDto(taskId, 8, 6, 75), SubtaskProgressDto.of(taskId, 8, 6, false));
+        assertEquals(new SubtaskProgressDto(taskId, 3, 1, 33), SubtaskProgressDto.of(taskId, 3, 1, true));
+        assertEquals(100, SubtaskProgressDto.of(taskId, 0, 0, true).percent());
+        assertEquals(0, SubtaskProgressDto.of(taskId, 0, 0, false).percent());
+    }
+}
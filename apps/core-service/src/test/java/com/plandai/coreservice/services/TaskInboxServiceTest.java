@@ -0,0 +1,67 @@
+package com.plandai.coreservice.services;
+
+import com.plandai.coreservice.dto.InboxItemDto;
+import com.plandai.coreservice.pagination.CursorPage;
+import com.plandai.coreservice.repositories.TaskRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para TaskInboxService
+ * Valida: top-K con cursor y puntuaciones estables entre páginas
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TaskInboxService - Bandeja de entrada priorizada")
+class TaskInboxServiceTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    private Object[] row(UUID id, double score) {
+        return new Object[]{id, "Tarea", "TO_DO", "HIGH", null, UUID.randomUUID(), score};
+    }
+
+    @Test
+    @DisplayName("Debe paginar por (score, id) manteniendo el instante de la primera página")
+    void testGetInbox_CursorKeepsAsOf() {
+        // Arrange
+        Clock clock = Clock.fixed(Instant.parse("2025-12-01T09:00:00Z"), ZoneOffset.UTC);
+        LocalDateTime asOf = LocalDateTime.now(clock);
+        TaskInboxService service = new TaskInboxService(taskRepository, clock);
+        UUID userId = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        when(taskRepository.findInbox(userId, asOf, 3))
+                .thenReturn(List.of(row(UUID.randomUUID(), 75.5), row(second, 61.25), row(UUID.randomUUID(), 40.0)));
+
+        // Act: primera página de 2
+        CursorPage<InboxItemDto> first = service.getInbox(userId, null, 2);
+
+        // Assert
+        assertEquals(2, first.items().size());
+        assertEquals(75.5, first.items().get(0).score());
+        assertNotNull(first.next());
+
+        // Act: la segunda página continúa tras (61.25, second) con el mismo asOf
+        when(taskRepository.findInboxAfter(userId, asOf, 61.25, second, 3))
+                .thenReturn(List.<Object[]>of(row(UUID.randomUUID(), 40.0)));
+        CursorPage<InboxItemDto> next = service.getInbox(userId, first.next(), 2);
+
+        // Assert
+        assertEquals(1, next.items().size());
+        assertNull(next.next());
+        verify(taskRepository).findInboxAfter(userId, asOf, 61.25, second, 3);
+    }
+}
@@ -0,0 +1,176 @@
+package com.plandai.coreservice.services;
+
+import com.plandai.coreservice.activity.ActivityEntityType;
+import com.plandai.coreservice.activity.ActivityRecorder;
+import com.plandai.coreservice.changes.TaskChange;
+import com.plandai.coreservice.entities.Project;
+import com.plandai.coreservice.entities.Task;
+import com.plandai.coreservice.exception.ResourceNotFoundException;
+import com.plandai.coreservice.repositories.TaskRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para TaskService
+ * Valida: cambios de estado, asignación y borrado en una sola llamada al repositorio, y 404 si no existe
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TaskService - Escrituras en una sola sentencia")
+class TaskServiceTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private ProjectService projectService;
+
+    @Mock
+    private ProjectTaskStatsService projectTaskStatsService;
+
+    @Mock
+    private TaskRankService taskRankService;
+
+    @Mock
+    private CustomFieldService customFieldService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ActivityRecorder activityRecorder;
+
+    @InjectMocks
+    private TaskService taskService;
+
+    @Test
+    @DisplayName("Debe cambiar el estado con un único UPDATE ... RETURNING")
+    void testUpdateTaskStatus_SingleStatement() {
+        // Arrange
+        UUID id = UUID.randomUUID();
+        Task updated = new Task();
+        updated.setId(id);
+        updated.setStatus(Task.TaskStatus.DONE);
+        updated.setProject(new Project());
+        when(taskRepository.updateStatusReturning(id, "DONE")).thenReturn(Optional.of(updated));
+
+        // Act
+        Task result = taskService.updateTaskStatus(id, Task.TaskStatus.DONE);
+
+        // Assert
+        assertEquals(Task.TaskStatus.DONE, result.getStatus());
+        verify(taskRepository).updateStatusReturning(id, "DONE");
+        verifyNoMoreInteractions(taskRepository);
+        verify(eventPublisher).publishEvent(TaskChange.saved(updated));
+    }
+
+    @Test
+    @DisplayName("Debe lanzar 404 (ResourceNotFoundException) al buscar una tarea inexistente")
+    void testGetTaskById_NotFound() {
+        // Arrange
+        UUID id = UUID.randomUUID();
+        when(taskRepository.findById(id)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> taskService.getTaskById(id));
+        assertThrows(ResourceNotFoundException.class, () -> taskService.updateTask(id, new Task()));
+    }
+
+    @Test
+    @DisplayName("Al cambiar de estado con PUT la tarea pasa al final de la nueva columna")
+    void testUpdateTask_StatusChangeAppendsRank() {
+        // Arrange
+        Task existing = new Task();
+        existing.setId(UUID.randomUUID());
+        existing.setTitle("Tarea");
+        existing.setStatus(Task.TaskStatus.TO_DO);
+        existing.setProject(new Project());
+        when(taskRepository.findById(existing.getId())).thenReturn(Optional.of(existing));
+        when(taskRepository.save(existing)).thenReturn(existing);
+
+        Task sameColumn = new Task();
+        sameColumn.setTitle("Tarea renombrada");
+        sameColumn.setStatus(Task.TaskStatus.TO_DO);
+        Task otherColumn = new Task();
+        otherColumn.setTitle("Tarea renombrada");
+        otherColumn.setStatus(Task.TaskStatus.DONE);
+
+        // Act
+        taskService.updateTask(existing.getId(), sameColumn);
+        verify(taskRankService, never()).appendRanks(any());
+        taskService.updateTask(existing.getId(), otherColumn);
+
+        // Assert
+        verify(taskRankService).appendRanks(List.of(existing));
+    }
+
+    @Test
+    @DisplayName("Debe asignar con un único UPDATE ... RETURNING y publicar el cambio")
+    void testAssignTask_PublishesChange() {
+        // Arrange
+        UUID id = UUID.randomUUID();
+        UUID userId = UUID.randomUUID();
+        Task assigned = new Task();
+        assigned.setId(id);
+        assigned.setAssignedTo(userId);
+        assigned.setProject(new Project());
+        when(taskRepository.assignReturning(id, userId)).thenReturn(Optional.of(assigned));
+
+        // Act
+        taskService.assignTask(id, userId);
+
+        // Assert
+        verify(taskRepository).assignReturning(id, userId);
+        verifyNoMoreInteractions(taskRepository);
+        verify(eventPublisher).publishEvent(TaskChange.saved(assigned));
+    }
+
+    @Test
+    @DisplayName("Debe lanzar 404 al asignar una tarea inexistente sin consultas adicionales")
+    void testAssignTask_NotFound() {
+        // Arrange
+        UUID id = UUID.randomUUID();
+        UUID userId = UUID.randomUUID();
+        when(taskRepository.assignReturning(id, userId)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> taskService.assignTask(id, userId));
+        verify(taskRepository).assignReturning(id, userId);
+        verifyNoMoreInteractions(taskRepository);
+    }
+
+    @Test
+    @DisplayName("Debe borrar el subárbol con un único DELETE, registrarlo con su proyecto y lanzar 404 si no borró filas")
+    void testDeleteTask_SingleStatement() {
+        // Arrange
+        UUID existing = UUID.randomUUID();
+        UUID subtask = UUID.randomUUID();
+        UUID missing = UUID.randomUUID();
+        UUID projectId = UUID.randomUUID();
+        when(taskRepository.deleteSubtreeReturningIds(existing)).thenReturn(List.of(
+                new Object[]{existing, projectId}, new Object[]{subtask, projectId}));
+        when(taskRepository.deleteSubtreeReturningIds(missing)).thenReturn(List.of());
+
+        // Act & Assert
+        taskService.deleteTask(existing);
+        assertThrows(ResourceNotFoundException.class, () -> taskService.deleteTask(missing));
+        verify(taskRepository, times(2)).deleteSubtreeReturningIds(any());
+        verifyNoMoreInteractions(taskRepository);
+        verify(eventPublisher).publishEvent(TaskChange.deleted(existing));
+        verify(eventPublisher).publishEvent(TaskChange.deleted(subtask));
+        verify(activityRecorder).deleted(ActivityEntityType.TASK, existing, null, projectId);
+        verify(activityRecorder).deleted(ActivityEntityType.TASK, subtask, null, projectId);
+    }
+}
@@ -0,0 +1,143 @@
+package com.plandai.coreservice.services;
+
+import com.plandai.coreservice.dto.TimesheetDto;
+import com.plandai.coreservice.entities.TimeEntry;
+import com.plandai.coreservice.exception.ResourceNotFoundException;
+import com.plandai.coreservice.repositories.TaskRepository;
+import com.plandai.coreservice.repositories.TimeEntryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para TimeTrackingService
+ * Valida: un temporizador en marcha por usuario, hoja de horas semanal y CSV
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TimeTrackingService - Registro de tiempo")
+class TimeTrackingServiceTest {
+
+    @Mock
+    private TimeEntryRepository timeEntryRepository;
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private TimeTrackingService service;
+    private final UUID userId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        // Miércoles 10/12/2025
+        Clock clock = Clock.fixed(Instant.parse("2025-12-10T12:00:00Z"), ZoneOffset.UTC);
+        service = new TimeTrackingService(timeEntryRepository, taskRepository, jdbcTemplate, transactionTemplate,
+                clock, 1000);
+    }
+
+    @Test
+    @DisplayName("Con un temporizador en marcha el inicio falla con 400, y con una tarea inexistente con 404")
+    void testStartTimer_Conflict() {
+        // Arrange
+        UUID taskId = UUID.randomUUID();
+        UUID missingTaskId = UUID.randomUUID();
+        when(timeEntryRepository.startReturning(any(), any(), eq(userId))).thenReturn(Optional.empty());
+        when(taskRepository.existsById(taskId)).thenReturn(true);
+        when(taskRepository.existsById(missingTaskId)).thenReturn(false);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> service.startTimer(userId, taskId, false));
+        assertThrows(ResourceNotFoundException.class, () -> service.startTimer(userId, missingTaskId, false));
+        verify(timeEntryRepository, never()).stopReturning(any());
+    }
+
+    @Test
+    @DisplayName("Con stopRunning debe parar el temporizador anterior antes de iniciar el nuevo")
+    void testStartTimer_StopRunning() {
+        // Arrange
+        UUID taskId = UUID.randomUUID();
+        TimeEntry started = new TimeEntry();
+        when(timeEntryRepository.stopReturning(userId)).thenReturn(Optional.of(new TimeEntry()));
+        when(timeEntryRepository.startReturning(any(), eq(taskId), eq(userId))).thenReturn(Optional.of(started));
+
+        // Act
+        TimeEntry result = service.startTimer(userId, taskId, true);
+
+        // Assert
+        assertSame(started, result);
+        InOrder inOrder = inOrder(timeEntryRepository);
+        inOrder.verify(timeEntryRepository).stopReturning(userId);
+        inOrder.verify(timeEntryRepository).startReturning(any(), eq(taskId), eq(userId));
+        verifyNoInteractions(taskRepository);
+    }
+
+    @Test
+    @DisplayName("La hoja de horas agrupa por tarea y día desde el lunes de la semana actual")
+    void testWeeklyTimesheet() throws Exception {
+        // Arrange: filas (tarea, título, día, segundos) tal como las agrupa la consulta
+        UUID taskA = UUID.randomUUID();
+        UUID taskB = UUID.randomUUID();
+        Object[][] rows = {
+                {taskA, "Diseño", LocalDate.of(2025, 12, 8), 3600L},
+                {taskA, "Diseño", LocalDate.of(2025, 12, 10), 1800L},
+                {taskB, "Login", LocalDate.of(2025, 12, 10), 600L}
+        };
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (Object[] row : rows) {
+                ResultSet rs = mock(ResultSet.class);
+                when(rs.getObject(1, UUID.class)).thenReturn((UUID) row[0]);
+                when(rs.getString(2)).thenReturn((String) row[1]);
+                when(rs.getObject(3, LocalDate.class)).thenReturn((LocalDate) row[2]);
+                when(rs.getLong(4)).thenReturn((Long) row[3]);
+                handler.processRow(rs);
+            }
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), eq(userId), any(), any());
+
+        // Act
+        TimesheetDto sheet = service.getWeeklyTimesheet(userId, null);
+
+        // Assert
+        assertEquals(LocalDate.of(2025, 12, 8), sheet.weekStart());
+        assertEquals(2, sheet.rows().size());
+        assertEquals(5400L, sheet.rows().get(0).totalSeconds());
+        assertEquals(7, sheet.dailySeconds().size());
+        assertEquals(2400L, sheet.dailySeconds().get(LocalDate.of(2025, 12, 10)));
+        assertEquals(0L, sheet.dailySeconds().get(LocalDate.of(2025, 12, 14)));
+        assertEquals(6000L, sheet.totalSeconds());
+    }
+
+    @Test
+    @DisplayName("Los campos CSV con separadores o comillas se entrecomillan")
+    void testCsvEscaping() {
+        assertEquals("", TimeTrackingService.csv(null));
+        assertEquals("revisión", TimeTrackingService.csv("revisión"));
+        assertEquals("\"a, b\"", TimeTrackingService.csv("a, b"));
+        assertEquals("\"dijo \"\"hola\"\"\"", TimeTrackingService.csv("dijo \"hola\""));
+    }
+}
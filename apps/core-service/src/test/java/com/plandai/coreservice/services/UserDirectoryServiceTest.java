@@ -0,0 +1,109 @@
+package com.plandai.coreservice.services;
+
+import com.plandai.coreservice.dto.UserSummaryDto;
+import com.plandai.coreservice.entities.Task;
+import com.plandai.coreservice.entities.UserDirectoryEntry;
+import com.plandai.coreservice.repositories.UserDirectoryRepository;
+import com.plandai.coreservice.security.AuthenticatedUser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para UserDirectoryService
+ * Valida: escrituras por lotes solo cuando cambian los datos y enriquecimiento con una consulta
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("UserDirectoryService - Directorio local de usuarios")
+class UserDirectoryServiceTest {
+
+    @Mock
+    private UserDirectoryRepository userDirectoryRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private UserDirectoryService userDirectoryService;
+
+    @BeforeEach
+    void setUp() {
+        userDirectoryService = new UserDirectoryService(userDirectoryRepository, jdbcTemplate, 100);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    @DisplayName("Debe escribir en un solo lote y solo los usuarios nuevos o cambiados")
+    void testRecordSeen_BatchesChangesOnly() {
+        // Arrange
+        AuthenticatedUser ana = new AuthenticatedUser(UUID.randomUUID(), "ana@plandai.com", "Ana");
+        AuthenticatedUser luis = new AuthenticatedUser(UUID.randomUUID(), "luis@plandai.com", "Luis");
+
+        // Act: muchas peticiones con los mismos datos
+        for (int i = 0; i < 10; i++) {
+            userDirectoryService.recordSeen(ana);
+            userDirectoryService.recordSeen(luis);
+        }
+        userDirectoryService.flush();
+        userDirectoryService.recordSeen(ana);
+        userDirectoryService.flush();
+
+        // Assert
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(),
+                argThat((Collection<UserSummaryDto> batch) -> batch.size() == 2),
+                eq(2), any(ParameterizedPreparedStatementSetter.class));
+        verifyNoMoreInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("Debe enriquecer tareas con la LRU y una sola consulta para los que faltan")
+    void testWithAssignees_SingleQueryForMisses() {
+        // Arrange
+        AuthenticatedUser cached = new AuthenticatedUser(UUID.randomUUID(), "ana@plandai.com", "Ana");
+        userDirectoryService.recordSeen(cached);
+        UUID unknownId = UUID.randomUUID();
+        UUID storedId = UUID.randomUUID();
+        when(userDirectoryRepository.findAllById(Set.of(unknownId, storedId))).thenReturn(List.of(
+                new UserDirectoryEntry(storedId, "luis@plandai.com", "Luis", LocalDateTime.now())));
+
+        Task t1 = task(cached.userId());
+        Task t2 = task(storedId);
+        Task t3 = task(storedId);
+        Task t4 = task(unknownId);
+        Task t5 = task(null);
+
+        // Act
+        userDirectoryService.withAssignees(List.of(t1, t2, t3, t4, t5));
+        userDirectoryService.withAssignees(List.of(task(storedId)));
+
+        // Assert
+        assertEquals("Ana", t1.getAssignee().displayName());
+        assertEquals("Luis", t2.getAssignee().displayName());
+        assertEquals("luis@plandai.com", t3.getAssignee().email());
+        assertNull(t4.getAssignee());
+        assertNull(t5.getAssignee());
+        verify(userDirectoryRepository, times(1)).findAllById(any());
+    }
+
+    private Task task(UUID assignedTo) {
+        Task task = new Task();
+        task.setId(UUID.randomUUID());
+        task.setTitle("Tarea");
+        task.setAssignedTo(assignedTo);
+        return task;
+    }
+}
@@ -1,5 +1,6 @@
 package com.plandai.coreservice.services;
 
+import com.plandai.coreservice.activity.ActivityRecorder;
 import com.plandai.coreservice.entities.Workspace;
 import com.plandai.coreservice.repositories.WorkspaceRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -30,6 +31,9 @@ class WorkspaceServiceTest {
     @Mock
     private WorkspaceRepository workspaceRepository;
 
+    @Mock
+    private ActivityRecorder activityRecorder;
+
     @InjectMocks
     private WorkspaceService workspaceService;
 
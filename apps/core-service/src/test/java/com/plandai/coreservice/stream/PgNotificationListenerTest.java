@@ -0,0 +1,106 @@
+package com.plandai.coreservice.stream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para PgNotificationListener
+ * Valida: los eventos de Spring salen de la cola (no del hilo de LISTEN) y el desbordamiento publica TaskStreamGap
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PgNotificationListener - Reparto de cambios de tareas")
+class PgNotificationListenerTest {
+
+    @Mock
+    private ChangeStreamHub hub;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private SimpleMeterRegistry meterRegistry;
+    private PgNotificationListener listener;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        listener = new PgNotificationListener(new DataSourceProperties(), hub, eventPublisher,
+                new ObjectMapper().registerModule(new JavaTimeModule()), meterRegistry, 1000, 1000, 2);
+    }
+
+    private static String payload(UUID taskId) {
+        return "{\"op\":\"UPDATED\",\"taskId\":\"" + taskId + "\",\"projectId\":\"" + UUID.randomUUID() + "\"}";
+    }
+
+    @Test
+    @DisplayName("Debe entregar al hub en el acto y publicar el evento solo desde la cola")
+    void testDispatch_QueuesSpringEvent() {
+        // Arrange
+        UUID taskId = UUID.randomUUID();
+
+        // Act
+        listener.dispatch(payload(taskId));
+
+        // Assert
+        verify(hub).publish(any(TaskDelta.class));
+        verifyNoInteractions(eventPublisher);
+
+        listener.drainEvents();
+        ArgumentCaptor<Object> event = ArgumentCaptor.forClass(Object.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(taskId, ((TaskDelta) event.getValue()).taskId());
+    }
+
+    @Test
+    @DisplayName("Con la cola llena debe descartar los pendientes y publicar TaskStreamGap antes del nuevo cambio")
+    void testDispatch_OverflowPublishesGap() {
+        // Arrange
+        UUID last = UUID.randomUUID();
+
+        // Act
+        listener.dispatch(payload(UUID.randomUUID()));
+        listener.dispatch(payload(UUID.randomUUID()));
+        listener.dispatch(payload(last));
+        listener.drainEvents();
+
+        // Assert
+        ArgumentCaptor<Object> events = ArgumentCaptor.forClass(Object.class);
+        verify(eventPublisher, times(2)).publishEvent(events.capture());
+        List<Object> published = events.getAllValues();
+        assertInstanceOf(TaskStreamGap.class, published.get(0));
+        assertEquals(last, ((TaskDelta) published.get(1)).taskId());
+        verify(hub, times(3)).publish(any(TaskDelta.class));
+        assertEquals(1.0, meterRegistry.counter("stream.notify.events.overflow").count());
+    }
+
+    @Test
+    @DisplayName("El fallo de un consumidor no debe detener el reparto")
+    void testPublishNext_ConsumerFailure() {
+        // Arrange
+        doThrow(new IllegalStateException("fallo")).doNothing().when(eventPublisher).publishEvent(any(Object.class));
+        listener.dispatch(payload(UUID.randomUUID()));
+        listener.dispatch(payload(UUID.randomUUID()));
+
+        // Act
+        listener.drainEvents();
+
+        // Assert
+        verify(eventPublisher, times(2)).publishEvent(any(Object.class));
+    }
+}
@@ -0,0 +1,108 @@
+package com.plandai.coreservice.stream;
+
+import com.plandai.coreservice.entities.Task;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitarios para SseSubscriber
+ * Valida: coalescencia por tarea, resync al desbordar la cola y un solo envío activo
+ */
+@DisplayName("SseSubscriber - Cola acotada por cliente SSE")
+class SseSubscriberTest {
+
+    private final UUID projectId = UUID.randomUUID();
+
+    /**
+     * Executor manual: los envíos solo se ejecutan cuando el test lo decide (cliente "lento").
+     */
+    private static class ManualExecutor implements Executor {
+        private final Queue<Runnable> tasks = new ArrayDeque<>();
+
+        @Override
+        public void execute(Runnable task) {
+            tasks.add(task);
+        }
+
+        void runAll() {
+            while (!tasks.isEmpty()) {
+                tasks.poll().run();
+            }
+        }
+    }
+
+    /**
+     * Emitter que guarda el texto de cada evento enviado.
+     */
+    private static class RecordingEmitter extends SseEmitter {
+        private final List<String> events = new ArrayList<>();
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            StringBuilder text = new StringBuilder();
+            builder.build().forEach(part -> text.append(part.getData()));
+            events.add(text.toString());
+        }
+
+        long count(String eventName) {
+            return events.stream().filter(event -> event.contains("event:" + eventName + "\n")).count();
+        }
+    }
+
+    private TaskDelta delta(UUID taskId, Task.TaskStatus status) {
+        return new TaskDelta(TaskDelta.Op.UPDATED, taskId, projectId, null, "Tarea", status,
+                Task.TaskPriority.MEDIUM, null, null, null, "V", null);
+    }
+
+    @Test
+    @DisplayName("Debe enviar solo el último cambio de cada tarea a un cliente lento")
+    void testOffer_CoalescesPerTask() {
+        // Arrange
+        ManualExecutor executor = new ManualExecutor();
+        RecordingEmitter emitter = new RecordingEmitter();
+        SseSubscriber subscriber = new SseSubscriber(projectId, emitter, 10, executor, closed -> { });
+        UUID taskA = UUID.randomUUID();
+        UUID taskB = UUID.randomUUID();
+
+        // Act: 3 cambios de A y 1 de B antes de que el envío llegue a ejecutarse
+        subscriber.offer(delta(taskA, Task.TaskStatus.TO_DO));
+        subscriber.offer(delta(taskA, Task.TaskStatus.IN_PROGRESS));
+        subscriber.offer(delta(taskB, Task.TaskStatus.TO_DO));
+        subscriber.offer(delta(taskA, Task.TaskStatus.DONE));
+        assertEquals(1, executor.tasks.size(), "Un solo envío programado por suscriptor");
+        executor.runAll();
+
+        // Assert
+        assertEquals(2, emitter.count(SseSubscriber.DELTA_EVENT));
+        assertTrue(emitter.events.get(0).contains("DONE"), "Se envía el estado final de A");
+    }
+
+    @Test
+    @DisplayName("Debe sustituir la cola por un único resync al desbordarse")
+    void testOffer_OverflowSendsResync() {
+        // Arrange
+        ManualExecutor executor = new ManualExecutor();
+        RecordingEmitter emitter = new RecordingEmitter();
+        SseSubscriber subscriber = new SseSubscriber(projectId, emitter, 2, executor, closed -> { });
+
+        // Act
+        for (int i = 0; i < 5; i++) {
+            subscriber.offer(delta(UUID.randomUUID(), Task.TaskStatus.TO_DO));
+        }
+        executor.runAll();
+
+        // Assert
+        assertEquals(1, emitter.count(SseSubscriber.RESYNC_EVENT));
+        assertEquals(0, emitter.count(SseSubscriber.DELTA_EVENT));
+    }
+}
@@ -0,0 +1,146 @@
+package com.plandai.coreservice.tags;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitarios para TagIndex y TagExpression
+ * Valida: gramática de expresiones, evaluación con bits y forma IN / NOT IN del resultado
+ */
+@DisplayName("TagIndex - Índice de etiquetas en memoria")
+class TagIndexTest {
+
+    private final UUID backend = UUID.randomUUID();
+    private final UUID urgente = UUID.randomUUID();
+    private final UUID bloqueada = UUID.randomUUID();
+
+    private final UUID t1 = UUID.randomUUID(); // backend, urgente
+    private final UUID t2 = UUID.randomUUID(); // backend, bloqueada
+    private final UUID t3 = UUID.randomUUID(); // urgente
+
+    private TagIndex index() {
+        return TagIndex.build(3,
+                List.of(new TagIndex.TagRef(backend, "Backend"), new TagIndex.TagRef(urgente, "urgente"),
+                        new TagIndex.TagRef(bloqueada, "bloqueada")),
+                List.of(new TagIndex.Assignment(t1, backend), new TagIndex.Assignment(t1, urgente),
+                        new TagIndex.Assignment(t2, backend), new TagIndex.Assignment(t2, bloqueada),
+                        new TagIndex.Assignment(t3, urgente)));
+    }
+
+    private static Set<UUID> set(TagMatch match) {
+        return new HashSet<>(match.taskIds());
+    }
+
+    @Test
+    @DisplayName("AND liga más que OR y los operadores no distinguen mayúsculas")
+    void testParse_Precedence() {
+        TagExpression parsed = TagExpression.parse("a or b AND not c");
+
+        assertEquals(new TagExpression.Or(new TagExpression.Tag("a"),
+                new TagExpression.And(new TagExpression.Tag("b"), new TagExpression.Not(new TagExpression.Tag("c")))),
+                parsed);
+        assertEquals(new TagExpression.Tag("and"), TagExpression.parse("\"and\""));
+        assertEquals(new TagExpression.Tag("cliente vip"), TagExpression.parse("\"cliente vip\""));
+    }
+
+    @Test
+    @DisplayName("Las expresiones mal formadas se rechazan con IllegalArgumentException")
+    void testParse_Invalid() {
+        for (String invalid : List.of("", "a AND", "(a OR b", "a b", "NOT", "a )", "\"sin cerrar", "OR a")) {
+            assertThrows(IllegalArgumentException.class, () -> TagExpression.parse(invalid), invalid);
+        }
+    }
+
+    @Test
+    @DisplayName("Una expresión que no cumplen las tareas sin etiquetas devuelve las que cumplen")
+    void testEvaluate_Positive() {
+        TagIndex index = index();
+
+        TagMatch match = index.evaluate(TagExpression.parse("BACKEND and (urgente OR bloqueada)"));
+        assertFalse(match.exclude());
+        assertEquals(Set.of(t1, t2), set(match));
+
+        assertEquals(Set.of(t1, t3), set(index.evaluate(TagExpression.parse("urgente"))));
+        assertTrue(index.evaluate(TagExpression.parse("inexistente")).taskIds().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Con NOT se devuelven las etiquetadas que NO cumplen (las sin etiquetas cumplen)")
+    void testEvaluate_Negated() {
+        TagIndex index = index();
+
+        TagMatch match = index.evaluate(TagExpression.parse("NOT bloqueada"));
+        assertTrue(match.exclude());
+        assertEquals(Set.of(t2), set(match));
+
+        // backend OR NOT urgente: t1, t2 y las sin etiquetas cumplen; solo t3 queda fuera
+        TagMatch mixed = index.evaluate(TagExpression.parse("backend OR NOT urgente"));
+        assertTrue(mixed.exclude());
+        assertEquals(Set.of(t3), set(mixed));
+    }
+
+    @Test
+    @DisplayName("Los cambios incrementales equivalen a recargar el índice")
+    void testIncrementalChanges_MatchRebuild() {
+        TagIndex index = index();
+        UUID t4 = UUID.randomUUID();
+
+        index.tag(t4, bloqueada, 4);
+        index.untag(t2, bloqueada, 5);
+        assertTrue(index.removeTask(t1));
+
+        assertEquals(5, index.version());
+        assertFalse(index.contains(t1));
+        assertEquals(Set.of(t4), set(index.evaluate(TagExpression.parse("bloqueada"))));
+        assertEquals(Set.of(t2), set(index.evaluate(TagExpression.parse("backend AND NOT urgente"))));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    @DisplayName("La evaluación con bits coincide con evaluar tarea a tarea")
+    void testEvaluate_MatchesBruteForce() {
+        // Arrange: 500 tareas con etiquetas al azar
+        java.util.Random random = new java.util.Random(11);
+        List<TagIndex.TagRef> tags = List.of(new TagIndex.TagRef(UUID.randomUUID(), "a"),
+                new TagIndex.TagRef(UUID.randomUUID(), "b"), new TagIndex.TagRef(UUID.randomUUID(), "c"));
+        List<TagIndex.Assignment> assignments = new ArrayList<>();
+        List<Set<String>> tagsOf = new ArrayList<>();
+        List<UUID> tasks = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            UUID task = UUID.randomUUID();
+            Set<String> names = new HashSet<>();
+            for (TagIndex.TagRef tag : tags) {
+                if (random.nextInt(3) == 0) {
+                    assignments.add(new TagIndex.Assignment(task, tag.id()));
+                    names.add(tag.name());
+                }
+            }
+            tasks.add(task);
+            tagsOf.add(names);
+        }
+        TagIndex index = TagIndex.build(0, tags, assignments);
+
+        // Act & Assert: (a AND NOT b) OR c, y su negación
+        for (String text : List.of("(a AND NOT b) OR c", "NOT ((a AND NOT b) OR c)")) {
+            TagMatch match = index.evaluate(TagExpression.parse(text));
+            Set<UUID> ids = set(match);
+            for (int i = 0; i < tasks.size(); i++) {
+                Set<String> names = tagsOf.get(i);
+                boolean expected = (names.contains("a") && !names.contains("b")) || names.contains("c");
+                if (text.startsWith("NOT")) {
+                    expected = !expected;
+                }
+                boolean actual = match.exclude() != ids.contains(tasks.get(i));
+                assertEquals(expected, actual, text + " en la tarea " + i + " con " + names);
+            }
+        }
+    }
+}
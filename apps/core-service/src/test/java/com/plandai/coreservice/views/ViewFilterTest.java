@@ -0,0 +1,134 @@
+package com.plandai.coreservice.views;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.plandai.coreservice.dto.TaskFilterDto;
+import com.plandai.coreservice.entities.Task.TaskPriority;
+import com.plandai.coreservice.entities.Task.TaskStatus;
+import com.plandai.coreservice.pagination.CursorPage;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitarios para ViewFilter y ViewResultSet
+ * Valida: comprobación en memoria de una tarea, su equivalente en SQL y la paginación de resultados
+ */
+@DisplayName("ViewFilter - Vistas guardadas en memoria")
+class ViewFilterTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 12, 11);
+
+    private final UUID workspaceId = UUID.randomUUID();
+    private final UUID projectId = UUID.randomUUID();
+    private final UUID userId = UUID.randomUUID();
+    private final Function<UUID, UUID> workspaceOf = project -> project.equals(projectId) ? workspaceId : null;
+
+    private TaskFacts task(TaskStatus status, TaskPriority priority, LocalDate dueDate) {
+        return new TaskFacts(projectId, status, priority, dueDate, userId);
+    }
+
+    private ViewFilter overdueUrgent() {
+        return new ViewFilter(workspaceId, null, userId, null, Set.of(TaskPriority.HIGH, TaskPriority.URGENT),
+                null, null, true, null);
+    }
+
+    @Test
+    @DisplayName("Vencidas: fecha límite anterior a hoy y sin completar")
+    void testMatches_Overdue() {
+        ViewFilter filter = overdueUrgent();
+
+        assertTrue(filter.matches(task(TaskStatus.TO_DO, TaskPriority.URGENT, TODAY.minusDays(1)), workspaceOf, TODAY));
+        assertFalse(filter.matches(task(TaskStatus.TO_DO, TaskPriority.URGENT, TODAY), workspaceOf, TODAY));
+        assertFalse(filter.matches(task(TaskStatus.DONE, TaskPriority.URGENT, TODAY.minusDays(3)), workspaceOf, TODAY));
+        assertFalse(filter.matches(task(TaskStatus.TO_DO, TaskPriority.LOW, TODAY.minusDays(3)), workspaceOf, TODAY));
+        assertFalse(filter.matches(task(TaskStatus.TO_DO, TaskPriority.URGENT, null), workspaceOf, TODAY));
+        assertFalse(filter.matches(new TaskFacts(UUID.randomUUID(), TaskStatus.TO_DO, TaskPriority.URGENT,
+                TODAY.minusDays(1), userId), workspaceOf, TODAY), "otro workspace");
+        // Al cambiar de día la misma tarea entra: por eso las vistas relativas se recalculan
+        assertTrue(filter.isRelative());
+        assertTrue(filter.matches(task(TaskStatus.TO_DO, TaskPriority.URGENT, TODAY), workspaceOf, TODAY.plusDays(1)));
+    }
+
+    @Test
+    @DisplayName("El filtro SQL resuelve las fechas relativas y quita DONE de las vencidas")
+    void testToTaskFilter() {
+        TaskFilterDto overdue = overdueUrgent().toTaskFilter(TODAY);
+        assertEquals(Set.of(TaskStatus.TO_DO, TaskStatus.IN_PROGRESS), overdue.getStatus());
+        assertEquals(TODAY.minusDays(1), overdue.getDueTo());
+        assertNull(overdue.getDueFrom());
+        assertEquals(workspaceId, overdue.getWorkspaceId());
+
+        ViewFilter nextWeek = new ViewFilter(null, projectId, null, null, null, null, TODAY.plusDays(3), false, 7);
+        TaskFilterDto upcoming = nextWeek.toTaskFilter(TODAY);
+        assertNull(upcoming.getStatus());
+        assertEquals(TODAY, upcoming.getDueFrom());
+        assertEquals(TODAY.plusDays(3), upcoming.getDueTo());
+
+        ViewFilter impossible = new ViewFilter(null, projectId, null, Set.of(TaskStatus.DONE), null, null, null,
+                true, null);
+        assertNull(impossible.toTaskFilter(TODAY));
+    }
+
+    @Test
+    @DisplayName("Una vista sin acotar o con fechas incoherentes se rechaza")
+    void testValidate() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new ViewFilter(null, null, null, null, null, null, null, true, null).validate());
+        assertThrows(IllegalArgumentException.class,
+                () -> new ViewFilter(null, projectId, null, null, null, TODAY, TODAY.minusDays(1), false, null)
+                        .validate());
+        assertThrows(IllegalArgumentException.class,
+                () -> new ViewFilter(null, projectId, null, null, null, null, null, false, -1).validate());
+        assertDoesNotThrow(() -> overdueUrgent().validate());
+    }
+
+    @Test
+    @DisplayName("El filtro se guarda en JSON sin propiedades derivadas")
+    void testJsonRoundTrip() throws Exception {
+        // Mismo ObjectMapper que usa Hibernate para las columnas JSON
+        ObjectMapper json = new ObjectMapper().findAndRegisterModules();
+        ViewFilter filter = new ViewFilter(null, projectId, null, Set.of(TaskStatus.TO_DO), null,
+                TODAY, null, false, 7);
+
+        String text = json.writeValueAsString(filter);
+
+        assertFalse(text.contains("relative"));
+        assertEquals(filter, json.readValue(text, ViewFilter.class));
+    }
+
+    @Test
+    @DisplayName("Los resultados se paginan por fecha de creación con cursor y se mantienen al añadir y quitar")
+    void testResultSetPaging() {
+        // Arrange
+        ViewResultSet results = new ViewResultSet();
+        LocalDateTime base = LocalDateTime.of(2025, 12, 1, 9, 0);
+        List<UUID> ids = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+        for (int i = ids.size() - 1; i >= 0; i--) {
+            results.add(ids.get(i), base.plusMinutes(i));
+        }
+
+        // Act
+        CursorPage<UUID> first = results.page(null, 3);
+        CursorPage<UUID> second = results.page(first.next(), 3);
+
+        // Assert
+        assertEquals(ids.subList(0, 3), first.items());
+        assertEquals(List.of(ids.get(3)), second.items());
+        assertNull(second.next());
+
+        assertTrue(results.remove(ids.get(1)));
+        assertFalse(results.remove(ids.get(1)));
+        assertFalse(results.add(ids.get(0), base.plusMinutes(10)), "ya estaba: solo cambia su posición");
+        assertEquals(List.of(ids.get(2), ids.get(3), ids.get(0)), results.page(null, 10).items());
+        assertEquals(3, results.size());
+        assertThrows(IllegalArgumentException.class, () -> results.page("no-es-un-cursor", 10));
+    }
+}
@@ -0,0 +1,92 @@
+package com.plandai.coreservice.workload;
+
+import com.plandai.coreservice.dto.WorkloadDto;
+import com.plandai.coreservice.entities.Task.TaskPriority;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitarios para WorkloadIndex
+ * Valida: contadores por persona al asignar, cambiar y cerrar tareas, y tramos de vencimiento
+ */
+@DisplayName("WorkloadIndex - Carga de trabajo en memoria")
+class WorkloadIndexTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 12, 12);
+
+    private final UUID ana = UUID.randomUUID();
+    private final UUID luis = UUID.randomUUID();
+    private final UUID t1 = UUID.randomUUID();
+    private final UUID t2 = UUID.randomUUID();
+    private final UUID t3 = UUID.randomUUID();
+
+    private WorkloadIndex index() {
+        return WorkloadIndex.build(TODAY, Map.of(
+                t1, new WorkloadIndex.Entry(ana, TaskPriority.HIGH, TODAY.minusDays(1), 120),
+                t2, new WorkloadIndex.Entry(ana, TaskPriority.LOW, null, null),
+                t3, new WorkloadIndex.Entry(luis, TaskPriority.URGENT, TODAY.plusDays(10), 30)));
+    }
+
+    @Test
+    @DisplayName("Cuenta tareas abiertas por prioridad, tramo y minutos estimados")
+    void testBuild() {
+        WorkloadDto load = index().of(ana);
+
+        assertEquals(2, load.openTasks());
+        assertEquals(1, load.byPriority().get(TaskPriority.HIGH));
+        assertEquals(0, load.byPriority().get(TaskPriority.URGENT));
+        assertEquals(1, load.byDueWindow().get(DueWindow.OVERDUE));
+        assertEquals(1, load.byDueWindow().get(DueWindow.NO_DATE));
+        assertEquals(120, load.estimatedMinutes());
+        assertEquals(1, load.unestimatedTasks());
+        assertEquals(2, index().snapshot().size());
+    }
+
+    @Test
+    @DisplayName("Reasignar resta a quien la tenía y cerrar la quita; repetir un cambio no descuadra")
+    void testPut() {
+        // Arrange
+        WorkloadIndex index = index();
+        WorkloadIndex.Entry reassigned = new WorkloadIndex.Entry(luis, TaskPriority.HIGH, TODAY, 60);
+
+        // Act
+        index.put(t1, reassigned);
+        index.put(t1, reassigned);
+        index.put(t3, null);
+        index.put(t3, null);
+
+        // Assert
+        assertEquals(1, index.of(ana).openTasks());
+        assertEquals(0, index.of(ana).estimatedMinutes());
+        WorkloadDto luisLoad = index.of(luis);
+        assertEquals(1, luisLoad.openTasks());
+        assertEquals(60, luisLoad.estimatedMinutes());
+        assertEquals(1, luisLoad.byDueWindow().get(DueWindow.THIS_WEEK));
+        assertEquals(0, luisLoad.byPriority().get(TaskPriority.URGENT));
+        assertEquals(Map.of(t1, reassigned, t2, index.entries().get(t2)), index.entries());
+
+        index.put(t2, null);
+        index.put(t1, null);
+        assertTrue(index.snapshot().isEmpty());
+        assertEquals(0, index.of(ana).openTasks());
+    }
+
+    @Test
+    @DisplayName("Al cambiar de día las tareas pasan de tramo sin recargar")
+    void testRebucket() {
+        WorkloadIndex index = index();
+
+        index.rebucket(TODAY.plusDays(4));
+
+        assertEquals(1, index.of(luis).byDueWindow().get(DueWindow.THIS_WEEK));
+        assertEquals(0, index.of(luis).byDueWindow().get(DueWindow.LATER));
+        assertEquals(1, index.of(ana).byDueWindow().get(DueWindow.OVERDUE));
+        assertEquals(TODAY.plusDays(4), index.day());
+    }
+}